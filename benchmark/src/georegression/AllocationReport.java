@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Runs the BenchmarkAllocation* benchmarks with JMH's GC profiler and saves a table containing the number of
+ * bytes allocated on the heap each time an operation is invoked.  Operations which can be implemented without
+ * declaring new memory should have a value of zero.  Rows are sorted by name and values are rounded to the
+ * nearest byte so that tables generated for different releases can be compared with diff.
+ * </p>
+ *
+ * <p>
+ * Usage: AllocationReport &lt;output file&gt; [benchmark regex]
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class AllocationReport {
+
+	/** Regex which selects all the allocation benchmarks */
+	public static final String DEFAULT_INCLUDE = ".*\\.BenchmarkAllocation.*";
+
+	/** Suffix of the secondary result which stores the normalized allocation rate, i.e. bytes per operation */
+	public static final String ALLOC_NORM = "gc.alloc.rate.norm";
+
+	public static void main( String args[] ) throws RunnerException, FileNotFoundException {
+		if( args.length < 1 ) {
+			System.out.println("AllocationReport <output file> [benchmark regex]");
+			System.exit(1);
+		}
+
+		File output = new File(args[0]);
+		String include = args.length > 1 ? args[1] : DEFAULT_INCLUDE;
+
+		Options opt = new OptionsBuilder()
+				.include(include)
+				.addProfiler(GCProfiler.class)
+				.mode(Mode.AverageTime)
+				.timeUnit(TimeUnit.NANOSECONDS)
+				.build();
+
+		Collection<RunResult> results = new Runner(opt).run();
+
+		Map<String,Long> table = createTable(results);
+
+		if( output.getAbsoluteFile().getParentFile() != null )
+			output.getAbsoluteFile().getParentFile().mkdirs();
+
+		PrintStream out = new PrintStream(output);
+		print(table, out);
+		out.close();
+
+		print(table, System.out);
+	}
+
+	/**
+	 * Extracts the number of bytes allocated per operation from each result.  Results without allocation
+	 * information are skipped.
+	 *
+	 * @return Map from operation name to bytes per operation, sorted by name.
+	 */
+	public static Map<String,Long> createTable( Collection<RunResult> results ) {
+		Map<String,Long> table = new TreeMap<String, Long>();
+
+		for( RunResult r : results ) {
+			Result alloc = null;
+			for( Map.Entry<String,Result> e : r.getSecondaryResults().entrySet() ) {
+				if( e.getKey().endsWith(ALLOC_NORM) ) {
+					alloc = e.getValue();
+					break;
+				}
+			}
+			if( alloc == null )
+				continue;
+
+			table.put(operationName(r.getParams()), Math.round(alloc.getScore()));
+		}
+
+		return table;
+	}
+
+	/**
+	 * Name of the benchmark without the library's package followed by its parameters, if any.
+	 */
+	public static String operationName( BenchmarkParams params ) {
+		String name = params.getBenchmark();
+		if( name.startsWith("georegression.") )
+			name = name.substring("georegression.".length());
+
+		List<String> keys = new ArrayList<String>(params.getParamsKeys());
+		Collections.sort(keys);
+		for( String key : keys ) {
+			name += ":" + key + "=" + params.getParam(key);
+		}
+
+		return name;
+	}
+
+	/**
+	 * Prints the table in a format which is easy to compare with diff
+	 */
+	public static void print( Map<String,Long> table , PrintStream out ) {
+		int width = 10;
+		for( String name : table.keySet() )
+			width = Math.max(width, name.length());
+
+		out.printf("%-" + width + "s %10s\n", "Operation", "bytes/op");
+		for( Map.Entry<String,Long> e : table.entrySet() ) {
+			out.printf("%-" + width + "s %10d\n", e.getKey(), e.getValue());
+		}
+	}
+}
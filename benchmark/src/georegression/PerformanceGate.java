@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * Performance regression gate.  A small curated set of benchmarks, see {@link #BENCHMARKS}, is run and the results
+ * saved in JMH's JSON format.  The results can be saved as the baseline for a release or compared against an
+ * existing baseline.  If any operation is slower than its baseline by more than the threshold then it is
+ * considered a regression and the application exits with a non-zero value, causing the build to fail.  An
+ * operation is only a regression if it's still slower after accounting for the measurement error in both results,
+ * so noise alone won't fail the build.
+ * </p>
+ *
+ * <p>
+ * Usage:
+ * <pre>
+ * PerformanceGate baseline &lt;output.json&gt;
+ * PerformanceGate check &lt;baseline.json&gt; &lt;output.json&gt; [threshold]
+ * PerformanceGate compare &lt;baseline.json&gt; &lt;current.json&gt; [threshold]
+ * </pre>
+ * 'check' runs the benchmarks then compares them, 'compare' only compares two existing result files.  The
+ * threshold is a fraction, e.g. 0.1 means an operation can be 10% slower before it's a regression.
+ * </p>
+ *
+ * <p>
+ * Baselines are only meaningful when created on the same hardware and JVM as the results they are
+ * compared against.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PerformanceGate {
+
+	/** Default fractional increase in run time which is considered a regression */
+	public static final double DEFAULT_THRESHOLD = 0.10;
+
+	/**
+	 * Benchmarks in the gate, relative to the georegression package.  Operations which depend on EJML or DDogleg
+	 * and are used in latency sensitive code.  Kept small so that the gate runs in a couple of minutes.
+	 */
+	public static final String[] BENCHMARKS = {
+			"fitting.se.BenchmarkMotionSe3PointSVD_F64.process",
+			"fitting.se.BenchmarkMotionSe3PointSVD_F64.processFixed",
+			"fitting.affine.BenchmarkMotionAffinePoint2D_F64.process",
+			"fitting.plane.BenchmarkFitPlane3D_F64.svd",
+			"metric.BenchmarkIntersection2D_F64.containConcave"
+	};
+
+	/**
+	 * Runs the benchmarks in the gate and saves the results to the specified file in JSON format.  Problem
+	 * sizes are fixed so that the results are comparable, e.g. MotionSe3PointSVD_F64 is run with 1000 points
+	 * and Intersection2D_F64.containConcave with a 500 vertex polygon.
+	 */
+	public static void runBenchmarks( File output ) throws RunnerException {
+		if( output.getAbsoluteFile().getParentFile() != null )
+			output.getAbsoluteFile().getParentFile().mkdirs();
+
+		OptionsBuilder builder = new OptionsBuilder();
+		for( String name : BENCHMARKS ) {
+			builder.include("^" + Pattern.quote("georegression." + name) + "$");
+		}
+
+		Options opt = builder
+				.mode(Mode.AverageTime)
+				.timeUnit(TimeUnit.MICROSECONDS)
+				.param("size", "1000")
+				.param("vertexes", "500")
+				.forks(1)
+				.warmupIterations(5)
+				.warmupTime(TimeValue.seconds(1))
+				.measurementIterations(10)
+				.measurementTime(TimeValue.seconds(1))
+				.resultFormat(ResultFormatType.JSON)
+				.result(output.getPath())
+				.build();
+
+		new Runner(opt).run();
+	}
+
+	/**
+	 * Loads results saved by JMH in JSON format
+	 *
+	 * @return Map from a unique name for each result to its score
+	 */
+	public static Map<String,Score> load( File file ) throws IOException {
+		Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+		JsonElement root;
+		try {
+			root = new JsonParser().parse(reader);
+		} finally {
+			reader.close();
+		}
+
+		Map<String,Score> results = new TreeMap<String, Score>();
+
+		for( JsonElement e : root.getAsJsonArray() ) {
+			JsonObject o = e.getAsJsonObject();
+			JsonObject metric = o.get("primaryMetric").getAsJsonObject();
+
+			Score s = new Score();
+			s.mode = o.get("mode").getAsString();
+			s.score = metric.get("score").getAsDouble();
+			s.error = metric.has("scoreError") ? metric.get("scoreError").getAsDouble() : 0;
+			// JMH can't compute the error with a single iteration
+			if( Double.isNaN(s.error) )
+				s.error = 0;
+			s.unit = metric.get("scoreUnit").getAsString();
+
+			String name = o.get("benchmark").getAsString();
+			if( name.startsWith("georegression.") )
+				name = name.substring("georegression.".length());
+
+			if( o.has("params") ) {
+				Map<String,String> params = new TreeMap<String, String>();
+				for( Map.Entry<String,JsonElement> p : o.get("params").getAsJsonObject().entrySet() ) {
+					params.put(p.getKey(), p.getValue().getAsString());
+				}
+				for( Map.Entry<String,String> p : params.entrySet() ) {
+					name += ":" + p.getKey() + "=" + p.getValue();
+				}
+			}
+
+			results.put(name + " " + s.mode, s);
+		}
+
+		return results;
+	}
+
+	/**
+	 * Compares the current results against the baseline and prints a summary of each operation.  An operation
+	 * regressed if {@link Score#slowdownMinimum} is more than the threshold.
+	 *
+	 * @param threshold Fractional increase in run time which is considered a regression.
+	 * @return Number of operations which regressed
+	 */
+	public static int compare( Map<String,Score> baseline , Map<String,Score> current ,
+							   double threshold , PrintStream out ) {
+		int width = 10;
+		for( String name : current.keySet() )
+			width = Math.max(width, name.length());
+
+		out.printf("%-" + width + "s %12s %12s %9s %9s\n", "Operation", "Baseline", "Current", "Change", "Minimum");
+
+		int regressions = 0;
+		for( Map.Entry<String,Score> e : current.entrySet() ) {
+			Score c = e.getValue();
+			Score b = baseline.get(e.getKey());
+
+			if( b == null ) {
+				out.printf("%-" + width + "s %12s %12.4g %9s\n", e.getKey(), "-", c.score, "NEW");
+				continue;
+			}
+			if( !b.unit.equals(c.unit) ) {
+				out.printf("%-" + width + "s units changed from %s to %s.  Skipping\n", e.getKey(), b.unit, c.unit);
+				continue;
+			}
+
+			double change = c.slowdown(b);
+			double minimum = c.slowdownMinimum(b);
+			String status = minimum > threshold ? "  REGRESSION" : "";
+			if( minimum > threshold )
+				regressions++;
+
+			out.printf("%-" + width + "s %12.4g %12.4g %8.1f%% %8.1f%%%s\n",
+					e.getKey(), b.score, c.score, 100.0*change, 100.0*minimum, status);
+		}
+
+		for( String name : baseline.keySet() ) {
+			if( !current.containsKey(name) )
+				out.printf("%-" + width + "s %12.4g %12s %9s\n", name, baseline.get(name).score, "-", "MISSING");
+		}
+
+		out.println();
+		out.printf("Regressions %d  threshold %.1f%%\n", regressions, 100.0*threshold);
+
+		return regressions;
+	}
+
+	/**
+	 * Score for a single benchmark
+	 */
+	public static class Score {
+		/** JMH's abbreviation for the benchmark mode, e.g. avgt or thrpt */
+		public String mode;
+		public double score;
+		/** Half width of JMH's 99.9% confidence interval */
+		public double error;
+		public String unit;
+
+		/**
+		 * Fractional increase in run time relative to the baseline.  Positive values mean it got slower.
+		 */
+		public double slowdown( Score baseline ) {
+			// for throughput larger values are better, for the other modes it's the time per operation
+			if( mode.equals("thrpt") )
+				return baseline.score/score - 1.0;
+			else
+				return score/baseline.score - 1.0;
+		}
+
+		/**
+		 * Smallest fractional increase in run time which is consistent with the measurement error in both scores,
+		 * i.e. the current result at its fastest compared against the baseline at its slowest.
+		 */
+		public double slowdownMinimum( Score baseline ) {
+			if( mode.equals("thrpt") )
+				return (baseline.score - baseline.error)/(score + error) - 1.0;
+			else
+				return (score - error)/(baseline.score + baseline.error) - 1.0;
+		}
+	}
+
+	private static double threshold( String args[] , int index ) {
+		return args.length > index ? Double.parseDouble(args[index]) : DEFAULT_THRESHOLD;
+	}
+
+	private static void printUsage() {
+		System.out.println("PerformanceGate baseline <output.json>");
+		System.out.println("PerformanceGate check <baseline.json> <output.json> [threshold]");
+		System.out.println("PerformanceGate compare <baseline.json> <current.json> [threshold]");
+		System.exit(1);
+	}
+
+	public static void main( String args[] ) throws RunnerException, IOException {
+		if( args.length < 2 )
+			printUsage();
+
+		String command = args[0];
+
+		if( command.equals("baseline") ) {
+			runBenchmarks(new File(args[1]));
+			return;
+		} else if( args.length < 3 ) {
+			printUsage();
+		}
+
+		File baselineFile = new File(args[1]);
+		File currentFile = new File(args[2]);
+
+		if( !baselineFile.exists() ) {
+			System.err.println("Can't find baseline " + baselineFile.getPath());
+			System.exit(1);
+		}
+
+		if( command.equals("check") ) {
+			runBenchmarks(currentFile);
+		} else if( !command.equals("compare") ) {
+			printUsage();
+		}
+
+		int regressions = compare(load(baselineFile), load(currentFile), threshold(args, 3), System.out);
+
+		if( regressions > 0 )
+			System.exit(1);
+	}
+}
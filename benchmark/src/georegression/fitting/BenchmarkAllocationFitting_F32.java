@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import georegression.fitting.affine.MotionAffinePoint2D_F32;
+import georegression.fitting.cylinder.FitCylinderToPoints_F32;
+import georegression.fitting.line.FitLine_F32;
+import georegression.fitting.plane.FitPlane3D_F32;
+import georegression.fitting.se.FitSpecialEuclideanOps_F32;
+import georegression.fitting.se.MotionSe2PointSVD_F32;
+import georegression.fitting.se.MotionSe3PointSVD_F32;
+import georegression.fitting.sphere.FitSphereToPoints_F32;
+import georegression.geometry.UtilPoint2D_F32;
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.affine.Affine2D_F32;
+import georegression.struct.line.LinePolar2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.Vector3D_F32;
+import georegression.struct.se.Se2_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.se.SpecialEuclideanOps_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
+import georegression.transform.affine.AffinePointOps_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invokes public operations in the fitting package once per call so that the number of bytes allocated
+ * per call can be measured.  Each fitting operation is given 100 points.  See {@link georegression.AllocationReport}.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkAllocationFitting_F32 {
+
+	int N = 100;
+
+	List<Point2D_F32> src2;
+	List<Point2D_F32> dstSe2 = new ArrayList<Point2D_F32>();
+	List<Point2D_F32> dstAffine = new ArrayList<Point2D_F32>();
+	List<Point3D_F32> src3;
+	List<Point3D_F32> dstSe3 = new ArrayList<Point3D_F32>();
+
+	List<Point2D_F32> linePoints = new ArrayList<Point2D_F32>();
+	List<Point3D_F32> planePoints = new ArrayList<Point3D_F32>();
+	List<Point3D_F32> spherePoints = new ArrayList<Point3D_F32>();
+	List<Point3D_F32> cylinderPoints = new ArrayList<Point3D_F32>();
+
+	MotionSe2PointSVD_F32 motionSe2 = new MotionSe2PointSVD_F32();
+	MotionSe3PointSVD_F32 motionSe3 = new MotionSe3PointSVD_F32();
+	MotionAffinePoint2D_F32 motionAffine = new MotionAffinePoint2D_F32();
+	FitPlane3D_F32 fitPlane = new FitPlane3D_F32();
+	FitSphereToPoints_F32 fitSphere = new FitSphereToPoints_F32(100);
+	FitCylinderToPoints_F32 fitCylinder = new FitCylinderToPoints_F32(100);
+
+	Sphere3D_F32 sphereInitial = new Sphere3D_F32(1.1f, 2.05f, 2.9f, 2.4f);
+	Cylinder3D_F32 cylinderInitial = new Cylinder3D_F32(0.95f, 2.1f, 3.05f, 0.05f, -0.001f, 1.05f, 2.6f);
+
+	// storage for outputs
+	LinePolar2D_F32 outLine = new LinePolar2D_F32();
+	Point3D_F32 outCenter = new Point3D_F32();
+	Vector3D_F32 outNormal = new Vector3D_F32();
+	Sphere3D_F32 outSphere = new Sphere3D_F32();
+	Cylinder3D_F32 outCylinder = new Cylinder3D_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		Se2_F32 se2 = new Se2_F32(1, -2, 0.3f);
+		Se3_F32 se3 = SpecialEuclideanOps_F32.setEulerXYZ(0.1f, -0.2f, 0.05f, 1, 2, -0.5f, null);
+		Affine2D_F32 affine = new Affine2D_F32(1.1f, 0.2f, -0.1f, 0.9f, 2, -3);
+
+		src2 = UtilPoint2D_F32.random(-1, 1, N, rand);
+		for( Point2D_F32 p : src2 ) {
+			dstSe2.add(SePointOps_F32.transform(se2, p, null));
+			dstAffine.add(AffinePointOps_F32.transform(affine, p, null));
+		}
+
+		src3 = UtilPoint3D_F32.random(-1, 1, N, rand);
+		for( Point3D_F32 p : src3 ) {
+			dstSe3.add(SePointOps_F32.transform(se3, p, null));
+		}
+
+		for( int i = 0; i < N; i++ ) {
+			float t = (rand.nextFloat()-0.5f)*4.0f;
+			linePoints.add(new Point2D_F32(1 + 0.5f*t, -2 + t));
+
+			float x = (rand.nextFloat()-0.5f)*4.0f;
+			float y = (rand.nextFloat()-0.5f)*4.0f;
+			planePoints.add(new Point3D_F32(x, y, 0.5f*x - 0.2f*y + 1));
+
+			float phi = rand.nextFloat()*GrlConstants.F_PI2;
+			float theta = (float)Math.acos(2.0f*rand.nextFloat()-1.0f);
+			spherePoints.add(new Point3D_F32(
+					1 + 2.5f*(float)Math.sin(theta)*(float)Math.cos(phi),
+					2 + 2.5f*(float)Math.sin(theta)*(float)Math.sin(phi),
+					3 + 2.5f*(float)Math.cos(theta)));
+
+			float h = (rand.nextFloat()-0.5f)*4.0f;
+			cylinderPoints.add(new Point3D_F32(1 + 2.5f*(float)Math.cos(phi), 2 + 2.5f*(float)Math.sin(phi), 3 + h));
+		}
+	}
+
+	@Benchmark
+	public Se2_F32 MotionSe2PointSVD_process() {
+		motionSe2.process(src2, dstSe2);
+		return motionSe2.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Se3_F32 MotionSe3PointSVD_process() {
+		motionSe3.process(src3, dstSe3);
+		return motionSe3.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Affine2D_F32 MotionAffinePoint2D_process() {
+		motionAffine.process(src2, dstAffine);
+		return motionAffine.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Se3_F32 FitSpecialEuclideanOps_fitPoints3D() {
+		return FitSpecialEuclideanOps_F32.fitPoints3D(src3, dstSe3);
+	}
+
+	@Benchmark
+	public LinePolar2D_F32 FitLine_polar() {
+		return FitLine_F32.polar(linePoints, outLine);
+	}
+
+	@Benchmark
+	public LinePolar2D_F32 FitLine_polar_null() {
+		return FitLine_F32.polar(linePoints, null);
+	}
+
+	@Benchmark
+	public Vector3D_F32 FitPlane3D_svd() {
+		fitPlane.svd(planePoints, outCenter, outNormal);
+		return outNormal;
+	}
+
+	@Benchmark
+	public Sphere3D_F32 FitSphereToPoints_fitModel() {
+		fitSphere.fitModel(spherePoints, sphereInitial, outSphere);
+		return outSphere;
+	}
+
+	@Benchmark
+	public Cylinder3D_F32 FitCylinderToPoints_fitModel() {
+		fitCylinder.fitModel(cylinderPoints, cylinderInitial, outCylinder);
+		return outCylinder;
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import georegression.fitting.affine.MotionAffinePoint2D_F64;
+import georegression.fitting.cylinder.FitCylinderToPoints_F64;
+import georegression.fitting.line.FitLine_F64;
+import georegression.fitting.plane.FitPlane3D_F64;
+import georegression.fitting.se.FitSpecialEuclideanOps_F64;
+import georegression.fitting.se.MotionSe2PointSVD_F64;
+import georegression.fitting.se.MotionSe3PointSVD_F64;
+import georegression.fitting.sphere.FitSphereToPoints_F64;
+import georegression.geometry.UtilPoint2D_F64;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.affine.Affine2D_F64;
+import georegression.struct.line.LinePolar2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.se.Se2_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import georegression.transform.affine.AffinePointOps_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invokes public operations in the fitting package once per call so that the number of bytes allocated
+ * per call can be measured.  Each fitting operation is given 100 points.  See {@link georegression.AllocationReport}.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkAllocationFitting_F64 {
+
+	int N = 100;
+
+	List<Point2D_F64> src2;
+	List<Point2D_F64> dstSe2 = new ArrayList<Point2D_F64>();
+	List<Point2D_F64> dstAffine = new ArrayList<Point2D_F64>();
+	List<Point3D_F64> src3;
+	List<Point3D_F64> dstSe3 = new ArrayList<Point3D_F64>();
+
+	List<Point2D_F64> linePoints = new ArrayList<Point2D_F64>();
+	List<Point3D_F64> planePoints = new ArrayList<Point3D_F64>();
+	List<Point3D_F64> spherePoints = new ArrayList<Point3D_F64>();
+	List<Point3D_F64> cylinderPoints = new ArrayList<Point3D_F64>();
+
+	MotionSe2PointSVD_F64 motionSe2 = new MotionSe2PointSVD_F64();
+	MotionSe3PointSVD_F64 motionSe3 = new MotionSe3PointSVD_F64();
+	MotionAffinePoint2D_F64 motionAffine = new MotionAffinePoint2D_F64();
+	FitPlane3D_F64 fitPlane = new FitPlane3D_F64();
+	FitSphereToPoints_F64 fitSphere = new FitSphereToPoints_F64(100);
+	FitCylinderToPoints_F64 fitCylinder = new FitCylinderToPoints_F64(100);
+
+	Sphere3D_F64 sphereInitial = new Sphere3D_F64(1.1, 2.05, 2.9, 2.4);
+	Cylinder3D_F64 cylinderInitial = new Cylinder3D_F64(0.95, 2.1, 3.05, 0.05, -0.001, 1.05, 2.6);
+
+	// storage for outputs
+	LinePolar2D_F64 outLine = new LinePolar2D_F64();
+	Point3D_F64 outCenter = new Point3D_F64();
+	Vector3D_F64 outNormal = new Vector3D_F64();
+	Sphere3D_F64 outSphere = new Sphere3D_F64();
+	Cylinder3D_F64 outCylinder = new Cylinder3D_F64();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		Se2_F64 se2 = new Se2_F64(1, -2, 0.3);
+		Se3_F64 se3 = SpecialEuclideanOps_F64.setEulerXYZ(0.1, -0.2, 0.05, 1, 2, -0.5, null);
+		Affine2D_F64 affine = new Affine2D_F64(1.1, 0.2, -0.1, 0.9, 2, -3);
+
+		src2 = UtilPoint2D_F64.random(-1, 1, N, rand);
+		for( Point2D_F64 p : src2 ) {
+			dstSe2.add(SePointOps_F64.transform(se2, p, null));
+			dstAffine.add(AffinePointOps_F64.transform(affine, p, null));
+		}
+
+		src3 = UtilPoint3D_F64.random(-1, 1, N, rand);
+		for( Point3D_F64 p : src3 ) {
+			dstSe3.add(SePointOps_F64.transform(se3, p, null));
+		}
+
+		for( int i = 0; i < N; i++ ) {
+			double t = (rand.nextDouble()-0.5)*4.0;
+			linePoints.add(new Point2D_F64(1 + 0.5*t, -2 + t));
+
+			double x = (rand.nextDouble()-0.5)*4.0;
+			double y = (rand.nextDouble()-0.5)*4.0;
+			planePoints.add(new Point3D_F64(x, y, 0.5*x - 0.2*y + 1));
+
+			double phi = rand.nextDouble()*GrlConstants.PI2;
+			double theta = (double)Math.acos(2.0*rand.nextDouble()-1.0);
+			spherePoints.add(new Point3D_F64(
+					1 + 2.5*(double)Math.sin(theta)*(double)Math.cos(phi),
+					2 + 2.5*(double)Math.sin(theta)*(double)Math.sin(phi),
+					3 + 2.5*(double)Math.cos(theta)));
+
+			double h = (rand.nextDouble()-0.5)*4.0;
+			cylinderPoints.add(new Point3D_F64(1 + 2.5*(double)Math.cos(phi), 2 + 2.5*(double)Math.sin(phi), 3 + h));
+		}
+	}
+
+	@Benchmark
+	public Se2_F64 MotionSe2PointSVD_process() {
+		motionSe2.process(src2, dstSe2);
+		return motionSe2.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Se3_F64 MotionSe3PointSVD_process() {
+		motionSe3.process(src3, dstSe3);
+		return motionSe3.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Affine2D_F64 MotionAffinePoint2D_process() {
+		motionAffine.process(src2, dstAffine);
+		return motionAffine.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Se3_F64 FitSpecialEuclideanOps_fitPoints3D() {
+		return FitSpecialEuclideanOps_F64.fitPoints3D(src3, dstSe3);
+	}
+
+	@Benchmark
+	public LinePolar2D_F64 FitLine_polar() {
+		return FitLine_F64.polar(linePoints, outLine);
+	}
+
+	@Benchmark
+	public LinePolar2D_F64 FitLine_polar_null() {
+		return FitLine_F64.polar(linePoints, null);
+	}
+
+	@Benchmark
+	public Vector3D_F64 FitPlane3D_svd() {
+		fitPlane.svd(planePoints, outCenter, outNormal);
+		return outNormal;
+	}
+
+	@Benchmark
+	public Sphere3D_F64 FitSphereToPoints_fitModel() {
+		fitSphere.fitModel(spherePoints, sphereInitial, outSphere);
+		return outSphere;
+	}
+
+	@Benchmark
+	public Cylinder3D_F64 FitCylinderToPoints_fitModel() {
+		fitCylinder.fitModel(cylinderPoints, cylinderInitial, outCylinder);
+		return outCylinder;
+	}
+}
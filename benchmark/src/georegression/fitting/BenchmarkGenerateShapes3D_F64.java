@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import georegression.fitting.cylinder.GenerateCylinder3D_F64;
+import georegression.fitting.plane.GeneratePlaneGeneral3D_F64;
+import georegression.fitting.sphere.GenerateSphere3D_F64;
+import georegression.struct.plane.PlaneGeneral3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for minimal sample shape generators, {@link GeneratePlaneGeneral3D_F64}, {@link GenerateSphere3D_F64},
+ * and {@link GenerateCylinder3D_F64}.  Each benchmark generates a hypothesis from every consecutive set of
+ * randomly generated points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkGenerateShapes3D_F64 {
+
+	@Param({"1000"})
+	public int size;
+
+	List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+	List<Vector3D_F64> normals = new ArrayList<Vector3D_F64>();
+
+	GeneratePlaneGeneral3D_F64 generatePlane = new GeneratePlaneGeneral3D_F64();
+	GenerateSphere3D_F64 generateSphere = new GenerateSphere3D_F64();
+	GenerateCylinder3D_F64 generateCylinder = new GenerateCylinder3D_F64();
+
+	PlaneGeneral3D_F64 plane = new PlaneGeneral3D_F64();
+	Sphere3D_F64 sphere = new Sphere3D_F64();
+	Cylinder3D_F64 cylinder = new Cylinder3D_F64();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		for( int i = 0; i < size+3; i++ ) {
+			points.add(new Point3D_F64(r(rand),r(rand),r(rand)));
+			normals.add(new Vector3D_F64(r(rand),r(rand),r(rand)));
+		}
+	}
+
+	private static double r( Random rand ) {
+		return rand.nextDouble()*2.0-1.0;
+	}
+
+	@Benchmark
+	public int plane() {
+		int total = 0;
+		for( int i = 0; i < size; i++ ) {
+			if( generatePlane.process(points.get(i), points.get(i+1), points.get(i+2), plane) )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int sphere() {
+		int total = 0;
+		for( int i = 0; i < size; i++ ) {
+			if( generateSphere.process(points.get(i), points.get(i+1), points.get(i+2), points.get(i+3), sphere) )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int cylinder() {
+		int total = 0;
+		for( int i = 0; i < size; i++ ) {
+			if( generateCylinder.process(points.get(i), normals.get(i), points.get(i+1), normals.get(i+1), cylinder) )
+				total++;
+		}
+		return total;
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.plane.PlaneGeneral3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link RansacPointCloud3D_F64} run in a single thread and concurrently.  The cloud contains a
+ * plane, a sphere, and uniformly distributed outliers.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkRansacPointCloud3D_F64 {
+
+	@Param({"100000"})
+	public int size;
+
+	@Param({"500"})
+	public int iterations;
+
+	PointCloud3D_F64 cloud;
+
+	RansacPointCloud3D_F64<PlaneGeneral3D_F64> plane;
+	RansacPointCloud3D_F64<Sphere3D_F64> sphere;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		cloud = new PointCloud3D_F64(size);
+		for( int i = 0; i < size; i++ ) {
+			double x = rand.nextDouble()*4.0-2.0;
+			double y = rand.nextDouble()*4.0-2.0;
+			switch( i % 3 ) {
+				case 0:
+					cloud.add(x, y, 0.5 + rand.nextGaussian()*0.01);
+					break;
+
+				case 1: {
+					double phi = rand.nextDouble()*GrlConstants.PI2;
+					double theta = rand.nextDouble()*GrlConstants.PI2;
+					double r = rand.nextGaussian()*0.01 + 1;
+					double sinPhi = Math.sin(phi);
+					double cosPhi = Math.cos(phi);
+					double sinTheta = Math.sin(theta);
+					double cosTheta = Math.cos(theta);
+					cloud.add(r*sinPhi*cosTheta, r*sinPhi*sinTheta, r*cosPhi - 1);
+				} break;
+
+				default:
+					cloud.add(x, y, rand.nextDouble()*4.0-2.0);
+			}
+		}
+
+		plane = RansacPointCloud3D_F64.createPlane(234, iterations, 0.05);
+		sphere = RansacPointCloud3D_F64.createSphere(234, iterations, 0.05);
+	}
+
+	@Benchmark
+	public boolean plane_single() {
+		plane.setConcurrent(false);
+		return plane.process(cloud);
+	}
+
+	@Benchmark
+	public boolean plane_concurrent() {
+		plane.setConcurrent(true);
+		return plane.process(cloud);
+	}
+
+	@Benchmark
+	public boolean sphere_single() {
+		sphere.setConcurrent(false);
+		return sphere.process(cloud);
+	}
+
+	@Benchmark
+	public boolean sphere_concurrent() {
+		sphere.setConcurrent(true);
+		return sphere.process(cloud);
+	}
+}
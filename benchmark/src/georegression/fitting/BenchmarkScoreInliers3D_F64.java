@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import georegression.fitting.cylinder.ScoreInliersCylinder3D_F64;
+import georegression.fitting.plane.ScoreInliersPlaneGeneral3D_F64;
+import georegression.fitting.sphere.ScoreInliersSphere3D_F64;
+import georegression.metric.Distance3D_F64;
+import georegression.struct.plane.PlaneGeneral3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for scoring inliers against a point cloud using {@link ScoreInliers3D_F64} and, as a baseline,
+ * {@link Distance3D_F64} one point at a time.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkScoreInliers3D_F64 {
+
+	@Param({"10000"})
+	public int size;
+
+	double threshold = 0.2;
+
+	PointCloud3D_F64 cloud;
+	List<Point3D_F64> points;
+
+	PlaneGeneral3D_F64 plane = new PlaneGeneral3D_F64(1,2,-0.5,0.3);
+	Sphere3D_F64 sphere = new Sphere3D_F64(0.1,-0.2,0.3,1);
+	Cylinder3D_F64 cylinder = new Cylinder3D_F64(0.1,0.2,-0.1,0.5,1,2,1);
+
+	ScoreInliersPlaneGeneral3D_F64 scorePlane = new ScoreInliersPlaneGeneral3D_F64(threshold);
+	ScoreInliersSphere3D_F64 scoreSphere = new ScoreInliersSphere3D_F64(threshold);
+	ScoreInliersCylinder3D_F64 scoreCylinder = new ScoreInliersCylinder3D_F64(threshold);
+
+	long[] mask;
+	GrowQueue_I32 indexes = new GrowQueue_I32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		cloud = new PointCloud3D_F64(size);
+		for( int i = 0; i < size; i++ ) {
+			cloud.add(r(rand), r(rand), r(rand));
+		}
+		points = cloud.toList(null);
+		mask = new long[(size+63)/64];
+
+		scorePlane.setModel(plane);
+		scoreSphere.setModel(sphere);
+		scoreCylinder.setModel(cylinder);
+	}
+
+	private static double r( Random rand ) {
+		return rand.nextDouble()*4.0-2.0;
+	}
+
+	@Benchmark
+	public int planeDistance() {
+		int total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			if( Math.abs(Distance3D_F64.distance(plane, points.get(i))) <= threshold )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int planeCount() {
+		return scorePlane.count(cloud);
+	}
+
+	@Benchmark
+	public int planeCountBest() {
+		return scorePlane.count(cloud, size/2);
+	}
+
+	@Benchmark
+	public int planeMask() {
+		return scorePlane.mask(cloud, mask);
+	}
+
+	@Benchmark
+	public int planeSelect() {
+		return scorePlane.select(cloud, indexes);
+	}
+
+	@Benchmark
+	public int sphereDistance() {
+		int total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			if( Math.abs(Distance3D_F64.distance(sphere, points.get(i))) <= threshold )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int sphereCount() {
+		return scoreSphere.count(cloud);
+	}
+
+	@Benchmark
+	public int cylinderDistance() {
+		int total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			if( Math.abs(Distance3D_F64.distance(cylinder, points.get(i))) <= threshold )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int cylinderCount() {
+		return scoreCylinder.count(cloud);
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.affine;
+
+import georegression.geometry.UtilPoint2D_F32;
+import georegression.struct.affine.Affine2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.transform.affine.AffinePointOps_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link MotionAffinePoint2D_F32} and {@link MotionAffinePoint2DAccumulator_F32} across different
+ * numbers of point correspondences.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkMotionAffinePoint2D_F32 {
+
+	@Param({"3","10","100","1000","10000"})
+	public int size;
+
+	List<Point2D_F32> src;
+	List<Point2D_F32> dst = new ArrayList<Point2D_F32>();
+
+	MotionAffinePoint2D_F32 alg = new MotionAffinePoint2D_F32();
+	MotionAffinePoint2DAccumulator_F32 accumulator = new MotionAffinePoint2DAccumulator_F32();
+	MotionAffinePoint2DAccumulator_F32 sliding = new MotionAffinePoint2DAccumulator_F32();
+	Affine2D_F32 found = new Affine2D_F32();
+	int index;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		Affine2D_F32 tran = new Affine2D_F32(2, -4, 0.3f, 1.1f, 0.93f, -3);
+
+		src = UtilPoint2D_F32.random(-1, 1, size, rand);
+		for( Point2D_F32 p : src ) {
+			dst.add(AffinePointOps_F32.transform(tran, p, null));
+		}
+		UtilPoint2D_F32.noiseNormal(dst, 0.001f, rand);
+		sliding.addAll(src, dst);
+	}
+
+	@Benchmark
+	public Affine2D_F32 process() {
+		alg.process(src, dst);
+		return alg.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Affine2D_F32 processAccumulator() {
+		accumulator.process(src, dst);
+		return accumulator.getTransformSrcToDst();
+	}
+
+	/**
+	 * Replaces one pair in the accumulator then solves, like a sliding window would
+	 */
+	@Benchmark
+	public Affine2D_F32 accumulatorUpdate() {
+		index = (index+1) % size;
+		sliding.remove(src.get(index), dst.get(index));
+		sliding.add(src.get(index), dst.get(index));
+		sliding.computeMotion(found);
+		return found;
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.affine;
+
+import georegression.geometry.UtilPoint2D_F64;
+import georegression.struct.affine.Affine2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.transform.affine.AffinePointOps_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link MotionAffinePoint2D_F64} and {@link MotionAffinePoint2DAccumulator_F64} across different
+ * numbers of point correspondences.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkMotionAffinePoint2D_F64 {
+
+	@Param({"3","10","100","1000","10000"})
+	public int size;
+
+	List<Point2D_F64> src;
+	List<Point2D_F64> dst = new ArrayList<Point2D_F64>();
+
+	MotionAffinePoint2D_F64 alg = new MotionAffinePoint2D_F64();
+	MotionAffinePoint2DAccumulator_F64 accumulator = new MotionAffinePoint2DAccumulator_F64();
+	MotionAffinePoint2DAccumulator_F64 sliding = new MotionAffinePoint2DAccumulator_F64();
+	Affine2D_F64 found = new Affine2D_F64();
+	int index;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		Affine2D_F64 tran = new Affine2D_F64(2, -4, 0.3, 1.1, 0.93, -3);
+
+		src = UtilPoint2D_F64.random(-1, 1, size, rand);
+		for( Point2D_F64 p : src ) {
+			dst.add(AffinePointOps_F64.transform(tran, p, null));
+		}
+		UtilPoint2D_F64.noiseNormal(dst, 0.001, rand);
+		sliding.addAll(src, dst);
+	}
+
+	@Benchmark
+	public Affine2D_F64 process() {
+		alg.process(src, dst);
+		return alg.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Affine2D_F64 processAccumulator() {
+		accumulator.process(src, dst);
+		return accumulator.getTransformSrcToDst();
+	}
+
+	/**
+	 * Replaces one pair in the accumulator then solves, like a sliding window would
+	 */
+	@Benchmark
+	public Affine2D_F64 accumulatorUpdate() {
+		index = (index+1) % size;
+		sliding.remove(src.get(index), dst.get(index));
+		sliding.add(src.get(index), dst.get(index));
+		sliding.computeMotion(found);
+		return found;
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link FitCylinderToPoints_F32} and {@link FitCylinderToPointsLM_F32} starting from a slightly
+ * perturbed initial model.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkFitCylinderToPoints_F32 {
+
+	@Param({"100","1000","10000"})
+	public int size;
+
+	List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+	PointCloud3D_F32 cloud;
+
+	Cylinder3D_F32 initial = new Cylinder3D_F32(0.95f,2.1f,3.05f,0.05f,-0.001f,1.05f,2.6f);
+	Cylinder3D_F32 found = new Cylinder3D_F32();
+
+	FitCylinderToPoints_F32 alg = new FitCylinderToPoints_F32(100);
+	FitCylinderToPointsLM_F32 algLM = new FitCylinderToPointsLM_F32(100);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// cylinder with an axis parallel to the z-axis passing through (1,2,3) and radius 2.5f
+		for( int i = 0; i < size; i++ ) {
+			float h = (rand.nextFloat()-0.5f)*4.0f;
+			float theta = rand.nextFloat()*GrlConstants.F_PI2;
+
+			points.add(new Point3D_F32(1 + 2.5f*(float)Math.cos(theta), 2 + 2.5f*(float)Math.sin(theta), 3 + h));
+		}
+		cloud = new PointCloud3D_F32(points);
+	}
+
+	@Benchmark
+	public Cylinder3D_F32 fitModel() {
+		alg.fitModel(points, initial, found);
+		return found;
+	}
+
+	@Benchmark
+	public Cylinder3D_F32 fitModelLM() {
+		algLM.fitModel(points, initial, found);
+		return found;
+	}
+
+	@Benchmark
+	public Cylinder3D_F32 fitModelLM_cloud() {
+		algLM.fitModel(cloud, initial, found);
+		return found;
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link FitCylinderToPoints_F64} and {@link FitCylinderToPointsLM_F64} starting from a slightly
+ * perturbed initial model.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkFitCylinderToPoints_F64 {
+
+	@Param({"100","1000","10000"})
+	public int size;
+
+	List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+	PointCloud3D_F64 cloud;
+
+	Cylinder3D_F64 initial = new Cylinder3D_F64(0.95,2.1,3.05,0.05,-0.001,1.05,2.6);
+	Cylinder3D_F64 found = new Cylinder3D_F64();
+
+	FitCylinderToPoints_F64 alg = new FitCylinderToPoints_F64(100);
+	FitCylinderToPointsLM_F64 algLM = new FitCylinderToPointsLM_F64(100);
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// cylinder with an axis parallel to the z-axis passing through (1,2,3) and radius 2.5
+		for( int i = 0; i < size; i++ ) {
+			double h = (rand.nextDouble()-0.5)*4.0;
+			double theta = rand.nextDouble()*GrlConstants.PI2;
+
+			points.add(new Point3D_F64(1 + 2.5*(double)Math.cos(theta), 2 + 2.5*(double)Math.sin(theta), 3 + h));
+		}
+		cloud = new PointCloud3D_F64(points);
+	}
+
+	@Benchmark
+	public Cylinder3D_F64 fitModel() {
+		alg.fitModel(points, initial, found);
+		return found;
+	}
+
+	@Benchmark
+	public Cylinder3D_F64 fitModelLM() {
+		algLM.fitModel(points, initial, found);
+		return found;
+	}
+
+	@Benchmark
+	public Cylinder3D_F64 fitModelLM_cloud() {
+		algLM.fitModel(cloud, initial, found);
+		return found;
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.ellipse;
+
+import georegression.geometry.UtilEllipse_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.EllipseQuadratic_F64;
+import georegression.struct.shapes.EllipseRotated_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link FitEllipseAlgebraic} across different numbers of points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkFitEllipseAlgebraic {
+
+	@Param({"10","100","1000","10000"})
+	public int size;
+
+	List<Point2D_F64> points = new ArrayList<Point2D_F64>();
+
+	FitEllipseAlgebraic alg = new FitEllipseAlgebraic();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		EllipseRotated_F64 ellipse = new EllipseRotated_F64(1,2,3,1.5,0.2);
+
+		for( int i = 0; i < size; i++ ) {
+			double t = rand.nextDouble()*GrlConstants.PI2;
+			Point2D_F64 p = UtilEllipse_F64.computePoint(t, ellipse, null);
+			p.x += rand.nextGaussian()*0.01;
+			p.y += rand.nextGaussian()*0.01;
+			points.add(p);
+		}
+	}
+
+	@Benchmark
+	public EllipseQuadratic_F64 process() {
+		alg.process(points);
+		return alg.getEllipse();
+	}
+}
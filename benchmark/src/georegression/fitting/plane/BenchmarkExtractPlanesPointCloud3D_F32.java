@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.fitting.RansacPointCloud3D_F32;
+import georegression.struct.plane.PlaneGeneral3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link ExtractPlanesPointCloud3D_F32} compared against repeatedly running RANSAC on the
+ * entire cloud and removing the inliers.  The cloud contains a row of boxes, each with a floor and two walls.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkExtractPlanesPointCloud3D_F32 {
+
+	@Param({"10"})
+	public int boxes;
+
+	@Param({"5000"})
+	public int pointsPerPlane;
+
+	float threshold = 0.05f;
+	int minPlanePoints = 1000;
+
+	PointCloud3D_F32 cloud;
+
+	ExtractPlanesPointCloud3D_F32 extract = new ExtractPlanesPointCloud3D_F32(0.5f, threshold, minPlanePoints);
+	RansacPointCloud3D_F32<PlaneGeneral3D_F32> ransac;
+	PointCloud3D_F32 remaining = new PointCloud3D_F32();
+	PointCloud3D_F32 work = new PointCloud3D_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		cloud = new PointCloud3D_F32();
+		for( int box = 0; box < boxes; box++ ) {
+			float offset = box*6;
+			for( int i = 0; i < pointsPerPlane; i++ ) {
+				cloud.add(offset + rand.nextFloat()*4, rand.nextFloat()*4, (float)rand.nextGaussian()*0.01f);
+				cloud.add(offset + (float)rand.nextGaussian()*0.01f, rand.nextFloat()*4, rand.nextFloat()*4);
+				cloud.add(offset + rand.nextFloat()*4, (float)rand.nextGaussian()*0.01f + 4, rand.nextFloat()*4);
+			}
+		}
+
+		ransac = RansacPointCloud3D_F32.createPlane(234, 500, threshold);
+		ransac.setConcurrent(false);
+	}
+
+	@Benchmark
+	public int extract() {
+		return extract.process(cloud);
+	}
+
+	@Benchmark
+	public int sequentialRansac() {
+		remaining.set(cloud);
+		int found = 0;
+		while( remaining.size >= minPlanePoints && ransac.process(remaining) ) {
+			GrowQueue_I32 inliers = ransac.getInliers();
+			if( inliers.size < minPlanePoints )
+				break;
+			found++;
+
+			// remove the inliers
+			work.reset();
+			int j = 0;
+			for( int i = 0; i < remaining.size; i++ ) {
+				if( j < inliers.size && inliers.data[j] == i ) {
+					j++;
+				} else {
+					work.add(remaining.x[i], remaining.y[i], remaining.z[i]);
+				}
+			}
+			PointCloud3D_F32 tmp = remaining;
+			remaining = work;
+			work = tmp;
+		}
+		return found;
+	}
+}
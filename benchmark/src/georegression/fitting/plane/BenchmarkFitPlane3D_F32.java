@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.struct.plane.PlaneNormal3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.point.Vector3D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link FitPlane3D_F32} and {@link FitPlaneStream3D_F32} across different numbers of points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkFitPlane3D_F32 {
+
+	@Param({"10","100","1000","10000"})
+	public int size;
+
+	List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+	PointCloud3D_F32 cloud;
+
+	FitPlane3D_F32 alg = new FitPlane3D_F32();
+	FitPlaneStream3D_F32 stream = new FitPlaneStream3D_F32();
+	PlaneNormal3D_F32 plane = new PlaneNormal3D_F32();
+
+	Point3D_F32 center = new Point3D_F32();
+	Vector3D_F32 normal = new Vector3D_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// points on the plane z = 0.5f*x - 0.2f*y + 1 with a little bit of noise
+		for( int i = 0; i < size; i++ ) {
+			float x = (rand.nextFloat()-0.5f)*4.0f;
+			float y = (rand.nextFloat()-0.5f)*4.0f;
+			float z = 0.5f*x - 0.2f*y + 1 + (float)rand.nextGaussian()*0.01f;
+
+			points.add(new Point3D_F32(x, y, z));
+		}
+		cloud = new PointCloud3D_F32(points);
+	}
+
+	@Benchmark
+	public Vector3D_F32 svd() {
+		alg.svd(points, center, normal);
+		return normal;
+	}
+
+	@Benchmark
+	public Vector3D_F32 svdPoint() {
+		alg.svdPoint(points, center, normal);
+		return normal;
+	}
+
+	@Benchmark
+	public PlaneNormal3D_F32 streamSingle() {
+		stream.reset();
+		for( int i = 0; i < points.size(); i++ ) {
+			stream.add(points.get(i));
+		}
+		stream.computePlane(plane);
+		return plane;
+	}
+
+	@Benchmark
+	public PlaneNormal3D_F32 streamChunk() {
+		stream.reset();
+		stream.add(cloud);
+		stream.computePlane(plane);
+		return plane;
+	}
+}
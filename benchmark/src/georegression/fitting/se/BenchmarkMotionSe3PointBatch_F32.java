@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.se.SpecialEuclideanOps_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link MotionSe3PointBatch_F32} against fitting each set individually with
+ * {@link FitSpecialEuclideanOps_F32#fitPoints3D(List, List)}.  Each set has 4 to 8 points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkMotionSe3PointBatch_F32 {
+
+	@Param({"100","1000","10000"})
+	public int numSets;
+
+	PointCloud3D_F32 src = new PointCloud3D_F32();
+	PointCloud3D_F32 dst = new PointCloud3D_F32();
+	List<Point3D_F32> listSrc;
+	List<Point3D_F32> listDst;
+	int[] offsets;
+
+	Se3_F32[] motions;
+	MotionSe3PointBatch_F32 batch = new MotionSe3PointBatch_F32();
+	MotionSe3PointBatch_F32 batchConcurrent = new MotionSe3PointBatch_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		offsets = new int[numSets+1];
+		motions = new Se3_F32[numSets];
+		for( int i = 0; i < numSets; i++ ) {
+			motions[i] = new Se3_F32();
+			Se3_F32 motion = SpecialEuclideanOps_F32.setEulerXYZ(0.1f, -0.2f, 0.05f, 1, 2, -0.5f, null);
+			List<Point3D_F32> points = UtilPoint3D_F32.random(-1, 1, 4 + rand.nextInt(5), rand);
+			for( Point3D_F32 p : points ) {
+				src.add(p);
+				dst.add(SePointOps_F32.transform(motion, p, null));
+			}
+			offsets[i+1] = src.size;
+		}
+		listSrc = src.toList(null);
+		listDst = dst.toList(null);
+
+		batch.setConcurrent(false);
+		batchConcurrent.setConcurrent(true);
+	}
+
+	@Benchmark
+	public Se3_F32 individual() {
+		Se3_F32 last = null;
+		for( int i = 0; i < numSets; i++ ) {
+			last = FitSpecialEuclideanOps_F32.fitPoints3D(listSrc.subList(offsets[i], offsets[i+1]),
+					listDst.subList(offsets[i], offsets[i+1]));
+		}
+		return last;
+	}
+
+	@Benchmark
+	public Se3_F32[] batch() {
+		batch.process(src, dst, offsets, numSets, motions, null);
+		return motions;
+	}
+
+	@Benchmark
+	public Se3_F32[] batchConcurrent() {
+		batchConcurrent.process(src, dst, offsets, numSets, motions, null);
+		return motions;
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.RobustKernelCauchy_F64;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link MotionSe3PointSVD_F64} and {@link MotionSe3PointFixedSVD_F64} across different numbers
+ * of point correspondences.  Weighted and {@link MotionSe3PointIRLS_F64 IRLS} estimates are included as well.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkMotionSe3PointSVD_F64 {
+
+	@Param({"3","10","100","1000","10000"})
+	public int size;
+
+	List<Point3D_F64> src;
+	List<Point3D_F64> dst = new ArrayList<Point3D_F64>();
+
+	MotionSe3PointSVD_F64 alg = new MotionSe3PointSVD_F64();
+	MotionSe3PointFixedSVD_F64 algFixed = new MotionSe3PointFixedSVD_F64();
+	MotionSe3PointQuaternion_F64 algQuat = new MotionSe3PointQuaternion_F64();
+	MotionSe3PointAccumulator_F64 accumulator = new MotionSe3PointAccumulator_F64();
+	MotionSe3PointIRLS_F64 algIRLS = new MotionSe3PointIRLS_F64(new RobustKernelCauchy_F64(0.01), 10);
+	double[] weights;
+	Se3_F64 found = new Se3_F64();
+	int index;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		Se3_F64 motion = SpecialEuclideanOps_F64.setEulerXYZ(0.1, -0.2, 0.05, 1, 2, -0.5, null);
+
+		src = UtilPoint3D_F64.random(-1, 1, size, rand);
+		for( Point3D_F64 p : src ) {
+			dst.add(SePointOps_F64.transform(motion, p, null));
+		}
+		UtilPoint3D_F64.noiseNormal(dst, 0.001, rand);
+		accumulator.addAll(src, dst);
+
+		weights = new double[size];
+		for( int i = 0; i < size; i++ )
+			weights[i] = rand.nextDouble();
+	}
+
+	@Benchmark
+	public Se3_F64 process() {
+		alg.process(src, dst);
+		return alg.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Se3_F64 processFixed() {
+		algFixed.process(src, dst);
+		return algFixed.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Se3_F64 processQuaternion() {
+		algQuat.process(src, dst);
+		return algQuat.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Se3_F64 processWeighted() {
+		alg.process(src, dst, weights);
+		return alg.getTransformSrcToDst();
+	}
+
+	@Benchmark
+	public Se3_F64 processIRLS() {
+		algIRLS.process(src, dst);
+		return algIRLS.getTransformSrcToDst();
+	}
+
+	/**
+	 * Replaces one pair in the accumulator then solves, like a sliding window would
+	 */
+	@Benchmark
+	public Se3_F64 accumulatorUpdate() {
+		index = (index+1) % size;
+		accumulator.remove(src.get(index), dst.get(index));
+		accumulator.add(src.get(index), dst.get(index));
+		accumulator.computeMotion(found);
+		return found;
+	}
+}
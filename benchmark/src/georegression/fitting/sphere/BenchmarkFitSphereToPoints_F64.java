@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link FitSphereToPoints_F64}, {@link FitSphereToPointsLM_F64}, and {@link FitSphereAlgebraic_F64}.
+ * Iterative methods start from a slightly perturbed initial model or the algebraic estimate.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkFitSphereToPoints_F64 {
+
+	@Param({"100","1000","10000"})
+	public int size;
+
+	List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+	PointCloud3D_F64 cloud;
+
+	Sphere3D_F64 initial = new Sphere3D_F64(1.1,2.05,2.9,2.4);
+	Sphere3D_F64 found = new Sphere3D_F64();
+
+	FitSphereToPoints_F64 alg = new FitSphereToPoints_F64(100);
+	FitSphereToPointsLM_F64 algLM = new FitSphereToPointsLM_F64(100);
+	FitSphereAlgebraic_F64 algebraic = new FitSphereAlgebraic_F64();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// sphere at (1,2,3) with a radius of 2.5
+		for( int i = 0; i < size; i++ ) {
+			double phi = rand.nextDouble()*GrlConstants.PI2;
+			double theta = (double)Math.acos(2.0*rand.nextDouble()-1.0);
+
+			double x = 1 + 2.5*(double)Math.sin(theta)*(double)Math.cos(phi);
+			double y = 2 + 2.5*(double)Math.sin(theta)*(double)Math.sin(phi);
+			double z = 3 + 2.5*(double)Math.cos(theta);
+
+			points.add(new Point3D_F64(x, y, z));
+		}
+		cloud = new PointCloud3D_F64(points);
+	}
+
+	@Benchmark
+	public Sphere3D_F64 fitModel() {
+		alg.fitModel(points, initial, found);
+		return found;
+	}
+
+	@Benchmark
+	public Sphere3D_F64 fitModelLM() {
+		algLM.fitModel(points, initial, found);
+		return found;
+	}
+
+	@Benchmark
+	public Sphere3D_F64 fitModelLM_cloud() {
+		algLM.fitModel(cloud, initial, found);
+		return found;
+	}
+
+	@Benchmark
+	public Sphere3D_F64 fitModelLM_noInitial() {
+		algLM.fitModel(cloud, null, found);
+		return found;
+	}
+
+	@Benchmark
+	public Sphere3D_F64 algebraic() {
+		algebraic.process(cloud, found);
+		return found;
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.struct.line.LineGeneral2D_F32;
+import georegression.struct.line.LineParametric2D_F32;
+import georegression.struct.line.LinePolar2D_F32;
+import georegression.struct.line.LineSegment2D_F32;
+import georegression.struct.plane.PlaneGeneral3D_F32;
+import georegression.struct.plane.PlaneNormal3D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.Vector3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.shapes.Box3D_F32;
+import georegression.struct.shapes.Rectangle2D_F32;
+import org.ejml.data.DenseMatrix64F;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invokes public operations in the geometry package once per call so that the number of bytes allocated
+ * per call can be measured.  Functions which accept an optional output are invoked with and without
+ * storage being provided.  See {@link georegression.AllocationReport}.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkAllocationGeometry_F32 {
+
+	Random rand = new Random(234);
+
+	List<Point2D_F32> points2 = UtilPoint2D_F32.random(-1, 1, 100, rand);
+	List<Point3D_F32> points3 = UtilPoint3D_F32.random(-1, 1, 100, rand);
+
+	DenseMatrix64F R = RotationMatrixGenerator.eulerXYZ(0.1f, -0.2f, 0.05f, null);
+	Vector3D_F32 a = new Vector3D_F32(0.1f, -0.5f, 1.2f);
+	Vector3D_F32 b = new Vector3D_F32(0.6f, 0.3f, -0.2f);
+	Point3D_F32 p3 = new Point3D_F32(0.2f, 0.3f, 1.5f);
+	Point2D_F32 p2 = new Point2D_F32(0.2f, 0.3f);
+
+	LineSegment2D_F32 segment = new LineSegment2D_F32(-0.5f, -0.2f, 0.6f, 0.4f);
+	LinePolar2D_F32 polar = new LinePolar2D_F32(0.5f, 0.2f);
+	PlaneNormal3D_F32 planeNormal = new PlaneNormal3D_F32(0.1f, 0.2f, 0.3f, 0.2f, -0.1f, 1);
+	PlaneGeneral3D_F32 planeGeneral = new PlaneGeneral3D_F32(0.2f, -0.1f, 1, 0.5f);
+
+	// storage for outputs
+	Point2D_F32 outP2 = new Point2D_F32();
+	Point3D_F32 outP3 = new Point3D_F32();
+	Vector3D_F32 outV3 = new Vector3D_F32();
+	DenseMatrix64F outM = new DenseMatrix64F(3, 3);
+	Box3D_F32 outBox = new Box3D_F32();
+	Rectangle2D_F32 outRect = new Rectangle2D_F32();
+	LineParametric2D_F32 outParametric = new LineParametric2D_F32();
+	LineGeneral2D_F32 outGeneral = new LineGeneral2D_F32();
+	LinePolar2D_F32 outPolar = new LinePolar2D_F32();
+	PlaneGeneral3D_F32 outPlaneGeneral = new PlaneGeneral3D_F32();
+	PlaneNormal3D_F32 outPlaneNormal = new PlaneNormal3D_F32();
+	Se3_F32 outSe3 = new Se3_F32();
+
+	@Benchmark
+	public Point3D_F32 UtilPoint3D_mean() {
+		return UtilPoint3D_F32.mean(points3, outP3);
+	}
+
+	@Benchmark
+	public Point3D_F32 UtilPoint3D_mean_null() {
+		return UtilPoint3D_F32.mean(points3, null);
+	}
+
+	@Benchmark
+	public Box3D_F32 UtilPoint3D_boundingBox() {
+		UtilPoint3D_F32.boundingBox(points3, outBox);
+		return outBox;
+	}
+
+	@Benchmark
+	public Point2D_F32 UtilPoint2D_mean() {
+		return UtilPoint2D_F32.mean(points2, outP2);
+	}
+
+	@Benchmark
+	public Point2D_F32 UtilPoint2D_mean_null() {
+		return UtilPoint2D_F32.mean(points2, null);
+	}
+
+	@Benchmark
+	public Rectangle2D_F32 UtilPoint2D_bounding() {
+		return UtilPoint2D_F32.bounding(points2, outRect);
+	}
+
+	@Benchmark
+	public Point3D_F32 GeometryMath_mult() {
+		return GeometryMath_F32.mult(R, p3, outP3);
+	}
+
+	@Benchmark
+	public Point3D_F32 GeometryMath_mult_null() {
+		return GeometryMath_F32.mult(R, p3, (Point3D_F32)null);
+	}
+
+	@Benchmark
+	public Point3D_F32 GeometryMath_multTran() {
+		return GeometryMath_F32.multTran(R, p3, outP3);
+	}
+
+	@Benchmark
+	public Point3D_F32 GeometryMath_multTran_null() {
+		return GeometryMath_F32.multTran(R, p3, null);
+	}
+
+	@Benchmark
+	public Point2D_F32 GeometryMath_mult_2D() {
+		return GeometryMath_F32.mult(R, p2, outP2);
+	}
+
+	@Benchmark
+	public Vector3D_F32 GeometryMath_cross() {
+		GeometryMath_F32.cross(a, b, outV3);
+		return outV3;
+	}
+
+	@Benchmark
+	public float GeometryMath_innerProd() {
+		return GeometryMath_F32.innerProd(a, R, b);
+	}
+
+	@Benchmark
+	public DenseMatrix64F GeometryMath_crossMatrix() {
+		return GeometryMath_F32.crossMatrix(a, outM);
+	}
+
+	@Benchmark
+	public DenseMatrix64F GeometryMath_crossMatrix_null() {
+		return GeometryMath_F32.crossMatrix(a, null);
+	}
+
+	@Benchmark
+	public DenseMatrix64F GeometryMath_outerProd() {
+		return GeometryMath_F32.outerProd(a, b, outM);
+	}
+
+	@Benchmark
+	public DenseMatrix64F GeometryMath_outerProd_null() {
+		return GeometryMath_F32.outerProd(a, b, null);
+	}
+
+	@Benchmark
+	public float UtilVector3D_acute() {
+		return UtilVector3D_F32.acute(a, b);
+	}
+
+	@Benchmark
+	public LineParametric2D_F32 UtilLine2D_convert_segment_parametric() {
+		return UtilLine2D_F32.convert(segment, outParametric);
+	}
+
+	@Benchmark
+	public LineGeneral2D_F32 UtilLine2D_convert_polar_general() {
+		return UtilLine2D_F32.convert(polar, outGeneral);
+	}
+
+	@Benchmark
+	public LinePolar2D_F32 UtilLine2D_convert_general_polar() {
+		return UtilLine2D_F32.convert(outGeneral, outPolar);
+	}
+
+	@Benchmark
+	public PlaneGeneral3D_F32 UtilPlane3D_convert_normal_general() {
+		return UtilPlane3D_F32.convert(planeNormal, outPlaneGeneral);
+	}
+
+	@Benchmark
+	public PlaneNormal3D_F32 UtilPlane3D_convert_general_normal() {
+		return UtilPlane3D_F32.convert(planeGeneral, outPlaneNormal);
+	}
+
+	@Benchmark
+	public Se3_F32 UtilPlane3D_planeToWorld() {
+		return UtilPlane3D_F32.planeToWorld(planeGeneral, outSe3);
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.struct.so.Quaternion_F64;
+import georegression.struct.so.Rodrigues_F64;
+import org.ejml.data.DenseMatrix64F;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invokes functions in {@link RotationMatrixGenerator} once per call so that the number of bytes allocated
+ * per call can be measured.  See {@link georegression.AllocationReport}.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkAllocationRotationMatrixGenerator {
+
+	DenseMatrix64F R = RotationMatrixGenerator.eulerXYZ(0.1, -0.2, 0.05, null);
+	Rodrigues_F64 rodrigues = new Rodrigues_F64(0.3, 0.2, -0.4, 0.8);
+	Quaternion_F64 quat = new Quaternion_F64(0.9, 0.1, -0.2, 0.3);
+
+	// storage for outputs
+	DenseMatrix64F outM = new DenseMatrix64F(3, 3);
+	Quaternion_F64 outQuat = new Quaternion_F64();
+	Rodrigues_F64 outRodrigues = new Rodrigues_F64();
+
+	@Benchmark
+	public DenseMatrix64F eulerXYZ() {
+		return RotationMatrixGenerator.eulerXYZ(0.1, -0.2, 0.05, outM);
+	}
+
+	@Benchmark
+	public DenseMatrix64F rodriguesToMatrix() {
+		return RotationMatrixGenerator.rodriguesToMatrix(rodrigues, outM);
+	}
+
+	@Benchmark
+	public Rodrigues_F64 matrixToRodrigues() {
+		return RotationMatrixGenerator.matrixToRodrigues(R, outRodrigues);
+	}
+
+	@Benchmark
+	public DenseMatrix64F quaternionToMatrix() {
+		return RotationMatrixGenerator.quaternionToMatrix(quat, outM);
+	}
+
+	@Benchmark
+	public Quaternion_F64 matrixToQuaternion() {
+		return RotationMatrixGenerator.matrixToQuaternion(R, outQuat);
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Box3D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for functions in {@link UtilPoint3D_F32} across different numbers of points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkUtilPoint3D_F32 {
+
+	@Param({"100","10000","1000000"})
+	public int size;
+
+	List<Point3D_F32> points;
+
+	Point3D_F32 mean = new Point3D_F32();
+	Box3D_F32 box = new Box3D_F32();
+
+	@Setup
+	public void setup() {
+		points = UtilPoint3D_F32.random(-1, 1, size, new Random(234));
+	}
+
+	@Benchmark
+	public Point3D_F32 mean() {
+		return UtilPoint3D_F32.mean(points, mean);
+	}
+
+	@Benchmark
+	public Box3D_F32 boundingBox() {
+		UtilPoint3D_F32.boundingBox(points, box);
+		return box;
+	}
+}
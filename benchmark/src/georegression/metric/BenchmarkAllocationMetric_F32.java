@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric;
+
+import georegression.struct.line.*;
+import georegression.struct.plane.PlaneGeneral3D_F32;
+import georegression.struct.plane.PlaneNormal3D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invokes public operations in the metric package once per call so that the number of bytes allocated
+ * per call can be measured.  Functions which accept an optional output are invoked with and without
+ * storage being provided.  See {@link georegression.AllocationReport}.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkAllocationMetric_F32 {
+
+	Point2D_F32 p2 = new Point2D_F32(0.2f, 0.3f);
+	Point3D_F32 p3 = new Point3D_F32(0.2f, 0.3f, -0.1f);
+
+	LineParametric2D_F32 lineParametric2 = new LineParametric2D_F32(0.1f, -0.2f, 1, 0.5f);
+	LineParametric2D_F32 lineParametric2b = new LineParametric2D_F32(-0.3f, 0.2f, 0.2f, 1);
+	LineSegment2D_F32 lineSegment2 = new LineSegment2D_F32(-0.5f, -0.2f, 0.6f, 0.4f);
+	LineSegment2D_F32 lineSegment2b = new LineSegment2D_F32(-0.3f, 0.5f, 0.2f, -0.6f);
+	LineGeneral2D_F32 lineGeneral2 = new LineGeneral2D_F32(0.5f, 0.2f, -0.3f);
+	LineGeneral2D_F32 lineGeneral2b = new LineGeneral2D_F32(-0.1f, 0.7f, 0.2f);
+	Quadrilateral_F32 quad = new Quadrilateral_F32(-0.5f, -0.5f, 0.5f, -0.4f, 0.6f, 0.5f, -0.4f, 0.5f);
+	Polygon2D_F32 polygon = new Polygon2D_F32(-0.5f, -0.5f, 0, -0.7f, 0.5f, -0.4f, 0.6f, 0.5f, 0, 0.2f, -0.4f, 0.5f);
+	EllipseRotated_F32 ellipse = new EllipseRotated_F32(0.1f, 0.2f, 1.5f, 0.8f, 0.3f);
+
+	LineParametric3D_F32 lineParametric3 = new LineParametric3D_F32(0.1f, -0.2f, 0.3f, 1, 0.5f, -0.2f);
+	LineParametric3D_F32 lineParametric3b = new LineParametric3D_F32(-0.3f, 0.2f, 0.1f, 0.2f, 1, 0.4f);
+	LineSegment3D_F32 lineSegment3 = new LineSegment3D_F32(-0.5f, -0.2f, 0.1f, 0.6f, 0.4f, -0.3f);
+	LineSegment3D_F32 lineSegment3b = new LineSegment3D_F32(0.1f, -0.5f, -0.4f, -0.2f, 0.4f, 0.5f);
+	PlaneNormal3D_F32 planeNormal = new PlaneNormal3D_F32(0.1f, 0.2f, 0.3f, 0.2f, -0.1f, 1);
+	PlaneGeneral3D_F32 planeGeneral = new PlaneGeneral3D_F32(0.2f, -0.1f, 1, 0.5f);
+	PlaneGeneral3D_F32 planeGeneralB = new PlaneGeneral3D_F32(1, 0.3f, -0.1f, 0.2f);
+	Sphere3D_F32 sphere = new Sphere3D_F32(0.1f, 0.2f, -0.1f, 0.8f);
+	Cylinder3D_F32 cylinder = new Cylinder3D_F32(0.1f, 0.2f, -0.1f, 0.2f, 0.1f, 1, 0.6f);
+	Triangle3D_F32 triangle = new Triangle3D_F32(-0.5f, -0.5f, 0.1f, 0.6f, -0.3f, -0.2f, 0.1f, 0.5f, 0.3f);
+	LineSegment3D_F32 piercing = new LineSegment3D_F32(0, 0, -2, 0, 0, 2);
+	Box3D_F32 box = new Box3D_F32(-0.5f, -0.4f, -0.6f, 0.5f, 0.7f, 0.3f);
+	Box3D_F32 boxB = new Box3D_F32(-0.1f, -0.2f, -0.3f, 0.8f, 0.9f, 0.6f);
+
+	// storage for outputs
+	Point2D_F32 outP2 = new Point2D_F32();
+	Point3D_F32 outP3 = new Point3D_F32();
+	LineParametric3D_F32 outLine3 = new LineParametric3D_F32();
+
+	@Benchmark
+	public float Distance2D_LineParametric_Point() {
+		return Distance2D_F32.distance(lineParametric2, p2);
+	}
+
+	@Benchmark
+	public float Distance2D_LineSegment_Point() {
+		return Distance2D_F32.distance(lineSegment2, p2);
+	}
+
+	@Benchmark
+	public float Distance2D_LineSegment_LineSegment() {
+		return Distance2D_F32.distance(lineSegment2, lineSegment2b);
+	}
+
+	@Benchmark
+	public float Distance2D_LineGeneral_Point() {
+		return Distance2D_F32.distance(lineGeneral2, p2);
+	}
+
+	@Benchmark
+	public float Distance2D_Quadrilateral_Point() {
+		return Distance2D_F32.distance(quad, p2);
+	}
+
+	@Benchmark
+	public float Distance2D_Polygon_Point() {
+		return Distance2D_F32.distance(polygon, p2);
+	}
+
+	@Benchmark
+	public float Distance3D_LineParametric_LineParametric() {
+		return Distance3D_F32.distance(lineParametric3, lineParametric3b);
+	}
+
+	@Benchmark
+	public float Distance3D_LineParametric_Point() {
+		return Distance3D_F32.distance(lineParametric3, p3);
+	}
+
+	@Benchmark
+	public float Distance3D_LineSegment_Point() {
+		return Distance3D_F32.distance(lineSegment3, p3);
+	}
+
+	@Benchmark
+	public float Distance3D_Plane_Point() {
+		return Distance3D_F32.distance(planeGeneral, p3);
+	}
+
+	@Benchmark
+	public float Distance3D_Sphere_Point() {
+		return Distance3D_F32.distance(sphere, p3);
+	}
+
+	@Benchmark
+	public float Distance3D_Cylinder_Point() {
+		return Distance3D_F32.distance(cylinder, p3);
+	}
+
+	@Benchmark
+	public float Distance3D_Triangle_Point() {
+		return Distance3D_F32.distance(triangle, p3);
+	}
+
+	@Benchmark
+	public Point2D_F32 ClosestPoint2D_LineParametric_Point() {
+		return ClosestPoint2D_F32.closestPoint(lineParametric2, p2, outP2);
+	}
+
+	@Benchmark
+	public Point2D_F32 ClosestPoint2D_LineParametric_Point_null() {
+		return ClosestPoint2D_F32.closestPoint(lineParametric2, p2, null);
+	}
+
+	@Benchmark
+	public Point2D_F32 ClosestPoint2D_LineSegment_Point() {
+		return ClosestPoint2D_F32.closestPoint(lineSegment2, p2, outP2);
+	}
+
+	@Benchmark
+	public Point2D_F32 ClosestPoint2D_Ellipse_Point() {
+		return ClosestPoint2D_F32.closestPoint(ellipse, p2);
+	}
+
+	@Benchmark
+	public Point3D_F32 ClosestPoint3D_LineParametric_LineParametric() {
+		return ClosestPoint3D_F32.closestPoint(lineParametric3, lineParametric3b, outP3);
+	}
+
+	@Benchmark
+	public Point3D_F32 ClosestPoint3D_LineParametric_Point() {
+		return ClosestPoint3D_F32.closestPoint(lineParametric3, p3, outP3);
+	}
+
+	@Benchmark
+	public Point3D_F32 ClosestPoint3D_LineParametric_Point_null() {
+		return ClosestPoint3D_F32.closestPoint(lineParametric3, p3, null);
+	}
+
+	@Benchmark
+	public Point3D_F32 ClosestPoint3D_LineSegment_Point() {
+		return ClosestPoint3D_F32.closestPoint(lineSegment3, p3, outP3);
+	}
+
+	@Benchmark
+	public Point3D_F32 ClosestPoint3D_LineSegment_LineSegment() {
+		return ClosestPoint3D_F32.closestPoint(lineSegment3, lineSegment3b, outP3);
+	}
+
+	@Benchmark
+	public Point3D_F32 ClosestPoint3D_PlaneNormal_Point() {
+		return ClosestPoint3D_F32.closestPoint(planeNormal, p3, outP3);
+	}
+
+	@Benchmark
+	public Point3D_F32 ClosestPoint3D_PlaneGeneral_Point() {
+		return ClosestPoint3D_F32.closestPoint(planeGeneral, p3, outP3);
+	}
+
+	@Benchmark
+	public Point3D_F32 ClosestPoint3D_Triangle_Point() {
+		return ClosestPoint3D_F32.closestPoint(triangle.v0, triangle.v1, triangle.v2, p3, outP3);
+	}
+
+	@Benchmark
+	public Point2D_F32 Intersection2D_LineParametric_LineParametric() {
+		return Intersection2D_F32.intersection(lineParametric2, lineParametric2b, outP2);
+	}
+
+	@Benchmark
+	public Point2D_F32 Intersection2D_LineParametric_LineParametric_null() {
+		return Intersection2D_F32.intersection(lineParametric2, lineParametric2b, null);
+	}
+
+	@Benchmark
+	public Point2D_F32 Intersection2D_LineSegment_LineSegment() {
+		return Intersection2D_F32.intersection(lineSegment2, lineSegment2b, outP2);
+	}
+
+	@Benchmark
+	public Point2D_F32 Intersection2D_LineGeneral_LineGeneral() {
+		return Intersection2D_F32.intersection(lineGeneral2, lineGeneral2b, outP2);
+	}
+
+	@Benchmark
+	public boolean Intersection2D_containConvex() {
+		return Intersection2D_F32.containConvex(polygon, p2);
+	}
+
+	@Benchmark
+	public boolean Intersection2D_containConcave() {
+		return Intersection2D_F32.containConcave(polygon, p2);
+	}
+
+	@Benchmark
+	public boolean Intersection3D_PlaneNormal_LineParametric() {
+		return Intersection3D_F32.intersect(planeNormal, lineParametric3, outP3);
+	}
+
+	@Benchmark
+	public boolean Intersection3D_PlaneGeneral_LineParametric() {
+		return Intersection3D_F32.intersect(planeGeneral, lineParametric3, outP3);
+	}
+
+	@Benchmark
+	public boolean Intersection3D_PlaneGeneral_PlaneGeneral() {
+		return Intersection3D_F32.intersect(planeGeneral, planeGeneralB, outLine3);
+	}
+
+	@Benchmark
+	public int Intersection3D_Triangle_LineSegment() {
+		return Intersection3D_F32.intersection(triangle, piercing, outP3);
+	}
+
+	@Benchmark
+	public boolean Intersection3D_contained_Box_Point() {
+		return Intersection3D_F32.contained(box, p3);
+	}
+
+	@Benchmark
+	public boolean Intersection3D_intersect_Box_Box() {
+		return Intersection3D_F32.intersect(box, boxB);
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric;
+
+import georegression.struct.line.LineGeneral2D_F32;
+import georegression.struct.line.LineParametric2D_F32;
+import georegression.struct.line.LineSegment2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.shapes.Polygon2D_F32;
+import georegression.struct.shapes.Quadrilateral_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for functions in {@link Distance2D_F32}.  Each benchmark is applied to a set of randomly
+ * generated points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkDistance2D_F32 {
+
+	@Param({"1000"})
+	public int size;
+
+	LineParametric2D_F32 lineParametric = new LineParametric2D_F32(0.1f,-0.2f,1,0.5f);
+	LineSegment2D_F32 lineSegment = new LineSegment2D_F32(-0.5f,-0.2f,0.6f,0.4f);
+	LineGeneral2D_F32 lineGeneral = new LineGeneral2D_F32(0.5f,0.2f,-0.3f);
+	Quadrilateral_F32 quad = new Quadrilateral_F32(-0.5f,-0.5f, 0.5f,-0.4f, 0.6f,0.5f, -0.4f,0.5f);
+	Polygon2D_F32 polygon = new Polygon2D_F32(-0.5f,-0.5f, 0,-0.7f, 0.5f,-0.4f, 0.6f,0.5f, 0,0.2f, -0.4f,0.5f);
+
+	List<Point2D_F32> points = new ArrayList<Point2D_F32>();
+	List<LineSegment2D_F32> segments = new ArrayList<LineSegment2D_F32>();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		for( int i = 0; i < size; i++ ) {
+			points.add(new Point2D_F32(r(rand),r(rand)));
+			segments.add(new LineSegment2D_F32(r(rand),r(rand),r(rand),r(rand)));
+		}
+	}
+
+	private static float r( Random rand ) {
+		return rand.nextFloat()*2.0f-1.0f;
+	}
+
+	@Benchmark
+	public float distance_LineParametric_Point() {
+		float total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance2D_F32.distance(lineParametric, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float distance_LineSegment_Point() {
+		float total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance2D_F32.distance(lineSegment, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float distance_LineSegment_LineSegment() {
+		float total = 0;
+		for( int i = 0; i < segments.size(); i++ ) {
+			total += Distance2D_F32.distance(lineSegment, segments.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float distance_LineGeneral_Point() {
+		float total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance2D_F32.distance(lineGeneral, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float distance_Quadrilateral_Point() {
+		float total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance2D_F32.distance(quad, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float distance_Polygon_Point() {
+		float total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance2D_F32.distance(polygon, points.get(i));
+		}
+		return total;
+	}
+}
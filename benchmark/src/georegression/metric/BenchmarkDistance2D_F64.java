@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric;
+
+import georegression.struct.line.LineGeneral2D_F64;
+import georegression.struct.line.LineParametric2D_F64;
+import georegression.struct.line.LineSegment2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+import georegression.struct.shapes.Quadrilateral_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for functions in {@link Distance2D_F64}.  Each benchmark is applied to a set of randomly
+ * generated points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkDistance2D_F64 {
+
+	@Param({"1000"})
+	public int size;
+
+	LineParametric2D_F64 lineParametric = new LineParametric2D_F64(0.1,-0.2,1,0.5);
+	LineSegment2D_F64 lineSegment = new LineSegment2D_F64(-0.5,-0.2,0.6,0.4);
+	LineGeneral2D_F64 lineGeneral = new LineGeneral2D_F64(0.5,0.2,-0.3);
+	Quadrilateral_F64 quad = new Quadrilateral_F64(-0.5,-0.5, 0.5,-0.4, 0.6,0.5, -0.4,0.5);
+	Polygon2D_F64 polygon = new Polygon2D_F64(-0.5,-0.5, 0,-0.7, 0.5,-0.4, 0.6,0.5, 0,0.2, -0.4,0.5);
+
+	List<Point2D_F64> points = new ArrayList<Point2D_F64>();
+	List<LineSegment2D_F64> segments = new ArrayList<LineSegment2D_F64>();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		for( int i = 0; i < size; i++ ) {
+			points.add(new Point2D_F64(r(rand),r(rand)));
+			segments.add(new LineSegment2D_F64(r(rand),r(rand),r(rand),r(rand)));
+		}
+	}
+
+	private static double r( Random rand ) {
+		return rand.nextDouble()*2.0-1.0;
+	}
+
+	@Benchmark
+	public double distance_LineParametric_Point() {
+		double total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance2D_F64.distance(lineParametric, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double distance_LineSegment_Point() {
+		double total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance2D_F64.distance(lineSegment, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double distance_LineSegment_LineSegment() {
+		double total = 0;
+		for( int i = 0; i < segments.size(); i++ ) {
+			total += Distance2D_F64.distance(lineSegment, segments.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double distance_LineGeneral_Point() {
+		double total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance2D_F64.distance(lineGeneral, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double distance_Quadrilateral_Point() {
+		double total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance2D_F64.distance(quad, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double distance_Polygon_Point() {
+		double total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance2D_F64.distance(polygon, points.get(i));
+		}
+		return total;
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric;
+
+import georegression.struct.line.LineParametric3D_F32;
+import georegression.struct.line.LineSegment3D_F32;
+import georegression.struct.plane.PlaneGeneral3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
+import georegression.struct.shapes.Triangle3D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for functions in {@link Distance3D_F32}.  Each benchmark is applied to a set of randomly
+ * generated points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkDistance3D_F32 {
+
+	@Param({"1000"})
+	public int size;
+
+	LineParametric3D_F32 lineParametric = new LineParametric3D_F32(0.1f,-0.2f,0.3f,1,0.5f,-0.2f);
+	LineSegment3D_F32 lineSegment = new LineSegment3D_F32(-0.5f,-0.2f,0.1f,0.6f,0.4f,-0.3f);
+	PlaneGeneral3D_F32 plane = new PlaneGeneral3D_F32(0.2f,-0.1f,1,0.5f);
+	Sphere3D_F32 sphere = new Sphere3D_F32(0.1f,0.2f,-0.1f,0.8f);
+	Cylinder3D_F32 cylinder = new Cylinder3D_F32(0.1f,0.2f,-0.1f,0.2f,0.1f,1,0.6f);
+	Triangle3D_F32 triangle = new Triangle3D_F32(-0.5f,-0.5f,0.1f, 0.6f,-0.3f,-0.2f, 0.1f,0.5f,0.3f);
+
+	List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+	List<LineParametric3D_F32> lines = new ArrayList<LineParametric3D_F32>();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		for( int i = 0; i < size; i++ ) {
+			points.add(new Point3D_F32(r(rand),r(rand),r(rand)));
+			lines.add(new LineParametric3D_F32(r(rand),r(rand),r(rand),r(rand),r(rand),r(rand)));
+		}
+	}
+
+	private static float r( Random rand ) {
+		return rand.nextFloat()*2.0f-1.0f;
+	}
+
+	@Benchmark
+	public float distance_LineParametric_LineParametric() {
+		float total = 0;
+		for( int i = 0; i < lines.size(); i++ ) {
+			total += Distance3D_F32.distance(lineParametric, lines.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float distance_LineParametric_Point() {
+		float total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance3D_F32.distance(lineParametric, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float distance_LineSegment_Point() {
+		float total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance3D_F32.distance(lineSegment, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float distance_Plane_Point() {
+		float total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance3D_F32.distance(plane, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float distance_Sphere_Point() {
+		float total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance3D_F32.distance(sphere, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float distance_Cylinder_Point() {
+		float total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance3D_F32.distance(cylinder, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public float distance_Triangle_Point() {
+		float total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance3D_F32.distance(triangle, points.get(i));
+		}
+		return total;
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric;
+
+import georegression.struct.line.LineParametric3D_F64;
+import georegression.struct.line.LineSegment3D_F64;
+import georegression.struct.plane.PlaneGeneral3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import georegression.struct.shapes.Triangle3D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for functions in {@link Distance3D_F64}.  Each benchmark is applied to a set of randomly
+ * generated points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkDistance3D_F64 {
+
+	@Param({"1000"})
+	public int size;
+
+	LineParametric3D_F64 lineParametric = new LineParametric3D_F64(0.1,-0.2,0.3,1,0.5,-0.2);
+	LineSegment3D_F64 lineSegment = new LineSegment3D_F64(-0.5,-0.2,0.1,0.6,0.4,-0.3);
+	PlaneGeneral3D_F64 plane = new PlaneGeneral3D_F64(0.2,-0.1,1,0.5);
+	Sphere3D_F64 sphere = new Sphere3D_F64(0.1,0.2,-0.1,0.8);
+	Cylinder3D_F64 cylinder = new Cylinder3D_F64(0.1,0.2,-0.1,0.2,0.1,1,0.6);
+	Triangle3D_F64 triangle = new Triangle3D_F64(-0.5,-0.5,0.1, 0.6,-0.3,-0.2, 0.1,0.5,0.3);
+
+	List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+	List<LineParametric3D_F64> lines = new ArrayList<LineParametric3D_F64>();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		for( int i = 0; i < size; i++ ) {
+			points.add(new Point3D_F64(r(rand),r(rand),r(rand)));
+			lines.add(new LineParametric3D_F64(r(rand),r(rand),r(rand),r(rand),r(rand),r(rand)));
+		}
+	}
+
+	private static double r( Random rand ) {
+		return rand.nextDouble()*2.0-1.0;
+	}
+
+	@Benchmark
+	public double distance_LineParametric_LineParametric() {
+		double total = 0;
+		for( int i = 0; i < lines.size(); i++ ) {
+			total += Distance3D_F64.distance(lineParametric, lines.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double distance_LineParametric_Point() {
+		double total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance3D_F64.distance(lineParametric, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double distance_LineSegment_Point() {
+		double total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance3D_F64.distance(lineSegment, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double distance_Plane_Point() {
+		double total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance3D_F64.distance(plane, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double distance_Sphere_Point() {
+		double total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance3D_F64.distance(sphere, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double distance_Cylinder_Point() {
+		double total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance3D_F64.distance(cylinder, points.get(i));
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double distance_Triangle_Point() {
+		double total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			total += Distance3D_F64.distance(triangle, points.get(i));
+		}
+		return total;
+	}
+}
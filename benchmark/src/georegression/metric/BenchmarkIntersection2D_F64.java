@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for point in polygon tests in {@link Intersection2D_F64} across polygons with different numbers
+ * of vertexes.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkIntersection2D_F64 {
+
+	@Param({"10","100","500"})
+	public int vertexes;
+
+	// number of points which are tested against the polygon
+	int numPoints = 1000;
+
+	Polygon2D_F64 convex;
+	Polygon2D_F64 concave;
+
+	List<Point2D_F64> points = new ArrayList<Point2D_F64>();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		convex = new Polygon2D_F64(vertexes);
+		concave = new Polygon2D_F64(vertexes);
+
+		// the concave polygon is a star with alternating inner and outer radii
+		for( int i = 0; i < vertexes; i++ ) {
+			double theta = GrlConstants.PI2*i/vertexes;
+			double c = (double)Math.cos(theta);
+			double s = (double)Math.sin(theta);
+			double r = i%2 == 0 ? 1.0 : 0.6;
+
+			convex.set(i, c, s);
+			concave.set(i, r*c, r*s);
+		}
+
+		for( int i = 0; i < numPoints; i++ ) {
+			points.add(new Point2D_F64(rand.nextDouble()*2.4-1.2, rand.nextDouble()*2.4-1.2));
+		}
+	}
+
+	@Benchmark
+	public int containConvex() {
+		int total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			if( Intersection2D_F64.containConvex(convex, points.get(i)) )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int containConcave() {
+		int total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			if( Intersection2D_F64.containConcave(concave, points.get(i)) )
+				total++;
+		}
+		return total;
+	}
+}
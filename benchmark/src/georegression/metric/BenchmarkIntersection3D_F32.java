@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.metric;
+
+import georegression.struct.line.LineParametric3D_F32;
+import georegression.struct.line.LineSegment3D_F32;
+import georegression.struct.plane.PlaneGeneral3D_F32;
+import georegression.struct.plane.PlaneNormal3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Box3D_F32;
+import georegression.struct.shapes.Triangle3D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for functions in {@link Intersection3D_F32}.  Each benchmark is applied to a set of randomly
+ * generated inputs.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkIntersection3D_F32 {
+
+	@Param({"1000"})
+	public int size;
+
+	PlaneNormal3D_F32 planeNormal = new PlaneNormal3D_F32(0.1f,0.2f,0.3f,0.2f,-0.1f,1);
+	PlaneGeneral3D_F32 planeGeneral = new PlaneGeneral3D_F32(0.2f,-0.1f,1,0.5f);
+	Box3D_F32 box = new Box3D_F32(-0.5f,-0.4f,-0.6f,0.5f,0.7f,0.3f);
+
+	List<LineParametric3D_F32> lines = new ArrayList<LineParametric3D_F32>();
+	List<LineSegment3D_F32> segments = new ArrayList<LineSegment3D_F32>();
+	List<Triangle3D_F32> triangles = new ArrayList<Triangle3D_F32>();
+	List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+
+	Point3D_F32 output = new Point3D_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		for( int i = 0; i < size; i++ ) {
+			lines.add(new LineParametric3D_F32(r(rand),r(rand),r(rand),r(rand),r(rand),r(rand)));
+			segments.add(new LineSegment3D_F32(r(rand),r(rand),-2,r(rand),r(rand),2));
+			triangles.add(new Triangle3D_F32(r(rand),r(rand),r(rand),r(rand),r(rand),r(rand),r(rand),r(rand),r(rand)));
+			points.add(new Point3D_F32(r(rand),r(rand),r(rand)));
+		}
+	}
+
+	private static float r( Random rand ) {
+		return rand.nextFloat()*2.0f-1.0f;
+	}
+
+	@Benchmark
+	public int intersect_PlaneNormal_LineParametric() {
+		int total = 0;
+		for( int i = 0; i < lines.size(); i++ ) {
+			if( Intersection3D_F32.intersect(planeNormal, lines.get(i), output) )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int intersect_PlaneGeneral_LineParametric() {
+		int total = 0;
+		for( int i = 0; i < lines.size(); i++ ) {
+			if( Intersection3D_F32.intersect(planeGeneral, lines.get(i), output) )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int intersection_Triangle_LineSegment() {
+		int total = 0;
+		for( int i = 0; i < triangles.size(); i++ ) {
+			total += Intersection3D_F32.intersection(triangles.get(i), segments.get(i), output);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int contained_Box_Point() {
+		int total = 0;
+		for( int i = 0; i < points.size(); i++ ) {
+			if( Intersection3D_F32.contained(box, points.get(i)) )
+				total++;
+		}
+		return total;
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.metric.Intersection3D_F64;
+import georegression.struct.line.LineSegment3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.Triangle3D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for building and searching {@link BvhTriangle3D_F64}.  A linear scan is included for comparison.
+ * Each search benchmark processes 1000 line segments.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkBvhTriangle3D_F64 {
+
+	@Param({"1000","100000"})
+	public int size;
+
+	List<Triangle3D_F64> triangles = new ArrayList<Triangle3D_F64>();
+	List<LineSegment3D_F64> segments = new ArrayList<LineSegment3D_F64>();
+
+	BvhTriangle3D_F64 bvh = new BvhTriangle3D_F64();
+	BvhTriangle3D_F64 bvhBuild = new BvhTriangle3D_F64();
+	BvhSearch_F64 search = new BvhSearch_F64();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		// the triangles shrink as there are more of them so that a segment intersects a similar number
+		double length = Math.pow(size, -1.0/3.0);
+		List<Point3D_F64> centers = UtilPoint3D_F64.random(-1, 1, size, rand);
+		List<Point3D_F64> offsets = UtilPoint3D_F64.random(-length, length, 3*size, rand);
+		triangles.clear();
+		for( int i = 0; i < size; i++ ) {
+			Triangle3D_F64 t = new Triangle3D_F64();
+			t.v0.set(centers.get(i));
+			t.v0.plusIP(offsets.get(i*3));
+			t.v1.set(centers.get(i));
+			t.v1.plusIP(offsets.get(i*3+1));
+			t.v2.set(centers.get(i));
+			t.v2.plusIP(offsets.get(i*3+2));
+			triangles.add(t);
+		}
+
+		List<Point3D_F64> ends = UtilPoint3D_F64.random(-1, 1, 2000, rand);
+		segments.clear();
+		for( int i = 0; i < 1000; i++ ) {
+			segments.add(new LineSegment3D_F64(ends.get(i*2), ends.get(i*2+1)));
+		}
+
+		bvh.setTriangles(triangles);
+	}
+
+	@Benchmark
+	public BvhTriangle3D_F64 build() {
+		bvhBuild.setTriangles(triangles);
+		return bvhBuild;
+	}
+
+	@Benchmark
+	public int first() {
+		int total = 0;
+		for( int i = 0; i < segments.size(); i++ ) {
+			if( bvh.findFirst(segments.get(i), search) )
+				total += search.index;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int any() {
+		int total = 0;
+		for( int i = 0; i < segments.size(); i++ ) {
+			if( bvh.findAny(segments.get(i), search) )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int firstLinear() {
+		Point3D_F64 p = new Point3D_F64();
+		int total = 0;
+		for( int i = 0; i < segments.size(); i++ ) {
+			LineSegment3D_F64 segment = segments.get(i);
+			double best = Double.MAX_VALUE;
+			int bestIndex = -1;
+			for( int j = 0; j < triangles.size(); j++ ) {
+				if( Intersection3D_F64.intersection(triangles.get(j), segment, p) != 1 )
+					continue;
+				double d = p.distance2(segment.a);
+				if( d < best ) {
+					best = d;
+					bestIndex = j;
+				}
+			}
+			if( bestIndex >= 0 )
+				total += bestIndex;
+		}
+		return total;
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.shapes.Triangle3D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link ClosestPointMeshBatch_F32} against calling
+ * {@link BvhTriangle3D_F32#findClosest(Point3D_F32, float, BvhSearch_F32)} for each point.  The mesh is a
+ * bumpy surface with 20,000 triangles and the points are a noisy scan of the surface, one row at a time.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkClosestPointMeshBatch_F32 {
+
+	@Param({"10000","1000000"})
+	public int numPoints;
+
+	// number of cells along each side of the mesh
+	int gridSize = 100;
+
+	PointCloud3D_F32 points = new PointCloud3D_F32();
+	int[] triangles;
+	float[] distances;
+	PointCloud3D_F32 closest = new PointCloud3D_F32();
+
+	BvhTriangle3D_F32 mesh = new BvhTriangle3D_F32();
+	BvhSearch_F32 search = new BvhSearch_F32();
+	ClosestPointMeshBatch_F32 batch;
+	ClosestPointMeshBatch_F32 batchConcurrent;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		List<Triangle3D_F32> list = new ArrayList<Triangle3D_F32>();
+		for( int i = 0; i < gridSize; i++ ) {
+			for( int j = 0; j < gridSize; j++ ) {
+				Point3D_F32 a = surface(i, j);
+				Point3D_F32 b = surface(i + 1, j);
+				Point3D_F32 c = surface(i + 1, j + 1);
+				Point3D_F32 d = surface(i, j + 1);
+				list.add(new Triangle3D_F32(a, b, c));
+				list.add(new Triangle3D_F32(a, c, d));
+			}
+		}
+		mesh.setTriangles(list);
+
+		// scan the surface one row at a time
+		int numRows = (int)Math.sqrt(numPoints);
+		points.reset();
+		for( int i = 0; i < numPoints; i++ ) {
+			float row = gridSize*(i/numRows)/(float)numRows;
+			float col = gridSize*(i%numRows)/(float)numRows;
+			Point3D_F32 p = surface(row, col);
+			p.z += 0.05f*(rand.nextFloat() - 0.5f);
+			points.add(p);
+		}
+		triangles = new int[numPoints];
+		distances = new float[numPoints];
+
+		batch = new ClosestPointMeshBatch_F32(mesh);
+		batch.setConcurrent(false);
+		batchConcurrent = new ClosestPointMeshBatch_F32(mesh);
+		batchConcurrent.setConcurrent(true);
+	}
+
+	private Point3D_F32 surface( float row , float col ) {
+		float x = row/gridSize, y = col/gridSize;
+		float sx = (float)Math.sin(10*x);
+		float cy = (float)Math.cos(7*y);
+		return new Point3D_F32(x, y, 0.1f*sx*cy);
+	}
+
+	@Benchmark
+	public int individual() {
+		Point3D_F32 p = new Point3D_F32();
+		int total = 0;
+		for( int i = 0; i < points.size; i++ ) {
+			points.get(i, p);
+			if( mesh.findClosest(p, Float.MAX_VALUE, search) )
+				total++;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int batch() {
+		return batch.process(points, Float.MAX_VALUE, triangles, distances, closest);
+	}
+
+	@Benchmark
+	public int batchConcurrent() {
+		return batchConcurrent.process(points, Float.MAX_VALUE, triangles, distances, closest);
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link KdForestPoint3D_F32} with different numbers of trees and maximum checks.  The exact search in
+ * {@link KdTreePoint3D_F32} is included for comparison.  Each search benchmark processes 1000 query points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkKdForestPoint3D_F32 {
+
+	@Param({"100000"})
+	public int size;
+
+	@Param({"1","4"})
+	public int numTrees;
+
+	@Param({"16","32","64"})
+	public int maxChecks;
+
+	PointCloud3D_F32 cloud;
+	List<Point3D_F32> queries;
+
+	KdForestPoint3D_F32 forest;
+	KdForestSearch_F32 forestSearch = new KdForestSearch_F32();
+	KdTreePoint3D_F32 tree = new KdTreePoint3D_F32();
+	KdTreeSearch_F32 treeSearch = new KdTreeSearch_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		cloud = new PointCloud3D_F32(UtilPoint3D_F32.random(-1, 1, size, rand));
+		queries = UtilPoint3D_F32.random(-1, 1, 1000, rand);
+
+		forest = new KdForestPoint3D_F32(numTrees, 8, maxChecks);
+		forest.setPoints(cloud);
+		tree.setPoints(cloud);
+	}
+
+	@Benchmark
+	public KdForestPoint3D_F32 build() {
+		forest.setPoints(cloud);
+		return forest;
+	}
+
+	@Benchmark
+	public int nearest() {
+		int total = 0;
+		for( int i = 0; i < queries.size(); i++ ) {
+			total += forest.findNearest(queries.get(i), Float.MAX_VALUE, forestSearch);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int nearest10() {
+		int total = 0;
+		for( int i = 0; i < queries.size(); i++ ) {
+			forest.findNearest(queries.get(i), 10, Float.MAX_VALUE, forestSearch);
+			total += forestSearch.size();
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int nearest10Exact() {
+		int total = 0;
+		for( int i = 0; i < queries.size(); i++ ) {
+			tree.findNearest(queries.get(i), 10, Float.MAX_VALUE, treeSearch);
+			total += treeSearch.size();
+		}
+		return total;
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for building and searching {@link KdTreePoint3D_F64}.  A linear scan is included for comparison.
+ * Each search benchmark processes 1000 query points.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkKdTreePoint3D_F64 {
+
+	@Param({"1000","100000"})
+	public int size;
+
+	PointCloud3D_F64 cloud;
+	List<Point3D_F64> queries;
+
+	KdTreePoint3D_F64 tree = new KdTreePoint3D_F64();
+	KdTreePoint3D_F64 treeBuild = new KdTreePoint3D_F64();
+	KdTreeSearch_F64 search = new KdTreeSearch_F64();
+
+	// radius which contains about 10 points on average
+	double radius;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		cloud = new PointCloud3D_F64(UtilPoint3D_F64.random(-1, 1, size, rand));
+		queries = UtilPoint3D_F64.random(-1, 1, 1000, rand);
+		tree.setPoints(cloud);
+
+		radius = Math.cbrt(10*8.0/(size*4.0*Math.PI/3.0));
+	}
+
+	@Benchmark
+	public KdTreePoint3D_F64 build() {
+		treeBuild.setPoints(cloud);
+		return treeBuild;
+	}
+
+	@Benchmark
+	public int nearest() {
+		int total = 0;
+		for( int i = 0; i < queries.size(); i++ ) {
+			total += tree.findNearest(queries.get(i), Double.MAX_VALUE, search);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int nearest10() {
+		int total = 0;
+		for( int i = 0; i < queries.size(); i++ ) {
+			tree.findNearest(queries.get(i), 10, Double.MAX_VALUE, search);
+			total += search.size();
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int radius() {
+		int total = 0;
+		for( int i = 0; i < queries.size(); i++ ) {
+			tree.findRadius(queries.get(i), radius, search);
+			total += search.size();
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int nearestLinear() {
+		int total = 0;
+		for( int i = 0; i < queries.size(); i++ ) {
+			Point3D_F64 q = queries.get(i);
+			double best = Double.MAX_VALUE;
+			int bestIndex = -1;
+			for( int j = 0; j < cloud.size; j++ ) {
+				double d = UtilPoint3D_F64.distanceSq(q.x, q.y, q.z, cloud.x[j], cloud.y[j], cloud.z[j]);
+				if( d < best ) {
+					best = d;
+					bestIndex = j;
+				}
+			}
+			total += bestIndex;
+		}
+		return total;
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.metric.Intersection3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.shapes.Box3D_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for building and searching {@link Octree3D_F64}.  A linear scan is included for comparison.  Each
+ * box search benchmark processes 100 boxes.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkOctree3D_F64 {
+
+	@Param({"1000000"})
+	public int size;
+
+	PointCloud3D_F64 cloud;
+	Box3D_F64 bounds = new Box3D_F64(-1, -1, -1, 1, 1, 1);
+	Box3D_F64[] boxes = new Box3D_F64[100];
+
+	Octree3D_F64 octree = new Octree3D_F64();
+	Octree3D_F64 octreeBuild = new Octree3D_F64();
+	GrowQueue_I32 found = new GrowQueue_I32();
+	Point3D_F64 p = new Point3D_F64();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		cloud = new PointCloud3D_F64(UtilPoint3D_F64.random(-1, 1, size, rand));
+		for( int i = 0; i < boxes.length; i++ ) {
+			double x = rand.nextDouble()*1.8 - 1, y = rand.nextDouble()*1.8 - 1, z = rand.nextDouble()*1.8 - 1;
+			boxes[i] = new Box3D_F64(x, y, z, x + 0.2, y + 0.2, z + 0.2);
+		}
+
+		octree.initialize(bounds);
+		octree.addAll(cloud);
+	}
+
+	@Benchmark
+	public Octree3D_F64 build() {
+		octreeBuild.initialize(bounds);
+		octreeBuild.addAll(cloud);
+		return octreeBuild;
+	}
+
+	@Benchmark
+	public int findContained() {
+		int total = 0;
+		for( int i = 0; i < boxes.length; i++ ) {
+			octree.findContained(boxes[i], found);
+			total += found.size;
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int findContainedLinear() {
+		int total = 0;
+		for( int i = 0; i < boxes.length; i++ ) {
+			for( int j = 0; j < cloud.size; j++ ) {
+				cloud.get(j, p);
+				if( Intersection3D_F64.contained(boxes[i], p) )
+					total++;
+			}
+		}
+		return total;
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.shapes.Box3D_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for downsampling and box searches using {@link VoxelGrid3D_F64}.  Each box search benchmark
+ * processes 100 boxes.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkVoxelGrid3D_F64 {
+
+	@Param({"1000000"})
+	public int size;
+
+	@Param({"0.02","0.1"})
+	public double voxelSize;
+
+	PointCloud3D_F64 cloud;
+	Box3D_F64[] boxes = new Box3D_F64[100];
+
+	VoxelGrid3D_F64 downsampler;
+	VoxelGrid3D_F64 grid;
+	PointCloud3D_F64 output = new PointCloud3D_F64();
+	GrowQueue_I32 found = new GrowQueue_I32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		cloud = new PointCloud3D_F64(UtilPoint3D_F64.random(-1, 1, size, rand));
+		for( int i = 0; i < boxes.length; i++ ) {
+			double x = rand.nextDouble()*1.8 - 1, y = rand.nextDouble()*1.8 - 1, z = rand.nextDouble()*1.8 - 1;
+			boxes[i] = new Box3D_F64(x, y, z, x + 0.2, y + 0.2, z + 0.2);
+		}
+
+		downsampler = new VoxelGrid3D_F64(voxelSize, false);
+		grid = new VoxelGrid3D_F64(voxelSize, true);
+		grid.addAll(cloud);
+	}
+
+	@Benchmark
+	public PointCloud3D_F64 downsample() {
+		downsampler.reset();
+		downsampler.addAll(cloud);
+		downsampler.computeCentroids(output);
+		return output;
+	}
+
+	@Benchmark
+	public int findContained() {
+		int total = 0;
+		for( int i = 0; i < boxes.length; i++ ) {
+			grid.findContained(boxes[i], found);
+			total += found.size;
+		}
+		return total;
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.transform;
+
+import georegression.struct.affine.Affine2D_F32;
+import georegression.struct.homography.Homography2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.se.Se2_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.se.SpecialEuclideanOps_F32;
+import georegression.transform.affine.AffinePointOps_F32;
+import georegression.transform.homography.HomographyPointOps_F32;
+import georegression.transform.se.InterpolateLinearSe3_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invokes public operations in the transform package once per call so that the number of bytes allocated
+ * per call can be measured.  Functions which accept an optional output are invoked with and without
+ * storage being provided.  See {@link georegression.AllocationReport}.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkAllocationTransform_F32 {
+
+	Point2D_F32 p2 = new Point2D_F32(0.2f, 0.3f);
+	Point3D_F32 p3 = new Point3D_F32(0.2f, 0.3f, -0.1f);
+
+	Se2_F32 se2 = new Se2_F32(1, -2, 0.3f);
+	Se3_F32 se3 = SpecialEuclideanOps_F32.setEulerXYZ(0.1f, -0.2f, 0.05f, 1, 2, -0.5f, null);
+	Se3_F32 se3b = SpecialEuclideanOps_F32.setEulerXYZ(-0.1f, 0.3f, 0.2f, -1, 0.5f, 0.2f, null);
+	Affine2D_F32 affine = new Affine2D_F32(1.1f, 0.2f, -0.1f, 0.9f, 2, -3);
+	Homography2D_F32 homography = new Homography2D_F32(1.1f, 0.2f, 2, -0.1f, 0.9f, -3, 0.01f, 0.02f, 1);
+
+	InterpolateLinearSe3_F32 interpolate = new InterpolateLinearSe3_F32();
+
+	// storage for outputs
+	Point2D_F32 outP2 = new Point2D_F32();
+	Point3D_F32 outP3 = new Point3D_F32();
+	Se2_F32 outSe2 = new Se2_F32();
+	Se3_F32 outSe3 = new Se3_F32();
+	Affine2D_F32 outAffine = new Affine2D_F32();
+	Homography2D_F32 outHomography = new Homography2D_F32();
+
+	@Setup
+	public void setup() {
+		interpolate.setTransforms(se3, se3b);
+	}
+
+	@Benchmark
+	public Point2D_F32 SePointOps_transform_Se2() {
+		return SePointOps_F32.transform(se2, p2, outP2);
+	}
+
+	@Benchmark
+	public Point2D_F32 SePointOps_transform_Se2_null() {
+		return SePointOps_F32.transform(se2, p2, null);
+	}
+
+	@Benchmark
+	public Point2D_F32 SePointOps_transformReverse_Se2() {
+		return SePointOps_F32.transformReverse(se2, p2, outP2);
+	}
+
+	@Benchmark
+	public Point3D_F32 SePointOps_transform_Se3() {
+		return SePointOps_F32.transform(se3, p3, outP3);
+	}
+
+	@Benchmark
+	public Point3D_F32 SePointOps_transform_Se3_null() {
+		return SePointOps_F32.transform(se3, p3, null);
+	}
+
+	@Benchmark
+	public Point3D_F32 SePointOps_transformReverse_Se3() {
+		return SePointOps_F32.transformReverse(se3, p3, outP3);
+	}
+
+	@Benchmark
+	public Point2D_F32 AffinePointOps_transform() {
+		return AffinePointOps_F32.transform(affine, p2, outP2);
+	}
+
+	@Benchmark
+	public Point2D_F32 AffinePointOps_transform_null() {
+		return AffinePointOps_F32.transform(affine, p2, null);
+	}
+
+	@Benchmark
+	public Point2D_F32 HomographyPointOps_transform() {
+		return HomographyPointOps_F32.transform(homography, p2, outP2);
+	}
+
+	@Benchmark
+	public Point2D_F32 HomographyPointOps_transform_null() {
+		return HomographyPointOps_F32.transform(homography, p2, null);
+	}
+
+	@Benchmark
+	public Affine2D_F32 ConvertTransform_Se2_Affine() {
+		return ConvertTransform_F32.convert(se2, outAffine);
+	}
+
+	@Benchmark
+	public Homography2D_F32 ConvertTransform_Se2_Homography() {
+		return ConvertTransform_F32.convert(se2, outHomography);
+	}
+
+	@Benchmark
+	public Homography2D_F32 ConvertTransform_Affine_Homography() {
+		return ConvertTransform_F32.convert(affine, outHomography);
+	}
+
+	@Benchmark
+	public Se2_F32 Se2_concat() {
+		return se2.concat(se2, outSe2);
+	}
+
+	@Benchmark
+	public Se2_F32 Se2_invert() {
+		return se2.invert(outSe2);
+	}
+
+	@Benchmark
+	public Se3_F32 Se3_concat() {
+		return se3.concat(se3b, outSe3);
+	}
+
+	@Benchmark
+	public Se3_F32 Se3_concat_null() {
+		return se3.concat(se3b, null);
+	}
+
+	@Benchmark
+	public Se3_F32 Se3_invert() {
+		return se3.invert(outSe3);
+	}
+
+	@Benchmark
+	public Se3_F32 InterpolateLinearSe3_interpolate() {
+		interpolate.interpolate(0.3f, outSe3);
+		return outSe3;
+	}
+}
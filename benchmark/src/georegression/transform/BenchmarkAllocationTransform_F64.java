@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.transform;
+
+import georegression.struct.affine.Affine2D_F64;
+import georegression.struct.homography.Homography2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se2_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import georegression.transform.affine.AffinePointOps_F64;
+import georegression.transform.homography.HomographyPointOps_F64;
+import georegression.transform.se.InterpolateLinearSe3_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invokes public operations in the transform package once per call so that the number of bytes allocated
+ * per call can be measured.  Functions which accept an optional output are invoked with and without
+ * storage being provided.  See {@link georegression.AllocationReport}.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkAllocationTransform_F64 {
+
+	Point2D_F64 p2 = new Point2D_F64(0.2, 0.3);
+	Point3D_F64 p3 = new Point3D_F64(0.2, 0.3, -0.1);
+
+	Se2_F64 se2 = new Se2_F64(1, -2, 0.3);
+	Se3_F64 se3 = SpecialEuclideanOps_F64.setEulerXYZ(0.1, -0.2, 0.05, 1, 2, -0.5, null);
+	Se3_F64 se3b = SpecialEuclideanOps_F64.setEulerXYZ(-0.1, 0.3, 0.2, -1, 0.5, 0.2, null);
+	Affine2D_F64 affine = new Affine2D_F64(1.1, 0.2, -0.1, 0.9, 2, -3);
+	Homography2D_F64 homography = new Homography2D_F64(1.1, 0.2, 2, -0.1, 0.9, -3, 0.01, 0.02, 1);
+
+	InterpolateLinearSe3_F64 interpolate = new InterpolateLinearSe3_F64();
+
+	// storage for outputs
+	Point2D_F64 outP2 = new Point2D_F64();
+	Point3D_F64 outP3 = new Point3D_F64();
+	Se2_F64 outSe2 = new Se2_F64();
+	Se3_F64 outSe3 = new Se3_F64();
+	Affine2D_F64 outAffine = new Affine2D_F64();
+	Homography2D_F64 outHomography = new Homography2D_F64();
+
+	@Setup
+	public void setup() {
+		interpolate.setTransforms(se3, se3b);
+	}
+
+	@Benchmark
+	public Point2D_F64 SePointOps_transform_Se2() {
+		return SePointOps_F64.transform(se2, p2, outP2);
+	}
+
+	@Benchmark
+	public Point2D_F64 SePointOps_transform_Se2_null() {
+		return SePointOps_F64.transform(se2, p2, null);
+	}
+
+	@Benchmark
+	public Point2D_F64 SePointOps_transformReverse_Se2() {
+		return SePointOps_F64.transformReverse(se2, p2, outP2);
+	}
+
+	@Benchmark
+	public Point3D_F64 SePointOps_transform_Se3() {
+		return SePointOps_F64.transform(se3, p3, outP3);
+	}
+
+	@Benchmark
+	public Point3D_F64 SePointOps_transform_Se3_null() {
+		return SePointOps_F64.transform(se3, p3, null);
+	}
+
+	@Benchmark
+	public Point3D_F64 SePointOps_transformReverse_Se3() {
+		return SePointOps_F64.transformReverse(se3, p3, outP3);
+	}
+
+	@Benchmark
+	public Point2D_F64 AffinePointOps_transform() {
+		return AffinePointOps_F64.transform(affine, p2, outP2);
+	}
+
+	@Benchmark
+	public Point2D_F64 AffinePointOps_transform_null() {
+		return AffinePointOps_F64.transform(affine, p2, null);
+	}
+
+	@Benchmark
+	public Point2D_F64 HomographyPointOps_transform() {
+		return HomographyPointOps_F64.transform(homography, p2, outP2);
+	}
+
+	@Benchmark
+	public Point2D_F64 HomographyPointOps_transform_null() {
+		return HomographyPointOps_F64.transform(homography, p2, null);
+	}
+
+	@Benchmark
+	public Affine2D_F64 ConvertTransform_Se2_Affine() {
+		return ConvertTransform_F64.convert(se2, outAffine);
+	}
+
+	@Benchmark
+	public Homography2D_F64 ConvertTransform_Se2_Homography() {
+		return ConvertTransform_F64.convert(se2, outHomography);
+	}
+
+	@Benchmark
+	public Homography2D_F64 ConvertTransform_Affine_Homography() {
+		return ConvertTransform_F64.convert(affine, outHomography);
+	}
+
+	@Benchmark
+	public Se2_F64 Se2_concat() {
+		return se2.concat(se2, outSe2);
+	}
+
+	@Benchmark
+	public Se2_F64 Se2_invert() {
+		return se2.invert(outSe2);
+	}
+
+	@Benchmark
+	public Se3_F64 Se3_concat() {
+		return se3.concat(se3b, outSe3);
+	}
+
+	@Benchmark
+	public Se3_F64 Se3_concat_null() {
+		return se3.concat(se3b, null);
+	}
+
+	@Benchmark
+	public Se3_F64 Se3_invert() {
+		return se3.invert(outSe3);
+	}
+
+	@Benchmark
+	public Se3_F64 InterpolateLinearSe3_interpolate() {
+		interpolate.interpolate(0.3, outSe3);
+		return outSe3;
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.transform.se;
+
+import georegression.geometry.UtilPoint2D_F32;
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.se.Se2_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.se.SpecialEuclideanOps_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for applying rigid body transforms to sets of points using {@link SePointOps_F32}.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class BenchmarkSePointOps_F32 {
+
+	@Param({"100","10000","1000000"})
+	public int size;
+
+	Se2_F32 se2 = new Se2_F32(1,-2,0.3f);
+	Se3_F32 se3 = SpecialEuclideanOps_F32.setEulerXYZ(0.1f, -0.2f, 0.05f, 1, 2, -0.5f, null);
+
+	List<Point2D_F32> points2;
+	List<Point3D_F32> points3;
+
+	// the same 3D points packed into primitive arrays
+	float interleaved3[];
+	PointCloud3D_F32 cloud3;
+
+	Point2D_F32 output2 = new Point2D_F32();
+	Point3D_F32 output3 = new Point3D_F32();
+	float outputInterleaved3[];
+	PointCloud3D_F32 outputCloud3 = new PointCloud3D_F32();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		points2 = UtilPoint2D_F32.random(-1, 1, size, rand);
+		points3 = UtilPoint3D_F32.random(-1, 1, size, rand);
+
+		interleaved3 = new float[size*3];
+		for( int i = 0; i < size; i++ ) {
+			Point3D_F32 p = points3.get(i);
+			interleaved3[i*3] = p.x;
+			interleaved3[i*3+1] = p.y;
+			interleaved3[i*3+2] = p.z;
+		}
+		outputInterleaved3 = new float[size*3];
+		cloud3 = new PointCloud3D_F32(points3);
+	}
+
+	@Benchmark
+	public Point2D_F32 transform_Se2() {
+		for( int i = 0; i < points2.size(); i++ ) {
+			SePointOps_F32.transform(se2, points2.get(i), output2);
+		}
+		return output2;
+	}
+
+	@Benchmark
+	public Point2D_F32 transformReverse_Se2() {
+		for( int i = 0; i < points2.size(); i++ ) {
+			SePointOps_F32.transformReverse(se2, points2.get(i), output2);
+		}
+		return output2;
+	}
+
+	@Benchmark
+	public Point3D_F32 transform_Se3() {
+		for( int i = 0; i < points3.size(); i++ ) {
+			SePointOps_F32.transform(se3, points3.get(i), output3);
+		}
+		return output3;
+	}
+
+	@Benchmark
+	public Point3D_F32 transformReverse_Se3() {
+		for( int i = 0; i < points3.size(); i++ ) {
+			SePointOps_F32.transformReverse(se3, points3.get(i), output3);
+		}
+		return output3;
+	}
+
+	@Benchmark
+	public float[] transform_Se3_interleaved() {
+		SePointOps_F32.transform(se3, interleaved3, 0, 3, outputInterleaved3, 0, 3, size);
+		return outputInterleaved3;
+	}
+
+	@Benchmark
+	public PointCloud3D_F32 transform_Se3_cloud() {
+		SePointOps_F32.transform(se3, cloud3, outputCloud3);
+		return outputCloud3;
+	}
+
+	@Benchmark
+	public PointCloud3D_F32 transform_Se3_cloud_concurrent() {
+		SePointOps_F32.transformConcurrent(se3, cloud3, outputCloud3);
+		return outputCloud3;
+	}
+
+	@Benchmark
+	public PointCloud3D_F32 transformReverse_Se3_cloud() {
+		SePointOps_F32.transformReverse(se3, cloud3, outputCloud3);
+		return outputCloud3;
+	}
+}
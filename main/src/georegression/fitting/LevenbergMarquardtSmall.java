@@ -0,0 +1,360 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+/**
+ * <p>
+ * Levenberg-Marquardt for least-squares problems with a small number of parameters and a potentially very large
+ * number of residuals.  Instead of computing the full Jacobian matrix, the gradient of each residual is computed
+ * and immediately added to J<sup>T</sup>J and J<sup>T</sup>r in a single pass through the points.  Memory
+ * usage is O(N<sup>2</sup>), where N is the number of parameters, independent of the number of points.  The
+ * damped normal equations are solved using a Cholesky decomposition.
+ * </p>
+ *
+ * <p>
+ * J<sup>T</sup>J and J<sup>T</sup>r at the current parameters are saved, so a rejected step only changes
+ * the damping applied to the diagonal.  While steps are being accepted each candidate is evaluated with the same
+ * pass that computes the next set of normal equations.  After a step has been rejected, candidates are evaluated
+ * using only the residuals and the normal equations are computed once a step is accepted.  Since the sum of
+ * squared residuals can only increase as points are added, a pass stops as soon as it's clear the candidate
+ * is worse than the current parameters.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LevenbergMarquardtSmall {
+
+	// function being optimized
+	private PointResidualFunction function;
+
+	// number of parameters
+	private int N;
+
+	// the current and candidate parameters
+	private double x[] = new double[0];
+	private double candidate[] = new double[0];
+
+	// J'*J and J'*r at the current and candidate parameters
+	private double H[] = new double[0];
+	private double g[] = new double[0];
+	private double candidateH[] = new double[0];
+	private double candidateG[] = new double[0];
+
+	// damped J'*J and its decomposition
+	private double A[] = new double[0];
+	// change in parameters
+	private double step[] = new double[0];
+	// gradient of a single residual
+	private double gradient[] = new double[0];
+
+	// function value at x, 0.5*sum r^2
+	private double fx;
+
+	// true if a convergence test has been satisfied
+	private boolean converged;
+
+	// true if the previous step was accepted and the next candidate is likely to be accepted too
+	private boolean accepting;
+
+	// damping parameter
+	private double initialDampParam;
+	private double lambda;
+
+	// convergence tolerances
+	private double ftol;
+	private double gtol;
+
+	/**
+	 * Configures the optimizer
+	 *
+	 * @param initialDampParam Initial value of the damping parameter.  Try 1e-3
+	 */
+	public LevenbergMarquardtSmall( double initialDampParam ) {
+		this.initialDampParam = initialDampParam;
+	}
+
+	public LevenbergMarquardtSmall() {
+		this(1e-3);
+	}
+
+	/**
+	 * Specifies the function being optimized
+	 */
+	public void setFunction( PointResidualFunction function ) {
+		this.function = function;
+
+		N = function.getNumOfInputsN();
+		if( x.length != N ) {
+			x = new double[N];
+			candidate = new double[N];
+			H = new double[N*N];
+			g = new double[N];
+			candidateH = new double[N*N];
+			candidateG = new double[N];
+			A = new double[N*N];
+			step = new double[N];
+			gradient = new double[N];
+		}
+	}
+
+	/**
+	 * Specifies the initial parameters and convergence tolerances.
+	 *
+	 * @param initial Initial parameters.  Not modified.
+	 * @param ftol Converged when the relative decrease in the function value is less than this.  0 &le; ftol &lt; 1
+	 * @param gtol Converged when the largest element in the gradient is less than this.  0 &le; gtol
+	 */
+	public void initialize( double initial[] , double ftol , double gtol ) {
+		System.arraycopy(initial, 0, x, 0, N);
+		this.ftol = ftol;
+		this.gtol = gtol;
+		this.lambda = initialDampParam;
+
+		fx = computeNormal(x, H, g, Double.POSITIVE_INFINITY);
+		converged = false;
+		accepting = true;
+	}
+
+	/**
+	 * Performs a single iteration.  Use {@link #isConverged()} to see if it stopped because it converged.
+	 *
+	 * @return true if it has stopped or false if more iterations are needed
+	 */
+	public boolean iterate() {
+		// the function can't be minimized if it's NaN or infinite
+		if( !isFinite() ) {
+			converged = false;
+			return true;
+		}
+
+		if( fx == 0 ) {
+			converged = true;
+			return true;
+		}
+
+		double maxG = 0;
+		for( int i = 0; i < N; i++ ) {
+			maxG = Math.max(maxG, Math.abs(g[i]));
+		}
+		if( maxG <= gtol ) {
+			converged = true;
+			return true;
+		}
+
+		// solve (J'*J + lambda*I)*step = -J'*r
+		System.arraycopy(H, 0, A, 0, N*N);
+		for( int i = 0; i < N; i++ ) {
+			A[i*N+i] += lambda;
+		}
+		if( !solveCholesky() ) {
+			lambda *= 10;
+			return false;
+		}
+
+		for( int i = 0; i < N; i++ ) {
+			candidate[i] = x[i] + step[i];
+		}
+
+		// H and g are only computed along with the function value if the step is likely to be accepted
+		double fcandidate;
+		if( accepting )
+			fcandidate = computeNormal(candidate, candidateH, candidateG, fx);
+		else
+			fcandidate = computeCost(candidate, fx);
+
+		if( fcandidate < fx ) {
+			converged = fx - fcandidate <= ftol*fx;
+
+			double tmp[];
+			tmp = x; x = candidate; candidate = tmp;
+			if( accepting ) {
+				tmp = H; H = candidateH; candidateH = tmp;
+				tmp = g; g = candidateG; candidateG = tmp;
+				fx = fcandidate;
+			} else {
+				fx = computeNormal(x, H, g, Double.POSITIVE_INFINITY);
+			}
+
+			accepting = true;
+			lambda = Math.max(lambda/10, 1e-20);
+			return converged;
+		} else {
+			// H and g at x are unchanged, only the damping needs to be changed
+			accepting = false;
+
+			// Not even a tiny step along the gradient reduces the function, so it's at a minimum within
+			// numerical precision
+			if( lambda >= 1e20 ) {
+				converged = true;
+				return true;
+			}
+
+			lambda *= 10;
+			return false;
+		}
+	}
+
+	/**
+	 * Checks to see if the function value and gradient are finite
+	 */
+	private boolean isFinite() {
+		if( Double.isNaN(fx) || Double.isInfinite(fx) )
+			return false;
+		for( int i = 0; i < N; i++ ) {
+			if( Double.isNaN(g[i]) || Double.isInfinite(g[i]) )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the function value without the gradient.
+	 *
+	 * @param limit The pass stops once the function value is known to be at least this value
+	 * @return 0.5*sum r^2 or infinity if it's at least limit
+	 */
+	private double computeCost( double param[] , double limit ) {
+		function.setParameters(param);
+
+		double sumLimit = 2*limit;
+		double sum = 0;
+		final int M = function.getNumOfPoints();
+		for( int index = 0; index < M; index++ ) {
+			double r = function.computeResidual(index);
+			sum += r*r;
+			if( sum >= sumLimit )
+				return Double.POSITIVE_INFINITY;
+		}
+
+		return 0.5*sum;
+	}
+
+	/**
+	 * Computes J'*J, J'*r, and the function value in one pass through the points.
+	 *
+	 * @param limit The pass stops once the function value is known to be at least this value.  H and g are
+	 *              then incomplete.
+	 * @return 0.5*sum r^2 or infinity if it's at least limit
+	 */
+	private double computeNormal( double param[] , double H[] , double g[] , double limit ) {
+		function.setParameters(param);
+
+		for( int i = 0; i < N*N; i++ ) {
+			H[i] = 0;
+		}
+		for( int i = 0; i < N; i++ ) {
+			g[i] = 0;
+		}
+
+		double sumLimit = 2*limit;
+		double sum = 0;
+		final int M = function.getNumOfPoints();
+		for( int index = 0; index < M; index++ ) {
+			double r = function.computeResidual(index, gradient);
+			sum += r*r;
+			if( sum >= sumLimit )
+				return Double.POSITIVE_INFINITY;
+
+			// only the upper triangle is computed
+			for( int i = 0; i < N; i++ ) {
+				double gi = gradient[i];
+				g[i] += gi*r;
+				int row = i*N;
+				for( int j = i; j < N; j++ ) {
+					H[row+j] += gi*gradient[j];
+				}
+			}
+		}
+
+		// copy the upper triangle into the lower triangle
+		for( int i = 1; i < N; i++ ) {
+			for( int j = 0; j < i; j++ ) {
+				H[i*N+j] = H[j*N+i];
+			}
+		}
+
+		return 0.5*sum;
+	}
+
+	/**
+	 * Solves A*step = -g using a Cholesky decomposition.  A is overwritten by the decomposition.
+	 *
+	 * @return false if A is not positive definite
+	 */
+	private boolean solveCholesky() {
+		// A = L*L', L is stored in the lower triangle
+		for( int i = 0; i < N; i++ ) {
+			for( int j = 0; j <= i; j++ ) {
+				double sum = A[i*N+j];
+				for( int k = 0; k < j; k++ ) {
+					sum -= A[i*N+k]*A[j*N+k];
+				}
+				if( i == j ) {
+					if( sum <= 0 )
+						return false;
+					A[i*N+i] = Math.sqrt(sum);
+				} else {
+					A[i*N+j] = sum/A[j*N+j];
+				}
+			}
+		}
+
+		// L*y = -g
+		for( int i = 0; i < N; i++ ) {
+			double sum = -g[i];
+			for( int k = 0; k < i; k++ ) {
+				sum -= A[i*N+k]*step[k];
+			}
+			step[i] = sum/A[i*N+i];
+		}
+
+		// L'*step = y
+		for( int i = N-1; i >= 0; i-- ) {
+			double sum = step[i];
+			for( int k = i+1; k < N; k++ ) {
+				sum -= A[k*N+i]*step[k];
+			}
+			step[i] = sum/A[i*N+i];
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns true if the optimization has converged.  False if it hasn't converged yet or if it stopped
+	 * because the function value or gradient isn't finite.
+	 */
+	public boolean isConverged() {
+		return converged;
+	}
+
+	/**
+	 * The current best estimate of the parameters.  Do not modify.
+	 */
+	public double[] getParameters() {
+		return x;
+	}
+
+	/**
+	 * The function value at the current parameters, 0.5*sum r<sup>2</sup>
+	 */
+	public double getFunctionValue() {
+		return fx;
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+/**
+ * Residual function for least-squares fitting of a model to a set of points, where each point contributes a
+ * single residual, e.g. the signed distance from a shape.  Unlike a function which outputs all the residuals
+ * and a Jacobian matrix at once, residuals and gradients are requested one point at a time.  This allows them to be
+ * summed up without ever storing an N by M matrix.  See {@link LevenbergMarquardtSmall}.
+ *
+ * @author Peter Abeles
+ */
+public interface PointResidualFunction {
+
+	/**
+	 * Number of parameters in the model
+	 */
+	public int getNumOfInputsN();
+
+	/**
+	 * Number of points, which is also the number of residuals
+	 */
+	public int getNumOfPoints();
+
+	/**
+	 * Specifies the model's parameters.  Must be called before any residuals are computed.
+	 *
+	 * @param param Array containing the model's parameters.  Not modified.
+	 */
+	public void setParameters( double[] param );
+
+	/**
+	 * Computes the residual for a single point.
+	 *
+	 * @param index Index of the point
+	 * @return The residual
+	 */
+	public double computeResidual( int index );
+
+	/**
+	 * Computes the residual and its gradient with respect to the parameters for a single point in one step.
+	 *
+	 * @param index Index of the point
+	 * @param gradient (Output) Gradient of the residual.  Length N. Modified.
+	 * @return The residual
+	 */
+	public double computeResidual( int index , double[] gradient );
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import org.ddogleg.optimization.functions.FunctionNtoM;
+import org.ddogleg.optimization.functions.FunctionNtoMxN;
+
+/**
+ * <p>
+ * Provides a {@link FunctionNtoM residual function} and {@link FunctionNtoMxN Jacobian} from a
+ * {@link PointResidualFunction}.  Each point's gradient is written directly into the optimizer's Jacobian and
+ * nothing is saved between calls, so no memory is needed beyond what the optimizer declares.
+ * </p>
+ *
+ * <p>
+ * The optimizer requests the residuals and the Jacobian separately, so the points are processed twice.  Residuals
+ * and gradients are only computed in a single pass by {@link LevenbergMarquardtSmall}, which also never forms the
+ * Jacobian and should be used when speed or memory matters.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PointResidualFunctionJacobian {
+
+	// computes the residual and gradient for each point
+	private PointResidualFunction residuals;
+
+	// gradient of a single residual
+	private double gradient[] = new double[0];
+
+	private Function function = new Function();
+	private Jacobian jacobian = new Jacobian();
+
+	public PointResidualFunctionJacobian( PointResidualFunction residuals ) {
+		this.residuals = residuals;
+	}
+
+	/**
+	 * Returns the residual function
+	 */
+	public FunctionNtoM getFunction() {
+		return function;
+	}
+
+	/**
+	 * Returns the Jacobian
+	 */
+	public FunctionNtoMxN getJacobian() {
+		return jacobian;
+	}
+
+	private class Function implements FunctionNtoM {
+		@Override
+		public int getNumOfInputsN() {
+			return residuals.getNumOfInputsN();
+		}
+
+		@Override
+		public int getNumOfOutputsM() {
+			return residuals.getNumOfPoints();
+		}
+
+		@Override
+		public void process( double[] input, double[] output) {
+			residuals.setParameters(input);
+
+			final int M = residuals.getNumOfPoints();
+			for( int i = 0; i < M; i++ ) {
+				output[i] = residuals.computeResidual(i);
+			}
+		}
+	}
+
+	private class Jacobian implements FunctionNtoMxN {
+		@Override
+		public int getNumOfInputsN() {
+			return residuals.getNumOfInputsN();
+		}
+
+		@Override
+		public int getNumOfOutputsM() {
+			return residuals.getNumOfPoints();
+		}
+
+		@Override
+		public void process( double[] input, double[] output) {
+			final int N = residuals.getNumOfInputsN();
+			final int M = residuals.getNumOfPoints();
+			if( gradient.length != N )
+				gradient = new double[N];
+
+			residuals.setParameters(input);
+
+			// output is row-major with one row for each point
+			int index = 0;
+			for( int i = 0; i < M; i++ ) {
+				residuals.computeResidual(i, gradient);
+				for( int j = 0; j < N; j++ ) {
+					output[index++] = gradient[j];
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,516 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import georegression.fitting.cylinder.FitCylinderToPointsLM_F32;
+import georegression.fitting.cylinder.GenerateCylinder3D_F32;
+import georegression.fitting.cylinder.ModelManagerCylinder3D_F32;
+import georegression.fitting.cylinder.ScoreInliersCylinder3D_F32;
+import georegression.fitting.plane.FitPlaneGeneral3D_F32;
+import georegression.fitting.plane.GeneratePlaneGeneral3D_F32;
+import georegression.fitting.plane.ModelManagerPlaneGeneral3D_F32;
+import georegression.fitting.plane.ScoreInliersPlaneGeneral3D_F32;
+import georegression.fitting.sphere.FitSphereToPointsLM_F32;
+import georegression.fitting.sphere.GenerateSphere3D_F32;
+import georegression.fitting.sphere.ModelManagerSphere3D_F32;
+import georegression.fitting.sphere.ScoreInliersSphere3D_F32;
+import georegression.misc.ConcurrencyOps;
+import georegression.struct.plane.PlaneGeneral3D_F32;
+import georegression.struct.plane.PlaneNormal3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
+import org.ddogleg.fitting.modelset.ModelFitter;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * RANSAC for fitting a single shape to a {@link PointCloud3D_F32}, where hypotheses are generated and scored in
+ * parallel using the pool in {@link ConcurrencyOps}.  Each thread has its own generator, scorer, and storage,
+ * which are created by a {@link Factory}.  Hypotheses are scored with {@link ScoreInliers3D_F32} and scoring stops
+ * early once a hypothesis can't beat the best one found by any thread.  After the best hypothesis has been found
+ * it's optionally refined by fitting to all of its inliers.
+ * </p>
+ *
+ * <p>
+ * The results are the same no matter how many threads are used or how they are scheduled.  Iterations are split
+ * into fixed size blocks and the random number generator is seeded at the start of each block using the seed
+ * and the block's index, so each iteration always draws the same sample.  When two hypotheses have the same number
+ * of inliers the one from the earlier iteration is selected.
+ * </p>
+ *
+ * <p>
+ * Instances for planes, spheres, and cylinders are created by {@link #createPlane}, {@link #createSphere},
+ * and {@link #createCylinder}.  Cylinder hypotheses are generated from oriented points, which requires the surface
+ * normal at every point.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RansacPointCloud3D_F32<Model> {
+
+	/**
+	 * Number of iterations in each block.  Each block is processed by a single thread.
+	 */
+	public static final int BLOCK_SIZE = 16;
+
+	/**
+	 * Generates a hypothesis from a small set of points selected from the cloud.
+	 */
+	public interface Generator<Model> {
+		/**
+		 * Number of points required to generate a hypothesis
+		 */
+		int getMinimumPoints();
+
+		/**
+		 * Generates a hypothesis from the selected points.
+		 *
+		 * @param cloud (Input) The point cloud
+		 * @param normals (Input) Surface normal at each point in the cloud.  Can be null if not needed.
+		 * @param indexes (Input) Indexes of the selected points.  Length is {@link #getMinimumPoints()}.
+		 * @param output (Output) The hypothesis. Modified.
+		 * @return true if successful or false if the points are degenerate
+		 */
+		boolean generate( PointCloud3D_F32 cloud , PointCloud3D_F32 normals , int[] indexes , Model output );
+	}
+
+	/**
+	 * Creates the classes which are used by a single thread.
+	 */
+	public interface Factory<Model> {
+		Generator<Model> createGenerator();
+
+		ScoreInliers3D_F32<Model> createScorer();
+	}
+
+	// seed for the random number generator
+	long seed;
+	// number of hypotheses which are generated
+	int maxIterations;
+	// inlier threshold
+	float threshold;
+
+	ModelManager<Model> manager;
+	Factory<Model> factory;
+	// refines the best hypothesis.  can be null
+	ModelFitter<Model,Point3D_F32> fitter;
+	// the fitter is only used if there are at least this many inliers
+	int minimumFit;
+
+	// if true it will process blocks in multiple threads
+	boolean concurrent = true;
+
+	// storage for each thread
+	List<Workspace> workspaces = new ArrayList<Workspace>();
+
+	// the best number of inliers found by any thread so far
+	AtomicInteger globalBest = new AtomicInteger();
+
+	// processes a block of iterations
+	ConcurrencyOps.BlockWorker<Workspace> worker = new ConcurrencyOps.BlockWorker<Workspace>() {
+		@Override
+		public void process( Workspace workspace , int block ) {
+			processBlock(workspace, block);
+		}
+	};
+
+	// inputs
+	PointCloud3D_F32 cloud;
+	PointCloud3D_F32 normals;
+
+	// output
+	Model model;
+	Model refined;
+	GrowQueue_I32 inliers = new GrowQueue_I32();
+
+	// points which are passed to the fitter
+	List<Point3D_F32> inlierPoints = new ArrayList<Point3D_F32>();
+
+	/**
+	 * Configures RANSAC.
+	 *
+	 * @param seed Seed for the random number generator
+	 * @param maxIterations Number of hypotheses which are generated
+	 * @param threshold Maximum distance from the shape's surface for a point to be an inlier
+	 * @param manager Creates and copies models
+	 * @param factory Creates the generator and scorer for each thread
+	 * @param fitter Used to refine the best hypothesis using all of its inliers.  If null there is no refinement.
+	 * @param minimumFit Minimum number of points required by the fitter
+	 */
+	public RansacPointCloud3D_F32( long seed , int maxIterations , float threshold ,
+								   ModelManager<Model> manager , Factory<Model> factory ,
+								   ModelFitter<Model,Point3D_F32> fitter , int minimumFit ) {
+		this.seed = seed;
+		this.maxIterations = maxIterations;
+		this.threshold = threshold;
+		this.manager = manager;
+		this.factory = factory;
+		this.fitter = fitter;
+		this.minimumFit = minimumFit;
+
+		model = manager.createModelInstance();
+		refined = manager.createModelInstance();
+	}
+
+	/**
+	 * RANSAC for planes.  Hypotheses are generated using {@link GeneratePlaneGeneral3D_F32} and refined
+	 * using {@link FitPlaneGeneral3D_F32}.
+	 */
+	public static RansacPointCloud3D_F32<PlaneGeneral3D_F32> createPlane( long seed , int maxIterations ,
+																		   float threshold ) {
+		Factory<PlaneGeneral3D_F32> factory = new Factory<PlaneGeneral3D_F32>() {
+			@Override
+			public Generator<PlaneGeneral3D_F32> createGenerator() {
+				return new GeneratePoints<PlaneGeneral3D_F32>(new GeneratePlaneGeneral3D_F32());
+			}
+
+			@Override
+			public ScoreInliers3D_F32<PlaneGeneral3D_F32> createScorer() {
+				return new ScoreInliersPlaneGeneral3D_F32();
+			}
+		};
+
+		return new RansacPointCloud3D_F32<PlaneGeneral3D_F32>(seed,maxIterations,threshold,
+				new ModelManagerPlaneGeneral3D_F32(), factory, new FitPlaneGeneral3D_F32(), 3);
+	}
+
+	/**
+	 * RANSAC for spheres.  Hypotheses are generated using {@link GenerateSphere3D_F32} and refined
+	 * using {@link FitSphereToPointsLM_F32}.
+	 */
+	public static RansacPointCloud3D_F32<Sphere3D_F32> createSphere( long seed , int maxIterations ,
+																	 float threshold ) {
+		Factory<Sphere3D_F32> factory = new Factory<Sphere3D_F32>() {
+			@Override
+			public Generator<Sphere3D_F32> createGenerator() {
+				return new GeneratePoints<Sphere3D_F32>(new GenerateSphere3D_F32());
+			}
+
+			@Override
+			public ScoreInliers3D_F32<Sphere3D_F32> createScorer() {
+				return new ScoreInliersSphere3D_F32();
+			}
+		};
+
+		return new RansacPointCloud3D_F32<Sphere3D_F32>(seed,maxIterations,threshold,
+				new ModelManagerSphere3D_F32(), factory, new FitSphereToPointsLM_F32(100), 4);
+	}
+
+	/**
+	 * RANSAC for cylinders.  Hypotheses are generated using {@link GenerateCylinder3D_F32} and refined
+	 * using {@link FitCylinderToPointsLM_F32}.  Surface normals must be passed to
+	 * {@link #process(PointCloud3D_F32, PointCloud3D_F32)}.
+	 */
+	public static RansacPointCloud3D_F32<Cylinder3D_F32> createCylinder( long seed , int maxIterations ,
+																		 float threshold ) {
+		Factory<Cylinder3D_F32> factory = new Factory<Cylinder3D_F32>() {
+			@Override
+			public Generator<Cylinder3D_F32> createGenerator() {
+				return new GenerateCylinder();
+			}
+
+			@Override
+			public ScoreInliers3D_F32<Cylinder3D_F32> createScorer() {
+				return new ScoreInliersCylinder3D_F32();
+			}
+		};
+
+		return new RansacPointCloud3D_F32<Cylinder3D_F32>(seed,maxIterations,threshold,
+				new ModelManagerCylinder3D_F32(), factory, new FitCylinderToPointsLM_F32(100), 7);
+	}
+
+	/**
+	 * Finds the shape with the most inliers.
+	 *
+	 * @param cloud (Input) The point cloud.  Not modified.
+	 * @return true if a shape was found
+	 */
+	public boolean process( PointCloud3D_F32 cloud ) {
+		return process(cloud, null);
+	}
+
+	/**
+	 * Finds the shape with the most inliers.
+	 *
+	 * @param cloud (Input) The point cloud.  Not modified.
+	 * @param normals (Input) Surface normal at each point in the cloud.  Only needed by some shapes.  Not modified.
+	 * @return true if a shape was found
+	 */
+	public boolean process( PointCloud3D_F32 cloud , PointCloud3D_F32 normals ) {
+		this.cloud = cloud;
+		this.normals = normals;
+		inliers.reset();
+
+		int numBlocks = (maxIterations + BLOCK_SIZE - 1)/BLOCK_SIZE;
+
+		int numThreads = concurrent ? ConcurrencyOps.numThreads(numBlocks) : 1;
+
+		while( workspaces.size() < numThreads )
+			workspaces.add(new Workspace());
+		// A thread might not process any blocks, so everything is initialized here.  A hypothesis needs at least
+		// one inlier to be selected, which rejects models that aren't finite
+		for( int i = 0; i < numThreads; i++ ) {
+			Workspace w = workspaces.get(i);
+			w.scorer.setThreshold(threshold);
+			w.bestCount = 0;
+			w.bestIteration = -1;
+		}
+
+		if( cloud.size < workspaces.get(0).sample.length ) {
+			this.cloud = this.normals = null;
+			return false;
+		}
+
+		globalBest.set(0);
+		ConcurrencyOps.loopBlocks(numBlocks, workspaces.subList(0, numThreads), worker);
+
+		// select the best hypothesis, breaking ties using the iteration
+		Workspace best = workspaces.get(0);
+		for( int i = 1; i < numThreads; i++ ) {
+			Workspace w = workspaces.get(i);
+			if( w.bestCount > best.bestCount ||
+					(w.bestCount == best.bestCount && w.bestIteration < best.bestIteration) )
+				best = w;
+		}
+
+		boolean success = best.bestIteration >= 0;
+		if( success ) {
+			manager.copyModel(best.best, model);
+
+			ScoreInliers3D_F32<Model> scorer = workspaces.get(0).scorer;
+			scorer.setModel(model);
+			scorer.select(cloud, inliers);
+
+			if( fitter != null && inliers.size >= minimumFit )
+				refine(scorer);
+		}
+
+		this.cloud = this.normals = null;
+		return success;
+	}
+
+	/**
+	 * Fits the model to all the inliers.  The refined model is only kept if it has at least as many inliers
+	 * as the hypothesis, since a least-squares fit can be pulled away by points near the threshold.  This also
+	 * discards refined models which aren't finite, since they have no inliers.
+	 */
+	private void refine( ScoreInliers3D_F32<Model> scorer ) {
+		while( inlierPoints.size() < inliers.size )
+			inlierPoints.add(new Point3D_F32());
+
+		List<Point3D_F32> points = inlierPoints.subList(0, inliers.size);
+		for( int i = 0; i < inliers.size; i++ ) {
+			cloud.get(inliers.data[i], points.get(i));
+		}
+
+		if( !fitter.fitModel(points, model, refined) )
+			return;
+
+		scorer.setModel(refined);
+		if( scorer.count(cloud, inliers.size - 1) < inliers.size )
+			return;
+
+		manager.copyModel(refined, model);
+		scorer.select(cloud, inliers);
+	}
+
+	private void processBlock( Workspace w , int block ) {
+		w.rand.setSeed(seed + block*0x9E3779B97F4A7C15L);
+
+		int start = block*BLOCK_SIZE;
+		int end = start + BLOCK_SIZE;
+		if( end > maxIterations )
+			end = maxIterations;
+
+		for( int iteration = start; iteration < end; iteration++ ) {
+			selectSample(w.rand, w.sample);
+
+			if( !w.generator.generate(cloud, normals, w.sample, w.hypothesis) )
+				continue;
+
+			// A tie with another thread's best must be counted exactly since it could be from a later iteration.
+			// This thread processes iterations in increasing order, so its own ties can be skipped.
+			int bound = globalBest.get() - 1;
+			if( bound < w.bestCount )
+				bound = w.bestCount;
+
+			w.scorer.setModel(w.hypothesis);
+			int count = w.scorer.count(cloud, bound);
+			if( count <= bound )
+				continue;
+
+			Model tmp = w.best;
+			w.best = w.hypothesis;
+			w.hypothesis = tmp;
+			w.bestCount = count;
+			w.bestIteration = iteration;
+
+			int global;
+			while( (global = globalBest.get()) < count && !globalBest.compareAndSet(global, count) ) {}
+		}
+	}
+
+	/**
+	 * Randomly selects a set of unique indexes
+	 */
+	private void selectSample( Random rand , int[] sample ) {
+		final int N = cloud.size;
+		for( int i = 0; i < sample.length; i++ ) {
+			int index;
+			boolean unique;
+			do {
+				index = rand.nextInt(N);
+				unique = true;
+				for( int j = 0; j < i && unique; j++ ) {
+					unique = sample[j] != index;
+				}
+			} while( !unique );
+			sample[i] = index;
+		}
+	}
+
+	/**
+	 * The found shape.  Only valid if {@link #process} returned true.
+	 */
+	public Model getModel() {
+		return model;
+	}
+
+	/**
+	 * Indexes of points in the cloud which are inliers to the found shape, in increasing order.
+	 */
+	public GrowQueue_I32 getInliers() {
+		return inliers;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * If true then blocks of iterations are processed in multiple threads.  The results are the same either way.
+	 */
+	public void setConcurrent( boolean concurrent ) {
+		this.concurrent = concurrent;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public void setSeed( long seed ) {
+		this.seed = seed;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations( int maxIterations ) {
+		this.maxIterations = maxIterations;
+	}
+
+	public float getThreshold() {
+		return threshold;
+	}
+
+	public void setThreshold( float threshold ) {
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Storage used by a single thread
+	 */
+	class Workspace {
+		Random rand = new Random();
+		Generator<Model> generator = factory.createGenerator();
+		ScoreInliers3D_F32<Model> scorer = factory.createScorer();
+		int[] sample = new int[generator.getMinimumPoints()];
+
+		Model hypothesis = manager.createModelInstance();
+		Model best = manager.createModelInstance();
+		int bestCount;
+		int bestIteration;
+	}
+
+	/**
+	 * Generates hypotheses from points using a {@link ModelGenerator}
+	 */
+	public static class GeneratePoints<Model> implements Generator<Model> {
+		ModelGenerator<Model,Point3D_F32> alg;
+		List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+
+		public GeneratePoints( ModelGenerator<Model, Point3D_F32> alg ) {
+			this.alg = alg;
+			for( int i = 0; i < alg.getMinimumPoints(); i++ ) {
+				points.add(new Point3D_F32());
+			}
+		}
+
+		@Override
+		public int getMinimumPoints() {
+			return alg.getMinimumPoints();
+		}
+
+		@Override
+		public boolean generate( PointCloud3D_F32 cloud, PointCloud3D_F32 normals, int[] indexes, Model output ) {
+			for( int i = 0; i < indexes.length; i++ ) {
+				cloud.get(indexes[i], points.get(i));
+			}
+			return alg.generate(points, output);
+		}
+	}
+
+	/**
+	 * Generates cylinder hypotheses from points and their surface normals using {@link GenerateCylinder3D_F32}
+	 */
+	public static class GenerateCylinder implements Generator<Cylinder3D_F32> {
+		GenerateCylinder3D_F32 alg = new GenerateCylinder3D_F32();
+		PlaneNormal3D_F32 a = new PlaneNormal3D_F32();
+		PlaneNormal3D_F32 b = new PlaneNormal3D_F32();
+
+		@Override
+		public int getMinimumPoints() {
+			return alg.getMinimumPoints();
+		}
+
+		@Override
+		public boolean generate( PointCloud3D_F32 cloud, PointCloud3D_F32 normals, int[] indexes, Cylinder3D_F32 output ) {
+			if( normals == null )
+				throw new IllegalArgumentException("Cylinders require surface normals");
+
+			int i0 = indexes[0], i1 = indexes[1];
+			a.p.set(cloud.x[i0], cloud.y[i0], cloud.z[i0]);
+			a.n.set(normals.x[i0], normals.y[i0], normals.z[i0]);
+			b.p.set(cloud.x[i1], cloud.y[i1], cloud.z[i1]);
+			b.n.set(normals.x[i1], normals.y[i1], normals.z[i1]);
+
+			return alg.process(a.p, a.n, b.p, b.n, output);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+/**
+ * Cauchy kernel.  The weight smoothly decreases as the residual increases, but is never zero.
+ * <pre>
+ * w(r) = 1/(1 + (r/c)<sup>2</sup>)
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class RobustKernelCauchy_F64 implements RobustKernel_F64 {
+	// scale parameter
+	double c;
+
+	/**
+	 * @param c Residual at which the weight is one half.
+	 */
+	public RobustKernelCauchy_F64( double c ) {
+		this.c = c;
+	}
+
+	@Override
+	public double weight( double residual ) {
+		double r = residual/c;
+		return 1/(1 + r*r);
+	}
+
+	public double getScale() {
+		return c;
+	}
+
+	public void setScale( double c ) {
+		this.c = c;
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+/**
+ * Huber kernel.  Residuals less than the scale have a weight of one, larger residuals have a weight which is
+ * inversely proportional to the residual.  Outliers are down weighted but never completely ignored.
+ * <pre>
+ * w(r) = 1      if r &le; c
+ *      = c/r    otherwise
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class RobustKernelHuber_F32 implements RobustKernel_F32 {
+	// scale parameter
+	float c;
+
+	/**
+	 * @param c Residuals larger than this are down weighted.
+	 */
+	public RobustKernelHuber_F32( float c ) {
+		this.c = c;
+	}
+
+	@Override
+	public float weight( float residual ) {
+		return residual <= c ? 1 : c/residual;
+	}
+
+	public float getScale() {
+		return c;
+	}
+
+	public void setScale( float c ) {
+		this.c = c;
+	}
+}
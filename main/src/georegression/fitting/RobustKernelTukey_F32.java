@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+/**
+ * Tukey's biweight kernel.  Points with residuals larger than the scale have a weight of zero and are completely
+ * ignored.  Since the problem becomes non-convex a good initial estimate is needed.
+ * <pre>
+ * w(r) = (1 - (r/c)<sup>2</sup>)<sup>2</sup>   if r &lt; c
+ *      = 0                   otherwise
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class RobustKernelTukey_F32 implements RobustKernel_F32 {
+	// scale parameter
+	float c;
+
+	/**
+	 * @param c Residuals larger than this have a weight of zero.
+	 */
+	public RobustKernelTukey_F32( float c ) {
+		this.c = c;
+	}
+
+	@Override
+	public float weight( float residual ) {
+		if( residual >= c )
+			return 0;
+		float r = residual/c;
+		float a = 1 - r*r;
+		return a*a;
+	}
+
+	public float getScale() {
+		return c;
+	}
+
+	public void setScale( float c ) {
+		this.c = c;
+	}
+}
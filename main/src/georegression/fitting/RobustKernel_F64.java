@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+/**
+ * Robust kernel for iteratively reweighted least squares (IRLS).  Converts the magnitude of a residual into the
+ * weight that the point is given in the next weighted least-squares fit.  Points with small residuals have a weight
+ * close to one and the weight of points with large residuals, which are likely to be outliers, is reduced.
+ *
+ * @author Peter Abeles
+ */
+public interface RobustKernel_F64 {
+
+	/**
+	 * Computes the weight for a residual.
+	 *
+	 * @param residual Magnitude of the residual.  &ge; 0
+	 * @return weight.  0 &le; weight &le; 1
+	 */
+	public double weight( double residual );
+}
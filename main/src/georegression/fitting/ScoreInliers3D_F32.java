@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import georegression.struct.point.PointCloud3D_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * Scores a model against every point in a {@link PointCloud3D_F32} in a single tight loop.  A point is an inlier if
+ * the absolute value of its distance from the model's surface is less than or equal to the threshold.  Intended
+ * for evaluating hypotheses inside of RANSAC, where the per-point overhead of
+ * {@link org.ddogleg.fitting.modelset.DistanceFromModel} dominates.  Implementations precompute everything they need
+ * from the model inside of {@link #setModel}, which means changes made to the model afterwards are ignored.
+ *
+ * @author Peter Abeles
+ */
+public interface ScoreInliers3D_F32<Model> {
+
+	/**
+	 * Specifies the model that the points are scored against.
+	 *
+	 * @param model The model.  Not modified.
+	 */
+	public void setModel( Model model );
+
+	/**
+	 * Specifies the inlier threshold.
+	 *
+	 * @param threshold Maximum distance from the model's surface for a point to be an inlier.  Must be &ge; 0.
+	 */
+	public void setThreshold( float threshold );
+
+	/**
+	 * Returns the inlier threshold.
+	 */
+	public float getThreshold();
+
+	/**
+	 * Counts the number of inliers in the cloud.
+	 *
+	 * @param cloud The point cloud.  Not modified.
+	 * @return Number of inliers
+	 */
+	public int count( PointCloud3D_F32 cloud );
+
+	/**
+	 * Counts the number of inliers in the cloud, but stops as soon as enough outliers have been found that
+	 * the total can't be more than best.  When it stops early the returned value will be &le; best, but it is
+	 * not the true count.
+	 *
+	 * @param cloud The point cloud.  Not modified.
+	 * @param best Number of inliers which must be exceeded.
+	 * @return Number of inliers if more than best, otherwise a value &le; best.
+	 */
+	public int count( PointCloud3D_F32 cloud , int best );
+
+	/**
+	 * Marks inliers in a bit mask.  Point i is an inlier if bit (i &amp; 63) of element (i &gt;&gt; 6) is set.
+	 *
+	 * @param cloud The point cloud.  Not modified.
+	 * @param mask (Output) Bit mask.  Must have at least (cloud.size+63)/64 elements.  Modified.
+	 * @return Number of inliers
+	 */
+	public int mask( PointCloud3D_F32 cloud , long[] mask );
+
+	/**
+	 * Finds the index of every inlier.
+	 *
+	 * @param cloud The point cloud.  Not modified.
+	 * @param indexes (Output) Indexes of inliers in increasing order.  Reset and modified.
+	 * @return Number of inliers
+	 */
+	public int select( PointCloud3D_F32 cloud , GrowQueue_I32 indexes );
+}
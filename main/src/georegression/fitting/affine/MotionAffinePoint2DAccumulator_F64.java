@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.affine;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.misc.GrlConstants;
+import georegression.struct.affine.Affine2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.PointCloud2D_F64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Least-squares affine transform between two sets of associated 2D points, computed from sufficient statistics
+ * which are updated in O(1) whenever a pair is added or removed.  Unlike {@link MotionAffinePoint2D_F64}, no
+ * N by 3 design matrix is constructed.  The statistics are the number of pairs, the mean of each set, the
+ * source scatter sum (src-meanSrc)*(src-meanSrc)<sup>T</sup>, and the cross scatter sum
+ * (dst-meanDst)*(src-meanSrc)<sup>T</sup>.  The 3x3 normal equations are reduced to a 2x2 system by centering
+ * the points:
+ * </p>
+ * <pre>
+ * M = Cds*Css<sup>-1</sup>
+ * T = meanDst - M*meanSrc
+ * </pre>
+ *
+ * <p>
+ * Means and scatter sums are updated using Welford's method and combined using Chan's method, which
+ * avoids the catastrophic cancellation of raw sums when the points are far from the origin.  Removing a pair
+ * which was never added will corrupt the statistics.  See {@link georegression.fitting.se.MotionSe3PointAccumulator_F64}
+ * for the equivalent for rigid body motion.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionAffinePoint2DAccumulator_F64 implements MotionTransformPoint<Affine2D_F64, Point2D_F64> {
+
+	// number of pairs
+	int N;
+
+	// mean of source and destination points
+	Point2D_F64 meanSrc = new Point2D_F64();
+	Point2D_F64 meanDst = new Point2D_F64();
+
+	// sum (src-meanSrc)*(src-meanSrc)'
+	double sxx, sxy, syy;
+	// sum (dst-meanDst)*(src-meanSrc)'
+	double dxsx, dxsy, dysx, dysy;
+
+	// found by process()
+	Affine2D_F64 model = new Affine2D_F64();
+
+	/**
+	 * Discards all the pairs which have been added
+	 */
+	public void reset() {
+		N = 0;
+		meanSrc.set(0,0);
+		meanDst.set(0,0);
+		sxx = sxy = syy = 0;
+		dxsx = dxsy = dysx = dysy = 0;
+	}
+
+	/**
+	 * Sets the statistics to be identical to the provided accumulator
+	 */
+	public void set( MotionAffinePoint2DAccumulator_F64 src ) {
+		this.N = src.N;
+		this.meanSrc.set(src.meanSrc);
+		this.meanDst.set(src.meanDst);
+		this.sxx = src.sxx; this.sxy = src.sxy; this.syy = src.syy;
+		this.dxsx = src.dxsx; this.dxsy = src.dxsy; this.dysx = src.dysx; this.dysy = src.dysy;
+	}
+
+	/**
+	 * Adds an associated pair of points.
+	 *
+	 * @param src Point in the source frame
+	 * @param dst Point in the destination frame
+	 */
+	public void add( Point2D_F64 src , Point2D_F64 dst ) {
+		add(src.x, src.y, dst.x, dst.y);
+	}
+
+	/**
+	 * Adds an associated pair of points.
+	 */
+	public void add( double srcX , double srcY , double dstX , double dstY ) {
+		double dsx = srcX - meanSrc.x, dsy = srcY - meanSrc.y;
+		double ddx = dstX - meanDst.x, ddy = dstY - meanDst.y;
+
+		N++;
+		double f = (N-1)/(double)N;
+
+		updateScatter(f, dsx, dsy, ddx, ddy);
+
+		meanSrc.x += dsx/N; meanSrc.y += dsy/N;
+		meanDst.x += ddx/N; meanDst.y += ddy/N;
+	}
+
+	/**
+	 * Adds every pair in the two lists.  Points with the same index are associated with each other.
+	 */
+	public void addAll( List<Point2D_F64> srcPts , List<Point2D_F64> dstPts ) {
+		if( srcPts.size() != dstPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		for( int i = 0; i < srcPts.size(); i++ ) {
+			add(srcPts.get(i), dstPts.get(i));
+		}
+	}
+
+	/**
+	 * Adds every pair in the two point clouds.  Points with the same index are associated with each other.
+	 */
+	public void addAll( PointCloud2D_F64 srcPts , PointCloud2D_F64 dstPts ) {
+		if( srcPts.size != dstPts.size )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		for( int i = 0; i < srcPts.size; i++ ) {
+			add(srcPts.x[i], srcPts.y[i], dstPts.x[i], dstPts.y[i]);
+		}
+	}
+
+	/**
+	 * Removes a pair of points which had previously been added.
+	 *
+	 * @param src Point in the source frame
+	 * @param dst Point in the destination frame
+	 */
+	public void remove( Point2D_F64 src , Point2D_F64 dst ) {
+		remove(src.x, src.y, dst.x, dst.y);
+	}
+
+	/**
+	 * Removes a pair of points which had previously been added.
+	 */
+	public void remove( double srcX , double srcY , double dstX , double dstY ) {
+		if( N == 0 )
+			throw new IllegalArgumentException("No pairs to remove");
+		if( N == 1 ) {
+			reset();
+			return;
+		}
+
+		double dsx = srcX - meanSrc.x, dsy = srcY - meanSrc.y;
+		double ddx = dstX - meanDst.x, ddy = dstY - meanDst.y;
+
+		double f = N/(double)(N-1);
+
+		updateScatter(-f, dsx, dsy, ddx, ddy);
+
+		N--;
+		meanSrc.x -= dsx/N; meanSrc.y -= dsy/N;
+		meanDst.x -= ddx/N; meanDst.y -= ddy/N;
+	}
+
+	/**
+	 * Adds the statistics from another accumulator to this one.  The result is the same as if all the pairs
+	 * had been added to this accumulator.
+	 *
+	 * @param src The accumulator which is to be merged into this one. Not modified.
+	 */
+	public void merge( MotionAffinePoint2DAccumulator_F64 src ) {
+		if( src.N == 0 )
+			return;
+		if( N == 0 ) {
+			set(src);
+			return;
+		}
+
+		double dsx = src.meanSrc.x - meanSrc.x, dsy = src.meanSrc.y - meanSrc.y;
+		double ddx = src.meanDst.x - meanDst.x, ddy = src.meanDst.y - meanDst.y;
+
+		int total = N + src.N;
+		double f = N*(double)src.N/total;
+
+		sxx += src.sxx; sxy += src.sxy; syy += src.syy;
+		dxsx += src.dxsx; dxsy += src.dxsy; dysx += src.dysx; dysy += src.dysy;
+		updateScatter(f, dsx, dsy, ddx, ddy);
+
+		double w = src.N/(double)total;
+		meanSrc.x += dsx*w; meanSrc.y += dsy*w;
+		meanDst.x += ddx*w; meanDst.y += ddy*w;
+
+		N = total;
+	}
+
+	/**
+	 * Css += f*ds*ds' and Cds += f*dd*ds'
+	 */
+	private void updateScatter( double f , double dsx , double dsy , double ddx , double ddy ) {
+		double fx = f*dsx, fy = f*dsy;
+		sxx += fx*dsx; sxy += fx*dsy; syy += fy*dsy;
+
+		dxsx += ddx*fx; dxsy += ddx*fy;
+		dysx += ddy*fx; dysy += ddy*fy;
+	}
+
+	/**
+	 * Computes the affine transform which best fits all the pairs which have been added.
+	 *
+	 * @param motion (Output) Found transform from source to destination. Modified.
+	 * @return true if successful or false if there are too few pairs or they are collinear
+	 */
+	public boolean computeMotion( Affine2D_F64 motion ) {
+		if( N < getMinimumPoints() )
+			return false;
+
+		double det = sxx*syy - sxy*sxy;
+		if( det <= GrlConstants.EPS*sxx*syy )
+			return false;
+
+		motion.a11 = (dxsx*syy - dxsy*sxy)/det;
+		motion.a12 = (dxsy*sxx - dxsx*sxy)/det;
+		motion.a21 = (dysx*syy - dysy*sxy)/det;
+		motion.a22 = (dysy*sxx - dysx*sxy)/det;
+
+		motion.tx = meanDst.x - motion.a11*meanSrc.x - motion.a12*meanSrc.y;
+		motion.ty = meanDst.y - motion.a21*meanSrc.x - motion.a22*meanSrc.y;
+
+		return true;
+	}
+
+	/**
+	 * Discards previously added pairs, adds all the pairs in the lists, and computes the transform.
+	 */
+	@Override
+	public boolean process( List<Point2D_F64> srcPts, List<Point2D_F64> dstPts ) {
+		reset();
+		addAll(srcPts, dstPts);
+		return computeMotion(model);
+	}
+
+	/**
+	 * Discards previously added pairs, adds all the pairs in the clouds, and computes the transform.
+	 */
+	public boolean process( PointCloud2D_F64 srcPts, PointCloud2D_F64 dstPts ) {
+		reset();
+		addAll(srcPts, dstPts);
+		return computeMotion(model);
+	}
+
+	/**
+	 * Transform found by the most recent call to process
+	 */
+	@Override
+	public Affine2D_F64 getTransformSrcToDst() {
+		return model;
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 3;
+	}
+
+	/**
+	 * Number of pairs which have been added
+	 */
+	public int getCount() {
+		return N;
+	}
+
+	/**
+	 * Mean of the source points.  Do not modify.
+	 */
+	public Point2D_F64 getMeanSrc() {
+		return meanSrc;
+	}
+
+	/**
+	 * Mean of the destination points.  Do not modify.
+	 */
+	public Point2D_F64 getMeanDst() {
+		return meanDst;
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.fitting.PointResidualFunction;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+
+import java.util.List;
+
+/**
+ * Signed Euclidean distance between a cylinder and each point, along with its gradient, computed one point at
+ * a time.  Same residuals as {@link CylinderToPointSignedDistance_F64} and gradients as
+ * {@link CylinderToPointSignedDistanceJacobian_F64}.  Points can be provided as a list or a packed cloud.
+ *
+ * See {@link CodecCylinder3D_F64} for how the model is parametrized.
+ *
+ * @author Peter Abeles
+ */
+public class CylinderToPointResidual_F64 implements PointResidualFunction {
+	// model of the cylinder
+	private Cylinder3D_F64 cylinder = new Cylinder3D_F64();
+
+	// points whose distance from the cylinder is being computed.  Only one is used at a time
+	private List<Point3D_F64> points;
+	private PointCloud3D_F64 cloud;
+
+	// used to convert double[] into shape parameters
+	private CodecCylinder3D_F64 codec = new CodecCylinder3D_F64();
+
+	// slope dotted with itself and its norm
+	private double slopeDot;
+	private double slopeNorm;
+
+	// line's point minus the point
+	private double x, y, z;
+
+	public void setPoints( List<Point3D_F64> points ) {
+		this.points = points;
+		this.cloud = null;
+	}
+
+	public void setPoints( PointCloud3D_F64 cloud ) {
+		this.points = null;
+		this.cloud = cloud;
+	}
+
+	@Override
+	public int getNumOfInputsN() {
+		return 7;
+	}
+
+	@Override
+	public int getNumOfPoints() {
+		return cloud == null ? points.size() : cloud.size;
+	}
+
+	@Override
+	public void setParameters( /**/double[] param ) {
+		codec.decode(param, cylinder);
+
+		// just need to compute this once
+		Vector3D_F64 cs = cylinder.line.slope;
+		slopeDot = cs.dot(cs);
+		slopeNorm = Math.sqrt(slopeDot);
+	}
+
+	@Override
+	public /**/double computeResidual( int index ) {
+		offset(index);
+
+		Vector3D_F64 cs = cylinder.line.slope;
+
+		double cc = x*x + y*y + z*z;
+		double b = (x*cs.x + y*cs.y + z*cs.z)/slopeNorm;
+
+		double distance = cc-b*b;
+
+		// round off error can make distanceSq go negative when it is very close to zero
+		if( distance < 0 ) {
+			distance = 0;
+		} else {
+			distance = Math.sqrt(distance);
+		}
+
+		return distance - cylinder.radius;
+	}
+
+	@Override
+	public /**/double computeResidual( int index , /**/double[] gradient ) {
+		offset(index);
+
+		Vector3D_F64 cs = cylinder.line.slope;
+
+		double cc = x*x + y*y + z*z;
+		double xdots = x*cs.x + y*cs.y + z*cs.z;
+		double b = xdots/slopeNorm;
+
+		double distance = cc-b*b;
+
+		// The gradient is undefined on the axis and round off error can make distanceSq go negative when it is
+		// very close to zero.  A subgradient which only changes the radius is used instead
+		if( distance <= 0 ) {
+			gradient[0] = 0;
+			gradient[1] = 0;
+			gradient[2] = 0;
+			gradient[3] = 0;
+			gradient[4] = 0;
+			gradient[5] = 0;
+			gradient[6] = -1;
+
+			return -cylinder.radius;
+		}
+
+		distance = Math.sqrt(distance);
+
+		double ratio = xdots/slopeDot;
+
+		gradient[0] = (x - ratio*cs.x)/distance;
+		gradient[1] = (y - ratio*cs.y)/distance;
+		gradient[2] = (z - ratio*cs.z)/distance;
+
+		gradient[3] = -xdots*( x/slopeDot - ratio*(cs.x/slopeDot))/distance;
+		gradient[4] = -xdots*( y/slopeDot - ratio*(cs.y/slopeDot))/distance;
+		gradient[5] = -xdots*( z/slopeDot - ratio*(cs.z/slopeDot))/distance;
+
+		gradient[6] = -1;
+
+		return distance - cylinder.radius;
+	}
+
+	/**
+	 * Computes the difference between the point on the cylinder's line and the point
+	 */
+	private void offset( int index ) {
+		Point3D_F64 cp = cylinder.line.p;
+
+		if( cloud == null ) {
+			Point3D_F64 p = points.get(index);
+			x = cp.x - p.x;
+			y = cp.y - p.y;
+			z = cp.z - p.z;
+		} else {
+			x = cp.x - cloud.x[index];
+			y = cp.y - cloud.y[index];
+			z = cp.z - cloud.z[index];
+		}
+	}
+}
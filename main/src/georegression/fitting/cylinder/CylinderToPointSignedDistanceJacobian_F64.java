@@ -27,7 +27,8 @@ import org.ddogleg.optimization.functions.FunctionNtoMxN;
 import java.util.List;
 
 /**
- * Jacobian of {@link CylinderToPointSignedDistance_F64}.
+ * Jacobian of {@link CylinderToPointSignedDistance_F64}.  See {@link CylinderToPointResidual_F64} for how to
+ * compute the distance and Jacobian together.
  *
  * @author Peter Abeles
  */
@@ -81,8 +82,9 @@ public class CylinderToPointSignedDistanceJacobian_F64 implements FunctionNtoMxN
 
 			double distance = cc-b*b;
 
-			// round off error can make distanceSq go negative when it is very close to zero
-			if( distance < 0 ) {
+			// The gradient is undefined on the axis and round off error can make distanceSq go negative when it is
+			// very close to zero.  A subgradient which only changes the radius is used instead
+			if( distance <= 0 ) {
 				output[index++] = 0;
 				output[index++] = 0;
 				output[index++] = 0;
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.fitting.LevenbergMarquardtSmall;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+import org.ddogleg.fitting.modelset.ModelFitter;
+
+import java.util.List;
+
+/**
+ * Fits 3D points to a {@link Cylinder3D_F32 cylinder} using {@link LevenbergMarquardtSmall}.  Minimizes the same
+ * cost function as {@link FitCylinderToPoints_F32} but the Jacobian is never stored, which keeps memory usage
+ * constant no matter how many points there are.  Points can also be provided as a packed cloud.
+ *
+ * @author Peter Abeles
+ */
+public class FitCylinderToPointsLM_F32 implements ModelFitter<Cylinder3D_F32,Point3D_F32> {
+
+	// function used by non-linear least squares solver
+	private CylinderToPointResidual_F32 function = new CylinderToPointResidual_F32();
+
+	// The solver
+	private LevenbergMarquardtSmall optimizer;
+
+	// need to convert cylinder to float[]
+	private /**/double[] param = new /**/double[7];
+
+	// maximum number of iterations
+	private int maxIterations;
+
+	// tolerances for optimization
+	private /**/double ftol;
+	private /**/double gtol;
+
+	// used to convert float[] into shape parameters
+	private CodecCylinder3D_F32 codec = new CodecCylinder3D_F32();
+
+	/**
+	 * Constructor which provides access to all tuning parameters
+	 *
+	 * @param optimizer Optimization algorithm
+	 * @param maxIterations Maximum number of iterations that the optimizer can perform. Try 100
+	 * @param ftol Convergence tolerance. See {@link LevenbergMarquardtSmall}.
+	 * @param gtol Convergence tolerance. See {@link LevenbergMarquardtSmall}.
+	 */
+	public FitCylinderToPointsLM_F32(LevenbergMarquardtSmall optimizer,
+								   int maxIterations, /**/double ftol, /**/double gtol) {
+		this.optimizer = optimizer;
+		this.maxIterations = maxIterations;
+		this.ftol = ftol;
+		this.gtol = gtol;
+	}
+
+	/**
+	 * Simplified constructor.  Only process access to the maximum number of iterations.
+	 * @param maxIterations Maximum number of iterations.  Try 100
+	 */
+	public FitCylinderToPointsLM_F32( int maxIterations ) {
+		this(new LevenbergMarquardtSmall(1e-3),maxIterations,1e-12,0);
+	}
+
+	/**
+	 * Fits a cylinder to the points
+	 *
+	 * @param dataSet (Input) Points on the cylinder
+	 * @param initial (Input) Initial estimate of the cylinder
+	 * @param found (Output) The found cylinder
+	 * @return true if the optimizer converged before reaching the maximum number of iterations
+	 */
+	@Override
+	public boolean fitModel(List<Point3D_F32> dataSet, Cylinder3D_F32 initial, Cylinder3D_F32 found) {
+		function.setPoints(dataSet);
+
+		return optimize(initial, found);
+	}
+
+	/**
+	 * Same as {@link #fitModel(List, Cylinder3D_F32, Cylinder3D_F32)} but reads directly from a packed cloud.
+	 *
+	 * @param cloud (Input) Points which are to be fit
+	 * @param initial (Input) Initial estimate of the model
+	 * @param found (Output) The found model
+	 * @return true if the optimizer converged before reaching the maximum number of iterations
+	 */
+	public boolean fitModel(PointCloud3D_F32 cloud, Cylinder3D_F32 initial, Cylinder3D_F32 found) {
+		function.setPoints(cloud);
+
+		return optimize(initial, found);
+	}
+
+	private boolean optimize( Cylinder3D_F32 initial, Cylinder3D_F32 found) {
+		codec.encode(initial,param);
+
+		optimizer.setFunction(function);
+		optimizer.initialize(param,ftol,gtol);
+
+		for( int i = 0; i < maxIterations; i++ ) {
+			if( optimizer.iterate() )
+				break;
+		}
+
+		codec.decode(optimizer.getParameters(), found);
+
+		return optimizer.isConverged();
+	}
+}
@@ -18,6 +18,7 @@
 
 package georegression.fitting.cylinder;
 
+import georegression.fitting.PointResidualFunctionJacobian;
 import georegression.struct.point.Point3D_F64;
 import georegression.struct.shapes.Cylinder3D_F64;
 import org.ddogleg.fitting.modelset.ModelFitter;
@@ -27,15 +28,17 @@ import org.ddogleg.optimization.UnconstrainedLeastSquares;
 import java.util.List;
 
 /**
- * {@link UnconstrainedLeastSquares} fitting of 3D points to a {@link Cylinder3D_F64 cylinder}.
+ * {@link UnconstrainedLeastSquares} fitting of 3D points to a {@link Cylinder3D_F64 cylinder}.  The residuals
+ * and Jacobian are computed in separate passes through the points.  {@link FitCylinderToPointsLM_F64} computes
+ * them in a single pass and never stores the Jacobian.
  *
  * @author Peter Abeles
  */
 public class FitCylinderToPoints_F64 implements ModelFitter<Cylinder3D_F64,Point3D_F64> {
 
-	// functions used by non-linear least squares solver
-	private CylinderToPointSignedDistance_F64 function = new CylinderToPointSignedDistance_F64();
-	private CylinderToPointSignedDistanceJacobian_F64 jacobian = new CylinderToPointSignedDistanceJacobian_F64();
+	// functions used by non-linear least squares solver.  Residuals and Jacobian share the same residual class
+	private CylinderToPointResidual_F64 residuals = new CylinderToPointResidual_F64();
+	private PointResidualFunctionJacobian functions = new PointResidualFunctionJacobian(residuals);
 
 	// The solver
 	private UnconstrainedLeastSquares optimizer;
@@ -82,10 +85,9 @@ public class FitCylinderToPoints_F64 implements ModelFitter<Cylinder3D_F64,Point
 
 		codec.encode(initial,param);
 
-		function.setPoints(dataSet);
-		jacobian.setPoints(dataSet);
+		residuals.setPoints(dataSet);
 
-		optimizer.setFunction(function,jacobian);
+		optimizer.setFunction(functions.getFunction(),functions.getJacobian());
 		optimizer.initialize(param,ftol,gtol);
 
 		for( int i = 0; i < maxIterations; i++ ) {
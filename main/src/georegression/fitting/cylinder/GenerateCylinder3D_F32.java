@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.plane.PlaneNormal3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.Vector3D_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Computes the cylinder which passes through the minimum number of oriented points, two.  An oriented
+ * point is a point on the surface and the surface's normal at that point, which is encoded using a
+ * {@link PlaneNormal3D_F32}.  The cylinder's axis is parallel to the cross product of the two normals and
+ * passes through the intersection of the lines defined by each point and its normal, after being projected
+ * onto the plane perpendicular to the axis.  The radius is the average distance of the two points from the
+ * axis.  Intended for generating hypotheses in RANSAC.  No memory is declared.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GenerateCylinder3D_F32 implements ModelGenerator<Cylinder3D_F32,PlaneNormal3D_F32> {
+
+	/**
+	 * Uses the first two oriented points in the list.
+	 */
+	@Override
+	public boolean generate( List<PlaneNormal3D_F32> dataSet, Cylinder3D_F32 output) {
+		PlaneNormal3D_F32 a = dataSet.get(0);
+		PlaneNormal3D_F32 b = dataSet.get(1);
+		return process(a.p, a.n, b.p, b.n, output);
+	}
+
+	/**
+	 * Computes the cylinder from two oriented points.  The normals do not need to have a length of one.
+	 *
+	 * @param p1 (Input) Point on the cylinder's surface
+	 * @param n1 (Input) Surface normal at p1
+	 * @param p2 (Input) Point on the cylinder's surface
+	 * @param n2 (Input) Surface normal at p2
+	 * @param output (Output) The cylinder.  The slope has a length of one. Modified.
+	 * @return true if successful or false if the normals are parallel or an input isn't finite
+	 */
+	public boolean process( Point3D_F32 p1 , Vector3D_F32 n1 , Point3D_F32 p2 , Vector3D_F32 n2 ,
+							Cylinder3D_F32 output ) {
+		// axis is n1 cross n2
+		float dx = n1.y*n2.z - n1.z*n2.y;
+		float dy = n1.z*n2.x - n1.x*n2.z;
+		float dz = n1.x*n2.y - n1.y*n2.x;
+
+		float a = n1.x*n1.x + n1.y*n1.y + n1.z*n1.z;
+		float b = n1.x*n2.x + n1.y*n2.y + n1.z*n2.z;
+		float c = n2.x*n2.x + n2.y*n2.y + n2.z*n2.z;
+
+		float d2 = dx*dx + dy*dy + dz*dz;
+		if( !(d2 > GrlConstants.F_EPS*a*c) )
+			return false;
+
+		float d = (float)Math.sqrt(d2);
+		dx /= d; dy /= d; dz /= d;
+
+		// remove the component along the axis from p2-p1
+		float qx = p2.x - p1.x, qy = p2.y - p1.y, qz = p2.z - p1.z;
+		float qd = qx*dx + qy*dy + qz*dz;
+		qx -= qd*dx; qy -= qd*dy; qz -= qd*dz;
+
+		// solve p1 + t*n1 = p2 + s*n2 in the plane perpendicular to the axis
+		float e = n1.x*qx + n1.y*qy + n1.z*qz;
+		float f = n2.x*qx + n2.y*qy + n2.z*qz;
+		float denom = a*c - b*b;
+
+		float t = (e*c - b*f)/denom;
+		float s = (b*e - a*f)/denom;
+
+		// both points should be the same distance from the axis
+		float r1 = (float)Math.abs(t)*(float)Math.sqrt(a);
+		float r2 = (float)Math.abs(s)*(float)Math.sqrt(c);
+		float radius = (r1 + r2)/2;
+
+		float cx = p1.x + t*n1.x, cy = p1.y + t*n1.y, cz = p1.z + t*n1.z;
+
+		// the normals are checked above but the points could be NaN or infinite
+		float sum = cx + cy + cz + radius;
+		if( Float.isNaN(sum) || Float.isInfinite(sum) )
+			return false;
+
+		output.set(cx, cy, cz, dx, dy, dz, radius);
+
+		return true;
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 2;
+	}
+}
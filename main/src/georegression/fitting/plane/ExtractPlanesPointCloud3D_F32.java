@@ -0,0 +1,513 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.spatial.PackedCellTable;
+import georegression.struct.plane.PlaneGeneral3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.point.Vector3D_F32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * <p>
+ * Finds all the planes in a point cloud.  Instead of repeatedly running RANSAC on the entire cloud and removing
+ * the inliers, which has a cost of O(planes &times; points), each search is restricted to a small region of space.
+ * Points are placed into a grid of cubic cells and cells are used as seeds, starting with the cell that has the
+ * most points.  For each seed:
+ * </p>
+ * <ol>
+ *     <li>RANSAC is run on the unassigned points in the seed cell and its 26 neighbors.</li>
+ *     <li>The plane is grown from the seed cell into neighboring cells.  A cell is added if at least
+ *     {@link #setMinCellInliers(int) minCellInliers} of its unassigned points are within the threshold of the
+ *     plane, and only the neighbors of added cells are considered.</li>
+ *     <li>The plane is refit to all the points found using {@link FitPlane3D_F32} and grown again.</li>
+ *     <li>If the plane has at least minPlanePoints inliers then they are assigned to it.</li>
+ * </ol>
+ * <p>
+ * Each point is assigned to at most one plane.  Only cells which the plane passes through are ever examined, so the
+ * cost of finding a plane depends on its size and not on the size of the cloud.  The cell size should be a few times
+ * larger than the spacing between points and smaller than the smallest plane of interest.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ExtractPlanesPointCloud3D_F32 {
+
+	/**
+	 * Cell coordinates are packed into 21 bits each, so the cloud can be at most this many cells wide along each axis
+	 */
+	public static final int MAX_CELLS = PackedCellTable.MAX_COORDINATE - PackedCellTable.MIN_COORDINATE + 1;
+
+	// width of a cell
+	float cellSize;
+	// maximum distance from the plane for a point to be an inlier
+	float threshold;
+	// minimum number of points in a plane
+	int minPlanePoints;
+
+	// maximum number of planes which are found
+	int maxPlanes = Integer.MAX_VALUE;
+	// number of RANSAC iterations at each seed
+	int localIterations = 50;
+	// minimum number of inliers for a cell to be added to a plane
+	int minCellInliers = 3;
+	// number of times the plane is refit to its inliers and grown again
+	int refineIterations = 2;
+
+	Random rand;
+	long seed = 0xBEEF;
+
+	//------------- Cells
+	// number of cells
+	int numCells;
+	// integer coordinate of each cell
+	int[] cellX = new int[0], cellY = new int[0], cellZ = new int[0];
+	// points in cell i are sorted[cellStart[i]] to sorted[cellStart[i+1]-1]
+	int[] cellStart = new int[1];
+	int[] sorted = new int[0];
+	// number of points in each cell which haven't been assigned to a plane
+	int[] cellUnassigned = new int[0];
+	// used to mark which cells have been visited while growing
+	int[] cellVisited = new int[0];
+	int visitStamp;
+
+	// hash table from cell coordinate to cell index
+	PackedCellTable table = new PackedCellTable();
+
+	//------------- Workspace
+	PointCloud3D_F32 cloud;
+	// cell which each point belongs to
+	int[] pointCell = new int[0];
+	GrowQueue_I32 candidates = new GrowQueue_I32();
+	GrowQueue_I32 members = new GrowQueue_I32();
+	GrowQueue_I32 open = new GrowQueue_I32();
+	int[] neighbors = new int[27];
+
+	GeneratePlaneGeneral3D_F32 generator = new GeneratePlaneGeneral3D_F32();
+	FitPlane3D_F32 fitter = new FitPlane3D_F32();
+	PointCloud3D_F32 memberCloud = new PointCloud3D_F32();
+	Point3D_F32 a = new Point3D_F32(), b = new Point3D_F32(), c = new Point3D_F32();
+	Point3D_F32 center = new Point3D_F32();
+	Vector3D_F32 normal = new Vector3D_F32();
+	PlaneGeneral3D_F32 hypothesis = new PlaneGeneral3D_F32();
+	PlaneGeneral3D_F32 plane = new PlaneGeneral3D_F32();
+
+	//------------- Output
+	FastQueue<PlaneGeneral3D_F32> planes = new FastQueue<PlaneGeneral3D_F32>(PlaneGeneral3D_F32.class,true);
+	FastQueue<GrowQueue_I32> inliers = new FastQueue<GrowQueue_I32>(GrowQueue_I32.class,true);
+	// which plane each point belongs to or -1 if none
+	int[] labels = new int[0];
+
+	/**
+	 * Configures the algorithm
+	 *
+	 * @param cellSize Width of each cell in the grid
+	 * @param threshold Maximum distance a point can be from a plane to be an inlier
+	 * @param minPlanePoints Minimum number of inliers for a plane to be accepted
+	 */
+	public ExtractPlanesPointCloud3D_F32( float cellSize , float threshold , int minPlanePoints ) {
+		this.cellSize = cellSize;
+		this.threshold = threshold;
+		this.minPlanePoints = minPlanePoints;
+	}
+
+	/**
+	 * Finds all the planes in the cloud.  Results are returned by {@link #getPlanes()}, {@link #getInliers()},
+	 * and {@link #getLabels()}.
+	 *
+	 * @param cloud (Input) The point cloud.  Not modified.
+	 * @return Number of planes found
+	 */
+	public int process( PointCloud3D_F32 cloud ) {
+		this.cloud = cloud;
+		rand = new Random(seed);
+		planes.reset();
+		inliers.reset();
+
+		final int N = cloud.size;
+		if( labels.length < N )
+			labels = new int[N];
+		Arrays.fill(labels, 0, N, -1);
+
+		if( N > 0 ) {
+			createCells();
+			findPlanes();
+		}
+
+		this.cloud = null;
+		return planes.size;
+	}
+
+	/**
+	 * Assigns each point to a cell and sorts points by cell
+	 */
+	private void createCells() {
+		final int N = cloud.size;
+		final float[] x = cloud.x, y = cloud.y, z = cloud.z;
+
+		float x0 = x[0], y0 = y[0], z0 = z[0];
+		float x1 = x0, y1 = y0, z1 = z0;
+		for( int i = 1; i < N; i++ ) {
+			if( x[i] < x0 ) x0 = x[i]; else if( x[i] > x1 ) x1 = x[i];
+			if( y[i] < y0 ) y0 = y[i]; else if( y[i] > y1 ) y1 = y[i];
+			if( z[i] < z0 ) z0 = z[i]; else if( z[i] > z1 ) z1 = z[i];
+		}
+
+		// cell coordinates start at the smallest coordinate the table can store, so MAX_CELLS cells fit along each axis
+		float extent = (float)Math.max(x1 - x0, (float)Math.max(y1 - y0, z1 - z0));
+		if( !(extent/cellSize < MAX_CELLS) )
+			throw new IllegalArgumentException("The cloud is too large for the cell size. extent = "+extent);
+
+		if( pointCell.length < N ) {
+			pointCell = new int[N];
+			sorted = new int[N];
+		}
+
+		// find the cell each point belongs to, creating new cells as needed
+		numCells = 0;
+		table.reset();
+		for( int i = 0; i < N; i++ ) {
+			int ix = (int)((x[i] - x0)/cellSize) + PackedCellTable.MIN_COORDINATE;
+			int iy = (int)((y[i] - y0)/cellSize) + PackedCellTable.MIN_COORDINATE;
+			int iz = (int)((z[i] - z0)/cellSize) + PackedCellTable.MIN_COORDINATE;
+
+			int cell = table.get(ix, iy, iz);
+			if( cell < 0 ) {
+				cell = addCell(ix, iy, iz);
+			}
+			pointCell[i] = cell;
+			cellUnassigned[cell]++;
+		}
+
+		// counting sort by cell
+		cellStart[0] = 0;
+		for( int i = 0; i < numCells; i++ ) {
+			cellStart[i+1] = cellStart[i] + cellUnassigned[i];
+		}
+		for( int i = 0; i < N; i++ ) {
+			sorted[--cellUnassigned[pointCell[i]] + cellStart[pointCell[i]]] = i;
+		}
+		for( int i = 0; i < numCells; i++ ) {
+			cellUnassigned[i] = cellStart[i+1] - cellStart[i];
+			cellVisited[i] = 0;
+		}
+		visitStamp = 0;
+	}
+
+	private int addCell( int ix , int iy , int iz ) {
+		if( numCells == cellX.length ) {
+			int length = numCells < 8 ? 16 : numCells*2;
+			cellX = Arrays.copyOf(cellX, length);
+			cellY = Arrays.copyOf(cellY, length);
+			cellZ = Arrays.copyOf(cellZ, length);
+			cellStart = Arrays.copyOf(cellStart, length + 1);
+			cellUnassigned = Arrays.copyOf(cellUnassigned, length);
+			cellVisited = Arrays.copyOf(cellVisited, length);
+		}
+		int cell = numCells++;
+		cellX[cell] = ix;
+		cellY[cell] = iy;
+		cellZ[cell] = iz;
+		cellUnassigned[cell] = 0;
+
+		table.put(ix, iy, iz, cell);
+		return cell;
+	}
+
+	/**
+	 * Selects seeds in order of the number of points in the cell and attempts to find a plane at each one
+	 */
+	private void findPlanes() {
+		// sort by number of points, most first
+		long[] order = new long[numCells];
+		for( int i = 0; i < numCells; i++ ) {
+			order[i] = ((long)(cloud.size - cellUnassigned[i]) << 32) | i;
+		}
+		Arrays.sort(order);
+
+		for( int i = 0; i < numCells && planes.size < maxPlanes; i++ ) {
+			int seedCell = (int)order[i];
+			if( cellUnassigned[seedCell] < minCellInliers )
+				continue;
+
+			if( !localRansac(seedCell) )
+				continue;
+
+			if( growAndRefine(seedCell) )
+				savePlane();
+		}
+	}
+
+	/**
+	 * Runs RANSAC on the unassigned points in the seed cell and its neighbors.  The best hypothesis is
+	 * saved in 'plane'.
+	 */
+	private boolean localRansac( int seedCell ) {
+		candidates.reset();
+		int numNeighbors = findNeighbors(seedCell);
+		for( int i = 0; i < numNeighbors; i++ ) {
+			int cell = neighbors[i];
+			for( int j = cellStart[cell]; j < cellStart[cell+1]; j++ ) {
+				int index = sorted[j];
+				if( labels[index] < 0 )
+					candidates.add(index);
+			}
+		}
+
+		final int M = candidates.size;
+		if( M < 3 )
+			return false;
+
+		final float[] x = cloud.x, y = cloud.y, z = cloud.z;
+		int bestCount = 0;
+		for( int iteration = 0; iteration < localIterations; iteration++ ) {
+			int i0 = candidates.data[rand.nextInt(M)];
+			int i1 = candidates.data[rand.nextInt(M)];
+			int i2 = candidates.data[rand.nextInt(M)];
+			if( i0 == i1 || i0 == i2 || i1 == i2 )
+				continue;
+
+			cloud.get(i0, a);
+			cloud.get(i1, b);
+			cloud.get(i2, c);
+			if( !generator.process(a, b, c, hypothesis) )
+				continue;
+
+			int count = 0;
+			for( int i = 0; i < M; i++ ) {
+				int index = candidates.data[i];
+				float d = hypothesis.A*x[index] + hypothesis.B*y[index] + hypothesis.C*z[index] - hypothesis.D;
+				if( (float)Math.abs(d) <= threshold )
+					count++;
+			}
+
+			if( count > bestCount ) {
+				bestCount = count;
+				plane.set(hypothesis);
+			}
+		}
+
+		return bestCount >= minCellInliers;
+	}
+
+	/**
+	 * Grows the plane from the seed cell and refits it to the inliers.  Afterwards 'members' contains the inliers
+	 * to 'plane'.
+	 */
+	private boolean growAndRefine( int seedCell ) {
+		for( int iteration = 0; iteration < refineIterations; iteration++ ) {
+			grow(seedCell);
+			if( members.size < minPlanePoints )
+				return false;
+
+			memberCloud.reset();
+			for( int i = 0; i < members.size; i++ ) {
+				int index = members.data[i];
+				memberCloud.add(cloud.x[index], cloud.y[index], cloud.z[index]);
+			}
+			if( !fitter.svd(memberCloud, center, normal) )
+				return false;
+
+			plane.A = normal.x;
+			plane.B = normal.y;
+			plane.C = normal.z;
+			plane.D = normal.x*center.x + normal.y*center.y + normal.z*center.z;
+		}
+
+		grow(seedCell);
+		return members.size >= minPlanePoints;
+	}
+
+	/**
+	 * Finds all the unassigned points which are inliers to 'plane' and in cells which are connected to
+	 * the seed cell.  The plane must be in Hessian normal form.
+	 */
+	private void grow( int seedCell ) {
+		final float[] x = cloud.x, y = cloud.y, z = cloud.z;
+		final float A = plane.A, B = plane.B, C = plane.C, D = plane.D;
+
+		members.reset();
+		open.reset();
+
+		visitStamp++;
+		cellVisited[seedCell] = visitStamp;
+		open.add(seedCell);
+
+		while( open.size > 0 ) {
+			int cell = open.data[--open.size];
+
+			int start = members.size;
+			for( int j = cellStart[cell]; j < cellStart[cell+1]; j++ ) {
+				int index = sorted[j];
+				if( labels[index] >= 0 )
+					continue;
+				float d = A*x[index] + B*y[index] + C*z[index] - D;
+				if( (float)Math.abs(d) <= threshold )
+					members.add(index);
+			}
+
+			// the plane doesn't pass through this cell
+			if( members.size - start < minCellInliers ) {
+				members.size = start;
+				continue;
+			}
+
+			int numNeighbors = findNeighbors(cell);
+			for( int i = 0; i < numNeighbors; i++ ) {
+				int n = neighbors[i];
+				if( cellVisited[n] != visitStamp ) {
+					cellVisited[n] = visitStamp;
+					open.add(n);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Assigns the points in 'members' to a new plane
+	 */
+	private void savePlane() {
+		int id = planes.size;
+		planes.grow().set(plane);
+
+		GrowQueue_I32 found = inliers.grow();
+		found.reset();
+		for( int i = 0; i < members.size; i++ ) {
+			int index = members.data[i];
+			found.add(index);
+			labels[index] = id;
+			cellUnassigned[pointCell[index]]--;
+		}
+		Arrays.sort(found.data, 0, found.size);
+	}
+
+	/**
+	 * Finds the cell and all of its neighbors which exist
+	 *
+	 * @return number of cells found
+	 */
+	private int findNeighbors( int cell ) {
+		int total = 0;
+		int cx = cellX[cell], cy = cellY[cell], cz = cellZ[cell];
+		for( int dz = -1; dz <= 1; dz++ ) {
+			for( int dy = -1; dy <= 1; dy++ ) {
+				for( int dx = -1; dx <= 1; dx++ ) {
+					int n = table.get(cx + dx, cy + dy, cz + dz);
+					if( n >= 0 )
+						neighbors[total++] = n;
+				}
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Found planes in Hessian normal form.
+	 */
+	public FastQueue<PlaneGeneral3D_F32> getPlanes() {
+		return planes;
+	}
+
+	/**
+	 * Indexes of the points which belong to each plane, in increasing order.
+	 */
+	public FastQueue<GrowQueue_I32> getInliers() {
+		return inliers;
+	}
+
+	/**
+	 * Index of the plane each point belongs to or -1 if it doesn't belong to a plane.  The array can be longer
+	 * than the cloud.
+	 */
+	public int[] getLabels() {
+		return labels;
+	}
+
+	public int getMaxPlanes() {
+		return maxPlanes;
+	}
+
+	/**
+	 * Maximum number of planes which will be found
+	 */
+	public void setMaxPlanes( int maxPlanes ) {
+		this.maxPlanes = maxPlanes;
+	}
+
+	public int getLocalIterations() {
+		return localIterations;
+	}
+
+	/**
+	 * Number of RANSAC iterations at each seed cell
+	 */
+	public void setLocalIterations( int localIterations ) {
+		this.localIterations = localIterations;
+	}
+
+	public int getMinCellInliers() {
+		return minCellInliers;
+	}
+
+	/**
+	 * Minimum number of inliers in a cell for the plane to grow through it
+	 */
+	public void setMinCellInliers( int minCellInliers ) {
+		this.minCellInliers = minCellInliers;
+	}
+
+	public int getRefineIterations() {
+		return refineIterations;
+	}
+
+	/**
+	 * Number of times a plane is refit to its inliers and grown again
+	 */
+	public void setRefineIterations( int refineIterations ) {
+		this.refineIterations = refineIterations;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Seed for the random number generator
+	 */
+	public void setSeed( long seed ) {
+		this.seed = seed;
+	}
+
+	public float getCellSize() {
+		return cellSize;
+	}
+
+	public float getThreshold() {
+		return threshold;
+	}
+
+	public int getMinPlanePoints() {
+		return minPlanePoints;
+	}
+}
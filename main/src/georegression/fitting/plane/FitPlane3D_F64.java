@@ -18,7 +18,9 @@
 
 package georegression.fitting.plane;
 
+import georegression.geometry.UtilPoint3D_F64;
 import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
 import georegression.struct.point.Vector3D_F64;
 import org.ejml.data.DenseMatrix64F;
 import org.ejml.factory.DecompositionFactory;
@@ -67,6 +69,21 @@ public class FitPlane3D_F64 {
 		return svdPoint(points,outputCenter,outputNormal);
 	}
 
+	/**
+	 * SVD based method for fitting a plane to a point cloud.  Same as {@link #svd(List, Point3D_F64, Vector3D_F64)}
+	 * but reads directly from a packed cloud.
+	 *
+	 * @param cloud (Input) Points on a plane.
+	 * @param outputCenter (Output) Centroid of the passed in points. Modified.
+	 * @param outputNormal (Output) Vector tangent to the plane.  Normalized.  Modified.
+	 * @return true if successful or false if it failed.
+	 */
+	public boolean svd( PointCloud3D_F64 cloud , Point3D_F64 outputCenter , Vector3D_F64 outputNormal ) {
+		UtilPoint3D_F64.mean(cloud,outputCenter);
+
+		return svdPoint(cloud,outputCenter,outputNormal);
+	}
+
 	/**
 	 * SVD based method for fitting a plane to a set of points and a known point on the plane.  The plane's
 	 * equation is returned as a point on the plane and the normal vector.
@@ -90,6 +107,38 @@ public class FitPlane3D_F64 {
 			A.data[index++] = p.z - pointOnPlane.z;
 		}
 
+		return computeNormal(outputNormal);
+	}
+
+	/**
+	 * SVD based method for fitting a plane to a point cloud and a known point on the plane.  Same as
+	 * {@link #svdPoint(List, Point3D_F64, Vector3D_F64)} but reads directly from a packed cloud.
+	 *
+	 * @param cloud (Input) Points on a plane.
+	 * @param pointOnPlane (Input) A known point on the plane
+	 * @param outputNormal (Output) Vector tangent to the plane.  Normalized. Modified.
+	 * @return true if successful or false if it failed.
+	 */
+	public boolean svdPoint( PointCloud3D_F64 cloud , Point3D_F64 pointOnPlane , Vector3D_F64 outputNormal ) {
+
+		final int N = cloud.size;
+
+		// construct the matrix
+		A.reshape(N,3);
+		int index = 0;
+		for( int i = 0; i < N; i++ ) {
+			A.data[index++] = cloud.x[i] - pointOnPlane.x;
+			A.data[index++] = cloud.y[i] - pointOnPlane.y;
+			A.data[index++] = cloud.z[i] - pointOnPlane.z;
+		}
+
+		return computeNormal(outputNormal);
+	}
+
+	/**
+	 * Computes the plane's normal from the singular vector of A with the smallest singular value
+	 */
+	private boolean computeNormal( Vector3D_F64 outputNormal ) {
 		// decompose and find the singular value
 		if( !svd.decompose(A) )
 			return false;
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.geometry.UtilPlane3D_F64;
+import georegression.struct.plane.PlaneGeneral3D_F64;
+import georegression.struct.plane.PlaneNormal3D_F64;
+import georegression.struct.point.Point3D_F64;
+import org.ddogleg.fitting.modelset.ModelFitter;
+
+import java.util.List;
+
+/**
+ * Least-squares plane fit to a set of points using {@link FitPlane3D_F64}, wrapped up as a {@link ModelFitter} so that
+ * it can be used to refine hypotheses found by RANSAC.  The initial model is ignored.
+ *
+ * @author Peter Abeles
+ */
+public class FitPlaneGeneral3D_F64 implements ModelFitter<PlaneGeneral3D_F64,Point3D_F64> {
+
+	FitPlane3D_F64 alg = new FitPlane3D_F64();
+
+	PlaneNormal3D_F64 plane = new PlaneNormal3D_F64();
+
+	@Override
+	public boolean fitModel( List<Point3D_F64> dataSet, PlaneGeneral3D_F64 initial, PlaneGeneral3D_F64 found) {
+		if( dataSet.size() < 3 )
+			return false;
+
+		if( !alg.svd(dataSet, plane.p, plane.n) )
+			return false;
+
+		UtilPlane3D_F64.convert(plane, found);
+		return true;
+	}
+}
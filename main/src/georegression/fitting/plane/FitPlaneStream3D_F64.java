@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.geometry.JacobiEigenSymmetric_F64;
+import georegression.struct.Matrix3x3_F64;
+import georegression.struct.plane.PlaneNormal3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+
+/**
+ * <p>
+ * Fits a plane to a stream of points without storing them.  Points are added one at a time or in chunks and
+ * the mean and the scatter matrix, sum (p-mean)*(p-mean)<sup>T</sup>, are updated.  At any time the plane
+ * can be computed from these statistics.  The normal is the eigenvector of the scatter matrix with the smallest
+ * eigenvalue, which is the same solution as {@link FitPlane3D_F64#svd}.  Statistics computed in different threads
+ * can be combined using {@link #merge}.
+ * </p>
+ *
+ * <p>
+ * Individual points are added using Welford's method and chunks are added by computing their statistics using
+ * two passes and combining with Chan's method.  This avoids the catastrophic cancellation which plagues raw
+ * sums when the points are far from the origin.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FitPlaneStream3D_F64 {
+
+	// number of points
+	long N;
+
+	// mean of all the points
+	double meanX, meanY, meanZ;
+
+	// upper triangular portion of the scatter matrix
+	double sxx, sxy, sxz, syy, syz, szz;
+
+	// used to find the normal
+	JacobiEigenSymmetric_F64 eigen = new JacobiEigenSymmetric_F64(3);
+	Matrix3x3_F64 S = new Matrix3x3_F64();
+
+	// degenerate if the gap between the two smallest eigenvalues is less than or equal to this times the largest
+	double separationTol = Math.sqrt(Math.ulp((double)1.0));
+
+	/**
+	 * Discards all the points which have been added
+	 */
+	public void reset() {
+		N = 0;
+		meanX = meanY = meanZ = 0;
+		sxx = sxy = sxz = syy = syz = szz = 0;
+	}
+
+	/**
+	 * Sets the statistics to be identical to the provided estimator
+	 */
+	public void set( FitPlaneStream3D_F64 src ) {
+		this.N = src.N;
+		this.meanX = src.meanX; this.meanY = src.meanY; this.meanZ = src.meanZ;
+		this.sxx = src.sxx; this.sxy = src.sxy; this.sxz = src.sxz;
+		this.syy = src.syy; this.syz = src.syz; this.szz = src.szz;
+	}
+
+	/**
+	 * Adds a single point
+	 */
+	public void add( Point3D_F64 p ) {
+		add(p.x, p.y, p.z);
+	}
+
+	/**
+	 * Adds a single point
+	 */
+	public void add( double x , double y , double z ) {
+		double dx = x - meanX, dy = y - meanY, dz = z - meanZ;
+
+		N++;
+		meanX += dx/N; meanY += dy/N; meanZ += dz/N;
+
+		// (p - meanOld)*(p - meanNew)'
+		double ex = x - meanX, ey = y - meanY, ez = z - meanZ;
+		sxx += dx*ex; sxy += dx*ey; sxz += dx*ez;
+		syy += dy*ey; syz += dy*ez;
+		szz += dz*ez;
+	}
+
+	/**
+	 * Adds all the points in the cloud
+	 */
+	public void add( PointCloud3D_F64 cloud ) {
+		add(cloud.x, cloud.y, cloud.z, 0, cloud.size);
+	}
+
+	/**
+	 * Adds a chunk of points stored in separate arrays for each axis.  The chunk's statistics are computed
+	 * using two passes then merged with the current statistics.
+	 *
+	 * @param x Array containing the x-coordinate
+	 * @param y Array containing the y-coordinate
+	 * @param z Array containing the z-coordinate
+	 * @param offset Index of the first point
+	 * @param length Number of points which are to be added
+	 */
+	public void add( double x[] , double y[] , double z[] , int offset , int length ) {
+		if( length <= 0 )
+			return;
+
+		final int end = offset + length;
+
+		double mx = 0, my = 0, mz = 0;
+		for( int i = offset; i < end; i++ ) {
+			mx += x[i]; my += y[i]; mz += z[i];
+		}
+		mx /= length; my /= length; mz /= length;
+
+		double cxx = 0, cxy = 0, cxz = 0, cyy = 0, cyz = 0, czz = 0;
+		for( int i = offset; i < end; i++ ) {
+			double dx = x[i] - mx, dy = y[i] - my, dz = z[i] - mz;
+			cxx += dx*dx; cxy += dx*dy; cxz += dx*dz;
+			cyy += dy*dy; cyz += dy*dz;
+			czz += dz*dz;
+		}
+
+		merge(length, mx, my, mz, cxx, cxy, cxz, cyy, cyz, czz);
+	}
+
+	/**
+	 * Adds the statistics from another estimator to this one.  The result is the same as if all the points
+	 * had been added to this estimator.
+	 *
+	 * @param src The estimator which is to be merged into this one. Not modified.
+	 */
+	public void merge( FitPlaneStream3D_F64 src ) {
+		merge(src.N, src.meanX, src.meanY, src.meanZ, src.sxx, src.sxy, src.sxz, src.syy, src.syz, src.szz);
+	}
+
+	private void merge( long srcN , double mx , double my , double mz ,
+						double cxx , double cxy , double cxz , double cyy , double cyz , double czz ) {
+		if( srcN == 0 )
+			return;
+
+		long total = N + srcN;
+		double dx = mx - meanX, dy = my - meanY, dz = mz - meanZ;
+		double f = N*(double)srcN/total;
+		double w = srcN/(double)total;
+
+		sxx += cxx + f*dx*dx; sxy += cxy + f*dx*dy; sxz += cxz + f*dx*dz;
+		syy += cyy + f*dy*dy; syz += cyz + f*dy*dz;
+		szz += czz + f*dz*dz;
+
+		meanX += dx*w; meanY += dy*w; meanZ += dz*w;
+		N = total;
+	}
+
+	/**
+	 * Computes the plane which best fits all the points which have been added.
+	 *
+	 * @param plane (Output) The plane.  The point is the centroid and the normal has a length of one. Modified.
+	 * @return true if successful or false if fewer than three points have been added or they are collinear
+	 */
+	public boolean computePlane( PlaneNormal3D_F64 plane ) {
+		if( N < 3 )
+			return false;
+
+		S.set(sxx, sxy, sxz, sxy, syy, syz, sxz, syz, szz);
+		if( !eigen.process(S) )
+			return false;
+
+		// Eigenvalues are sorted in descending order, so the last one is the smallest.  If the points are collinear
+		// or identical then the two smallest are the same and the normal can be any vector in their plane.
+		double l0 = eigen.getEigenvalue(0);
+		double l1 = eigen.getEigenvalue(1);
+		double l2 = eigen.getEigenvalue(2);
+		if( !(l1 - l2 > separationTol*l0) )
+			return false;
+
+		plane.p.set(meanX, meanY, meanZ);
+		plane.n.set(eigen.getEigenvector(0,2), eigen.getEigenvector(1,2), eigen.getEigenvector(2,2));
+
+		return true;
+	}
+
+	public double getSeparationTol() {
+		return separationTol;
+	}
+
+	/**
+	 * Specifies the relative tolerance used to detect collinear points.  The points are collinear if the difference
+	 * between the two smallest eigenvalues of the scatter matrix is &le; separationTol times the largest.
+	 */
+	public void setSeparationTol( double separationTol ) {
+		this.separationTol = separationTol;
+	}
+
+	/**
+	 * Number of points which have been added
+	 */
+	public long getCount() {
+		return N;
+	}
+
+	/**
+	 * Returns the mean of all the points
+	 *
+	 * @param mean (Output) Storage for the mean.  If null a new instance is created. Modified.
+	 * @return The mean
+	 */
+	public Point3D_F64 getMean( Point3D_F64 mean ) {
+		if( mean == null )
+			mean = new Point3D_F64();
+		mean.set(meanX, meanY, meanZ);
+		return mean;
+	}
+
+	/**
+	 * Returns the covariance of all the points, the scatter matrix divided by the number of points.
+	 *
+	 * @param covariance (Output) Storage for the covariance. If null a new instance is created. Modified.
+	 * @return The covariance
+	 */
+	public Matrix3x3_F64 getCovariance( Matrix3x3_F64 covariance ) {
+		if( covariance == null )
+			covariance = new Matrix3x3_F64();
+		covariance.set(sxx, sxy, sxz, sxy, syy, syz, sxz, syz, szz);
+		if( N > 0 )
+			covariance.scale(1.0/N);
+		return covariance;
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.plane.PlaneGeneral3D_F64;
+import georegression.struct.point.Point3D_F64;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+
+import java.util.List;
+
+/**
+ * Computes the plane which passes through the minimum number of points, three.  The output is in
+ * Hessian normal form.  Intended for generating hypotheses in RANSAC.  No memory is declared.
+ *
+ * @author Peter Abeles
+ */
+public class GeneratePlaneGeneral3D_F64 implements ModelGenerator<PlaneGeneral3D_F64,Point3D_F64> {
+
+	/**
+	 * Uses the first three points in the list.
+	 */
+	@Override
+	public boolean generate( List<Point3D_F64> dataSet, PlaneGeneral3D_F64 output) {
+		return process(dataSet.get(0), dataSet.get(1), dataSet.get(2), output);
+	}
+
+	/**
+	 * Computes the plane which passes through the three points.
+	 *
+	 * @param a (Input) Point on the plane
+	 * @param b (Input) Point on the plane
+	 * @param c (Input) Point on the plane
+	 * @param output (Output) Plane in Hessian normal form. Modified.
+	 * @return true if successful or false if the points are collinear
+	 */
+	public boolean process( Point3D_F64 a , Point3D_F64 b , Point3D_F64 c , PlaneGeneral3D_F64 output ) {
+		double ux = b.x - a.x, uy = b.y - a.y, uz = b.z - a.z;
+		double vx = c.x - a.x, vy = c.y - a.y, vz = c.z - a.z;
+
+		// normal is u cross v
+		double nx = uy*vz - uz*vy;
+		double ny = uz*vx - ux*vz;
+		double nz = ux*vy - uy*vx;
+
+		double n2 = nx*nx + ny*ny + nz*nz;
+		double uu = ux*ux + uy*uy + uz*uz;
+		double vv = vx*vx + vy*vy + vz*vz;
+
+		// the angle between u and v is zero
+		if( !(n2 > GrlConstants.EPS*uu*vv) )
+			return false;
+
+		double n = Math.sqrt(n2);
+		output.A = nx/n;
+		output.B = ny/n;
+		output.C = nz/n;
+		output.D = output.A*a.x + output.B*a.y + output.C*a.z;
+
+		return true;
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 3;
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.fitting.ScoreInliers3D_F64;
+import georegression.struct.plane.PlaneGeneral3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * Scores points by their distance from a {@link PlaneGeneral3D_F64}.  The plane is normalized once
+ * in {@link #setModel} so that scoring each point only requires a dot product.
+ *
+ * @author Peter Abeles
+ */
+public class ScoreInliersPlaneGeneral3D_F64 implements ScoreInliers3D_F64<PlaneGeneral3D_F64> {
+
+	// plane in Hessian normal form
+	double A,B,C,D;
+
+	double threshold;
+
+	public ScoreInliersPlaneGeneral3D_F64( double threshold ) {
+		this.threshold = threshold;
+	}
+
+	public ScoreInliersPlaneGeneral3D_F64() {
+	}
+
+	@Override
+	public void setModel( PlaneGeneral3D_F64 plane ) {
+		double n = Math.sqrt(plane.A*plane.A + plane.B*plane.B + plane.C*plane.C);
+		A = plane.A/n;
+		B = plane.B/n;
+		C = plane.C/n;
+		D = plane.D/n;
+	}
+
+	@Override
+	public void setThreshold( double threshold ) {
+		this.threshold = threshold;
+	}
+
+	@Override
+	public double getThreshold() {
+		return threshold;
+	}
+
+	@Override
+	public int count( PointCloud3D_F64 cloud ) {
+		return count(cloud, -1);
+	}
+
+	@Override
+	public int count( PointCloud3D_F64 cloud , int best ) {
+		final double[] x = cloud.x, y = cloud.y, z = cloud.z;
+		final int N = cloud.size;
+		// it can't beat best once this many outliers have been found
+		final int maxOutliers = N - best;
+
+		int outliers = 0;
+		for( int i = 0; i < N; i++ ) {
+			double d = A*x[i] + B*y[i] + C*z[i] - D;
+			if( !(Math.abs(d) <= threshold) ) {
+				if( ++outliers >= maxOutliers )
+					return i + 1 - outliers;
+			}
+		}
+		return N - outliers;
+	}
+
+	@Override
+	public int mask( PointCloud3D_F64 cloud , long[] mask ) {
+		final double[] x = cloud.x, y = cloud.y, z = cloud.z;
+		final int N = cloud.size;
+
+		int total = 0;
+		for( int block = 0; block < N; block += 64 ) {
+			int end = block + 64;
+			if( end > N ) end = N;
+			long bits = 0;
+			for( int i = block; i < end; i++ ) {
+				double d = A*x[i] + B*y[i] + C*z[i] - D;
+				if( Math.abs(d) <= threshold ) {
+					bits |= 1L << (i - block);
+					total++;
+				}
+			}
+			mask[block >> 6] = bits;
+		}
+		return total;
+	}
+
+	@Override
+	public int select( PointCloud3D_F64 cloud , GrowQueue_I32 indexes ) {
+		final double[] x = cloud.x, y = cloud.y, z = cloud.z;
+		final int N = cloud.size;
+
+		indexes.reset();
+		for( int i = 0; i < N; i++ ) {
+			double d = A*x[i] + B*y[i] + C*z[i] - D;
+			if( Math.abs(d) <= threshold ) {
+				indexes.add(i);
+			}
+		}
+		return indexes.size;
+	}
+}
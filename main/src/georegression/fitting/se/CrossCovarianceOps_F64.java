@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.struct.Matrix3x3_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+
+import java.util.List;
+
+/**
+ * Computes the mean of two sets of associated 3D points and their cross-covariance matrix,
+ * Sigma = sum w*(dst-meanDst)*(src-meanSrc)<sup>T</sup>.  Shared by the rigid body motion estimators in this
+ * package.  The cross-covariance matrix is not normalized by the number of points or the total weight.
+ *
+ * @author Peter Abeles
+ */
+class CrossCovarianceOps_F64 {
+
+	/**
+	 * Computes the mean of each set of points and their cross-covariance.
+	 *
+	 * @param srcPts (Input) Points in the source frame
+	 * @param dstPts (Input) Points in the destination frame.  Same size as srcPts.
+	 * @param meanSrc (Output) Mean of the source points
+	 * @param meanDst (Output) Mean of the destination points
+	 * @param Sigma (Output) Cross-covariance matrix
+	 */
+	static void compute( List<Point3D_F64> srcPts , List<Point3D_F64> dstPts ,
+						 Point3D_F64 meanSrc , Point3D_F64 meanDst , Matrix3x3_F64 Sigma ) {
+		final int N = srcPts.size();
+
+		double msx = 0, msy = 0, msz = 0;
+		double mdx = 0, mdy = 0, mdz = 0;
+		for( int i = 0; i < N; i++ ) {
+			Point3D_F64 f = srcPts.get( i );
+			Point3D_F64 t = dstPts.get( i );
+			msx += f.x; msy += f.y; msz += f.z;
+			mdx += t.x; mdy += t.y; mdz += t.z;
+		}
+		msx /= N; msy /= N; msz /= N;
+		mdx /= N; mdy /= N; mdz /= N;
+
+		double s11 = 0, s12 = 0, s13 = 0;
+		double s21 = 0, s22 = 0, s23 = 0;
+		double s31 = 0, s32 = 0, s33 = 0;
+
+		for( int i = 0; i < N; i++ ) {
+			Point3D_F64 f = srcPts.get( i );
+			Point3D_F64 t = dstPts.get( i );
+
+			double dfx = f.x - msx;
+			double dfy = f.y - msy;
+			double dfz = f.z - msz;
+
+			double dtx = t.x - mdx;
+			double dty = t.y - mdy;
+			double dtz = t.z - mdz;
+
+			s11 += dtx*dfx;
+			s12 += dtx*dfy;
+			s13 += dtx*dfz;
+			s21 += dty*dfx;
+			s22 += dty*dfy;
+			s23 += dty*dfz;
+			s31 += dtz*dfx;
+			s32 += dtz*dfy;
+			s33 += dtz*dfz;
+		}
+
+		meanSrc.set(msx, msy, msz);
+		meanDst.set(mdx, mdy, mdz);
+		Sigma.set(s11, s12, s13, s21, s22, s23, s31, s32, s33);
+	}
+
+	/**
+	 * Computes the mean and cross-covariance of the points from start to end-1 in packed point clouds.
+	 *
+	 * @param srcPts (Input) Points in the source frame
+	 * @param dstPts (Input) Points in the destination frame
+	 * @param start (Input) Index of the first point
+	 * @param end (Input) One past the index of the last point.  Must be more than start.
+	 * @param meanSrc (Output) Mean of the source points
+	 * @param meanDst (Output) Mean of the destination points
+	 * @param Sigma (Output) Cross-covariance matrix
+	 */
+	static void compute( PointCloud3D_F64 srcPts , PointCloud3D_F64 dstPts , int start , int end ,
+						 Point3D_F64 meanSrc , Point3D_F64 meanDst , Matrix3x3_F64 Sigma ) {
+		final int N = end - start;
+
+		double[] sx = srcPts.x, sy = srcPts.y, sz = srcPts.z;
+		double[] dx = dstPts.x, dy = dstPts.y, dz = dstPts.z;
+
+		double msx = 0, msy = 0, msz = 0;
+		double mdx = 0, mdy = 0, mdz = 0;
+		for( int i = start; i < end; i++ ) {
+			msx += sx[i]; msy += sy[i]; msz += sz[i];
+			mdx += dx[i]; mdy += dy[i]; mdz += dz[i];
+		}
+		msx /= N; msy /= N; msz /= N;
+		mdx /= N; mdy /= N; mdz /= N;
+
+		double s11 = 0, s12 = 0, s13 = 0;
+		double s21 = 0, s22 = 0, s23 = 0;
+		double s31 = 0, s32 = 0, s33 = 0;
+
+		for( int i = start; i < end; i++ ) {
+			double dfx = sx[i] - msx;
+			double dfy = sy[i] - msy;
+			double dfz = sz[i] - msz;
+
+			double dtx = dx[i] - mdx;
+			double dty = dy[i] - mdy;
+			double dtz = dz[i] - mdz;
+
+			s11 += dtx*dfx;
+			s12 += dtx*dfy;
+			s13 += dtx*dfz;
+			s21 += dty*dfx;
+			s22 += dty*dfy;
+			s23 += dty*dfz;
+			s31 += dtz*dfx;
+			s32 += dtz*dfy;
+			s33 += dtz*dfz;
+		}
+
+		meanSrc.set(msx, msy, msz);
+		meanDst.set(mdx, mdy, mdz);
+		Sigma.set(s11, s12, s13, s21, s22, s23, s31, s32, s33);
+	}
+
+	/**
+	 * Weighted version of {@link #compute(List, List, Point3D_F64, Point3D_F64, Matrix3x3_F64)}.
+	 *
+	 * @param weights (Input) Weight of each pair of points.  Must be &ge; 0.
+	 * @return false if the sum of weights is zero
+	 * @throws IllegalArgumentException if a weight is negative or NaN
+	 */
+	static boolean compute( List<Point3D_F64> srcPts , List<Point3D_F64> dstPts , double[] weights ,
+							Point3D_F64 meanSrc , Point3D_F64 meanDst , Matrix3x3_F64 Sigma ) {
+		final int N = srcPts.size();
+
+		double totalWeight = 0;
+		double msx = 0, msy = 0, msz = 0;
+		double mdx = 0, mdy = 0, mdz = 0;
+		for( int i = 0; i < N; i++ ) {
+			double w = weights[i];
+			if( !(w >= 0) )
+				throw new IllegalArgumentException("Weights must be >= 0. weights["+i+"] = "+w);
+			Point3D_F64 f = srcPts.get( i );
+			Point3D_F64 t = dstPts.get( i );
+			msx += w*f.x; msy += w*f.y; msz += w*f.z;
+			mdx += w*t.x; mdy += w*t.y; mdz += w*t.z;
+			totalWeight += w;
+		}
+		if( totalWeight <= 0 )
+			return false;
+
+		msx /= totalWeight; msy /= totalWeight; msz /= totalWeight;
+		mdx /= totalWeight; mdy /= totalWeight; mdz /= totalWeight;
+
+		double s11 = 0, s12 = 0, s13 = 0;
+		double s21 = 0, s22 = 0, s23 = 0;
+		double s31 = 0, s32 = 0, s33 = 0;
+
+		for( int i = 0; i < N; i++ ) {
+			double w = weights[i];
+			Point3D_F64 f = srcPts.get( i );
+			Point3D_F64 t = dstPts.get( i );
+
+			double dfx = f.x - msx;
+			double dfy = f.y - msy;
+			double dfz = f.z - msz;
+
+			double dtx = w*(t.x - mdx);
+			double dty = w*(t.y - mdy);
+			double dtz = w*(t.z - mdz);
+
+			s11 += dtx*dfx;
+			s12 += dtx*dfy;
+			s13 += dtx*dfz;
+			s21 += dty*dfx;
+			s22 += dty*dfy;
+			s23 += dty*dfz;
+			s31 += dtz*dfx;
+			s32 += dtz*dfy;
+			s33 += dtz*dfz;
+		}
+
+		meanSrc.set(msx, msy, msz);
+		meanDst.set(mdx, mdy, mdz);
+		Sigma.set(s11, s12, s13, s21, s22, s23, s31, s32, s33);
+		return true;
+	}
+
+	/**
+	 * Weighted version of {@link #compute(PointCloud3D_F64, PointCloud3D_F64, int, int, Point3D_F64, Point3D_F64, Matrix3x3_F64)}
+	 * which uses every point in the clouds.
+	 *
+	 * @param weights (Input) Weight of each pair of points.  Must be &ge; 0.
+	 * @return false if the sum of weights is zero
+	 * @throws IllegalArgumentException if a weight is negative or NaN
+	 */
+	static boolean compute( PointCloud3D_F64 srcPts , PointCloud3D_F64 dstPts , double[] weights ,
+							Point3D_F64 meanSrc , Point3D_F64 meanDst , Matrix3x3_F64 Sigma ) {
+		final int N = srcPts.size;
+
+		double[] sx = srcPts.x, sy = srcPts.y, sz = srcPts.z;
+		double[] dx = dstPts.x, dy = dstPts.y, dz = dstPts.z;
+
+		double totalWeight = 0;
+		double msx = 0, msy = 0, msz = 0;
+		double mdx = 0, mdy = 0, mdz = 0;
+		for( int i = 0; i < N; i++ ) {
+			double w = weights[i];
+			if( !(w >= 0) )
+				throw new IllegalArgumentException("Weights must be >= 0. weights["+i+"] = "+w);
+			msx += w*sx[i]; msy += w*sy[i]; msz += w*sz[i];
+			mdx += w*dx[i]; mdy += w*dy[i]; mdz += w*dz[i];
+			totalWeight += w;
+		}
+		if( totalWeight <= 0 )
+			return false;
+
+		msx /= totalWeight; msy /= totalWeight; msz /= totalWeight;
+		mdx /= totalWeight; mdy /= totalWeight; mdz /= totalWeight;
+
+		double s11 = 0, s12 = 0, s13 = 0;
+		double s21 = 0, s22 = 0, s23 = 0;
+		double s31 = 0, s32 = 0, s33 = 0;
+
+		for( int i = 0; i < N; i++ ) {
+			double w = weights[i];
+			double dfx = sx[i] - msx;
+			double dfy = sy[i] - msy;
+			double dfz = sz[i] - msz;
+
+			double dtx = w*(dx[i] - mdx);
+			double dty = w*(dy[i] - mdy);
+			double dtz = w*(dz[i] - mdz);
+
+			s11 += dtx*dfx;
+			s12 += dtx*dfy;
+			s13 += dtx*dfz;
+			s21 += dty*dfx;
+			s22 += dty*dfy;
+			s23 += dty*dfz;
+			s31 += dtz*dfx;
+			s32 += dtz*dfy;
+			s33 += dtz*dfz;
+		}
+
+		meanSrc.set(msx, msy, msz);
+		meanDst.set(mdx, mdy, mdz);
+		Sigma.set(s11, s12, s13, s21, s22, s23, s31, s32, s33);
+		return true;
+	}
+}
@@ -21,6 +21,7 @@ package georegression.fitting.se;
 import georegression.fitting.MotionTransformPoint;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
 import georegression.struct.se.Se2_F64;
 import georegression.struct.se.Se3_F64;
 
@@ -86,4 +87,32 @@ public class FitSpecialEuclideanOps_F64 {
 
 		return alg.getTransformSrcToDst();
 	}
+
+	/**
+	 * Computes the {@link Se3_F64} transform for many independent sets of corresponding points.  All the sets are
+	 * stored in two packed point clouds and set 'i' is composed of points offsets[i] to offsets[i+1]-1.  To avoid
+	 * declaring memory on each call use {@link MotionSe3PointBatch_F64} directly.
+	 *
+	 * @param from Original location of the points in all the sets.
+	 * @param to Observed location of the points after a transform has been applied.
+	 * @param offsets Index of the first point in each set.  Has numSets+1 elements.
+	 * @param numSets Number of sets.
+	 * @return Found transform for each set.  Null if there were too few points or they were degenerate.
+	 */
+	public static Se3_F64[] fitPoints3D( PointCloud3D_F64 from, PointCloud3D_F64 to, int[] offsets, int numSets ) {
+		Se3_F64[] motions = new Se3_F64[ numSets ];
+		boolean[] success = new boolean[ numSets ];
+		for( int i = 0; i < numSets; i++ ) {
+			motions[i] = new Se3_F64();
+		}
+
+		new MotionSe3PointBatch_F64().process( from, to, offsets, numSets, motions, success );
+
+		for( int i = 0; i < numSets; i++ ) {
+			if( !success[i] )
+				motions[i] = null;
+		}
+
+		return motions;
+	}
 }
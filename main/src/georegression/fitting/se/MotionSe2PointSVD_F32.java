@@ -106,6 +106,65 @@ public class MotionSe2PointSVD_F32 implements MotionTransformPoint<Se2_F32, Poin
 
 		Sigma.data[0] = s11;Sigma.data[1] = s12;
 		Sigma.data[2] = s21;Sigma.data[3] = s22;
+
+		return computeMotion();
+	}
+
+	/**
+	 * Weighted version of {@link #process(List, List)}.  The contribution of each pair of points to the mean and
+	 * the cross-covariance is scaled by its weight.  Pairs with a weight of zero are ignored.
+	 *
+	 * @param srcPts Points in the source frame
+	 * @param dstPts Points in the destination frame
+	 * @param weights Weight of each pair of points.  Must be &ge; 0.  Not modified.
+	 * @return true if successful or false if the sum of weights is zero
+	 * @throws IllegalArgumentException if a weight is negative or NaN
+	 */
+	public boolean process( List<Point2D_F32> srcPts, List<Point2D_F32> dstPts, float[] weights ) {
+		if( srcPts.size() != dstPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		final int N = srcPts.size();
+
+		float totalWeight = 0;
+		float fx = 0, fy = 0, tx = 0, ty = 0;
+		float s11 = 0, s12 = 0;
+		float s21 = 0, s22 = 0;
+
+		for( int i = 0; i < N; i++ ) {
+			float w = weights[i];
+			if( !(w >= 0) )
+				throw new IllegalArgumentException("Weights must be >= 0. weights["+i+"] = "+w);
+			Point2D_F32 f = srcPts.get( i );
+			Point2D_F32 t = dstPts.get( i );
+
+			float wfx = w*f.x, wfy = w*f.y;
+			fx += wfx; fy += wfy;
+			tx += w*t.x; ty += w*t.y;
+			s11 += wfx * t.x;
+			s12 += wfx * t.y;
+			s21 += wfy * t.x;
+			s22 += wfy * t.y;
+			totalWeight += w;
+		}
+		if( totalWeight <= 0 )
+			return false;
+
+		meanFrom.set(fx/totalWeight, fy/totalWeight);
+		meanTo.set(tx/totalWeight, ty/totalWeight);
+
+		Sigma.data[0] = s11/totalWeight - meanFrom.x*meanTo.x;
+		Sigma.data[1] = s12/totalWeight - meanFrom.x*meanTo.y;
+		Sigma.data[2] = s21/totalWeight - meanFrom.y*meanTo.x;
+		Sigma.data[3] = s22/totalWeight - meanFrom.y*meanTo.y;
+
+		return computeMotion();
+	}
+
+	/**
+	 * Computes the motion from the cross-covariance matrix Sigma and the mean of each set of points
+	 */
+	private boolean computeMotion() {
 		// Compute the SVD of the cross correlation matrix
 		// The rotation matrix is R = V*U^T
 
@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.struct.Matrix3x3_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.se.Se3_F64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Incrementally maintains the sufficient statistics needed to estimate the rigid body motion between two sets of
+ * associated 3D points.  The number of pairs, the mean of each set, and the cross-covariance
+ * sum (dst-meanDst)*(src-meanSrc)<sup>T</sup> are updated in O(1) whenever a pair is added or removed.  The motion
+ * can be found at any time without revisiting the points, which is useful when only a few associations change
+ * between fits, e.g. RANSAC refinement or a sliding window.  Statistics computed in different threads can be
+ * combined using {@link #merge}.
+ * </p>
+ *
+ * <p>
+ * Means and the cross-covariance are updated using Welford's method and combined using Chan's method.  This
+ * avoids the catastrophic cancellation which plagues raw sums when the points are far from the origin.  Removing
+ * a pair which was never added will corrupt the statistics.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionSe3PointAccumulator_F64 {
+
+	// number of pairs
+	int N;
+
+	// mean of source and destination points
+	Point3D_F64 meanSrc = new Point3D_F64();
+	Point3D_F64 meanDst = new Point3D_F64();
+
+	// sum (dst-meanDst)*(src-meanSrc)'
+	Matrix3x3_F64 Sigma = new Matrix3x3_F64();
+
+	// solves for the motion given the statistics
+	MotionSe3PointFixedSVD_F64 alg = new MotionSe3PointFixedSVD_F64();
+
+	/**
+	 * Discards all the pairs which have been added
+	 */
+	public void reset() {
+		N = 0;
+		meanSrc.set(0,0,0);
+		meanDst.set(0,0,0);
+		Sigma.zero();
+	}
+
+	/**
+	 * Sets the statistics to be identical to the provided accumulator
+	 */
+	public void set( MotionSe3PointAccumulator_F64 src ) {
+		this.N = src.N;
+		this.meanSrc.set(src.meanSrc);
+		this.meanDst.set(src.meanDst);
+		this.Sigma.set(src.Sigma);
+	}
+
+	/**
+	 * Adds an associated pair of points.
+	 *
+	 * @param src Point in the source frame
+	 * @param dst Point in the destination frame
+	 */
+	public void add( Point3D_F64 src , Point3D_F64 dst ) {
+		add(src.x, src.y, src.z, dst.x, dst.y, dst.z);
+	}
+
+	/**
+	 * Adds an associated pair of points.
+	 */
+	public void add( double srcX , double srcY , double srcZ , double dstX , double dstY , double dstZ ) {
+		double dsx = srcX - meanSrc.x, dsy = srcY - meanSrc.y, dsz = srcZ - meanSrc.z;
+		double ddx = dstX - meanDst.x, ddy = dstY - meanDst.y, ddz = dstZ - meanDst.z;
+
+		N++;
+		double f = (N-1)/(double)N;
+
+		updateSigma(f, dsx, dsy, dsz, ddx, ddy, ddz);
+
+		meanSrc.x += dsx/N; meanSrc.y += dsy/N; meanSrc.z += dsz/N;
+		meanDst.x += ddx/N; meanDst.y += ddy/N; meanDst.z += ddz/N;
+	}
+
+	/**
+	 * Adds every pair in the two lists.  Points with the same index are associated with each other.
+	 */
+	public void addAll( List<Point3D_F64> srcPts , List<Point3D_F64> dstPts ) {
+		if( srcPts.size() != dstPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		for( int i = 0; i < srcPts.size(); i++ ) {
+			add(srcPts.get(i), dstPts.get(i));
+		}
+	}
+
+	/**
+	 * Adds every pair in the two point clouds.  Points with the same index are associated with each other.
+	 */
+	public void addAll( PointCloud3D_F64 srcPts , PointCloud3D_F64 dstPts ) {
+		if( srcPts.size != dstPts.size )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		for( int i = 0; i < srcPts.size; i++ ) {
+			add(srcPts.x[i], srcPts.y[i], srcPts.z[i], dstPts.x[i], dstPts.y[i], dstPts.z[i]);
+		}
+	}
+
+	/**
+	 * Removes a pair of points which had previously been added.
+	 *
+	 * @param src Point in the source frame
+	 * @param dst Point in the destination frame
+	 */
+	public void remove( Point3D_F64 src , Point3D_F64 dst ) {
+		remove(src.x, src.y, src.z, dst.x, dst.y, dst.z);
+	}
+
+	/**
+	 * Removes a pair of points which had previously been added.
+	 */
+	public void remove( double srcX , double srcY , double srcZ , double dstX , double dstY , double dstZ ) {
+		if( N == 0 )
+			throw new IllegalArgumentException("No pairs to remove");
+		if( N == 1 ) {
+			reset();
+			return;
+		}
+
+		double dsx = srcX - meanSrc.x, dsy = srcY - meanSrc.y, dsz = srcZ - meanSrc.z;
+		double ddx = dstX - meanDst.x, ddy = dstY - meanDst.y, ddz = dstZ - meanDst.z;
+
+		double f = N/(double)(N-1);
+
+		updateSigma(-f, dsx, dsy, dsz, ddx, ddy, ddz);
+
+		N--;
+		meanSrc.x -= dsx/N; meanSrc.y -= dsy/N; meanSrc.z -= dsz/N;
+		meanDst.x -= ddx/N; meanDst.y -= ddy/N; meanDst.z -= ddz/N;
+	}
+
+	/**
+	 * Adds the statistics from another accumulator to this one.  The result is the same as if all the pairs
+	 * had been added to this accumulator.
+	 *
+	 * @param src The accumulator which is to be merged into this one. Not modified.
+	 */
+	public void merge( MotionSe3PointAccumulator_F64 src ) {
+		if( src.N == 0 )
+			return;
+		if( N == 0 ) {
+			set(src);
+			return;
+		}
+
+		double dsx = src.meanSrc.x - meanSrc.x, dsy = src.meanSrc.y - meanSrc.y, dsz = src.meanSrc.z - meanSrc.z;
+		double ddx = src.meanDst.x - meanDst.x, ddy = src.meanDst.y - meanDst.y, ddz = src.meanDst.z - meanDst.z;
+
+		int total = N + src.N;
+		double f = N*(double)src.N/total;
+
+		Sigma.a11 += src.Sigma.a11; Sigma.a12 += src.Sigma.a12; Sigma.a13 += src.Sigma.a13;
+		Sigma.a21 += src.Sigma.a21; Sigma.a22 += src.Sigma.a22; Sigma.a23 += src.Sigma.a23;
+		Sigma.a31 += src.Sigma.a31; Sigma.a32 += src.Sigma.a32; Sigma.a33 += src.Sigma.a33;
+		updateSigma(f, dsx, dsy, dsz, ddx, ddy, ddz);
+
+		double w = src.N/(double)total;
+		meanSrc.x += dsx*w; meanSrc.y += dsy*w; meanSrc.z += dsz*w;
+		meanDst.x += ddx*w; meanDst.y += ddy*w; meanDst.z += ddz*w;
+
+		N = total;
+	}
+
+	/**
+	 * Sigma += f*dd*ds'
+	 */
+	private void updateSigma( double f ,
+							  double dsx , double dsy , double dsz ,
+							  double ddx , double ddy , double ddz ) {
+		double fx = f*ddx, fy = f*ddy, fz = f*ddz;
+
+		Sigma.a11 += fx*dsx; Sigma.a12 += fx*dsy; Sigma.a13 += fx*dsz;
+		Sigma.a21 += fy*dsx; Sigma.a22 += fy*dsy; Sigma.a23 += fy*dsz;
+		Sigma.a31 += fz*dsx; Sigma.a32 += fz*dsy; Sigma.a33 += fz*dsz;
+	}
+
+	/**
+	 * Computes the rigid body motion which best fits all the pairs which have been added.
+	 *
+	 * @param motion (Output) Found motion from source to destination. Modified.
+	 * @return true if successful or false if there are too few pairs or they are degenerate
+	 */
+	public boolean computeMotion( Se3_F64 motion ) {
+		if( N < alg.getMinimumPoints() )
+			return false;
+
+		return alg.computeMotion(Sigma, meanSrc, meanDst, motion);
+	}
+
+	/**
+	 * Number of pairs which have been added
+	 */
+	public int getCount() {
+		return N;
+	}
+
+	/**
+	 * Mean of the source points.  Do not modify.
+	 */
+	public Point3D_F64 getMeanSrc() {
+		return meanSrc;
+	}
+
+	/**
+	 * Mean of the destination points.  Do not modify.
+	 */
+	public Point3D_F64 getMeanDst() {
+		return meanDst;
+	}
+
+	/**
+	 * The sum (dst-meanDst)*(src-meanSrc)<sup>T</sup>.  Do not modify.
+	 */
+	public Matrix3x3_F64 getCrossCovariance() {
+		return Sigma;
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.misc.ConcurrencyOps;
+import georegression.struct.Matrix3x3_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.se.Se3_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Finds the rigid body motion for many independent sets of associated 3D points in a single call.  Intended
+ * for when there are thousands of small sets, e.g. a few markers on each rigid body, where the cost of
+ * creating lists and a general purpose SVD for each set dominates.  All the sets are stored in a pair of
+ * packed point clouds and an offset table, in the same style as compressed row storage.  Set 'i' is
+ * composed of points offsets[i] to offsets[i+1]-1, with the same index in the source and destination clouds
+ * being associated with each other.
+ * </p>
+ *
+ * <p>
+ * Each set is solved using {@link MotionSe3PointFixedSVD_F64#computeMotion}, so the solution is identical.
+ * No memory is declared after the first call.  Sets are processed in blocks which can be processed
+ * in parallel using the pool in {@link ConcurrencyOps}.  Each thread has its own storage and the results
+ * don't depend on the number of threads.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionSe3PointBatch_F64 {
+
+	// number of sets a thread processes before it requests more
+	public static final int BLOCK_SIZE = 256;
+
+	// should it process blocks in multiple threads
+	boolean concurrent = true;
+
+	// storage for each thread
+	List<Workspace> workspaces = new ArrayList<Workspace>();
+
+	// processes a block of sets
+	ConcurrencyOps.BlockWorker<Workspace> worker = new ConcurrencyOps.BlockWorker<Workspace>() {
+		@Override
+		public void process( Workspace workspace , int block ) {
+			processBlock(workspace, block);
+		}
+	};
+
+	// references to input and output for the current call
+	PointCloud3D_F64 src, dst;
+	int[] offsets;
+	int numSets;
+	Se3_F64[] motions;
+	boolean[] success;
+
+	/**
+	 * Computes the motion for every set.
+	 *
+	 * @param src (Input) Points in the source frame for all the sets.  Not modified.
+	 * @param dst (Input) Points in the destination frame for all the sets.  Not modified.
+	 * @param offsets (Input) Index of the first point in each set.  Must have at least numSets+1 elements.
+	 *                offsets[numSets] is one past the last point in the last set.  Not modified.
+	 * @param numSets (Input) Number of sets
+	 * @param motions (Output) Found motion from source to destination for each set.  Must have at least
+	 *                numSets elements which are not null.  Motions for sets that fail are not modified.
+	 * @param success (Output) Optional. If not null then set to true for each set that was solved.
+	 * @return Number of sets which were successfully solved
+	 */
+	public int process( PointCloud3D_F64 src , PointCloud3D_F64 dst , int[] offsets , int numSets ,
+						Se3_F64[] motions , boolean[] success ) {
+		if( src.size != dst.size )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+		if( offsets.length < numSets+1 )
+			throw new IllegalArgumentException("offsets must have at least numSets+1 elements");
+		if( motions.length < numSets )
+			throw new IllegalArgumentException("motions must have at least numSets elements");
+		if( success != null && success.length < numSets )
+			throw new IllegalArgumentException("success must have at least numSets elements");
+		if( numSets > 0 && (offsets[0] < 0 || offsets[numSets] > src.size) )
+			throw new IllegalArgumentException("offsets reference points outside of the clouds");
+
+		this.src = src;
+		this.dst = dst;
+		this.offsets = offsets;
+		this.numSets = numSets;
+		this.motions = motions;
+		this.success = success;
+
+		int numBlocks = (numSets + BLOCK_SIZE - 1)/BLOCK_SIZE;
+
+		int numThreads = concurrent ? ConcurrencyOps.numThreads(numBlocks) : 1;
+
+		while( workspaces.size() < numThreads ) {
+			workspaces.add(new Workspace());
+		}
+		for( int i = 0; i < numThreads; i++ ) {
+			workspaces.get(i).numSolved = 0;
+		}
+
+		ConcurrencyOps.loopBlocks(numBlocks, workspaces.subList(0, numThreads), worker);
+
+		int total = 0;
+		for( int i = 0; i < numThreads; i++ ) {
+			total += workspaces.get(i).numSolved;
+		}
+
+		this.src = this.dst = null;
+		this.offsets = null;
+		this.motions = null;
+		this.success = null;
+
+		return total;
+	}
+
+	/**
+	 * Processes all the sets in a block
+	 */
+	private void processBlock( Workspace w , int block ) {
+		int start = block*BLOCK_SIZE;
+		int end = start + BLOCK_SIZE;
+		if( end > numSets )
+			end = numSets;
+
+		for( int i = start; i < end; i++ ) {
+			boolean solved = processSet(w, offsets[i], offsets[i+1], motions[i]);
+			if( solved )
+				w.numSolved++;
+			if( success != null )
+				success[i] = solved;
+		}
+	}
+
+	/**
+	 * Computes the motion for the points from start to end-1.
+	 */
+	private boolean processSet( Workspace w , int start , int end , Se3_F64 motion ) {
+		int N = end - start;
+		if( N < 3 )
+			return false;
+
+		CrossCovarianceOps_F64.compute(src, dst, start, end, w.meanSrc, w.meanDst, w.Sigma);
+
+		return w.alg.computeMotion(w.Sigma, w.meanSrc, w.meanDst, motion);
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * If true then blocks of sets are processed in multiple threads.  The results are the same either way.
+	 */
+	public void setConcurrent( boolean concurrent ) {
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Storage used by a single thread
+	 */
+	class Workspace {
+		MotionSe3PointFixedSVD_F64 alg = new MotionSe3PointFixedSVD_F64();
+		Matrix3x3_F64 Sigma = new Matrix3x3_F64();
+		Point3D_F64 meanSrc = new Point3D_F64();
+		Point3D_F64 meanDst = new Point3D_F64();
+		int numSolved;
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.geometry.JacobiEigenSymmetric_F64;
+import georegression.struct.Matrix3x3_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.se.Se3_F64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Finds the rigid body motion which minimizes the different between the two sets of associated points in 3D.
+ * Produces the same solution as {@link MotionSe3PointSVD_F64} but is specialized for the 3x3 cross-covariance
+ * matrix.  Instead of a general purpose SVD, the right singular vectors V are found from the eigenvectors of
+ * Sigma<sup>T</sup>*Sigma using a fixed size Jacobi solver and the left singular vectors are found from U = Sigma*V*S<sup>-1</sup>.
+ * The third column of U is computed using a cross product, which ensures that det(U) = det(V) = 1 and removes
+ * the need to check for reflections when the points are planar.  No memory is declared after construction.
+ * </p>
+ *
+ * <p>
+ * Forming Sigma<sup>T</sup>*Sigma squares the condition number, so the second singular value can only be resolved
+ * when it's larger than about sqrt(machine epsilon) relative to the first.  If it's smaller than that the points
+ * are treated as degenerate, i.e. they lie along a line, and the rotation about that line can't be found.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionSe3PointFixedSVD_F64 implements MotionTransformPoint<Se3_F64, Point3D_F64> {
+
+	// rigid body motion
+	private Se3_F64 motion = new Se3_F64();
+
+	JacobiEigenSymmetric_F64 eigen = new JacobiEigenSymmetric_F64(3);
+
+	// cross-covariance matrix and Sigma'*Sigma
+	Matrix3x3_F64 Sigma = new Matrix3x3_F64();
+	Matrix3x3_F64 SS = new Matrix3x3_F64();
+
+	// mean of source and destination points
+	Point3D_F64 meanSrc = new Point3D_F64();
+	Point3D_F64 meanDst = new Point3D_F64();
+
+	// degenerate if the second singular value is less than or equal to this value times the first
+	double singularTol = Math.sqrt(Math.ulp((double)1.0));
+
+	@Override
+	public Se3_F64 getTransformSrcToDst() {
+		return motion;
+	}
+
+	@Override
+	public boolean process( List<Point3D_F64> srcPts, List<Point3D_F64> dstPts) {
+		if( srcPts.size() != dstPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		CrossCovarianceOps_F64.compute(srcPts, dstPts, meanSrc, meanDst, Sigma);
+
+		return computeMotion(Sigma, meanSrc, meanDst, motion);
+	}
+
+	/**
+	 * Same as {@link #process(List, List)} but reads directly from packed point clouds.  Points with the same
+	 * index are associated with each other.
+	 *
+	 * @param srcPts Points in the source frame
+	 * @param dstPts Points in the destination frame
+	 * @return true if successful
+	 */
+	public boolean process( PointCloud3D_F64 srcPts, PointCloud3D_F64 dstPts) {
+		if( srcPts.size != dstPts.size )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		CrossCovarianceOps_F64.compute(srcPts, dstPts, 0, srcPts.size, meanSrc, meanDst, Sigma);
+
+		return computeMotion(Sigma, meanSrc, meanDst, motion);
+	}
+
+	/**
+	 * Computes the rigid body motion from the cross-covariance matrix and the mean of each set of points.
+	 * Can be used with sums that were computed elsewhere.
+	 *
+	 * @param Sigma (Input) Cross-covariance matrix, sum (dst-meanDst)*(src-meanSrc)<sup>T</sup>.  Can be scaled
+	 *              by any positive value. Not modified.
+	 * @param meanSrc (Input) Mean of the source points. Not modified.
+	 * @param meanDst (Input) Mean of the destination points. Not modified.
+	 * @param motion (Output) Found motion from source to destination. Modified.
+	 * @return true if successful or false if the points are degenerate, e.g. all on a line
+	 */
+	public boolean computeMotion( Matrix3x3_F64 Sigma , Point3D_F64 meanSrc , Point3D_F64 meanDst ,
+								  Se3_F64 motion ) {
+		// SS = Sigma'*Sigma = V*S^2*V'
+		SS.a11 = Sigma.a11*Sigma.a11 + Sigma.a21*Sigma.a21 + Sigma.a31*Sigma.a31;
+		SS.a12 = Sigma.a11*Sigma.a12 + Sigma.a21*Sigma.a22 + Sigma.a31*Sigma.a32;
+		SS.a13 = Sigma.a11*Sigma.a13 + Sigma.a21*Sigma.a23 + Sigma.a31*Sigma.a33;
+		SS.a22 = Sigma.a12*Sigma.a12 + Sigma.a22*Sigma.a22 + Sigma.a32*Sigma.a32;
+		SS.a23 = Sigma.a12*Sigma.a13 + Sigma.a22*Sigma.a23 + Sigma.a32*Sigma.a33;
+		SS.a33 = Sigma.a13*Sigma.a13 + Sigma.a23*Sigma.a23 + Sigma.a33*Sigma.a33;
+		SS.a21 = SS.a12;
+		SS.a31 = SS.a13;
+		SS.a32 = SS.a23;
+
+		if( !eigen.process(SS) )
+			return false;
+
+		// right singular vectors, sorted by descending singular value
+		double v11 = eigen.getEigenvector(0,0), v12 = eigen.getEigenvector(0,1);
+		double v21 = eigen.getEigenvector(1,0), v22 = eigen.getEigenvector(1,1);
+		double v31 = eigen.getEigenvector(2,0), v32 = eigen.getEigenvector(2,1);
+
+		// third vector is selected so that det(V) = 1
+		double v13 = v21*v32 - v31*v22;
+		double v23 = v31*v12 - v11*v32;
+		double v33 = v11*v22 - v21*v12;
+
+		// u1 = Sigma*v1/s1
+		double u11 = Sigma.a11*v11 + Sigma.a12*v21 + Sigma.a13*v31;
+		double u21 = Sigma.a21*v11 + Sigma.a22*v21 + Sigma.a23*v31;
+		double u31 = Sigma.a31*v11 + Sigma.a32*v21 + Sigma.a33*v31;
+		double s1 = Math.sqrt(u11*u11 + u21*u21 + u31*u31);
+
+		// u2 = Sigma*v2/s2
+		double u12 = Sigma.a11*v12 + Sigma.a12*v22 + Sigma.a13*v32;
+		double u22 = Sigma.a21*v12 + Sigma.a22*v22 + Sigma.a23*v32;
+		double u32 = Sigma.a31*v12 + Sigma.a32*v22 + Sigma.a33*v32;
+		double s2 = Math.sqrt(u12*u12 + u22*u22 + u32*u32);
+
+		// Singular values are computed from Sigma instead of the eigenvalues, which lost precision when squared.
+		// Written so that NaN is also rejected.
+		if( !(s2 > singularTol*s1) )
+			return false;
+
+		u11 /= s1; u21 /= s1; u31 /= s1;
+
+		// make u2 orthogonal to u1 to reduce numerical errors
+		double dot = u11*u12 + u21*u22 + u31*u32;
+		u12 -= dot*u11; u22 -= dot*u21; u32 -= dot*u31;
+		double n = Math.sqrt(u12*u12 + u22*u22 + u32*u32);
+		u12 /= n; u22 /= n; u32 /= n;
+
+		// u3 = u1 x u2.  Since det(U) = det(V) = 1 no reflection check is needed
+		double u13 = u21*u32 - u31*u22;
+		double u23 = u31*u12 - u11*u32;
+		double u33 = u11*u22 - u21*u12;
+
+		// R = U*V'
+		/**/double R[] = motion.getR().data;
+		double r11 = u11*v11 + u12*v12 + u13*v13;
+		double r12 = u11*v21 + u12*v22 + u13*v23;
+		double r13 = u11*v31 + u12*v32 + u13*v33;
+		double r21 = u21*v11 + u22*v12 + u23*v13;
+		double r22 = u21*v21 + u22*v22 + u23*v23;
+		double r23 = u21*v31 + u22*v32 + u23*v33;
+		double r31 = u31*v11 + u32*v12 + u33*v13;
+		double r32 = u31*v21 + u32*v22 + u33*v23;
+		double r33 = u31*v31 + u32*v32 + u33*v33;
+		R[0] = r11; R[1] = r12; R[2] = r13;
+		R[3] = r21; R[4] = r22; R[5] = r23;
+		R[6] = r31; R[7] = r32; R[8] = r33;
+
+		// T = meanDst - R*meanSrc
+		motion.getT().set(
+				meanDst.x - (r11*meanSrc.x + r12*meanSrc.y + r13*meanSrc.z),
+				meanDst.y - (r21*meanSrc.x + r22*meanSrc.y + r23*meanSrc.z),
+				meanDst.z - (r31*meanSrc.x + r32*meanSrc.y + r33*meanSrc.z));
+
+		return true;
+	}
+
+	public double getSingularTol() {
+		return singularTol;
+	}
+
+	/**
+	 * Specifies the relative tolerance used to detect degenerate points.  The points are degenerate if the second
+	 * singular value of the cross-covariance matrix is &le; singularTol times the first.
+	 */
+	public void setSingularTol( double singularTol ) {
+		this.singularTol = singularTol;
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 3;
+	}
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.fitting.RobustKernel_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Robust estimate of rigid body motion between two sets of associated 3D points using iteratively reweighted
+ * least squares (IRLS).  Starting from the unweighted solution, each pair of points is weighted by the
+ * {@link RobustKernel_F64 kernel} using the distance between the destination point and the transformed source
+ * point, then the motion is recomputed by {@link MotionSe3PointSVD_F64} using those weights.  This is repeated until
+ * the weights stop changing or the maximum number of iterations is reached.  The input lists are never copied
+ * or modified.
+ * </p>
+ *
+ * <p>
+ * After processing, {@link #getWeights()} contains the weight of each pair computed using the returned motion.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionSe3PointIRLS_F64 implements MotionTransformPoint<Se3_F64, Point3D_F64> {
+
+	MotionSe3PointSVD_F64 alg = new MotionSe3PointSVD_F64();
+
+	RobustKernel_F64 kernel;
+
+	// maximum number of reweighting iterations
+	int maxIterations;
+	// stop when no weight changes by more than this amount
+	double convergenceTol = 0.0001;
+
+	// weight of each pair of points
+	double[] weights = new double[0];
+	// number of iterations in the last call to process
+	int iterations;
+
+	Point3D_F64 src = new Point3D_F64();
+	Point3D_F64 found = new Point3D_F64();
+
+	/**
+	 * Configures IRLS
+	 *
+	 * @param kernel Computes the weight of each pair of points from its residual
+	 * @param maxIterations Maximum number of reweighting iterations
+	 */
+	public MotionSe3PointIRLS_F64( RobustKernel_F64 kernel , int maxIterations ) {
+		this.kernel = kernel;
+		this.maxIterations = maxIterations;
+	}
+
+	@Override
+	public boolean process( List<Point3D_F64> srcPts, List<Point3D_F64> dstPts ) {
+		if( !alg.process(srcPts, dstPts) )
+			return false;
+
+		initializeWeights(srcPts.size());
+
+		Se3_F64 motion = alg.getTransformSrcToDst();
+		for( iterations = 0;; iterations++ ) {
+			double change = 0;
+			for( int i = 0; i < srcPts.size(); i++ ) {
+				SePointOps_F64.transform(motion, srcPts.get(i), found);
+				change = Math.max(change, updateWeight(i, found.distance(dstPts.get(i))));
+			}
+
+			if( change <= convergenceTol || iterations >= maxIterations )
+				break;
+
+			if( !alg.process(srcPts, dstPts, weights) )
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Same as {@link #process(List, List)} but reads directly from packed point clouds.  Points with the same
+	 * index are associated with each other.
+	 *
+	 * @param srcPts Points in the source frame
+	 * @param dstPts Points in the destination frame
+	 * @return true if successful
+	 */
+	public boolean process( PointCloud3D_F64 srcPts, PointCloud3D_F64 dstPts ) {
+		if( !alg.process(srcPts, dstPts) )
+			return false;
+
+		initializeWeights(srcPts.size);
+
+		Se3_F64 motion = alg.getTransformSrcToDst();
+		for( iterations = 0;; iterations++ ) {
+			double change = 0;
+			for( int i = 0; i < srcPts.size; i++ ) {
+				src.set(srcPts.x[i], srcPts.y[i], srcPts.z[i]);
+				SePointOps_F64.transform(motion, src, found);
+				double dx = found.x - dstPts.x[i];
+				double dy = found.y - dstPts.y[i];
+				double dz = found.z - dstPts.z[i];
+				double r = Math.sqrt(dx*dx + dy*dy + dz*dz);
+				change = Math.max(change, updateWeight(i, r));
+			}
+
+			if( change <= convergenceTol || iterations >= maxIterations )
+				break;
+
+			if( !alg.process(srcPts, dstPts, weights) )
+				return false;
+		}
+
+		return true;
+	}
+
+	private void initializeWeights( int N ) {
+		if( weights.length < N )
+			weights = new double[N];
+		for( int i = 0; i < N; i++ )
+			weights[i] = 1;
+	}
+
+	/**
+	 * Computes the new weight for a pair and returns how much it changed
+	 */
+	private double updateWeight( int index , double residual ) {
+		double w = kernel.weight(residual);
+		double change = Math.abs(w - weights[index]);
+		weights[index] = w;
+		return change;
+	}
+
+	@Override
+	public Se3_F64 getTransformSrcToDst() {
+		return alg.getTransformSrcToDst();
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return alg.getMinimumPoints();
+	}
+
+	/**
+	 * Weight of each pair of points, computed using the found motion.  The array can be longer than the
+	 * number of points.
+	 */
+	public double[] getWeights() {
+		return weights;
+	}
+
+	/**
+	 * Number of times the motion was recomputed with new weights in the last call to process.
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	public RobustKernel_F64 getKernel() {
+		return kernel;
+	}
+
+	public void setKernel( RobustKernel_F64 kernel ) {
+		this.kernel = kernel;
+	}
+
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	public void setMaxIterations( int maxIterations ) {
+		this.maxIterations = maxIterations;
+	}
+
+	public double getConvergenceTol() {
+		return convergenceTol;
+	}
+
+	/**
+	 * Iterations stop when no weight changes by more than this amount
+	 */
+	public void setConvergenceTol( double convergenceTol ) {
+		this.convergenceTol = convergenceTol;
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.geometry.JacobiEigenSymmetric_F32;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.struct.Matrix3x3_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.so.Quaternion_F32;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Finds the rigid body motion which minimizes the different between the two sets of associated points in 3D.
+ * Uses Horn's closed form solution with unit quaternions.  The same cross-covariance sums as
+ * {@link MotionSe3PointSVD_F32} are used to construct a symmetric 4x4 matrix whose eigenvector with the largest
+ * eigenvalue is the rotation, encoded as a quaternion.  The eigenvector is found with a fixed size Jacobi solver.
+ * A quaternion is always a proper rotation so there is no need to check for reflections.  No memory is
+ * declared after construction.
+ * </p>
+ *
+ * <p>
+ * Berthold K. P. Horn, "Closed-form solution of absolute orientation using unit quaternions" Journal of the
+ * Optical Society of America A, Vol. 4, No. 4, April 1987
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MotionSe3PointQuaternion_F32 implements MotionTransformPoint<Se3_F32, Point3D_F32> {
+
+	// rigid body motion
+	private Se3_F32 motion = new Se3_F32();
+
+	JacobiEigenSymmetric_F32 eigen = new JacobiEigenSymmetric_F32(4);
+
+	// symmetric 4x4 matrix in row-major format
+	float Q[] = new float[16];
+
+	// cross-covariance matrix
+	Matrix3x3_F32 Sigma = new Matrix3x3_F32();
+
+	// mean of source and destination points
+	Point3D_F32 meanSrc = new Point3D_F32();
+	Point3D_F32 meanDst = new Point3D_F32();
+
+	// rotation as a unit quaternion
+	Quaternion_F32 quat = new Quaternion_F32();
+
+	@Override
+	public Se3_F32 getTransformSrcToDst() {
+		return motion;
+	}
+
+	@Override
+	public boolean process( List<Point3D_F32> srcPts, List<Point3D_F32> dstPts) {
+		if( srcPts.size() != dstPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		CrossCovarianceOps_F32.compute(srcPts, dstPts, meanSrc, meanDst, Sigma);
+
+		return computeMotion(Sigma, meanSrc, meanDst, motion);
+	}
+
+	/**
+	 * Same as {@link #process(List, List)} but reads directly from packed point clouds.  Points with the same
+	 * index are associated with each other.
+	 *
+	 * @param srcPts Points in the source frame
+	 * @param dstPts Points in the destination frame
+	 * @return true if successful
+	 */
+	public boolean process( PointCloud3D_F32 srcPts, PointCloud3D_F32 dstPts) {
+		if( srcPts.size != dstPts.size )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		CrossCovarianceOps_F32.compute(srcPts, dstPts, 0, srcPts.size, meanSrc, meanDst, Sigma);
+
+		return computeMotion(Sigma, meanSrc, meanDst, motion);
+	}
+
+	/**
+	 * Computes the rigid body motion from the cross-covariance matrix and the mean of each set of points.
+	 * Can be used with sums that were computed elsewhere.
+	 *
+	 * @param Sigma (Input) Cross-covariance matrix, sum (dst-meanDst)*(src-meanSrc)<sup>T</sup>.  Can be scaled
+	 *              by any positive value. Not modified.
+	 * @param meanSrc (Input) Mean of the source points. Not modified.
+	 * @param meanDst (Input) Mean of the destination points. Not modified.
+	 * @param motion (Output) Found motion from source to destination. Modified.
+	 * @return true if successful or false if the two sets of points are not correlated
+	 */
+	public boolean computeMotion( Matrix3x3_F32 Sigma , Point3D_F32 meanSrc , Point3D_F32 meanDst ,
+								  Se3_F32 motion ) {
+		// Horn's paper uses M = sum (src-meanSrc)*(dst-meanDst)^T, which is the transpose of Sigma.
+		float sxx = Sigma.a11, sxy = Sigma.a21, sxz = Sigma.a31;
+		float syx = Sigma.a12, syy = Sigma.a22, syz = Sigma.a32;
+		float szx = Sigma.a13, szy = Sigma.a23, szz = Sigma.a33;
+
+		Q[0]  = sxx + syy + szz;
+		Q[1]  = syz - szy;
+		Q[2]  = szx - sxz;
+		Q[3]  = sxy - syx;
+		Q[5]  = sxx - syy - szz;
+		Q[6]  = sxy + syx;
+		Q[7]  = szx + sxz;
+		Q[10] = -sxx + syy - szz;
+		Q[11] = syz + szy;
+		Q[15] = -sxx - syy + szz;
+
+		Q[4]  = Q[1];
+		Q[8]  = Q[2];
+		Q[9]  = Q[6];
+		Q[12] = Q[3];
+		Q[13] = Q[7];
+		Q[14] = Q[11];
+
+		eigen.process(Q);
+
+		// if there is no correlation between the points then all the eigenvalues are zero
+		if( eigen.getEigenvalue(0) <= 0 )
+			return false;
+
+		// eigenvector with the largest eigenvalue is the rotation
+		quat.w = eigen.getEigenvector(0,0);
+		quat.x = eigen.getEigenvector(1,0);
+		quat.y = eigen.getEigenvector(2,0);
+		quat.z = eigen.getEigenvector(3,0);
+		quat.normalize();
+
+		RotationMatrixGenerator.quaternionToMatrix(quat, motion.getR());
+
+		// T = meanDst - R*meanSrc
+		/**/double R[] = motion.getR().data;
+		float r11 = (float)R[0], r12 = (float)R[1], r13 = (float)R[2];
+		float r21 = (float)R[3], r22 = (float)R[4], r23 = (float)R[5];
+		float r31 = (float)R[6], r32 = (float)R[7], r33 = (float)R[8];
+		motion.getT().set(
+				meanDst.x - (r11*meanSrc.x + r12*meanSrc.y + r13*meanSrc.z),
+				meanDst.y - (r21*meanSrc.x + r22*meanSrc.y + r23*meanSrc.z),
+				meanDst.z - (r31*meanSrc.x + r32*meanSrc.y + r33*meanSrc.z));
+
+		return true;
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 3;
+	}
+}
@@ -20,8 +20,9 @@ package georegression.fitting.se;
 
 import georegression.fitting.MotionTransformPoint;
 import georegression.geometry.GeometryMath_F64;
-import georegression.geometry.UtilPoint3D_F64;
+import georegression.struct.Matrix3x3_F64;
 import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
 import georegression.struct.se.Se3_F64;
 import org.ejml.data.DenseMatrix64F;
 import org.ejml.factory.DecompositionFactory;
@@ -50,6 +51,21 @@ public class MotionSe3PointSVD_F64 implements MotionTransformPoint<Se3_F64, Poin
 
 	SingularValueDecomposition<DenseMatrix64F> svd = DecompositionFactory.svd(3, 3,true,true,false);
 
+	// cross-covariance matrix
+	Matrix3x3_F64 cross = new Matrix3x3_F64();
+	DenseMatrix64F Sigma = new DenseMatrix64F(3,3);
+
+	// storage for the SVD
+	DenseMatrix64F U = new DenseMatrix64F(3,3);
+	DenseMatrix64F V = new DenseMatrix64F(3,3);
+
+	// mean of source and destination points
+	Point3D_F64 meanSrc = new Point3D_F64();
+	Point3D_F64 meanDst = new Point3D_F64();
+
+	// rotated source mean
+	Point3D_F64 temp = new Point3D_F64();
+
 	@Override
 	public Se3_F64 getTransformSrcToDst() {
 		return motion;
@@ -60,53 +76,86 @@ public class MotionSe3PointSVD_F64 implements MotionTransformPoint<Se3_F64, Poin
 		if( srcPts.size() != dstPts.size() )
 			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
 
-		// find the mean of both sets of points
-		Point3D_F64 meanSrc = UtilPoint3D_F64.mean(srcPts, null );
-		Point3D_F64 meanDst = UtilPoint3D_F64.mean(dstPts, null );
-
-		final int N = srcPts.size();
-
-		// compute the cross-covariance matrix Sigma of the two sets of points
-		// Sigma = (1/N)*sum(i=1:N,[p*x^T]) + mu_p*mu_x^T
-		// for performance reasons usage of matrices is postponed
-		double s11 = 0, s12 = 0, s13 = 0;
-		double s21 = 0, s22 = 0, s23 = 0;
-		double s31 = 0, s32 = 0, s33 = 0;
-
-		for( int i = 0; i < N; i++ ) {
-			Point3D_F64 f = srcPts.get( i );
-			Point3D_F64 t = dstPts.get( i );
-
-			double dfx = f.x - meanSrc.x;
-			double dfy = f.y - meanSrc.y;
-			double dfz = f.z - meanSrc.z;
-
-			double dtx = t.x - meanDst.x;
-			double dty = t.y - meanDst.y;
-			double dtz = t.z - meanDst.z;
-
-			s11 += dtx*dfx;
-			s12 += dtx*dfy;
-			s13 += dtx*dfz;
-			s21 += dty*dfx;
-			s22 += dty*dfy;
-			s23 += dty*dfz;
-			s31 += dtz*dfx;
-			s32 += dtz*dfy;
-			s33 += dtz*dfz;
-		}
+		CrossCovarianceOps_F64.compute(srcPts, dstPts, meanSrc, meanDst, cross);
+
+		return computeMotion();
+	}
+
+	/**
+	 * Same as {@link #process(List, List)} but reads directly from packed point clouds.  Points with the same
+	 * index are associated with each other.
+	 *
+	 * @param srcPts Points in the source frame
+	 * @param dstPts Points in the destination frame
+	 * @return true if successful
+	 */
+	public boolean process( PointCloud3D_F64 srcPts, PointCloud3D_F64 dstPts) {
+		if( srcPts.size != dstPts.size )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		CrossCovarianceOps_F64.compute(srcPts, dstPts, 0, srcPts.size, meanSrc, meanDst, cross);
+
+		return computeMotion();
+	}
 
-		DenseMatrix64F Sigma = new DenseMatrix64F( 3, 3, true, s11, s12, s13, s21, s22, s23, s31, s32, s33 );
+	/**
+	 * Weighted version of {@link #process(List, List)}.  The contribution of each pair of points to the mean and
+	 * the cross-covariance is scaled by its weight.  Pairs with a weight of zero are ignored.
+	 *
+	 * @param srcPts Points in the source frame
+	 * @param dstPts Points in the destination frame
+	 * @param weights Weight of each pair of points.  Must be &ge; 0.  Not modified.
+	 * @return true if successful or false if the sum of weights is zero
+	 * @throws IllegalArgumentException if a weight is negative or NaN
+	 */
+	public boolean process( List<Point3D_F64> srcPts, List<Point3D_F64> dstPts, double[] weights ) {
+		if( srcPts.size() != dstPts.size() )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		if( !CrossCovarianceOps_F64.compute(srcPts, dstPts, weights, meanSrc, meanDst, cross) )
+			return false;
+
+		return computeMotion();
+	}
+
+	/**
+	 * Weighted version of {@link #process(PointCloud3D_F64, PointCloud3D_F64)}.  See
+	 * {@link #process(List, List, double[])}.
+	 *
+	 * @param srcPts Points in the source frame
+	 * @param dstPts Points in the destination frame
+	 * @param weights Weight of each pair of points.  Must be &ge; 0.  Not modified.
+	 * @return true if successful or false if the sum of weights is zero
+	 * @throws IllegalArgumentException if a weight is negative or NaN
+	 */
+	public boolean process( PointCloud3D_F64 srcPts, PointCloud3D_F64 dstPts, double[] weights ) {
+		if( srcPts.size != dstPts.size )
+			throw new IllegalArgumentException( "There must be a 1 to 1 correspondence between the two sets of points" );
+
+		if( !CrossCovarianceOps_F64.compute(srcPts, dstPts, weights, meanSrc, meanDst, cross) )
+			return false;
+
+		return computeMotion();
+	}
+
+	/**
+	 * Computes the motion from the cross-covariance matrix Sigma and the mean of each set of points
+	 */
+	private boolean computeMotion() {
+		Sigma.set(3, 3, true,
+				cross.a11, cross.a12, cross.a13,
+				cross.a21, cross.a22, cross.a23,
+				cross.a31, cross.a32, cross.a33);
 
 		if( !svd.decompose(Sigma) )
 			throw new RuntimeException("SVD failed!?");
 
-		DenseMatrix64F U = svd.getU(null,false);
-		DenseMatrix64F V = svd.getV(null,false);
+		svd.getU(U,false);
+		svd.getV(V,false);
 
 		SingularOps.descendingOrder(U,false,svd.getSingularValues(),3,V,false);
 		
-		if( CommonOps.det(U) < 0 ^ CommonOps.det(V) < 0 ) {
+		if( det(U) < 0 ^ det(V) < 0 ) {
 			// swap sign of the column 2
 			// this only needs to happen if data is planar
 			V.data[2] = -V.data[2];
@@ -116,7 +165,6 @@ public class MotionSe3PointSVD_F64 implements MotionTransformPoint<Se3_F64, Poin
 
 		CommonOps.multTransB(U, V, motion.getR());
 
-		Point3D_F64 temp = new Point3D_F64();
 		GeometryMath_F64.mult(motion.getR(),meanSrc,temp);
 
 		motion.getT().set(meanDst.x - temp.x,meanDst.y - temp.y,meanDst.z - temp.z);
@@ -124,6 +172,13 @@ public class MotionSe3PointSVD_F64 implements MotionTransformPoint<Se3_F64, Poin
 		return true;
 	}
 
+	/**
+	 * Determinant of a 3x3 matrix.  Used instead of CommonOps.det(), which declares memory.
+	 */
+	private static /**/double det( DenseMatrix64F M ) {
+		/**/double d[] = M.data;
+		return d[0]*(d[4]*d[8] - d[5]*d[7]) - d[1]*(d[3]*d[8] - d[5]*d[6]) + d[2]*(d[3]*d[7] - d[4]*d[6]);
+	}
 
 	@Override
 	public int getMinimumPoints() {
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Linear algebraic fit of a sphere to a set of points.  The equation of a sphere is rewritten as a linear equation,
+ * 2*x*c<sub>x</sub> + 2*y*c<sub>y</sub> + 2*z*c<sub>z</sub> + d = x<sup>2</sup> + y<sup>2</sup> + z<sup>2</sup>, where
+ * d = r<sup>2</sup> - |c|<sup>2</sup>.  The sums for the normal equations are computed in a single pass through the
+ * points and the resulting 4x4 system is solved using a Cholesky decomposition.  To reduce numerical problems
+ * the points are expressed relative to the first point.
+ * </p>
+ *
+ * <p>
+ * The algebraic error isn't the same as the Euclidean distance, so when there is noise the solution is biased.
+ * It can be used by itself when speed matters more or as the initial estimate for {@link FitSphereToPoints_F64}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FitSphereAlgebraic_F64 {
+
+	// normal equations, A'*A and A'*b
+	double ATA[] = new double[16];
+	double ATb[] = new double[4];
+
+	// solution
+	double x[] = new double[4];
+
+	/**
+	 * Fits a sphere to the points
+	 *
+	 * @param points (Input) Points on the sphere.  Must be at least 4 and not all on a plane.
+	 * @param found (Output) The found sphere. Modified.
+	 * @return true if successful or false if the points are degenerate
+	 */
+	public boolean process( List<Point3D_F64> points , Sphere3D_F64 found ) {
+		final int N = points.size();
+		if( N < 4 )
+			return false;
+
+		Point3D_F64 origin = points.get(0);
+		double ox = origin.x, oy = origin.y, oz = origin.z;
+
+		double suu = 0, suv = 0, suw = 0, su = 0;
+		double svv = 0, svw = 0, sv = 0;
+		double sww = 0, sw = 0;
+		double sus = 0, svs = 0, sws = 0, ss = 0;
+
+		for( int i = 0; i < N; i++ ) {
+			Point3D_F64 p = points.get(i);
+			double u = p.x - ox, v = p.y - oy, w = p.z - oz;
+			double s = u*u + v*v + w*w;
+
+			suu += u*u; suv += u*v; suw += u*w; su += u;
+			svv += v*v; svw += v*w; sv += v;
+			sww += w*w; sw += w;
+			sus += u*s; svs += v*s; sws += w*s; ss += s;
+		}
+
+		return solve(N, ox, oy, oz, suu, suv, suw, su, svv, svw, sv, sww, sw, sus, svs, sws, ss, found);
+	}
+
+	/**
+	 * Fits a sphere to the points in the cloud
+	 *
+	 * @param cloud (Input) Points on the sphere.  Must be at least 4 and not all on a plane.
+	 * @param found (Output) The found sphere. Modified.
+	 * @return true if successful or false if the points are degenerate
+	 */
+	public boolean process( PointCloud3D_F64 cloud , Sphere3D_F64 found ) {
+		final int N = cloud.size;
+		if( N < 4 )
+			return false;
+
+		double ox = cloud.x[0], oy = cloud.y[0], oz = cloud.z[0];
+
+		double suu = 0, suv = 0, suw = 0, su = 0;
+		double svv = 0, svw = 0, sv = 0;
+		double sww = 0, sw = 0;
+		double sus = 0, svs = 0, sws = 0, ss = 0;
+
+		for( int i = 0; i < N; i++ ) {
+			double u = cloud.x[i] - ox, v = cloud.y[i] - oy, w = cloud.z[i] - oz;
+			double s = u*u + v*v + w*w;
+
+			suu += u*u; suv += u*v; suw += u*w; su += u;
+			svv += v*v; svw += v*w; sv += v;
+			sww += w*w; sw += w;
+			sus += u*s; svs += v*s; sws += w*s; ss += s;
+		}
+
+		return solve(N, ox, oy, oz, suu, suv, suw, su, svv, svw, sv, sww, sw, sus, svs, sws, ss, found);
+	}
+
+	private boolean solve( int N , double ox , double oy , double oz ,
+						   double suu , double suv , double suw , double su ,
+						   double svv , double svw , double sv ,
+						   double sww , double sw ,
+						   double sus , double svs , double sws , double ss ,
+						   Sphere3D_F64 found ) {
+		ATA[0]  = suu; ATA[1]  = suv; ATA[2]  = suw; ATA[3]  = su;
+		ATA[4]  = suv; ATA[5]  = svv; ATA[6]  = svw; ATA[7]  = sv;
+		ATA[8]  = suw; ATA[9]  = svw; ATA[10] = sww; ATA[11] = sw;
+		ATA[12] = su;  ATA[13] = sv;  ATA[14] = sw;  ATA[15] = N;
+
+		ATb[0] = sus; ATb[1] = svs; ATb[2] = sws; ATb[3] = ss;
+
+		if( !solveCholesky() )
+			return false;
+
+		// the unknowns are 2*c and d
+		double cx = x[0]/2, cy = x[1]/2, cz = x[2]/2;
+		double r2 = x[3] + cx*cx + cy*cy + cz*cz;
+		if( !(r2 > 0) )
+			return false;
+
+		found.center.set(cx + ox, cy + oy, cz + oz);
+		found.radius = Math.sqrt(r2);
+
+		return true;
+	}
+
+	/**
+	 * Solves ATA*x = ATb using a Cholesky decomposition.
+	 *
+	 * @return false if ATA is not positive definite or isn't finite
+	 */
+	private boolean solveCholesky() {
+		final int N = 4;
+
+		// ATA = L*L', L is stored in the lower triangle
+		for( int i = 0; i < N; i++ ) {
+			for( int j = 0; j <= i; j++ ) {
+				double sum = ATA[i*N+j];
+				for( int k = 0; k < j; k++ ) {
+					sum -= ATA[i*N+k]*ATA[j*N+k];
+				}
+				if( i == j ) {
+					// relative threshold since the scale of the diagonal elements can vary widely.  Also fails for NaN
+					if( !(sum > ATA[i*N+i]*1e-12) )
+						return false;
+					ATA[i*N+i] = Math.sqrt(sum);
+				} else {
+					ATA[i*N+j] = sum/ATA[j*N+j];
+				}
+			}
+		}
+
+		// L*y = b
+		for( int i = 0; i < N; i++ ) {
+			double sum = ATb[i];
+			for( int k = 0; k < i; k++ ) {
+				sum -= ATA[i*N+k]*x[k];
+			}
+			x[i] = sum/ATA[i*N+i];
+		}
+
+		// L'*x = y
+		for( int i = N-1; i >= 0; i-- ) {
+			double sum = x[i];
+			for( int k = i+1; k < N; k++ ) {
+				sum -= ATA[k*N+i]*x[k];
+			}
+			x[i] = sum/ATA[i*N+i];
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.fitting.LevenbergMarquardtSmall;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import org.ddogleg.fitting.modelset.ModelFitter;
+
+import java.util.List;
+
+/**
+ * Fits 3D points to a {@link Sphere3D_F64 sphere} using {@link LevenbergMarquardtSmall}.  Minimizes the same
+ * cost function as {@link FitSphereToPoints_F64} but the Jacobian is never stored, which keeps memory usage
+ * constant no matter how many points there are.  Points can also be provided as a packed cloud.
+ *
+ * @author Peter Abeles
+ */
+public class FitSphereToPointsLM_F64 implements ModelFitter<Sphere3D_F64,Point3D_F64> {
+
+	// function used by non-linear least squares solver
+	private SphereToPointResidual_F64 function = new SphereToPointResidual_F64();
+
+	// The solver
+	private LevenbergMarquardtSmall optimizer;
+
+	// need to convert sphere to double[]
+	private /**/double[] param = new /**/double[4];
+
+	// maximum number of iterations
+	private int maxIterations;
+
+	// tolerances for optimization
+	private /**/double ftol;
+	private /**/double gtol;
+
+	// used to convert double[] into shape parameters
+	private CodecSphere3D_F64 codec = new CodecSphere3D_F64();
+
+	// used to compute the initial estimate when none is provided
+	private FitSphereAlgebraic_F64 algebraic = new FitSphereAlgebraic_F64();
+	private Sphere3D_F64 estimate = new Sphere3D_F64();
+
+	/**
+	 * Constructor which provides access to all tuning parameters
+	 *
+	 * @param optimizer Optimization algorithm
+	 * @param maxIterations Maximum number of iterations that the optimizer can perform. Try 100
+	 * @param ftol Convergence tolerance. See {@link LevenbergMarquardtSmall}.
+	 * @param gtol Convergence tolerance. See {@link LevenbergMarquardtSmall}.
+	 */
+	public FitSphereToPointsLM_F64(LevenbergMarquardtSmall optimizer,
+								   int maxIterations, /**/double ftol, /**/double gtol) {
+		this.optimizer = optimizer;
+		this.maxIterations = maxIterations;
+		this.ftol = ftol;
+		this.gtol = gtol;
+	}
+
+	/**
+	 * Simplified constructor.  Only process access to the maximum number of iterations.
+	 * @param maxIterations Maximum number of iterations.  Try 100
+	 */
+	public FitSphereToPointsLM_F64( int maxIterations ) {
+		this(new LevenbergMarquardtSmall(1e-3),maxIterations,1e-12,0);
+	}
+
+	/**
+	 * Fits a sphere to the points.  If no initial estimate is provided then {@link FitSphereAlgebraic_F64} is used
+	 * to find one.
+	 *
+	 * @param dataSet (Input) Points on the sphere
+	 * @param initial (Input) Initial estimate of the sphere.  If null it will be computed.
+	 * @param found (Output) The found sphere
+	 * @return true if the optimizer converged before reaching the maximum number of iterations.  False if it
+	 * didn't or no initial estimate could be found
+	 */
+	@Override
+	public boolean fitModel(List<Point3D_F64> dataSet, Sphere3D_F64 initial, Sphere3D_F64 found) {
+		if( initial == null ) {
+			if( !algebraic.process(dataSet, estimate) )
+				return false;
+			initial = estimate;
+		}
+
+		function.setPoints(dataSet);
+
+		return optimize(initial, found);
+	}
+
+	/**
+	 * Same as {@link #fitModel(List, Sphere3D_F64, Sphere3D_F64)} but reads directly from a packed cloud.
+	 *
+	 * @param cloud (Input) Points which are to be fit
+	 * @param initial (Input) Initial estimate of the model.  If null it will be computed.
+	 * @param found (Output) The found model
+	 * @return true if the optimizer converged before reaching the maximum number of iterations.  False if it
+	 * didn't or no initial estimate could be found
+	 */
+	public boolean fitModel(PointCloud3D_F64 cloud, Sphere3D_F64 initial, Sphere3D_F64 found) {
+		if( initial == null ) {
+			if( !algebraic.process(cloud, estimate) )
+				return false;
+			initial = estimate;
+		}
+
+		function.setPoints(cloud);
+
+		return optimize(initial, found);
+	}
+
+	private boolean optimize( Sphere3D_F64 initial, Sphere3D_F64 found) {
+		codec.encode(initial,param);
+
+		optimizer.setFunction(function);
+		optimizer.initialize(param,ftol,gtol);
+
+		for( int i = 0; i < maxIterations; i++ ) {
+			if( optimizer.iterate() )
+				break;
+		}
+
+		codec.decode(optimizer.getParameters(), found);
+
+		return optimizer.isConverged();
+	}
+}
@@ -18,6 +18,7 @@
 
 package georegression.fitting.sphere;
 
+import georegression.fitting.PointResidualFunctionJacobian;
 import georegression.struct.point.Point3D_F32;
 import georegression.struct.shapes.Sphere3D_F32;
 import org.ddogleg.fitting.modelset.ModelFitter;
@@ -27,15 +28,17 @@ import org.ddogleg.optimization.UnconstrainedLeastSquares;
 import java.util.List;
 
 /**
- * {@link UnconstrainedLeastSquares} fitting of 3D points to a sphere.
+ * {@link UnconstrainedLeastSquares} fitting of 3D points to a sphere.  The residuals and Jacobian are computed in
+ * separate passes through the points.  {@link FitSphereToPointsLM_F32} computes them in a single pass and never
+ * stores the Jacobian.
  *
  * @author Peter Abeles
  */
 public class FitSphereToPoints_F32 implements ModelFitter<Sphere3D_F32,Point3D_F32> {
 
-	// functions used by non-linear least squares solver
-	private SphereToPointSignedDistance_F32 function = new SphereToPointSignedDistance_F32();
-	private SphereToPointSignedDistanceJacobian_F32 jacobian = new SphereToPointSignedDistanceJacobian_F32();
+	// functions used by non-linear least squares solver.  Residuals and Jacobian share the same residual class
+	private SphereToPointResidual_F32 residuals = new SphereToPointResidual_F32();
+	private PointResidualFunctionJacobian functions = new PointResidualFunctionJacobian(residuals);
 
 	// The solver
 	private UnconstrainedLeastSquares optimizer;
@@ -53,6 +56,10 @@ public class FitSphereToPoints_F32 implements ModelFitter<Sphere3D_F32,Point3D_F
 	// used to convert float[] into shape parameters
 	private CodecSphere3D_F32 codec = new CodecSphere3D_F32();
 
+	// used to compute the initial estimate when none is provided
+	private FitSphereAlgebraic_F32 algebraic = new FitSphereAlgebraic_F32();
+	private Sphere3D_F32 estimate = new Sphere3D_F32();
+
 	/**
 	 * Constructor which provides access to all tuning parameters
 	 *
@@ -77,15 +84,29 @@ public class FitSphereToPoints_F32 implements ModelFitter<Sphere3D_F32,Point3D_F
 		this(FactoryOptimization.leastSquaresLM(1e-3,false),maxIterations,1e-12,0);
 	}
 
+	/**
+	 * Fits a sphere to the points.  If no initial estimate is provided then {@link FitSphereAlgebraic_F32} is used
+	 * to find one.
+	 *
+	 * @param dataSet (Input) Points on the sphere
+	 * @param initial (Input) Initial estimate of the sphere.  If null it will be computed.
+	 * @param found (Output) The found sphere
+	 * @return true if successful or false if no initial estimate could be found
+	 */
 	@Override
 	public boolean fitModel(List<Point3D_F32> dataSet, Sphere3D_F32 initial, Sphere3D_F32 found) {
 
+		if( initial == null ) {
+			if( !algebraic.process(dataSet, estimate) )
+				return false;
+			initial = estimate;
+		}
+
 		codec.encode(initial,param);
 
-		function.setPoints(dataSet);
-		jacobian.setPoints(dataSet);
+		residuals.setPoints(dataSet);
 
-		optimizer.setFunction(function,jacobian);
+		optimizer.setFunction(functions.getFunction(),functions.getJacobian());
 		optimizer.initialize(param,ftol,gtol);
 
 		for( int i = 0; i < maxIterations; i++ ) {
@@ -18,6 +18,7 @@
 
 package georegression.fitting.sphere;
 
+import georegression.fitting.PointResidualFunctionJacobian;
 import georegression.struct.point.Point3D_F64;
 import georegression.struct.shapes.Sphere3D_F64;
 import org.ddogleg.fitting.modelset.ModelFitter;
@@ -27,15 +28,17 @@ import org.ddogleg.optimization.UnconstrainedLeastSquares;
 import java.util.List;
 
 /**
- * {@link UnconstrainedLeastSquares} fitting of 3D points to a sphere.
+ * {@link UnconstrainedLeastSquares} fitting of 3D points to a sphere.  The residuals and Jacobian are computed in
+ * separate passes through the points.  {@link FitSphereToPointsLM_F64} computes them in a single pass and never
+ * stores the Jacobian.
  *
  * @author Peter Abeles
  */
 public class FitSphereToPoints_F64 implements ModelFitter<Sphere3D_F64,Point3D_F64> {
 
-	// functions used by non-linear least squares solver
-	private SphereToPointSignedDistance_F64 function = new SphereToPointSignedDistance_F64();
-	private SphereToPointSignedDistanceJacobian_F64 jacobian = new SphereToPointSignedDistanceJacobian_F64();
+	// functions used by non-linear least squares solver.  Residuals and Jacobian share the same residual class
+	private SphereToPointResidual_F64 residuals = new SphereToPointResidual_F64();
+	private PointResidualFunctionJacobian functions = new PointResidualFunctionJacobian(residuals);
 
 	// The solver
 	private UnconstrainedLeastSquares optimizer;
@@ -53,6 +56,10 @@ public class FitSphereToPoints_F64 implements ModelFitter<Sphere3D_F64,Point3D_F
 	// used to convert double[] into shape parameters
 	private CodecSphere3D_F64 codec = new CodecSphere3D_F64();
 
+	// used to compute the initial estimate when none is provided
+	private FitSphereAlgebraic_F64 algebraic = new FitSphereAlgebraic_F64();
+	private Sphere3D_F64 estimate = new Sphere3D_F64();
+
 	/**
 	 * Constructor which provides access to all tuning parameters
 	 *
@@ -77,15 +84,29 @@ public class FitSphereToPoints_F64 implements ModelFitter<Sphere3D_F64,Point3D_F
 		this(FactoryOptimization.leastSquaresLM(1e-3,false),maxIterations,1e-12,0);
 	}
 
+	/**
+	 * Fits a sphere to the points.  If no initial estimate is provided then {@link FitSphereAlgebraic_F64} is used
+	 * to find one.
+	 *
+	 * @param dataSet (Input) Points on the sphere
+	 * @param initial (Input) Initial estimate of the sphere.  If null it will be computed.
+	 * @param found (Output) The found sphere
+	 * @return true if successful or false if no initial estimate could be found
+	 */
 	@Override
 	public boolean fitModel(List<Point3D_F64> dataSet, Sphere3D_F64 initial, Sphere3D_F64 found) {
 
+		if( initial == null ) {
+			if( !algebraic.process(dataSet, estimate) )
+				return false;
+			initial = estimate;
+		}
+
 		codec.encode(initial,param);
 
-		function.setPoints(dataSet);
-		jacobian.setPoints(dataSet);
+		residuals.setPoints(dataSet);
 
-		optimizer.setFunction(function,jacobian);
+		optimizer.setFunction(functions.getFunction(),functions.getJacobian());
 		optimizer.initialize(param,ftol,gtol);
 
 		for( int i = 0; i < maxIterations; i++ ) {
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Computes the sphere which passes through the minimum number of points, four.  Relative to the first point p<sub>0</sub>,
+ * the center c satisfies 2*(p<sub>i</sub>-p<sub>0</sub>)&middot;c = |p<sub>i</sub>-p<sub>0</sub>|<sup>2</sup> for i=1,2,3,
+ * which is solved using Cramer's rule.  Intended for generating hypotheses in RANSAC.  No memory is declared.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class GenerateSphere3D_F32 implements ModelGenerator<Sphere3D_F32,Point3D_F32> {
+
+	/**
+	 * Uses the first four points in the list.
+	 */
+	@Override
+	public boolean generate( List<Point3D_F32> dataSet, Sphere3D_F32 output) {
+		return process(dataSet.get(0), dataSet.get(1), dataSet.get(2), dataSet.get(3), output);
+	}
+
+	/**
+	 * Computes the sphere which passes through the four points.
+	 *
+	 * @param output (Output) The sphere. Modified.
+	 * @return true if successful or false if the points lie on a plane
+	 */
+	public boolean process( Point3D_F32 p0 , Point3D_F32 p1 , Point3D_F32 p2 , Point3D_F32 p3 ,
+							Sphere3D_F32 output ) {
+		float ax = p1.x - p0.x, ay = p1.y - p0.y, az = p1.z - p0.z;
+		float bx = p2.x - p0.x, by = p2.y - p0.y, bz = p2.z - p0.z;
+		float cx = p3.x - p0.x, cy = p3.y - p0.y, cz = p3.z - p0.z;
+
+		float aa = ax*ax + ay*ay + az*az;
+		float bb = bx*bx + by*by + bz*bz;
+		float cc = cx*cx + cy*cy + cz*cz;
+
+		// b cross c, c cross a, a cross b
+		float bcx = by*cz - bz*cy, bcy = bz*cx - bx*cz, bcz = bx*cy - by*cx;
+		float cax = cy*az - cz*ay, cay = cz*ax - cx*az, caz = cx*ay - cy*ax;
+		float abx = ay*bz - az*by, aby = az*bx - ax*bz, abz = ax*by - ay*bx;
+
+		// determinant is the triple product
+		float det = ax*bcx + ay*bcy + az*bcz;
+
+		if( !(det*det > GrlConstants.F_EPS*aa*bb*cc) )
+			return false;
+
+		// center relative to p0
+		float scale = 0.5f/det;
+		float x = (aa*bcx + bb*cax + cc*abx)*scale;
+		float y = (aa*bcy + bb*cay + cc*aby)*scale;
+		float z = (aa*bcz + bb*caz + cc*abz)*scale;
+
+		output.center.set(p0.x + x, p0.y + y, p0.z + z);
+		output.radius = (float)Math.sqrt(x*x + y*y + z*z);
+
+		return true;
+	}
+
+	@Override
+	public int getMinimumPoints() {
+		return 4;
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.fitting.ScoreInliers3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * Scores points by their distance from a {@link Sphere3D_F32}'s surface.  The distance test is done on the
+ * squared distance from the center, avoiding a square root for each point.
+ *
+ * @author Peter Abeles
+ */
+public class ScoreInliersSphere3D_F32 implements ScoreInliers3D_F32<Sphere3D_F32> {
+
+	// sphere center and radius
+	float cx,cy,cz,radius;
+
+	float threshold;
+
+	// an inlier's squared distance from the center must be inside of [lower,upper]
+	float lower,upper;
+
+	public ScoreInliersSphere3D_F32( float threshold ) {
+		this.threshold = threshold;
+	}
+
+	public ScoreInliersSphere3D_F32() {
+	}
+
+	@Override
+	public void setModel( Sphere3D_F32 sphere ) {
+		cx = sphere.center.x;
+		cy = sphere.center.y;
+		cz = sphere.center.z;
+		radius = sphere.radius;
+	}
+
+	@Override
+	public void setThreshold( float threshold ) {
+		this.threshold = threshold;
+	}
+
+	@Override
+	public float getThreshold() {
+		return threshold;
+	}
+
+	private void computeBounds() {
+		float r0 = (float)Math.max(0, radius - threshold);
+		float r1 = radius + threshold;
+		lower = r0*r0;
+		upper = r1*r1;
+	}
+
+	@Override
+	public int count( PointCloud3D_F32 cloud ) {
+		return count(cloud, -1);
+	}
+
+	@Override
+	public int count( PointCloud3D_F32 cloud , int best ) {
+		computeBounds();
+		final float[] x = cloud.x, y = cloud.y, z = cloud.z;
+		final int N = cloud.size;
+		// it can't beat best once this many outliers have been found
+		final int maxOutliers = N - best;
+
+		int outliers = 0;
+		for( int i = 0; i < N; i++ ) {
+			float dx = x[i] - cx, dy = y[i] - cy, dz = z[i] - cz;
+			float d2 = dx*dx + dy*dy + dz*dz;
+			if( !(d2 >= lower && d2 <= upper) ) {
+				if( ++outliers >= maxOutliers )
+					return i + 1 - outliers;
+			}
+		}
+		return N - outliers;
+	}
+
+	@Override
+	public int mask( PointCloud3D_F32 cloud , long[] mask ) {
+		computeBounds();
+		final float[] x = cloud.x, y = cloud.y, z = cloud.z;
+		final int N = cloud.size;
+
+		int total = 0;
+		for( int block = 0; block < N; block += 64 ) {
+			int end = block + 64;
+			if( end > N ) end = N;
+			long bits = 0;
+			for( int i = block; i < end; i++ ) {
+				float dx = x[i] - cx, dy = y[i] - cy, dz = z[i] - cz;
+				float d2 = dx*dx + dy*dy + dz*dz;
+				if( d2 >= lower && d2 <= upper ) {
+					bits |= 1L << (i - block);
+					total++;
+				}
+			}
+			mask[block >> 6] = bits;
+		}
+		return total;
+	}
+
+	@Override
+	public int select( PointCloud3D_F32 cloud , GrowQueue_I32 indexes ) {
+		computeBounds();
+		final float[] x = cloud.x, y = cloud.y, z = cloud.z;
+		final int N = cloud.size;
+
+		indexes.reset();
+		for( int i = 0; i < N; i++ ) {
+			float dx = x[i] - cx, dy = y[i] - cy, dz = z[i] - cz;
+			float d2 = dx*dx + dy*dy + dz*dz;
+			if( d2 >= lower && d2 <= upper ) {
+				indexes.add(i);
+			}
+		}
+		return indexes.size;
+	}
+}
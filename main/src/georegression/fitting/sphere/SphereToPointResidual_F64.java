@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.fitting.PointResidualFunction;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+
+import java.util.List;
+
+/**
+ * Signed Euclidean distance between a sphere and each point, along with its gradient, computed one point at
+ * a time.  Same residuals as {@link SphereToPointSignedDistance_F64} and gradients as
+ * {@link SphereToPointSignedDistanceJacobian_F64}.  Points can be provided as a list or a packed cloud.
+ *
+ * See {@link CodecSphere3D_F64} for how the model is parametrized.
+ *
+ * @author Peter Abeles
+ */
+public class SphereToPointResidual_F64 implements PointResidualFunction {
+
+	// model of the sphere
+	private Sphere3D_F64 sphere = new Sphere3D_F64();
+
+	// points whose distance from the sphere is being computed.  Only one is used at a time
+	private List<Point3D_F64> points;
+	private PointCloud3D_F64 cloud;
+
+	// used to convert double[] into shape parameters
+	private CodecSphere3D_F64 codec = new CodecSphere3D_F64();
+
+	// center minus the point
+	private double dx, dy, dz;
+
+	public void setPoints( List<Point3D_F64> points ) {
+		this.points = points;
+		this.cloud = null;
+	}
+
+	public void setPoints( PointCloud3D_F64 cloud ) {
+		this.points = null;
+		this.cloud = cloud;
+	}
+
+	@Override
+	public int getNumOfInputsN() {
+		return 4;
+	}
+
+	@Override
+	public int getNumOfPoints() {
+		return cloud == null ? points.size() : cloud.size;
+	}
+
+	@Override
+	public void setParameters( /**/double[] param ) {
+		codec.decode(param, sphere);
+	}
+
+	@Override
+	public /**/double computeResidual( int index ) {
+		offset(index);
+
+		return Math.sqrt(dx*dx + dy*dy + dz*dz) - sphere.radius;
+	}
+
+	@Override
+	public /**/double computeResidual( int index , /**/double[] gradient ) {
+		offset(index);
+
+		double euclidean = Math.sqrt(dx*dx + dy*dy + dz*dz);
+
+		gradient[0] = dx/euclidean;
+		gradient[1] = dy/euclidean;
+		gradient[2] = dz/euclidean;
+		gradient[3] = -1;
+
+		return euclidean - sphere.radius;
+	}
+
+	/**
+	 * Computes the difference between the sphere's center and the point
+	 */
+	private void offset( int index ) {
+		if( cloud == null ) {
+			Point3D_F64 p = points.get(index);
+			dx = sphere.center.x - p.x;
+			dy = sphere.center.y - p.y;
+			dz = sphere.center.z - p.z;
+		} else {
+			dx = sphere.center.x - cloud.x[index];
+			dy = sphere.center.y - cloud.y[index];
+			dz = sphere.center.z - cloud.z[index];
+		}
+	}
+}
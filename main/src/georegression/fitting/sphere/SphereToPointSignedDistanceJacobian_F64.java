@@ -25,12 +25,11 @@ import org.ddogleg.optimization.functions.FunctionNtoMxN;
 import java.util.List;
 
 /**
- * Jacobian of {@link SphereToPointSignedDistance_F64}.
+ * Jacobian of {@link SphereToPointSignedDistance_F64}.  See {@link SphereToPointResidual_F64} for how to compute
+ * the distance and Jacobian together.
  *
  * @author Peter Abeles
  */
-// DESIGN NOTE: Could speed up by coupling it to the distance function.  That way distance would only need
-//              to be computed once.
 public class SphereToPointSignedDistanceJacobian_F64 implements FunctionNtoMxN {
 
 	// model of the sphere
@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.struct.Matrix3x3_F64;
+
+/**
+ * <p>
+ * Eigenvalue decomposition of small symmetric matrices, e.g. 3x3 and 4x4, using the cyclic Jacobi method.
+ * All the memory is declared in the constructor, so a single instance can be used to decompose many matrices
+ * without any additional heap allocation.  This is faster than a general purpose decomposition for small
+ * fixed size problems and very accurate.
+ * </p>
+ *
+ * <p>
+ * After {@link #process} has been called the eigenvalues are sorted in descending order.  Eigenvector 'i' is
+ * stored in column 'i' of a row-major matrix and corresponds to eigenvalue 'i'.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class JacobiEigenSymmetric_F64 {
+
+	// maximum number of sweeps across all the off diagonal elements
+	int maxSweeps = 50;
+
+	// size of the matrix
+	int N;
+
+	// matrix being diagonalized, row-major
+	double A[];
+	// eigenvectors stored in columns, row-major
+	double V[];
+	// eigenvalues
+	double values[];
+
+	/**
+	 * @param N Number of rows and columns in the matrices it will decompose.
+	 */
+	public JacobiEigenSymmetric_F64( int N ) {
+		this.N = N;
+		A = new double[N*N];
+		V = new double[N*N];
+		values = new double[N];
+	}
+
+	/**
+	 * Decomposes a 3x3 symmetric matrix.  Only works if N = 3.
+	 *
+	 * @param M (Input) Symmetric matrix. Not modified.
+	 * @return true if it converged
+	 */
+	public boolean process( Matrix3x3_F64 M ) {
+		if( N != 3 )
+			throw new IllegalArgumentException("Must be constructed with N = 3");
+
+		A[0] = M.a11; A[1] = M.a12; A[2] = M.a13;
+		A[3] = M.a21; A[4] = M.a22; A[5] = M.a23;
+		A[6] = M.a31; A[7] = M.a32; A[8] = M.a33;
+
+		return decompose();
+	}
+
+	/**
+	 * Decomposes a symmetric matrix.
+	 *
+	 * @param M (Input) Symmetric N by N matrix in a row-major array. Not modified.
+	 * @return true if it converged
+	 */
+	public boolean process( double M[] ) {
+		System.arraycopy(M,0,A,0,N*N);
+		return decompose();
+	}
+
+	private boolean decompose() {
+		for( int i = 0; i < N*N; i++ )
+			V[i] = 0;
+		for( int i = 0; i < N; i++ )
+			V[i*N+i] = 1;
+
+		boolean converged = false;
+		for( int sweep = 0; sweep < maxSweeps; sweep++ ) {
+			double off = 0;
+			for( int p = 0; p < N; p++ ) {
+				for( int q = p+1; q < N; q++ ) {
+					off += Math.abs(A[p*N+q]);
+				}
+			}
+			if( off == 0 ) {
+				converged = true;
+				break;
+			}
+
+			for( int p = 0; p < N; p++ ) {
+				for( int q = p+1; q < N; q++ ) {
+					rotate(p, q, sweep);
+				}
+			}
+		}
+
+		for( int i = 0; i < N; i++ )
+			values[i] = A[i*N+i];
+
+		sortDescending();
+
+		return converged;
+	}
+
+	/**
+	 * Applies a Jacobi rotation which zeros element (p,q) and (q,p)
+	 */
+	private void rotate( int p , int q , int sweep ) {
+		double apq = A[p*N+q];
+		if( apq == 0 )
+			return;
+
+		double app = A[p*N+p];
+		double aqq = A[q*N+q];
+
+		// after a few sweeps skip the rotation if the element is negligible relative to the diagonal
+		double g = 100.0*Math.abs(apq);
+		if( sweep > 3 && Math.abs(app) + g == Math.abs(app) && Math.abs(aqq) + g == Math.abs(aqq) ) {
+			A[p*N+q] = A[q*N+p] = 0;
+			return;
+		}
+
+		// tangent of the rotation angle, selecting the smaller root for stability
+		double h = aqq - app;
+		double t;
+		if( Math.abs(h) + g == Math.abs(h) ) {
+			t = apq/h;
+		} else {
+			double theta = h/(2.0*apq);
+			t = 1.0/(Math.abs(theta) + Math.sqrt(theta*theta + 1.0));
+			if( theta < 0 )
+				t = -t;
+		}
+		double c = 1.0/(double)Math.sqrt(t*t + 1.0);
+		double s = t*c;
+
+		// A = A*J
+		for( int k = 0; k < N; k++ ) {
+			double akp = A[k*N+p];
+			double akq = A[k*N+q];
+			A[k*N+p] = c*akp - s*akq;
+			A[k*N+q] = s*akp + c*akq;
+		}
+		// A = J'*A
+		for( int k = 0; k < N; k++ ) {
+			double apk = A[p*N+k];
+			double aqk = A[q*N+k];
+			A[p*N+k] = c*apk - s*aqk;
+			A[q*N+k] = s*apk + c*aqk;
+		}
+		A[p*N+q] = A[q*N+p] = 0;
+
+		// V = V*J
+		for( int k = 0; k < N; k++ ) {
+			double vkp = V[k*N+p];
+			double vkq = V[k*N+q];
+			V[k*N+p] = c*vkp - s*vkq;
+			V[k*N+q] = s*vkp + c*vkq;
+		}
+	}
+
+	/**
+	 * Sorts the eigenvalues and eigenvectors into descending order using insertion sort
+	 */
+	private void sortDescending() {
+		for( int i = 1; i < N; i++ ) {
+			for( int j = i; j > 0 && values[j-1] < values[j]; j-- ) {
+				double tmp = values[j];
+				values[j] = values[j-1];
+				values[j-1] = tmp;
+
+				for( int k = 0; k < N; k++ ) {
+					tmp = V[k*N+j];
+					V[k*N+j] = V[k*N+j-1];
+					V[k*N+j-1] = tmp;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the specified eigenvalue.  Eigenvalues are sorted in descending order.
+	 */
+	public double getEigenvalue( int index ) {
+		return values[index];
+	}
+
+	/**
+	 * Returns an element in the eigenvector matrix.  Eigenvectors are stored in the columns.
+	 *
+	 * @param row Element in the eigenvector
+	 * @param index Which eigenvector
+	 */
+	public double getEigenvector( int row , int index ) {
+		return V[row*N+index];
+	}
+
+	/**
+	 * Returns the internal row-major matrix with eigenvectors stored in the columns.  Don't modify.
+	 */
+	public double[] getEigenvectors() {
+		return V;
+	}
+
+	public int getMaxSweeps() {
+		return maxSweeps;
+	}
+
+	public void setMaxSweeps( int maxSweeps ) {
+		this.maxSweeps = maxSweeps;
+	}
+
+	public int getN() {
+		return N;
+	}
+}
@@ -20,6 +20,7 @@ package georegression.geometry;
 
 import georegression.struct.GeoTuple2D_F64;
 import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.PointCloud2D_F64;
 import georegression.struct.shapes.Rectangle2D_F64;
 import georegression.struct.shapes.RectangleLength2D_F64;
 import org.ddogleg.sorting.QuickSort_F64;
@@ -92,6 +93,31 @@ public class UtilPoint2D_F64 {
 		return mean;
 	}
 
+	/**
+	 * Finds the point which has the mean location of all the points in the cloud. This is also known
+	 * as the centroid.
+	 *
+	 * @param cloud Point cloud
+	 * @param mean Storage for mean point.  If null then a new instance will be declared
+	 * @return The found mean
+	 */
+	public static Point2D_F64 mean( PointCloud2D_F64 cloud , Point2D_F64 mean ) {
+		if( mean == null )
+			mean = new Point2D_F64();
+
+		double x = 0;
+		double y = 0;
+
+		final int N = cloud.size;
+		for( int i = 0; i < N; i++ ) {
+			x += cloud.x[i];
+			y += cloud.y[i];
+		}
+
+		mean.set(x/N, y/N);
+		return mean;
+	}
+
 	public static List<Point2D_F64> random( double min, double max, int num, Random rand ) {
 		List<Point2D_F64> ret = new ArrayList<Point2D_F64>();
 
@@ -179,6 +205,38 @@ public class UtilPoint2D_F64 {
 		return bounding;
 	}
 
+	/**
+	 * Finds the minimal area {@link Rectangle2D_F64} which contains all the points in the cloud.
+	 *
+	 * @param cloud Input: Point cloud.
+	 * @param bounding Output: Bounding rectangle.  If null then a new instance will be declared
+	 * @return Bounding rectangle
+	 */
+	public static Rectangle2D_F64 bounding(PointCloud2D_F64 cloud, Rectangle2D_F64 bounding) {
+		if( bounding == null )
+			bounding = new Rectangle2D_F64();
+
+		double minX=Double.MAX_VALUE,maxX=-Double.MAX_VALUE;
+		double minY=Double.MAX_VALUE,maxY=-Double.MAX_VALUE;
+
+		for( int i = 0; i < cloud.size; i++ ) {
+			double x = cloud.x[i];
+			double y = cloud.y[i];
+			if( x < minX )
+				minX = x;
+			if( x > maxX )
+				maxX = x;
+			if( y < minY )
+				minY = y;
+			if( y > maxY )
+				maxY = y;
+		}
+
+		bounding.set(minX,minY,maxX,maxY);
+
+		return bounding;
+	}
+
 	/**
 	 * Puts the points into counter-clockwise order around their center.
 	 *
@@ -19,6 +19,7 @@
 package georegression.geometry;
 
 import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
 import georegression.struct.shapes.Box3D_F32;
 
 import java.util.ArrayList;
@@ -139,6 +140,33 @@ public class UtilPoint3D_F32 {
 		return mean;
 	}
 
+	/**
+	 * Computes the mean of the points in the cloud.
+	 *
+	 * @param cloud Point cloud
+	 * @param mean (Optional) storage for the mean.  Can be null
+	 * @return Mean
+	 */
+	public static Point3D_F32 mean( PointCloud3D_F32 cloud , Point3D_F32 mean ) {
+		if( mean == null )
+			mean = new Point3D_F32();
+
+		float x = 0, y = 0, z = 0;
+
+		final int N = cloud.size;
+		for( int i = 0; i < N; i++ ) {
+			x += cloud.x[i];
+			y += cloud.y[i];
+			z += cloud.z[i];
+		}
+
+		mean.x = x / N;
+		mean.y = y / N;
+		mean.z = z / N;
+
+		return mean;
+	}
+
 	/**
 	 * Finds the minimal volume {@link Box3D_F32} which contains all the points.
 	 *
@@ -169,4 +197,37 @@ public class UtilPoint3D_F32 {
 		bounding.p0.set(minX,minY,minZ);
 		bounding.p1.set(maxX, maxY, maxZ);
 	}
+
+	/**
+	 * Finds the minimal volume {@link Box3D_F32} which contains all the points in the cloud.
+	 *
+	 * @param cloud Input: Point cloud.
+	 * @param bounding Output: Bounding box
+	 */
+	public static void boundingBox(PointCloud3D_F32 cloud, Box3D_F32 bounding) {
+		float minX=Float.MAX_VALUE,maxX=-Float.MAX_VALUE;
+		float minY=Float.MAX_VALUE,maxY=-Float.MAX_VALUE;
+		float minZ=Float.MAX_VALUE,maxZ=-Float.MAX_VALUE;
+
+		for( int i = 0; i < cloud.size; i++ ) {
+			float x = cloud.x[i];
+			float y = cloud.y[i];
+			float z = cloud.z[i];
+			if( x < minX )
+				minX = x;
+			if( x > maxX )
+				maxX = x;
+			if( y < minY )
+				minY = y;
+			if( y > maxY )
+				maxY = y;
+			if( z < minZ )
+				minZ = z;
+			if( z > maxZ )
+				maxZ = z;
+		}
+
+		bounding.p0.set(minX,minY,minZ);
+		bounding.p1.set(maxX, maxY, maxZ);
+	}
 }
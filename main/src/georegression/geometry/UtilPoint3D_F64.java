@@ -19,6 +19,7 @@
 package georegression.geometry;
 
 import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
 import georegression.struct.shapes.Box3D_F64;
 
 import java.util.ArrayList;
@@ -139,6 +140,33 @@ public class UtilPoint3D_F64 {
 		return mean;
 	}
 
+	/**
+	 * Computes the mean of the points in the cloud.
+	 *
+	 * @param cloud Point cloud
+	 * @param mean (Optional) storage for the mean.  Can be null
+	 * @return Mean
+	 */
+	public static Point3D_F64 mean( PointCloud3D_F64 cloud , Point3D_F64 mean ) {
+		if( mean == null )
+			mean = new Point3D_F64();
+
+		double x = 0, y = 0, z = 0;
+
+		final int N = cloud.size;
+		for( int i = 0; i < N; i++ ) {
+			x += cloud.x[i];
+			y += cloud.y[i];
+			z += cloud.z[i];
+		}
+
+		mean.x = x / N;
+		mean.y = y / N;
+		mean.z = z / N;
+
+		return mean;
+	}
+
 	/**
 	 * Finds the minimal volume {@link Box3D_F64} which contains all the points.
 	 *
@@ -169,4 +197,37 @@ public class UtilPoint3D_F64 {
 		bounding.p0.set(minX,minY,minZ);
 		bounding.p1.set(maxX, maxY, maxZ);
 	}
+
+	/**
+	 * Finds the minimal volume {@link Box3D_F64} which contains all the points in the cloud.
+	 *
+	 * @param cloud Input: Point cloud.
+	 * @param bounding Output: Bounding box
+	 */
+	public static void boundingBox(PointCloud3D_F64 cloud, Box3D_F64 bounding) {
+		double minX=Double.MAX_VALUE,maxX=-Double.MAX_VALUE;
+		double minY=Double.MAX_VALUE,maxY=-Double.MAX_VALUE;
+		double minZ=Double.MAX_VALUE,maxZ=-Double.MAX_VALUE;
+
+		for( int i = 0; i < cloud.size; i++ ) {
+			double x = cloud.x[i];
+			double y = cloud.y[i];
+			double z = cloud.z[i];
+			if( x < minX )
+				minX = x;
+			if( x > maxX )
+				maxX = x;
+			if( y < minY )
+				minY = y;
+			if( y > maxY )
+				maxY = y;
+			if( z < minZ )
+				minZ = z;
+			if( z > maxZ )
+				maxZ = z;
+		}
+
+		bounding.p0.set(minX,minY,minZ);
+		bounding.p1.set(maxX, maxY, maxZ);
+	}
 }
@@ -140,7 +140,7 @@ public class DistancePointTriangle3D_F64 {
 		if( tmp1 > tmp0 ) {
 			double numer = tmp1 - tmp0;
 			double denom = a - 2 * b + c;
-			s = numer <= denom ? 1 : numer/denom;
+			s = numer >= denom ? 1 : numer/denom;
 			t = 1 - s;
 		} else {
 			s = 0;
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.misc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * Functions for splitting up operations on large sets of points across multiple threads using a
+ * {@link ForkJoinPool}.  The range of points is recursively split in half until each block is small enough,
+ * then each block is processed by a single thread.  If the total number of points is less than
+ * {@link #getThreshold() threshold} then everything is processed in the calling thread, since the overhead
+ * of creating tasks would be greater than the speedup.
+ * </p>
+ *
+ * <p>
+ * Algorithms which need storage for each thread, e.g. a workspace which is reused for every block, can instead use
+ * {@link #loopBlocks(int, List, BlockWorker)}.  Each thread is given its own workspace and takes the next
+ * unprocessed block until none are left.
+ * </p>
+ *
+ * <p>
+ * By default a pool is created with one thread per processor the first time it's needed.  A different pool
+ * can be specified with {@link #setPool(ForkJoinPool)}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ConcurrencyOps {
+
+	// the pool used to process the tasks
+	private static ForkJoinPool pool;
+
+	// problems smaller than this are processed in the calling thread.  volatile since it can be changed
+	// while other threads are calling loopBlocks()
+	private static volatile int threshold = 50000;
+
+	/**
+	 * Processes a contiguous range of elements
+	 */
+	public interface IntRangeTask {
+		/**
+		 * Processes all elements from start to end.
+		 *
+		 * @param start first element, inclusive
+		 * @param end last element, exclusive
+		 */
+		void process( int start , int end );
+	}
+
+	/**
+	 * Processes a block of work using storage which is owned by the calling thread
+	 */
+	public interface BlockWorker<W> {
+		/**
+		 * Processes a single block.
+		 *
+		 * @param workspace Storage which is only used by one thread at a time
+		 * @param block Index of the block
+		 */
+		void process( W workspace , int block );
+	}
+
+	/**
+	 * Processes all the elements from start to end, possibly concurrently.  The task must be safe to call
+	 * from multiple threads at once on non-overlapping ranges.
+	 *
+	 * @param start first element, inclusive
+	 * @param end last element, exclusive
+	 * @param task The task which processes each block
+	 */
+	public static void loopBlocks( int start , int end , IntRangeTask task ) {
+		int length = end - start;
+		if( length <= 0 )
+			return;
+
+		// read once so that the same value is used throughout
+		int threshold = ConcurrencyOps.threshold;
+		if( length < threshold ) {
+			task.process(start, end);
+			return;
+		}
+
+		ForkJoinPool pool = getPool();
+
+		// create a few blocks for each thread so that the load is balanced when some blocks are slower
+		int blockSize = Math.max(threshold/2, length/(pool.getParallelism()*4)+1);
+
+		pool.invoke(new BlockAction(start, end, blockSize, task));
+	}
+
+	/**
+	 * Processes blocks 0 to numBlocks-1, possibly concurrently.  One thread is used for each workspace and it
+	 * processes blocks in increasing order, taking the next unprocessed block until none are left.  Which thread
+	 * processes a block depends on scheduling.  If there is only one workspace then all the blocks are processed
+	 * in the calling thread.
+	 *
+	 * @param numBlocks Number of blocks
+	 * @param workspaces Storage for each thread.  Its size is the number of threads.
+	 *                   See {@link #numThreads(int)}.  Not modified.
+	 * @param worker Processes each block
+	 */
+	public static <W> void loopBlocks( final int numBlocks , List<W> workspaces , final BlockWorker<W> worker ) {
+		if( numBlocks <= 0 )
+			return;
+		if( workspaces.isEmpty() )
+			throw new IllegalArgumentException("There must be at least one workspace");
+
+		if( workspaces.size() == 1 ) {
+			W w = workspaces.get(0);
+			for( int block = 0; block < numBlocks; block++ ) {
+				worker.process(w, block);
+			}
+			return;
+		}
+
+		final AtomicInteger nextBlock = new AtomicInteger();
+		List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(workspaces.size());
+		for( int i = 0; i < workspaces.size(); i++ ) {
+			final W w = workspaces.get(i);
+			tasks.add(new Callable<Object>() {
+				@Override
+				public Object call() throws Exception {
+					int block;
+					while( (block = nextBlock.getAndIncrement()) < numBlocks ) {
+						worker.process(w, block);
+					}
+					return null;
+				}
+			});
+		}
+
+		try {
+			for( Future<Object> f : getPool().invokeAll(tasks) ) {
+				f.get();
+			}
+		} catch( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch( ExecutionException e ) {
+			// pass along the original exception so that it's the same as in a single thread
+			Throwable cause = e.getCause();
+			if( cause instanceof RuntimeException )
+				throw (RuntimeException)cause;
+			if( cause instanceof Error )
+				throw (Error)cause;
+			throw new RuntimeException(cause);
+		}
+	}
+
+	/**
+	 * Number of threads which should be used to process the specified number of blocks, i.e. the number
+	 * of workspaces passed to {@link #loopBlocks(int, List, BlockWorker)}.  It's the smaller of the number of blocks
+	 * and the pool's parallelism.
+	 */
+	public static int numThreads( int numBlocks ) {
+		if( numBlocks <= 1 )
+			return 1;
+		return Math.min(numBlocks, getPool().getParallelism());
+	}
+
+	/**
+	 * Returns the pool used to process tasks.  If none has been specified then one is created.
+	 */
+	public static synchronized ForkJoinPool getPool() {
+		if( pool == null )
+			pool = new ForkJoinPool();
+		return pool;
+	}
+
+	/**
+	 * Specifies the pool that's used to process tasks.
+	 */
+	public static synchronized void setPool( ForkJoinPool pool ) {
+		ConcurrencyOps.pool = pool;
+	}
+
+	/**
+	 * Number of elements below which everything is processed in the calling thread
+	 */
+	public static int getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * Specifies the number of elements below which everything is processed in the calling thread
+	 *
+	 * @param threshold Number of elements.  Must be &ge; 1
+	 */
+	public static void setThreshold( int threshold ) {
+		if( threshold < 1 )
+			throw new IllegalArgumentException("Threshold must be at least 1");
+		ConcurrencyOps.threshold = threshold;
+	}
+
+	/**
+	 * Recursively splits the range in half until it's no larger than the block size
+	 */
+	private static class BlockAction extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		int start, end, blockSize;
+		IntRangeTask task;
+
+		private BlockAction( int start, int end, int blockSize, IntRangeTask task ) {
+			this.start = start;
+			this.end = end;
+			this.blockSize = blockSize;
+			this.task = task;
+		}
+
+		@Override
+		protected void compute() {
+			if( end - start <= blockSize ) {
+				task.process(start, end);
+			} else {
+				int middle = start + (end - start)/2;
+				invokeAll(new BlockAction(start, middle, blockSize, task),
+						new BlockAction(middle, end, blockSize, task));
+			}
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.metric.alg.DistancePointTriangle3D_F32;
+import georegression.struct.point.Point3D_F32;
+
+/**
+ * <p>
+ * Storage for the results of a query against a {@link BvhTriangle3D_F32} and the work space needed to perform it.
+ * After the first few queries no memory is declared.  A hierarchy can be queried by multiple threads at the same
+ * time if each thread has its own instance of this class.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BvhSearch_F32 {
+	/**
+	 * Index of the triangle which was found in the original list or -1 if none was found
+	 */
+	public int index = -1;
+	/**
+	 * Location along the line where the triangle was intersected.  For a segment this is 0 at 'a' and 1 at 'b'.
+	 * For a ray it's the parametric location in units of its slope.  Only set by segment and ray queries.
+	 */
+	public float t;
+	/**
+	 * Euclidean distance between the query point and the closest point found.  Only set by closest point queries.
+	 */
+	public float distance;
+	/**
+	 * The point on the triangle which was found
+	 */
+	public Point3D_F32 point = new Point3D_F32();
+
+	// stack of nodes which still need to be examined and the distance to them along the line or from the point
+	int[] stackNode = new int[0];
+	float[] stackDistance = new float[0];
+
+	// work space for computing the distance to a triangle
+	DistancePointTriangle3D_F32 distanceTriangle = new DistancePointTriangle3D_F32();
+	Point3D_F32 query = new Point3D_F32();
+	Point3D_F32 v0 = new Point3D_F32();
+	Point3D_F32 v1 = new Point3D_F32();
+	Point3D_F32 v2 = new Point3D_F32();
+	Point3D_F32 closest = new Point3D_F32();
+
+	// number of triangles examined during the last query
+	int numChecked;
+
+	/**
+	 * The number of triangles which were tested during the last query.  Useful for measuring how much work a
+	 * query required.
+	 */
+	public int getNumChecked() {
+		return numChecked;
+	}
+
+	/**
+	 * Clears the results and ensures the stack can hold the specified number of nodes
+	 */
+	void reset( int stackSize ) {
+		if( stackNode.length < stackSize ) {
+			stackNode = new int[stackSize];
+			stackDistance = new float[stackSize];
+		}
+		index = -1;
+		numChecked = 0;
+	}
+}
@@ -0,0 +1,740 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.metric.alg.DistancePointTriangle3D_F64;
+import georegression.struct.line.LineParametric3D_F64;
+import georegression.struct.line.LineSegment3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.shapes.Triangle3D_F64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Static bounding volume hierarchy (BVH) of axis aligned boxes for quickly finding which triangles a line segment
+ * or ray intersects and which triangle is closest to a point.  Instead of testing every triangle, only triangles
+ * inside of boxes which the line passes through or are close enough to the point are tested, which typically
+ * reduces the cost of a query from linear to logarithmic in the number of triangles.  Three types of queries are
+ * supported:
+ * </p>
+ * <ul>
+ * <li>First-hit: The triangle closest to the start of the line is found along with the point it was hit at.</li>
+ * <li>Any-hit: Only checks to see if any triangle is hit and stops at the first one found.  Use this for visibility
+ * checks, e.g. is the segment between two points blocked.</li>
+ * <li>Closest: The closest point on any triangle to a point.  See {@link ClosestPointMeshBatch_F64} for
+ * processing large numbers of points.</li>
+ * </ul>
+ *
+ * <p>
+ * The hierarchy is built once from all the triangles using the surface area heuristic (SAH) [1].  At each node the
+ * triangle centroids are sorted into {@link #NUM_BINS bins} along each axis and the split between bins which
+ * minimizes the expected cost of a query is selected.  A node becomes a leaf when it has no more than
+ * {@link #getMaxLeafSize() maxLeafSize} triangles or splitting it isn't expected to reduce the cost.  The
+ * triangles are copied into a single packed array in tree order so that the triangles in each leaf are
+ * contiguous in memory.  After it has been built the hierarchy isn't modified by queries, so it can be queried by
+ * multiple threads if each has its own {@link BvhSearch_F64}.
+ * </p>
+ *
+ * <p>
+ * A line intersects a triangle if they have a single point in common.  Edges and vertices are included and a line
+ * which is parallel to a triangle doesn't intersect it, the same as
+ * {@link georegression.metric.Intersection3D_F64#intersection(Triangle3D_F64, LineSegment3D_F64, Point3D_F64)}.
+ * </p>
+ *
+ * <p>
+ * [1] Wald, Ingo. "On fast construction of SAH-based bounding volume hierarchies." IEEE Symposium on Interactive
+ * Ray Tracing. 2007.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BvhTriangle3D_F64 {
+
+	/**
+	 * Number of bins the centroids are sorted into when selecting a split
+	 */
+	public static final int NUM_BINS = 16;
+
+	/**
+	 * Nodes deeper than this are always leaves
+	 */
+	public static final int MAX_DEPTH = 64;
+
+	// cost of traversing a node relative to the cost of intersecting a triangle
+	private static final double COST_TRAVERSAL = 1.0;
+
+	// maximum number of triangles in a leaf
+	protected int maxLeafSize;
+
+	// vertices of each triangle in tree order.  Triangle i is at elements i*9 to i*9+8 and vertices v0, v1, v2
+	protected double[] vertices = new double[0];
+	// index of each triangle in the input
+	protected int[] indexes = new int[0];
+	// number of triangles
+	protected int size;
+
+	// Description of each node.  A node's left child is always the next node.
+	protected int numNodes;
+	// bounding box of each node.  min x,y,z then max x,y,z
+	protected double[] nodeBounds = new double[0];
+	// index of the node's right child or -1 if it's a leaf
+	protected int[] nodeRight = new int[0];
+	// range of triangles contained in the node
+	protected int[] nodeStart = new int[0];
+	protected int[] nodeEnd = new int[0];
+	// depth of the deepest node
+	protected int depth;
+
+	// work space for building the tree
+	private double[] centroids = new double[0];
+	private double[] centerMin = new double[3];
+	private double[] centerMax = new double[3];
+	private int[] binCount = new int[3*NUM_BINS];
+	private double[] binBounds = new double[3*NUM_BINS*6];
+	private double[] rightArea = new double[NUM_BINS];
+	private int[] rightCount = new int[NUM_BINS];
+	private double[] sweep = new double[6];
+
+	/**
+	 * Specifies the maximum number of triangles in a leaf
+	 *
+	 * @param maxLeafSize Maximum number of triangles in a leaf.  Try 4
+	 */
+	public BvhTriangle3D_F64( int maxLeafSize ) {
+		if( maxLeafSize < 1 )
+			throw new IllegalArgumentException("maxLeafSize must be at least 1");
+		this.maxLeafSize = maxLeafSize;
+	}
+
+	/**
+	 * Creates a hierarchy with up to 4 triangles in each leaf
+	 */
+	public BvhTriangle3D_F64() {
+		this(4);
+	}
+
+	/**
+	 * Builds the hierarchy from the list of triangles.  The triangles are copied and the list isn't modified.
+	 *
+	 * @param triangles Triangles which are to be searched
+	 */
+	public void setTriangles( List<Triangle3D_F64> triangles ) {
+		int N = triangles.size();
+		if( indexes.length < N ) {
+			vertices = new double[N*9];
+			indexes = new int[N];
+			centroids = new double[N*3];
+		}
+		size = N;
+
+		for( int i = 0; i < N; i++ ) {
+			Triangle3D_F64 t = triangles.get(i);
+			int v = i*9;
+			vertices[v  ] = t.v0.x; vertices[v+1] = t.v0.y; vertices[v+2] = t.v0.z;
+			vertices[v+3] = t.v1.x; vertices[v+4] = t.v1.y; vertices[v+5] = t.v1.z;
+			vertices[v+6] = t.v2.x; vertices[v+7] = t.v2.y; vertices[v+8] = t.v2.z;
+			int c = i*3;
+			centroids[c  ] = (t.v0.x + t.v1.x + t.v2.x)/3;
+			centroids[c+1] = (t.v0.y + t.v1.y + t.v2.y)/3;
+			centroids[c+2] = (t.v0.z + t.v1.z + t.v2.z)/3;
+			indexes[i] = i;
+		}
+
+		numNodes = 0;
+		depth = 0;
+		if( size > 0 )
+			buildNode(0, size, 0);
+	}
+
+	/**
+	 * Recursively builds a node and its children
+	 *
+	 * @return index of the node
+	 */
+	private int buildNode( int start , int end , int level ) {
+		int node = addNode(start, end);
+		if( level > depth )
+			depth = level;
+
+		int count = end - start;
+		if( count <= maxLeafSize || level >= MAX_DEPTH )
+			return node;
+
+		// bounds of the centroids, which are used to assign triangles to bins
+		// the work space is only used before building the children
+		for( int axis = 0; axis < 3; axis++ ) {
+			centerMin[axis] = Double.MAX_VALUE;
+			centerMax[axis] = -Double.MAX_VALUE;
+		}
+		for( int i = start; i < end; i++ ) {
+			for( int axis = 0; axis < 3; axis++ ) {
+				double c = centroids[i*3+axis];
+				if( c < centerMin[axis] ) centerMin[axis] = c;
+				if( c > centerMax[axis] ) centerMax[axis] = c;
+			}
+		}
+
+		binTriangles(start, end);
+
+		// find the split with the lowest cost along all the axes
+		double parentArea = surfaceArea(nodeBounds, node*6);
+		double bestCost = Double.MAX_VALUE;
+		int bestAxis = -1;
+		int bestBin = -1;
+		for( int axis = 0; axis < 3; axis++ ) {
+			if( centerMax[axis] <= centerMin[axis] )
+				continue;
+
+			// sweep from the right to find the area and count of everything to the right of each split
+			resetBounds(sweep, 0);
+			int sum = 0;
+			for( int bin = NUM_BINS-1; bin > 0; bin-- ) {
+				int b = axis*NUM_BINS + bin;
+				if( binCount[b] > 0 ) {
+					sum += binCount[b];
+					union(sweep, binBounds, b*6);
+				}
+				rightCount[bin] = sum;
+				rightArea[bin] = sum > 0 ? surfaceArea(sweep, 0) : 0;
+			}
+
+			// sweep from the left and compute the cost of splitting after each bin
+			resetBounds(sweep, 0);
+			sum = 0;
+			for( int bin = 0; bin < NUM_BINS-1; bin++ ) {
+				int b = axis*NUM_BINS + bin;
+				if( binCount[b] > 0 ) {
+					sum += binCount[b];
+					union(sweep, binBounds, b*6);
+				}
+				if( sum == 0 || rightCount[bin+1] == 0 )
+					continue;
+
+				double cost = COST_TRAVERSAL +
+						(surfaceArea(sweep, 0)*sum + rightArea[bin+1]*rightCount[bin+1])/parentArea;
+				if( cost < bestCost ) {
+					bestCost = cost;
+					bestAxis = axis;
+					bestBin = bin;
+				}
+			}
+		}
+
+		// all the centroids are at the same location and can't be split
+		if( bestAxis < 0 )
+			return node;
+
+		// the split isn't expected to be faster than testing every triangle in the node.  Large nodes are always
+		// split since the SAH estimate is crude and a leaf with many triangles is very expensive if it's wrong
+		if( bestCost >= count && count <= 4*maxLeafSize )
+			return node;
+
+		// move triangles to the left of the split to the front
+		double min = centerMin[bestAxis];
+		double scale = NUM_BINS/(centerMax[bestAxis] - min);
+		int middle = start;
+		for( int i = start; i < end; i++ ) {
+			if( selectBin(centroids[i*3+bestAxis], min, scale) <= bestBin ) {
+				swap(i, middle++);
+			}
+		}
+
+		// the node arrays can be reallocated while building the children
+		buildNode(start, middle, level+1);
+		int right = buildNode(middle, end, level+1);
+		nodeRight[node] = right;
+
+		return node;
+	}
+
+	/**
+	 * Sorts the triangles into bins along each axis and computes the bounds of each bin
+	 */
+	private void binTriangles( int start , int end ) {
+		for( int i = 0; i < binCount.length; i++ ) {
+			binCount[i] = 0;
+			resetBounds(binBounds, i*6);
+		}
+
+		for( int axis = 0; axis < 3; axis++ ) {
+			if( centerMax[axis] <= centerMin[axis] )
+				continue;
+			double min = centerMin[axis];
+			double scale = NUM_BINS/(centerMax[axis] - min);
+
+			for( int i = start; i < end; i++ ) {
+				int b = axis*NUM_BINS + selectBin(centroids[i*3+axis], min, scale);
+				binCount[b]++;
+				int v = i*9;
+				for( int j = 0; j < 9; j += 3 ) {
+					includePoint(binBounds, b*6, vertices[v+j], vertices[v+j+1], vertices[v+j+2]);
+				}
+			}
+		}
+	}
+
+	private static int selectBin( double value , double min , double scale ) {
+		int bin = (int)((value - min)*scale);
+		return bin < NUM_BINS ? bin : NUM_BINS-1;
+	}
+
+	/**
+	 * Swaps the location of two triangles
+	 */
+	private void swap( int a , int b ) {
+		if( a == b )
+			return;
+		for( int j = 0; j < 9; j++ ) {
+			double tmp = vertices[a*9+j];
+			vertices[a*9+j] = vertices[b*9+j];
+			vertices[b*9+j] = tmp;
+		}
+		for( int j = 0; j < 3; j++ ) {
+			double tmp = centroids[a*3+j];
+			centroids[a*3+j] = centroids[b*3+j];
+			centroids[b*3+j] = tmp;
+		}
+		int tmp = indexes[a];
+		indexes[a] = indexes[b];
+		indexes[b] = tmp;
+	}
+
+	private int addNode( int start , int end ) {
+		if( numNodes == nodeRight.length ) {
+			int length = numNodes < 16 ? 32 : numNodes*2;
+			nodeRight = grow(nodeRight, length);
+			nodeStart = grow(nodeStart, length);
+			nodeEnd = grow(nodeEnd, length);
+			double[] bounds = new double[length*6];
+			System.arraycopy(nodeBounds, 0, bounds, 0, numNodes*6);
+			nodeBounds = bounds;
+		}
+		int node = numNodes++;
+		nodeRight[node] = -1;
+		nodeStart[node] = start;
+		nodeEnd[node] = end;
+
+		resetBounds(nodeBounds, node*6);
+		for( int i = start*9; i < end*9; i += 3 ) {
+			includePoint(nodeBounds, node*6, vertices[i], vertices[i+1], vertices[i+2]);
+		}
+		return node;
+	}
+
+	private int[] grow( int[] array , int length ) {
+		int[] a = new int[length];
+		System.arraycopy(array, 0, a, 0, numNodes);
+		return a;
+	}
+
+	private static void resetBounds( double[] bounds , int offset ) {
+		for( int i = 0; i < 3; i++ ) {
+			bounds[offset+i] = Double.MAX_VALUE;
+			bounds[offset+3+i] = -Double.MAX_VALUE;
+		}
+	}
+
+	private static void includePoint( double[] bounds , int offset , double x , double y , double z ) {
+		if( x < bounds[offset  ] ) bounds[offset  ] = x;
+		if( y < bounds[offset+1] ) bounds[offset+1] = y;
+		if( z < bounds[offset+2] ) bounds[offset+2] = z;
+		if( x > bounds[offset+3] ) bounds[offset+3] = x;
+		if( y > bounds[offset+4] ) bounds[offset+4] = y;
+		if( z > bounds[offset+5] ) bounds[offset+5] = z;
+	}
+
+	private static void union( double[] bounds , double[] src , int offset ) {
+		for( int i = 0; i < 3; i++ ) {
+			if( src[offset+i] < bounds[i] ) bounds[i] = src[offset+i];
+			if( src[offset+3+i] > bounds[3+i] ) bounds[3+i] = src[offset+3+i];
+		}
+	}
+
+	private static double surfaceArea( double[] bounds , int offset ) {
+		double dx = bounds[offset+3] - bounds[offset];
+		double dy = bounds[offset+4] - bounds[offset+1];
+		double dz = bounds[offset+5] - bounds[offset+2];
+		return 2*(dx*dy + dy*dz + dz*dx);
+	}
+
+	/**
+	 * Finds the triangle which is intersected closest to point 'a' in the segment.
+	 *
+	 * @param segment (Input) Line segment
+	 * @param search (Output) The triangle and the point it was intersected at.  t is the fraction of the way from
+	 *               'a' to 'b'.
+	 * @return true if a triangle was found
+	 */
+	public boolean findFirst( LineSegment3D_F64 segment , BvhSearch_F64 search ) {
+		Point3D_F64 a = segment.a, b = segment.b;
+		return search(a.x, a.y, a.z, b.x - a.x, b.y - a.y, b.z - a.z, 1, false, search);
+	}
+
+	/**
+	 * Finds the triangle which is intersected closest to the ray's origin.  Only points on the ray in the positive
+	 * direction of its slope can be intersected.
+	 *
+	 * @param ray (Input) Ray which starts at ray.p and extends along ray.slope
+	 * @param search (Output) The triangle and the point it was intersected at.  t is in units of the ray's slope.
+	 * @return true if a triangle was found
+	 */
+	public boolean findFirst( LineParametric3D_F64 ray , BvhSearch_F64 search ) {
+		Point3D_F64 p = ray.p;
+		Vector3D_F64 s = ray.slope;
+		return search(p.x, p.y, p.z, s.x, s.y, s.z, Double.POSITIVE_INFINITY, false, search);
+	}
+
+	/**
+	 * Checks to see if the segment intersects any triangle.  The search stops at the first intersection found,
+	 * which isn't necessarily the closest.
+	 *
+	 * @param segment (Input) Line segment
+	 * @param search (Output) The triangle which was found and where it was intersected
+	 * @return true if a triangle was found
+	 */
+	public boolean findAny( LineSegment3D_F64 segment , BvhSearch_F64 search ) {
+		Point3D_F64 a = segment.a, b = segment.b;
+		return search(a.x, a.y, a.z, b.x - a.x, b.y - a.y, b.z - a.z, 1, true, search);
+	}
+
+	/**
+	 * Checks to see if the ray intersects any triangle.  The search stops at the first intersection found,
+	 * which isn't necessarily the closest.
+	 *
+	 * @param ray (Input) Ray which starts at ray.p and extends along ray.slope
+	 * @param search (Output) The triangle which was found and where it was intersected
+	 * @return true if a triangle was found
+	 */
+	public boolean findAny( LineParametric3D_F64 ray , BvhSearch_F64 search ) {
+		Point3D_F64 p = ray.p;
+		Vector3D_F64 s = ray.slope;
+		return search(p.x, p.y, p.z, s.x, s.y, s.z, Double.POSITIVE_INFINITY, true, search);
+	}
+
+	/**
+	 * Finds the closest point on any of the triangles to the query point
+	 *
+	 * @param p (Input) The query point
+	 * @param maxDistance Only triangles which are closer than this distance are considered.
+	 *                    Double.MAX_VALUE for no limit.
+	 * @param search (Output) The closest triangle, the closest point on it, and the distance to it
+	 * @return true if a triangle was found
+	 */
+	public boolean findClosest( Point3D_F64 p , double maxDistance , BvhSearch_F64 search ) {
+		return findClosest(p.x, p.y, p.z, maxDistance, search);
+	}
+
+	/**
+	 * Finds the closest point on any of the triangles.  Children are visited nearest first and nodes which are
+	 * farther away than the closest triangle found so far are skipped.
+	 */
+	boolean findClosest( double x , double y , double z , double maxDistance , BvhSearch_F64 search ) {
+		search.reset(depth + 2);
+		search.query.set(x, y, z);
+		if( size == 0 )
+			return false;
+
+		int[] stackNode = search.stackNode;
+		double[] stackDistance = search.stackDistance;
+
+		// distance squared can overflow if the max distance is large
+		double bestSq = maxDistance < Math.sqrt(Double.MAX_VALUE) ? maxDistance*maxDistance : Double.MAX_VALUE;
+		int bestTriangle = -1;
+
+		int stackSize = 0;
+		double distanceRoot = distanceBoxSq(0, x, y, z);
+		if( distanceRoot < bestSq ) {
+			stackNode[0] = 0;
+			stackDistance[0] = distanceRoot;
+			stackSize = 1;
+		}
+
+		while( stackSize > 0 ) {
+			stackSize--;
+			// a closer triangle has been found since the node was added
+			if( stackDistance[stackSize] >= bestSq )
+				continue;
+			int node = stackNode[stackSize];
+
+			int right = nodeRight[node];
+			if( right < 0 ) {
+				int end = nodeEnd[node];
+				for( int i = nodeStart[node]; i < end; i++ ) {
+					double d = distanceSq(i, search);
+					if( d < bestSq ) {
+						bestSq = d;
+						bestTriangle = i;
+						search.point.set(search.closest);
+					}
+				}
+				continue;
+			}
+
+			int left = node + 1;
+			double distanceLeft = distanceBoxSq(left, x, y, z);
+			double distanceRight = distanceBoxSq(right, x, y, z);
+
+			// push the farther child first so that the nearer one is examined first
+			if( distanceLeft <= distanceRight ) {
+				if( distanceRight < bestSq ) {
+					stackNode[stackSize] = right;
+					stackDistance[stackSize++] = distanceRight;
+				}
+				if( distanceLeft < bestSq ) {
+					stackNode[stackSize] = left;
+					stackDistance[stackSize++] = distanceLeft;
+				}
+			} else {
+				if( distanceLeft < bestSq ) {
+					stackNode[stackSize] = left;
+					stackDistance[stackSize++] = distanceLeft;
+				}
+				if( distanceRight < bestSq ) {
+					stackNode[stackSize] = right;
+					stackDistance[stackSize++] = distanceRight;
+				}
+			}
+		}
+
+		if( bestTriangle < 0 )
+			return false;
+
+		search.index = indexes[bestTriangle];
+		search.distance = Math.sqrt(bestSq);
+		return true;
+	}
+
+	/**
+	 * Computes the distance squared from the query point to a triangle using {@link DistancePointTriangle3D_F64}.
+	 * The closest point is written to search.closest.
+	 */
+	private double distanceSq( int triangle , BvhSearch_F64 search ) {
+		int v = triangle*9;
+		search.v0.set(vertices[v  ], vertices[v+1], vertices[v+2]);
+		search.v1.set(vertices[v+3], vertices[v+4], vertices[v+5]);
+		search.v2.set(vertices[v+6], vertices[v+7], vertices[v+8]);
+		search.distanceTriangle.setTriangle(search.v0, search.v1, search.v2);
+		search.distanceTriangle.closestPoint(search.query, search.closest);
+		search.numChecked++;
+		return search.closest.distance2(search.query);
+	}
+
+	/**
+	 * Distance squared from a point to the closest point inside the node's bounding box.  Zero if it's inside.
+	 */
+	private double distanceBoxSq( int node , double x , double y , double z ) {
+		int b = node*6;
+		double sum = 0;
+
+		double d = nodeBounds[b] - x;
+		if( d > 0 ) sum += d*d;
+		else if( (d = x - nodeBounds[b+3]) > 0 ) sum += d*d;
+
+		d = nodeBounds[b+1] - y;
+		if( d > 0 ) sum += d*d;
+		else if( (d = y - nodeBounds[b+4]) > 0 ) sum += d*d;
+
+		d = nodeBounds[b+2] - z;
+		if( d > 0 ) sum += d*d;
+		else if( (d = z - nodeBounds[b+5]) > 0 ) sum += d*d;
+
+		return sum;
+	}
+
+	/**
+	 * Traverses the hierarchy looking for triangles intersected by the line (o + t*d) for 0 &le; t &le; tMax.
+	 * Children are visited nearest first and nodes which start after the closest intersection are skipped.
+	 */
+	private boolean search( double ox , double oy , double oz ,
+							double dx , double dy , double dz ,
+							double tMax , boolean any , BvhSearch_F64 search ) {
+		search.reset(depth + 2);
+		if( size == 0 )
+			return false;
+
+		double ix = 1.0/dx, iy = 1.0/dy, iz = 1.0/dz;
+		int[] stackNode = search.stackNode;
+		double[] stackDistance = search.stackDistance;
+
+		double best = tMax;
+		int bestTriangle = -1;
+
+		int stackSize = 0;
+		double entry = intersectBox(0, ox, oy, oz, ix, iy, iz, best);
+		if( entry <= best ) {
+			stackNode[0] = 0;
+			stackDistance[0] = entry;
+			stackSize = 1;
+		}
+
+		while( stackSize > 0 ) {
+			stackSize--;
+			// a closer triangle has been found since the node was added
+			if( stackDistance[stackSize] > best )
+				continue;
+			int node = stackNode[stackSize];
+
+			int right = nodeRight[node];
+			if( right < 0 ) {
+				int end = nodeEnd[node];
+				for( int i = nodeStart[node]; i < end; i++ ) {
+					double t = intersectTriangle(i, ox, oy, oz, dx, dy, dz);
+					if( t >= 0 && (t < best || (bestTriangle < 0 && t <= best)) ) {
+						best = t;
+						bestTriangle = i;
+						if( any )
+							break;
+					}
+				}
+				search.numChecked += end - nodeStart[node];
+				if( any && bestTriangle >= 0 )
+					break;
+				continue;
+			}
+
+			int left = node + 1;
+			double entryLeft = intersectBox(left, ox, oy, oz, ix, iy, iz, best);
+			double entryRight = intersectBox(right, ox, oy, oz, ix, iy, iz, best);
+
+			// push the farther child first so that the nearer one is examined first
+			if( entryLeft <= entryRight ) {
+				if( entryRight <= best ) {
+					stackNode[stackSize] = right;
+					stackDistance[stackSize++] = entryRight;
+				}
+				if( entryLeft <= best ) {
+					stackNode[stackSize] = left;
+					stackDistance[stackSize++] = entryLeft;
+				}
+			} else {
+				if( entryLeft <= best ) {
+					stackNode[stackSize] = left;
+					stackDistance[stackSize++] = entryLeft;
+				}
+				if( entryRight <= best ) {
+					stackNode[stackSize] = right;
+					stackDistance[stackSize++] = entryRight;
+				}
+			}
+		}
+
+		if( bestTriangle < 0 )
+			return false;
+
+		search.index = indexes[bestTriangle];
+		search.t = best;
+		search.point.set(ox + best*dx, oy + best*dy, oz + best*dz);
+		return true;
+	}
+
+	/**
+	 * Computes where the line enters the node's bounding box using the slab method.
+	 *
+	 * @return Location along the line it enters the box or Double.MAX_VALUE if it misses the box before tMax
+	 */
+	private double intersectBox( int node , double ox , double oy , double oz ,
+								 double ix , double iy , double iz , double tMax ) {
+		int b = node*6;
+		double tNear = 0;
+		double tFar = tMax;
+
+		// if the origin lies on a plane and the slope is zero then the result is NaN, which is ignored since
+		// the comparisons will be false
+		double t0 = (nodeBounds[b  ] - ox)*ix, t1 = (nodeBounds[b+3] - ox)*ix;
+		if( t0 > t1 ) { double tmp = t0; t0 = t1; t1 = tmp; }
+		if( t0 > tNear ) tNear = t0;
+		if( t1 < tFar ) tFar = t1;
+
+		t0 = (nodeBounds[b+1] - oy)*iy; t1 = (nodeBounds[b+4] - oy)*iy;
+		if( t0 > t1 ) { double tmp = t0; t0 = t1; t1 = tmp; }
+		if( t0 > tNear ) tNear = t0;
+		if( t1 < tFar ) tFar = t1;
+
+		t0 = (nodeBounds[b+2] - oz)*iz; t1 = (nodeBounds[b+5] - oz)*iz;
+		if( t0 > t1 ) { double tmp = t0; t0 = t1; t1 = tmp; }
+		if( t0 > tNear ) tNear = t0;
+		if( t1 < tFar ) tFar = t1;
+
+		return tNear <= tFar ? tNear : Double.MAX_VALUE;
+	}
+
+	/**
+	 * Intersects the line with a triangle using the Moller-Trumbore algorithm.
+	 *
+	 * @return Location along the line of the intersection or -1 if there is none
+	 */
+	private double intersectTriangle( int triangle , double ox , double oy , double oz ,
+									  double dx , double dy , double dz ) {
+		int v = triangle*9;
+		double x0 = vertices[v], y0 = vertices[v+1], z0 = vertices[v+2];
+		double e1x = vertices[v+3] - x0, e1y = vertices[v+4] - y0, e1z = vertices[v+5] - z0;
+		double e2x = vertices[v+6] - x0, e2y = vertices[v+7] - y0, e2z = vertices[v+8] - z0;
+
+		double px = dy*e2z - dz*e2y;
+		double py = dz*e2x - dx*e2z;
+		double pz = dx*e2y - dy*e2x;
+
+		double det = e1x*px + e1y*py + e1z*pz;
+		// parallel to the triangle or the triangle is degenerate
+		if( det == 0 )
+			return -1;
+		double inv = 1.0/det;
+
+		double sx = ox - x0, sy = oy - y0, sz = oz - z0;
+		double u = (sx*px + sy*py + sz*pz)*inv;
+		if( u < 0 || u > 1 )
+			return -1;
+
+		double qx = sy*e1z - sz*e1y;
+		double qy = sz*e1x - sx*e1z;
+		double qz = sx*e1y - sy*e1x;
+		double w = (dx*qx + dy*qy + dz*qz)*inv;
+		if( w < 0 || u + w > 1 )
+			return -1;
+
+		return (e2x*qx + e2y*qy + e2z*qz)*inv;
+	}
+
+	/**
+	 * Number of triangles in the hierarchy
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Number of nodes in the hierarchy
+	 */
+	public int getNumNodes() {
+		return numNodes;
+	}
+
+	/**
+	 * Depth of the deepest node.  The root has a depth of 0.
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	public int getMaxLeafSize() {
+		return maxLeafSize;
+	}
+}
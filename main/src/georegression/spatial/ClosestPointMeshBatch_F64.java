@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.misc.ConcurrencyOps;
+import georegression.struct.point.PointCloud3D_F64;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Finds the closest point on a triangle mesh for every point in a point cloud.  Intended for comparing millions of
+ * points against a mesh, e.g. measuring how much a scan deviates from its CAD model.  The mesh is stored in a
+ * {@link BvhTriangle3D_F64} and each point is found using
+ * {@link BvhTriangle3D_F64#findClosest(georegression.struct.point.Point3D_F64, double, BvhSearch_F64) findClosest}.
+ * Nodes which are farther away than the closest triangle found so far are skipped, so typically only a few leaves
+ * near each point are examined.  If only small deviations are of interest then setting the maximum distance
+ * prunes nodes before any triangle has been found.
+ * </p>
+ *
+ * <p>
+ * No memory is declared after the first call.  Points are processed in blocks which can be processed
+ * in parallel using the pool in {@link ConcurrencyOps}.  Each thread has its own storage and the results
+ * don't depend on the number of threads.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ClosestPointMeshBatch_F64 {
+
+	// number of points a thread processes before it requests more
+	public static final int BLOCK_SIZE = 1024;
+
+	// should it process blocks in multiple threads
+	boolean concurrent = true;
+
+	// the mesh which is being searched
+	BvhTriangle3D_F64 mesh;
+
+	// storage for each thread
+	List<Workspace> workspaces = new ArrayList<Workspace>();
+
+	// processes a block of points
+	ConcurrencyOps.BlockWorker<Workspace> worker = new ConcurrencyOps.BlockWorker<Workspace>() {
+		@Override
+		public void process( Workspace workspace , int block ) {
+			processBlock(workspace, block);
+		}
+	};
+
+	// references to input and output for the current call
+	PointCloud3D_F64 points;
+	double maxDistance;
+	int[] triangles;
+	double[] distances;
+	PointCloud3D_F64 closest;
+
+	/**
+	 * Specifies the mesh which is to be searched
+	 *
+	 * @param mesh Hierarchy containing all the triangles in the mesh.  Must be built before calling process.
+	 */
+	public ClosestPointMeshBatch_F64( BvhTriangle3D_F64 mesh ) {
+		setMesh(mesh);
+	}
+
+	/**
+	 * Finds the closest triangle to every point.
+	 *
+	 * @param points (Input) Points which are to be compared against the mesh.  Not modified.
+	 * @param maxDistance Only triangles which are closer than this distance are considered.
+	 *                    Double.MAX_VALUE for no limit.
+	 * @param triangles (Output) Index of the closest triangle to each point or -1 if there is no triangle within
+	 *                  maxDistance.  Must have at least points.size elements.
+	 * @param distances (Output) Optional.  If not null then the distance to the closest triangle.  Not modified for
+	 *                  points without a triangle.
+	 * @param closest (Output) Optional.  If not null then it's resized and the closest point on the mesh is written.
+	 *                Not modified for points without a triangle.
+	 * @return Number of points which had a triangle within maxDistance
+	 */
+	public int process( PointCloud3D_F64 points , double maxDistance ,
+						int[] triangles , double[] distances , PointCloud3D_F64 closest ) {
+		if( triangles.length < points.size )
+			throw new IllegalArgumentException("triangles must have at least points.size elements");
+		if( distances != null && distances.length < points.size )
+			throw new IllegalArgumentException("distances must have at least points.size elements");
+		if( closest == points )
+			throw new IllegalArgumentException("closest can't be the same instance as points");
+
+		if( closest != null )
+			closest.resize(points.size);
+
+		this.points = points;
+		this.maxDistance = maxDistance;
+		this.triangles = triangles;
+		this.distances = distances;
+		this.closest = closest;
+
+		int numBlocks = (points.size + BLOCK_SIZE - 1)/BLOCK_SIZE;
+
+		int numThreads = concurrent ? ConcurrencyOps.numThreads(numBlocks) : 1;
+
+		while( workspaces.size() < numThreads ) {
+			workspaces.add(new Workspace());
+		}
+		for( int i = 0; i < numThreads; i++ ) {
+			workspaces.get(i).numFound = 0;
+		}
+
+		ConcurrencyOps.loopBlocks(numBlocks, workspaces.subList(0, numThreads), worker);
+
+		int total = 0;
+		for( int i = 0; i < numThreads; i++ ) {
+			total += workspaces.get(i).numFound;
+		}
+
+		this.points = null;
+		this.triangles = null;
+		this.distances = null;
+		this.closest = null;
+
+		return total;
+	}
+
+	/**
+	 * Finds the closest triangle to each point in a block
+	 */
+	private void processBlock( Workspace w , int block ) {
+		double[] x = points.x, y = points.y, z = points.z;
+		BvhSearch_F64 search = w.search;
+
+		int start = block*BLOCK_SIZE;
+		int end = start + BLOCK_SIZE;
+		if( end > points.size )
+			end = points.size;
+
+		int found = 0;
+		for( int i = start; i < end; i++ ) {
+			if( !mesh.findClosest(x[i], y[i], z[i], maxDistance, search) ) {
+				triangles[i] = -1;
+				continue;
+			}
+			found++;
+			triangles[i] = search.index;
+			if( distances != null )
+				distances[i] = search.distance;
+			if( closest != null )
+				closest.set(i, search.point);
+		}
+		w.numFound += found;
+	}
+
+	public BvhTriangle3D_F64 getMesh() {
+		return mesh;
+	}
+
+	public void setMesh( BvhTriangle3D_F64 mesh ) {
+		this.mesh = mesh;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * If true then blocks of points are processed in multiple threads.  The results are the same either way.
+	 */
+	public void setConcurrent( boolean concurrent ) {
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Storage used by a single thread
+	 */
+	static class Workspace {
+		BvhSearch_F64 search = new BvhSearch_F64();
+		int numFound;
+	}
+}
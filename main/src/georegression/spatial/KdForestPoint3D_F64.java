@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Approximate nearest neighbor search for {@link Point3D_F64} using a forest of randomized kd-trees.  Much faster
+ * than {@link KdTreePoint3D_F64} when a small loss in accuracy is acceptable.  The points are copied when the
+ * forest is built and results refer to points by their index in the input.  See {@link KdForestPoints_F64} for
+ * how the search works.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class KdForestPoint3D_F64 extends KdForestPoints_F64 {
+
+	/**
+	 * @param numTrees Number of trees in the forest.  Try 1.
+	 * @param maxLeafSize Maximum number of points in a leaf.  Try 8.
+	 * @param maxChecks Maximum number of points examined in a search.  Try 32.
+	 */
+	public KdForestPoint3D_F64( int numTrees , int maxLeafSize , int maxChecks ) {
+		super(3, numTrees, maxLeafSize, maxChecks);
+	}
+
+	public KdForestPoint3D_F64() {
+		this(1, 8, 32);
+	}
+
+	/**
+	 * Builds the forest from a list of points.  Any previous points are discarded.
+	 */
+	public void setPoints( List<Point3D_F64> list ) {
+		declarePoints(list.size());
+		for( int i = 0, j = 0; i < size; i++, j += 3 ) {
+			Point3D_F64 p = list.get(i);
+			input[j] = p.x;
+			input[j+1] = p.y;
+			input[j+2] = p.z;
+		}
+		build();
+	}
+
+	/**
+	 * Builds the forest from a point cloud.  Any previous points are discarded.
+	 */
+	public void setPoints( PointCloud3D_F64 cloud ) {
+		declarePoints(cloud.size);
+		for( int i = 0, j = 0; i < size; i++, j += 3 ) {
+			input[j] = cloud.x[i];
+			input[j+1] = cloud.y[i];
+			input[j+2] = cloud.z[i];
+		}
+		build();
+	}
+
+	/**
+	 * Finds a point which is approximately the closest to the query point.
+	 *
+	 * @param p The query point
+	 * @param maxDistance Only points which are closer than this distance are considered.  Use
+	 *                    Double.MAX_VALUE for no limit.
+	 * @param search (Output) Storage for the search.  If found, the point will be its only result.
+	 * @return Index of the point or -1 if none were found
+	 */
+	public int findNearest( Point3D_F64 p , double maxDistance , KdForestSearch_F64 search ) {
+		return findNearest(p.x, p.y, p.z, maxDistance, search);
+	}
+
+	/**
+	 * Finds a point which is approximately the closest to the query point.
+	 *
+	 * @param x x-coordinate of the query point
+	 * @param y y-coordinate of the query point
+	 * @param z z-coordinate of the query point
+	 * @param maxDistance Only points which are closer than this distance are considered.  Use
+	 *                    Double.MAX_VALUE for no limit.
+	 * @param search (Output) Storage for the search.  If found, the point will be its only result.
+	 * @return Index of the point or -1 if none were found
+	 */
+	public int findNearest( double x , double y , double z , double maxDistance , KdForestSearch_F64 search ) {
+		search.query[0] = x;
+		search.query[1] = y;
+		search.query[2] = z;
+		searchNearest(1, maxDistance, search);
+		return search.size() > 0 ? search.getIndex(0) : -1;
+	}
+
+	/**
+	 * Finds k points which are approximately the closest to the query point.
+	 *
+	 * @param p The query point
+	 * @param k Maximum number of points to find
+	 * @param maxDistance Only points which are closer than this distance are considered.  Use
+	 *                    Double.MAX_VALUE for no limit.
+	 * @param search (Output) Storage for the search and the found points, ordered from closest to farthest.
+	 */
+	public void findNearest( Point3D_F64 p , int k , double maxDistance , KdForestSearch_F64 search ) {
+		findNearest(p.x, p.y, p.z, k, maxDistance, search);
+	}
+
+	/**
+	 * Finds k points which are approximately the closest to the query point.
+	 *
+	 * @param x x-coordinate of the query point
+	 * @param y y-coordinate of the query point
+	 * @param z z-coordinate of the query point
+	 * @param k Maximum number of points to find
+	 * @param maxDistance Only points which are closer than this distance are considered.  Use
+	 *                    Double.MAX_VALUE for no limit.
+	 * @param search (Output) Storage for the search and the found points, ordered from closest to farthest.
+	 */
+	public void findNearest( double x , double y , double z , int k , double maxDistance , KdForestSearch_F64 search ) {
+		search.query[0] = x;
+		search.query[1] = y;
+		search.query[2] = z;
+		searchNearest(k, maxDistance, search);
+	}
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * Approximate nearest neighbor search using a forest of randomized kd-trees and best-bin-first search.  Each
+ * tree contains every point, but the axis each node is split along is randomly selected from the axes with the
+ * largest extent, so the trees partition space differently.  A search descends every tree to a leaf, then
+ * explores the unvisited branches from all the trees in order of how close they are to the query point.  The
+ * search stops once {@link #getMaxChecks() maxChecks} points have been examined, trading accuracy for speed.
+ * If maxChecks is larger than the number of points then the search is exact.
+ * </p>
+ *
+ * <p>
+ * For 2D and 3D points a single tree is usually fastest for a given accuracy, since a kd-tree already partitions
+ * a low dimensional space well and every extra tree adds memory and branches to explore.  With a single tree the
+ * split axis isn't randomized by default, which is a best-bin-first search of a standard kd-tree.  More trees
+ * can help when the points are highly clustered.
+ * </p>
+ *
+ * <p>
+ * Like {@link KdTreePoints_F32} the forest isn't modified by searches, so it can be searched by multiple threads
+ * if each has its own {@link KdForestSearch_F32}.  The trees are built using a fixed seed, so results are
+ * repeatable.
+ * </p>
+ *
+ * <p>
+ * Silpa-Anan, Chanop, and Richard Hartley. "Optimised KD-trees for fast image descriptor matching." CVPR 2008
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class KdForestPoints_F32 {
+
+	// number of dimensions of each point
+	protected int dof;
+
+	// the trees in the forest
+	protected RandomizedTree[] trees;
+
+	// points in the order they were provided.  Point i is at elements i*dof to (i+1)*dof-1
+	protected float[] input = new float[0];
+	protected int size;
+
+	// maximum number of points examined in a search
+	protected int maxChecks;
+
+	// seed used to build the trees
+	protected long seed = 0xBEEF;
+
+	// number of axes with the largest extent which are candidates for splitting a node
+	protected int numCandidateAxes;
+
+	protected KdForestPoints_F32( int dof , int numTrees , int maxLeafSize , int maxChecks ) {
+		if( numTrees < 1 )
+			throw new IllegalArgumentException("There must be at least one tree");
+		this.dof = dof;
+		this.maxChecks = maxChecks;
+		// randomizing a single tree only makes it worse
+		this.numCandidateAxes = numTrees == 1 ? 1 : 2;
+		trees = new RandomizedTree[numTrees];
+		for( int i = 0; i < numTrees; i++ ) {
+			trees[i] = new RandomizedTree(dof, maxLeafSize);
+		}
+	}
+
+	/**
+	 * Ensures there is enough storage for the specified number of points and sets the size.
+	 */
+	protected void declarePoints( int size ) {
+		if( input.length < size*dof )
+			input = new float[size*dof];
+		this.size = size;
+	}
+
+	/**
+	 * Builds every tree after the points have been copied into {@link #input}
+	 */
+	protected void build() {
+		for( int i = 0; i < trees.length; i++ ) {
+			RandomizedTree tree = trees[i];
+			tree.declarePoints(size);
+			System.arraycopy(input, 0, tree.points, 0, size*dof);
+			for( int j = 0; j < size; j++ ) {
+				tree.indexes[j] = j;
+			}
+			tree.rand.setSeed(seed + i*0x9E3779B97F4A7C15L);
+			tree.numCandidateAxes = numCandidateAxes;
+			tree.build();
+		}
+	}
+
+	/**
+	 * Finds the approximate k-nearest points to the query point which has been stored in the search
+	 */
+	protected void searchNearest( int k , float maxDistance , KdForestSearch_F32 search ) {
+		if( k < 1 )
+			throw new IllegalArgumentException("k must be at least 1");
+		search.reset();
+		search.initializeHeap(k, maxDistance*maxDistance);
+		search.startSearch(size);
+
+		if( size > 0 ) {
+			// the first leaf in every tree is always examined
+			for( int i = 0; i < trees.length; i++ ) {
+				descend(i, 0, search);
+			}
+
+			while( search.branchSize > 0 && search.numChecked < maxChecks ) {
+				search.branchPop();
+				int last = search.branchSize;
+				// branches are sorted by their bound, so none of the remaining branches can be closer
+				if( search.branchBound[last] >= search.worstDistanceSq() )
+					break;
+				descend(search.branchTree[last], search.branchNode[last], search);
+			}
+		}
+
+		search.heapToResults();
+	}
+
+	/**
+	 * Descends from the node to a leaf, always taking the closest child.  The other child is saved for later.
+	 * Points in the leaf which haven't been visited yet are examined.
+	 */
+	private void descend( int treeIndex , int node , KdForestSearch_F32 search ) {
+		RandomizedTree tree = trees[treeIndex];
+		float[] query = search.query;
+
+		int axis;
+		while( (axis = tree.nodeAxis[node]) >= 0 ) {
+			float diff = query[axis] - tree.nodeSplit[node];
+			int near, far;
+			if( diff < 0 ) {
+				near = node+1;
+				far = tree.nodeRight[node];
+			} else {
+				near = tree.nodeRight[node];
+				far = node+1;
+			}
+			float bound = diff*diff;
+			if( bound < search.worstDistanceSq() )
+				search.branchAdd(treeIndex, far, bound);
+			node = near;
+		}
+
+		// with a single tree a point can't be visited twice
+		boolean checkVisited = trees.length > 1;
+		int end = tree.nodeEnd[node];
+		for( int i = tree.nodeStart[node]; i < end; i++ ) {
+			int index = tree.indexes[i];
+			if( checkVisited && !search.markVisited(index) )
+				continue;
+			search.numChecked++;
+			float d = tree.distanceSq(query, i);
+			if( d < search.worstDistanceSq() )
+				search.heapAdd(index, d);
+		}
+	}
+
+	/**
+	 * Number of points in the forest
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Number of trees in the forest
+	 */
+	public int getNumTrees() {
+		return trees.length;
+	}
+
+	public int getMaxChecks() {
+		return maxChecks;
+	}
+
+	/**
+	 * Specifies the maximum number of points which are examined during a search.  Larger values are more accurate
+	 * and slower.  Can be changed after the forest has been built.
+	 */
+	public void setMaxChecks( int maxChecks ) {
+		this.maxChecks = maxChecks;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Seed used to randomize the trees.  Takes effect the next time the forest is built.
+	 */
+	public void setSeed( long seed ) {
+		this.seed = seed;
+	}
+
+	public int getNumCandidateAxes() {
+		return numCandidateAxes;
+	}
+
+	/**
+	 * Number of axes with the largest extent that a node's split axis is randomly selected from.  Takes effect
+	 * the next time the forest is built.  By default it's 1 for a single tree and 2 otherwise.
+	 */
+	public void setNumCandidateAxes( int numCandidateAxes ) {
+		if( numCandidateAxes < 1 )
+			throw new IllegalArgumentException("Must be at least 1");
+		this.numCandidateAxes = numCandidateAxes;
+	}
+
+	/**
+	 * kd-tree which randomly selects the split axis from the axes with the largest extent
+	 */
+	protected static class RandomizedTree extends KdTreePoints_F32 {
+		Random rand = new Random();
+		int numCandidateAxes;
+
+		// work space for selecting the split axis
+		float[] extents;
+		int[] candidates;
+
+		RandomizedTree( int dof , int maxLeafSize ) {
+			super(dof, maxLeafSize);
+			extents = new float[dof];
+			candidates = new int[dof];
+		}
+
+		@Override
+		protected int selectSplitAxis( int start , int end ) {
+			for( int axis = 0; axis < dof; axis++ ) {
+				extents[axis] = extent(axis, start, end);
+			}
+
+			// sort the axes with a non-zero extent from largest to smallest extent
+			int numCandidates = 0;
+			for( int axis = 0; axis < dof; axis++ ) {
+				if( extents[axis] <= 0 )
+					continue;
+				int i = numCandidates++;
+				while( i > 0 && extents[candidates[i-1]] < extents[axis] ) {
+					candidates[i] = candidates[i-1];
+					i--;
+				}
+				candidates[i] = axis;
+			}
+
+			if( numCandidates == 0 )
+				return -1;
+			if( numCandidates > numCandidateAxes )
+				numCandidates = numCandidateAxes;
+			return candidates[rand.nextInt(numCandidates)];
+		}
+	}
+}
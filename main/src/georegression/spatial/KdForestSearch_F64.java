@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+/**
+ * <p>
+ * Storage for the results of a search in a kd-forest and the work space needed to perform the search.  In addition
+ * to what's needed to search a single tree, it contains a priority queue of unexplored branches across all the
+ * trees and a record of which points have already been examined, since each point is in every tree.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class KdForestSearch_F64 extends KdTreeSearch_F64 {
+
+	// min heap of branches which have yet to be explored, ordered by a lower bound on their distance
+	int branchSize;
+	int[] branchTree = new int[0];
+	int[] branchNode = new int[0];
+	double[] branchBound = new double[0];
+
+	// visited[i] == stamp if point i has already been examined in the current search
+	int[] visited = new int[0];
+	int stamp;
+
+	/**
+	 * Prepares for a new search of a forest with the specified number of points
+	 */
+	void startSearch( int numPoints ) {
+		branchSize = 0;
+		if( visited.length < numPoints ) {
+			visited = new int[numPoints];
+			stamp = 0;
+		}
+		if( stamp == Integer.MAX_VALUE ) {
+			for( int i = 0; i < visited.length; i++ ) {
+				visited[i] = 0;
+			}
+			stamp = 0;
+		}
+		stamp++;
+	}
+
+	/**
+	 * Marks the point as visited
+	 *
+	 * @return true if it had not been visited before
+	 */
+	boolean markVisited( int index ) {
+		if( visited[index] == stamp )
+			return false;
+		visited[index] = stamp;
+		return true;
+	}
+
+	void branchAdd( int tree , int node , double bound ) {
+		if( branchSize == branchTree.length ) {
+			int length = branchSize < 16 ? 32 : branchSize*2;
+			int[] t = new int[length];
+			int[] n = new int[length];
+			double[] b = new double[length];
+			System.arraycopy(branchTree, 0, t, 0, branchSize);
+			System.arraycopy(branchNode, 0, n, 0, branchSize);
+			System.arraycopy(branchBound, 0, b, 0, branchSize);
+			branchTree = t;
+			branchNode = n;
+			branchBound = b;
+		}
+
+		// sift up
+		int i = branchSize++;
+		while( i > 0 ) {
+			int parent = (i-1)/2;
+			if( branchBound[parent] <= bound )
+				break;
+			branchTree[i] = branchTree[parent];
+			branchNode[i] = branchNode[parent];
+			branchBound[i] = branchBound[parent];
+			i = parent;
+		}
+		branchTree[i] = tree;
+		branchNode[i] = node;
+		branchBound[i] = bound;
+	}
+
+	/**
+	 * Removes the branch with the smallest bound.  The removed branch is moved to the end of the arrays, at
+	 * index {@link #branchSize}.
+	 */
+	void branchPop() {
+		int last = --branchSize;
+		int tree = branchTree[0], node = branchNode[0];
+		double bound = branchBound[0];
+
+		int lastTree = branchTree[last], lastNode = branchNode[last];
+		double lastBound = branchBound[last];
+
+		// sift down
+		int i = 0;
+		while( true ) {
+			int child = 2*i+1;
+			if( child >= branchSize )
+				break;
+			if( child+1 < branchSize && branchBound[child+1] < branchBound[child] )
+				child++;
+			if( branchBound[child] >= lastBound )
+				break;
+			branchTree[i] = branchTree[child];
+			branchNode[i] = branchNode[child];
+			branchBound[i] = branchBound[child];
+			i = child;
+		}
+		branchTree[i] = lastTree;
+		branchNode[i] = lastNode;
+		branchBound[i] = lastBound;
+
+		branchTree[last] = tree;
+		branchNode[last] = node;
+		branchBound[last] = bound;
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Static kd-tree for finding the nearest neighbors of {@link Point3D_F64}.  The points are copied when the tree
+ * is built, so later changes to the input have no effect.  Results refer to points by their index in the input.
+ * All the searches are allocation free once the {@link KdTreeSearch_F64} has grown to the size of the largest
+ * result.  See {@link KdTreePoints_F64} for how the tree is built.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class KdTreePoint3D_F64 extends KdTreePoints_F64 {
+
+	/**
+	 * @param maxLeafSize Maximum number of points in a leaf.  Try 8.
+	 */
+	public KdTreePoint3D_F64( int maxLeafSize ) {
+		super(3, maxLeafSize);
+	}
+
+	public KdTreePoint3D_F64() {
+		this(8);
+	}
+
+	/**
+	 * Builds the tree from a list of points.  Any previous points are discarded.
+	 */
+	public void setPoints( List<Point3D_F64> list ) {
+		declarePoints(list.size());
+		for( int i = 0, j = 0; i < size; i++, j += 3 ) {
+			Point3D_F64 p = list.get(i);
+			points[j] = p.x;
+			points[j+1] = p.y;
+			points[j+2] = p.z;
+			indexes[i] = i;
+		}
+		build();
+	}
+
+	/**
+	 * Builds the tree from a point cloud.  Any previous points are discarded.
+	 */
+	public void setPoints( PointCloud3D_F64 cloud ) {
+		declarePoints(cloud.size);
+		for( int i = 0, j = 0; i < size; i++, j += 3 ) {
+			points[j] = cloud.x[i];
+			points[j+1] = cloud.y[i];
+			points[j+2] = cloud.z[i];
+			indexes[i] = i;
+		}
+		build();
+	}
+
+	/**
+	 * Finds the point which is closest to the query point.
+	 *
+	 * @param p The query point
+	 * @param maxDistance Only points which are closer than this distance are considered.  Use
+	 *                    Double.MAX_VALUE for no limit.
+	 * @param search (Output) Storage for the search.  If found, the point will be its only result.
+	 * @return Index of the closest point or -1 if none were found
+	 */
+	public int findNearest( Point3D_F64 p , double maxDistance , KdTreeSearch_F64 search ) {
+		return findNearest(p.x, p.y, p.z, maxDistance, search);
+	}
+
+	/**
+	 * Finds the point which is closest to the query point.
+	 *
+	 * @param x x-coordinate of the query point
+	 * @param y y-coordinate of the query point
+	 * @param z z-coordinate of the query point
+	 * @param maxDistance Only points which are closer than this distance are considered.  Use
+	 *                    Double.MAX_VALUE for no limit.
+	 * @param search (Output) Storage for the search.  If found, the point will be its only result.
+	 * @return Index of the closest point or -1 if none were found
+	 */
+	public int findNearest( double x , double y , double z , double maxDistance , KdTreeSearch_F64 search ) {
+		search.query[0] = x;
+		search.query[1] = y;
+		search.query[2] = z;
+		searchNearest(1, maxDistance, search);
+		return search.size() > 0 ? search.getIndex(0) : -1;
+	}
+
+	/**
+	 * Finds the k points which are closest to the query point.
+	 *
+	 * @param p The query point
+	 * @param k Maximum number of points to find
+	 * @param maxDistance Only points which are closer than this distance are considered.  Use
+	 *                    Double.MAX_VALUE for no limit.
+	 * @param search (Output) Storage for the search and the found points, ordered from closest to farthest.
+	 */
+	public void findNearest( Point3D_F64 p , int k , double maxDistance , KdTreeSearch_F64 search ) {
+		findNearest(p.x, p.y, p.z, k, maxDistance, search);
+	}
+
+	/**
+	 * Finds the k points which are closest to the query point.
+	 *
+	 * @param x x-coordinate of the query point
+	 * @param y y-coordinate of the query point
+	 * @param z z-coordinate of the query point
+	 * @param k Maximum number of points to find
+	 * @param maxDistance Only points which are closer than this distance are considered.  Use
+	 *                    Double.MAX_VALUE for no limit.
+	 * @param search (Output) Storage for the search and the found points, ordered from closest to farthest.
+	 */
+	public void findNearest( double x , double y , double z , int k , double maxDistance , KdTreeSearch_F64 search ) {
+		search.query[0] = x;
+		search.query[1] = y;
+		search.query[2] = z;
+		searchNearest(k, maxDistance, search);
+	}
+
+	/**
+	 * Finds all the points which are within the specified distance of the query point, inclusive.
+	 *
+	 * @param p The query point
+	 * @param radius Maximum distance of a point from the query point
+	 * @param search (Output) Storage for the search and the found points, in no particular order.
+	 */
+	public void findRadius( Point3D_F64 p , double radius , KdTreeSearch_F64 search ) {
+		findRadius(p.x, p.y, p.z, radius, search);
+	}
+
+	/**
+	 * Finds all the points which are within the specified distance of the query point, inclusive.
+	 *
+	 * @param x x-coordinate of the query point
+	 * @param y y-coordinate of the query point
+	 * @param z z-coordinate of the query point
+	 * @param radius Maximum distance of a point from the query point
+	 * @param search (Output) Storage for the search and the found points, in no particular order.
+	 */
+	public void findRadius( double x , double y , double z , double radius , KdTreeSearch_F64 search ) {
+		search.query[0] = x;
+		search.query[1] = y;
+		search.query[2] = z;
+		searchRadius(radius, search);
+	}
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+/**
+ * <p>
+ * Static kd-tree for points with an arbitrary number of dimensions.  The tree is built once from all the points
+ * by recursively splitting them at the median along the axis with the largest extent, until there are no more
+ * than {@link #getMaxLeafSize() maxLeafSize} points in a node.  The points are copied into a single packed
+ * array in tree order so that the points in each node are contiguous in memory.  After it has been built the
+ * tree isn't modified by searches, so it can be searched by multiple threads if each has its own
+ * {@link KdTreeSearch_F32}.
+ * </p>
+ *
+ * <p>
+ * See {@link KdTreePoint2D_F32} and {@link KdTreePoint3D_F32} for trees which use the library's point types.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class KdTreePoints_F32 {
+
+	// number of dimensions of each point
+	protected int dof;
+
+	// maximum number of points in a leaf
+	protected int maxLeafSize;
+
+	// points in tree order.  Point i is at elements i*dof to (i+1)*dof-1
+	protected float[] points = new float[0];
+	// index of each point in the input
+	protected int[] indexes = new int[0];
+	// number of points
+	protected int size;
+
+	// Description of each node.  A node's left child is always the next node.
+	protected int numNodes;
+	// axis the node is split along or -1 if it's a leaf
+	protected int[] nodeAxis = new int[0];
+	// coordinate the node is split at.  Points in the left child are &le; and the right child are &ge;
+	protected float[] nodeSplit = new float[0];
+	// index of the node's right child
+	protected int[] nodeRight = new int[0];
+	// range of points contained in the node
+	protected int[] nodeStart = new int[0];
+	protected int[] nodeEnd = new int[0];
+
+	protected KdTreePoints_F32( int dof , int maxLeafSize ) {
+		if( maxLeafSize < 1 )
+			throw new IllegalArgumentException("maxLeafSize must be at least 1");
+		this.dof = dof;
+		this.maxLeafSize = maxLeafSize;
+	}
+
+	/**
+	 * Ensures there is enough storage for the specified number of points and sets the size.
+	 */
+	protected void declarePoints( int size ) {
+		if( indexes.length < size ) {
+			points = new float[size*dof];
+			indexes = new int[size];
+		}
+		this.size = size;
+	}
+
+	/**
+	 * Builds the tree after the points have been copied into {@link #points} and {@link #indexes}.
+	 */
+	protected void build() {
+		numNodes = 0;
+		if( size > 0 )
+			buildNode(0, size);
+	}
+
+	/**
+	 * Recursively builds a node and its children
+	 *
+	 * @return index of the node
+	 */
+	private int buildNode( int start , int end ) {
+		int node = addNode(start, end);
+
+		if( end - start <= maxLeafSize )
+			return node;
+
+		int axis = selectSplitAxis(start, end);
+		if( axis < 0 )
+			return node;
+
+		int middle = (start + end) >>> 1;
+		select(axis, start, end, middle);
+
+		nodeAxis[node] = axis;
+		nodeSplit[node] = points[middle*dof + axis];
+
+		// the node arrays can be reallocated while building the children
+		buildNode(start, middle);
+		int right = buildNode(middle, end);
+		nodeRight[node] = right;
+
+		return node;
+	}
+
+	private int addNode( int start , int end ) {
+		if( numNodes == nodeAxis.length ) {
+			int length = numNodes < 16 ? 32 : numNodes*2;
+			nodeAxis = grow(nodeAxis, length);
+			nodeRight = grow(nodeRight, length);
+			nodeStart = grow(nodeStart, length);
+			nodeEnd = grow(nodeEnd, length);
+			float[] split = new float[length];
+			System.arraycopy(nodeSplit, 0, split, 0, numNodes);
+			nodeSplit = split;
+		}
+		int node = numNodes++;
+		nodeAxis[node] = -1;
+		nodeRight[node] = -1;
+		nodeStart[node] = start;
+		nodeEnd[node] = end;
+		return node;
+	}
+
+	private int[] grow( int[] array , int length ) {
+		int[] a = new int[length];
+		System.arraycopy(array, 0, a, 0, numNodes);
+		return a;
+	}
+
+	/**
+	 * Selects which axis the points in a node are split along.  By default it's the axis with the largest extent.
+	 *
+	 * @return The axis or -1 if all the points are identical and the node can't be split
+	 */
+	protected int selectSplitAxis( int start , int end ) {
+		int bestAxis = -1;
+		float bestExtent = 0;
+
+		for( int axis = 0; axis < dof; axis++ ) {
+			float extent = extent(axis, start, end);
+			if( extent > bestExtent ) {
+				bestExtent = extent;
+				bestAxis = axis;
+			}
+		}
+		return bestAxis;
+	}
+
+	/**
+	 * Difference between the largest and smallest coordinate of the points along an axis
+	 */
+	protected float extent( int axis , int start , int end ) {
+		float min = points[start*dof + axis];
+		float max = min;
+		for( int i = start+1; i < end; i++ ) {
+			float v = points[i*dof + axis];
+			if( v < min )
+				min = v;
+			else if( v > max )
+				max = v;
+		}
+		return max - min;
+	}
+
+	/**
+	 * Rearranges the points from start to end-1 so that the point at k is where it would be if they were sorted
+	 * along the axis.  Points before it are &le; and points after it are &ge;.
+	 */
+	private void select( int axis , int start , int end , int k ) {
+		int lo = start, hi = end - 1;
+		while( hi > lo ) {
+			// median of three is used to avoid the worst case when the points are already sorted
+			float a = points[lo*dof + axis];
+			float b = points[((lo + hi) >>> 1)*dof + axis];
+			float c = points[hi*dof + axis];
+			float pivot;
+			if( a < b )
+				pivot = b < c ? b : (a < c ? c : a);
+			else
+				pivot = a < c ? a : (b < c ? c : b);
+
+			int i = lo, j = hi;
+			while( i <= j ) {
+				while( points[i*dof + axis] < pivot ) i++;
+				while( points[j*dof + axis] > pivot ) j--;
+				if( i <= j ) {
+					swap(i, j);
+					i++;
+					j--;
+				}
+			}
+
+			if( k <= j )
+				hi = j;
+			else if( k >= i )
+				lo = i;
+			else
+				break;
+		}
+	}
+
+	private void swap( int i , int j ) {
+		int ii = i*dof, jj = j*dof;
+		for( int d = 0; d < dof; d++ ) {
+			float tmp = points[ii+d];
+			points[ii+d] = points[jj+d];
+			points[jj+d] = tmp;
+		}
+		int tmp = indexes[i];
+		indexes[i] = indexes[j];
+		indexes[j] = tmp;
+	}
+
+	/**
+	 * Finds the k-nearest points to the query point which has been stored in the search
+	 */
+	protected void searchNearest( int k , float maxDistance , KdTreeSearch_F32 search ) {
+		if( k < 1 )
+			throw new IllegalArgumentException("k must be at least 1");
+		search.reset();
+		search.initializeHeap(k, maxDistance*maxDistance);
+		if( numNodes > 0 )
+			searchNearest(0, search);
+		search.heapToResults();
+	}
+
+	private void searchNearest( int node , KdTreeSearch_F32 search ) {
+		int axis = nodeAxis[node];
+		if( axis < 0 ) {
+			float[] query = search.query;
+			int end = nodeEnd[node];
+			for( int i = nodeStart[node]; i < end; i++ ) {
+				float d = distanceSq(query, i);
+				if( d < search.worstDistanceSq() )
+					search.heapAdd(indexes[i], d);
+			}
+			search.numChecked += end - nodeStart[node];
+			return;
+		}
+
+		float diff = search.query[axis] - nodeSplit[node];
+		if( diff < 0 ) {
+			searchNearest(node+1, search);
+			if( diff*diff < search.worstDistanceSq() )
+				searchNearest(nodeRight[node], search);
+		} else {
+			searchNearest(nodeRight[node], search);
+			if( diff*diff < search.worstDistanceSq() )
+				searchNearest(node+1, search);
+		}
+	}
+
+	/**
+	 * Finds all the points within the specified distance of the query point which has been stored in the search
+	 */
+	protected void searchRadius( float radius , KdTreeSearch_F32 search ) {
+		search.reset();
+		if( numNodes > 0 )
+			searchRadius(0, radius*radius, search);
+	}
+
+	private void searchRadius( int node , float radiusSq , KdTreeSearch_F32 search ) {
+		int axis = nodeAxis[node];
+		if( axis < 0 ) {
+			float[] query = search.query;
+			int end = nodeEnd[node];
+			for( int i = nodeStart[node]; i < end; i++ ) {
+				float d = distanceSq(query, i);
+				if( d <= radiusSq ) {
+					search.indexes.add(indexes[i]);
+					search.distancesSq.add(d);
+				}
+			}
+			search.numChecked += end - nodeStart[node];
+			return;
+		}
+
+		float diff = search.query[axis] - nodeSplit[node];
+		if( diff < 0 ) {
+			searchRadius(node+1, radiusSq, search);
+			if( diff*diff <= radiusSq )
+				searchRadius(nodeRight[node], radiusSq, search);
+		} else {
+			searchRadius(nodeRight[node], radiusSq, search);
+			if( diff*diff <= radiusSq )
+				searchRadius(node+1, radiusSq, search);
+		}
+	}
+
+	/**
+	 * Euclidean distance squared between the query and a point in the tree
+	 */
+	protected float distanceSq( float[] query , int point ) {
+		int offset = point*dof;
+		float sum = 0;
+		for( int d = 0; d < dof; d++ ) {
+			float diff = query[d] - points[offset+d];
+			sum += diff*diff;
+		}
+		return sum;
+	}
+
+	/**
+	 * Number of points in the tree
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Number of nodes in the tree
+	 */
+	public int getNumNodes() {
+		return numNodes;
+	}
+
+	/**
+	 * Maximum number of points in a leaf node
+	 */
+	public int getMaxLeafSize() {
+		return maxLeafSize;
+	}
+
+	/**
+	 * Number of dimensions of each point
+	 */
+	public int getDOF() {
+		return dof;
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Storage for the results of a search in a kd-tree and the work space needed to perform the search.  After the
+ * first few queries no memory is declared.  A tree can be searched by multiple threads at the same time if each
+ * thread has its own instance of this class.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class KdTreeSearch_F64 {
+	/**
+	 * Index of each point which was found.  This is the index of the point in the original list or cloud.
+	 */
+	public GrowQueue_I32 indexes = new GrowQueue_I32();
+	/**
+	 * Euclidean distance squared between the query point and each point which was found
+	 */
+	public GrowQueue_F64 distancesSq = new GrowQueue_F64();
+
+	// the query point
+	double[] query = new double[3];
+
+	// maximum distance squared that a point can be from the query
+	double maxDistanceSq;
+
+	// bounded max heap which contains the k-nearest points found so far
+	int k;
+	int heapSize;
+	int[] heapIndex = new int[0];
+	double[] heapDistance = new double[0];
+
+	// number of points examined during the last search
+	int numChecked;
+
+	/**
+	 * Number of points which were found
+	 */
+	public int size() {
+		return indexes.size;
+	}
+
+	/**
+	 * Index of the i<sup>th</sup> point found in the original list or cloud
+	 */
+	public int getIndex( int i ) {
+		return indexes.get(i);
+	}
+
+	/**
+	 * Euclidean distance squared of the i<sup>th</sup> point found
+	 */
+	public double getDistanceSq( int i ) {
+		return distancesSq.get(i);
+	}
+
+	/**
+	 * The number of points which had their distance computed during the last search.  Useful for measuring how
+	 * much work a search required.
+	 */
+	public int getNumChecked() {
+		return numChecked;
+	}
+
+	void reset() {
+		indexes.reset();
+		distancesSq.reset();
+		numChecked = 0;
+	}
+
+	/**
+	 * Prepares the heap for a search for the k-nearest neighbors
+	 */
+	void initializeHeap( int k , double maxDistanceSq ) {
+		if( heapIndex.length < k ) {
+			heapIndex = new int[k];
+			heapDistance = new double[k];
+		}
+		this.k = k;
+		this.maxDistanceSq = maxDistanceSq;
+		this.heapSize = 0;
+	}
+
+	/**
+	 * A point must be closer than this distance to be added to the heap
+	 */
+	double worstDistanceSq() {
+		return heapSize < k ? maxDistanceSq : heapDistance[0];
+	}
+
+	/**
+	 * Adds a point to the heap.  The caller must check that it's closer than {@link #worstDistanceSq()}.  If the
+	 * heap is full then the farthest point is replaced.
+	 */
+	void heapAdd( int index , double distanceSq ) {
+		int i;
+		if( heapSize < k ) {
+			// sift up
+			i = heapSize++;
+			while( i > 0 ) {
+				int parent = (i-1)/2;
+				if( heapDistance[parent] >= distanceSq )
+					break;
+				heapIndex[i] = heapIndex[parent];
+				heapDistance[i] = heapDistance[parent];
+				i = parent;
+			}
+		} else {
+			// replace the root and sift down
+			i = 0;
+			while( true ) {
+				int child = 2*i+1;
+				if( child >= heapSize )
+					break;
+				if( child+1 < heapSize && heapDistance[child+1] > heapDistance[child] )
+					child++;
+				if( heapDistance[child] <= distanceSq )
+					break;
+				heapIndex[i] = heapIndex[child];
+				heapDistance[i] = heapDistance[child];
+				i = child;
+			}
+		}
+		heapIndex[i] = index;
+		heapDistance[i] = distanceSq;
+	}
+
+	/**
+	 * Moves the contents of the heap into the output, sorted from closest to farthest
+	 */
+	void heapToResults() {
+		indexes.reset();
+		distancesSq.reset();
+		for( int i = 0; i < heapSize; i++ ) {
+			indexes.add(0);
+			distancesSq.add(0);
+		}
+
+		// repeatedly remove the farthest point from the heap
+		while( heapSize > 0 ) {
+			int last = --heapSize;
+			indexes.data[last] = heapIndex[0];
+			distancesSq.data[last] = heapDistance[0];
+
+			int index = heapIndex[last];
+			double distanceSq = heapDistance[last];
+			int i = 0;
+			while( true ) {
+				int child = 2*i+1;
+				if( child >= heapSize )
+					break;
+				if( child+1 < heapSize && heapDistance[child+1] > heapDistance[child] )
+					child++;
+				if( heapDistance[child] <= distanceSq )
+					break;
+				heapIndex[i] = heapIndex[child];
+				heapDistance[i] = heapDistance[child];
+				i = child;
+			}
+			heapIndex[i] = index;
+			heapDistance[i] = distanceSq;
+		}
+	}
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.metric.Intersection3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.shapes.Box3D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Octree for 3D points inside of a fixed {@link Box3D_F64}.  Points can be added one at a time.  When a leaf has
+ * more than {@link #getMaxLeafSize() maxLeafSize} points it's split into 8 children of equal size, unless it's
+ * already at the maximum depth.  Points are copied into the octree and referred to by the order they were added
+ * in.  The points in a leaf are stored in a linked list, so adding a point never declares more than a few
+ * integers of memory.
+ * </p>
+ *
+ * <p>
+ * Like {@link Intersection3D_F64#contained(Box3D_F64, Point3D_F64)}, the lower extent of a box is inclusive and the
+ * upper extent is exclusive.  Points outside of the octree's bounds are not added.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Octree3D_F64 {
+
+	// maximum number of points in a leaf before it's split
+	int maxLeafSize;
+	// nodes at this depth are never split
+	int maxDepth;
+
+	// The nodes.  The root is node 0 and the 8 children of a node are always next to each other
+	FastQueue<Node> nodes = new FastQueue<Node>(Node.class, true);
+
+	// points in the order they were added
+	PointCloud3D_F64 points = new PointCloud3D_F64();
+	// index of the next point in the same leaf or -1 if it's the last one
+	int[] pointNext = new int[0];
+
+	// work space
+	Point3D_F64 work = new Point3D_F64();
+
+	/**
+	 * @param maxLeafSize Maximum number of points in a leaf before it's split.  Try 16.
+	 * @param maxDepth Maximum depth of a leaf.  The root has a depth of 0.  Try 20.
+	 */
+	public Octree3D_F64( int maxLeafSize , int maxDepth ) {
+		if( maxLeafSize < 1 )
+			throw new IllegalArgumentException("maxLeafSize must be at least 1");
+		this.maxLeafSize = maxLeafSize;
+		this.maxDepth = maxDepth;
+		initialize(new Box3D_F64(0, 0, 0, 1, 1, 1));
+	}
+
+	public Octree3D_F64() {
+		this(16, 20);
+	}
+
+	/**
+	 * Discards all the points and sets the region covered by the octree
+	 *
+	 * @param bounds Region covered by the octree.  Not modified.
+	 */
+	public void initialize( Box3D_F64 bounds ) {
+		nodes.reset();
+		points.reset();
+		Node root = nodes.grow();
+		root.reset();
+		root.bounds.set(bounds);
+	}
+
+	/**
+	 * Adds a point to the octree
+	 *
+	 * @return Index of the point or -1 if it's outside the octree's bounds
+	 */
+	public int add( Point3D_F64 p ) {
+		return add(p.x, p.y, p.z);
+	}
+
+	/**
+	 * Adds a point to the octree
+	 *
+	 * @return Index of the point or -1 if it's outside the octree's bounds
+	 */
+	public int add( double x , double y , double z ) {
+		work.set(x, y, z);
+		if( !Intersection3D_F64.contained(nodes.get(0).bounds, work) )
+			return -1;
+
+		int index = points.size;
+		points.add(x, y, z);
+		if( index == pointNext.length ) {
+			int[] a = new int[index < 16 ? 32 : index*2];
+			System.arraycopy(pointNext, 0, a, 0, index);
+			pointNext = a;
+		}
+
+		// find the leaf which contains the point
+		int nodeIndex = 0;
+		Node node = nodes.get(0);
+		while( node.firstChild >= 0 ) {
+			nodeIndex = node.firstChild + octant(node, x, y, z);
+			node = nodes.get(nodeIndex);
+		}
+
+		pointNext[index] = node.firstPoint;
+		node.firstPoint = index;
+		node.count++;
+
+		if( node.count > maxLeafSize && node.depth < maxDepth )
+			split(nodeIndex);
+
+		return index;
+	}
+
+	/**
+	 * Adds all the points in the list
+	 */
+	public void addAll( List<Point3D_F64> list ) {
+		for( int i = 0; i < list.size(); i++ ) {
+			add(list.get(i));
+		}
+	}
+
+	/**
+	 * Adds all the points in the cloud
+	 */
+	public void addAll( PointCloud3D_F64 cloud ) {
+		points.reserve(points.size + cloud.size);
+		for( int i = 0; i < cloud.size; i++ ) {
+			add(cloud.x[i], cloud.y[i], cloud.z[i]);
+		}
+	}
+
+	/**
+	 * Which of the node's children contains the point
+	 */
+	private static int octant( Node node , double x , double y , double z ) {
+		Box3D_F64 b = node.bounds;
+		int octant = 0;
+		if( x >= (b.p0.x + b.p1.x)/2 ) octant |= 1;
+		if( y >= (b.p0.y + b.p1.y)/2 ) octant |= 2;
+		if( z >= (b.p0.z + b.p1.z)/2 ) octant |= 4;
+		return octant;
+	}
+
+	/**
+	 * Splits a leaf into 8 children and moves its points into them.  Children with too many points are split too.
+	 */
+	private void split( int nodeIndex ) {
+		Node node = nodes.get(nodeIndex);
+		Box3D_F64 b = node.bounds;
+		double cx = (b.p0.x + b.p1.x)/2;
+		double cy = (b.p0.y + b.p1.y)/2;
+		double cz = (b.p0.z + b.p1.z)/2;
+
+		int first = nodes.size;
+		for( int i = 0; i < 8; i++ ) {
+			Node child = nodes.grow();
+			child.reset();
+			child.depth = node.depth + 1;
+			child.bounds.p0.x = (i & 1) == 0 ? b.p0.x : cx;
+			child.bounds.p1.x = (i & 1) == 0 ? cx : b.p1.x;
+			child.bounds.p0.y = (i & 2) == 0 ? b.p0.y : cy;
+			child.bounds.p1.y = (i & 2) == 0 ? cy : b.p1.y;
+			child.bounds.p0.z = (i & 4) == 0 ? b.p0.z : cz;
+			child.bounds.p1.z = (i & 4) == 0 ? cz : b.p1.z;
+		}
+
+		int index = node.firstPoint;
+		while( index >= 0 ) {
+			int next = pointNext[index];
+			Node child = nodes.get(first + octant(node, points.x[index], points.y[index], points.z[index]));
+			pointNext[index] = child.firstPoint;
+			child.firstPoint = index;
+			child.count++;
+			index = next;
+		}
+
+		node.firstChild = first;
+		node.firstPoint = -1;
+		node.count = 0;
+
+		for( int i = 0; i < 8; i++ ) {
+			Node child = nodes.get(first + i);
+			if( child.count > maxLeafSize && child.depth < maxDepth )
+				split(first + i);
+		}
+	}
+
+	/**
+	 * Finds all the points which are inside the box.
+	 *
+	 * @param box (Input) The box.  Lower extent is inclusive and upper extent is exclusive.  Not modified.
+	 * @param indexes (Output) Index of every point inside the box, in no particular order.
+	 */
+	public void findContained( Box3D_F64 box , GrowQueue_I32 indexes ) {
+		indexes.reset();
+		findContained(0, box, indexes);
+	}
+
+	private void findContained( int nodeIndex , Box3D_F64 box , GrowQueue_I32 indexes ) {
+		Node node = nodes.get(nodeIndex);
+		if( !Intersection3D_F64.intersect(box, node.bounds) )
+			return;
+
+		if( node.firstChild >= 0 ) {
+			if( Intersection3D_F64.contained(box, node.bounds) ) {
+				addAllPoints(nodeIndex, indexes);
+			} else {
+				for( int i = 0; i < 8; i++ ) {
+					findContained(node.firstChild + i, box, indexes);
+				}
+			}
+		} else {
+			int index = node.firstPoint;
+			while( index >= 0 ) {
+				points.get(index, work);
+				if( Intersection3D_F64.contained(box, work) )
+					indexes.add(index);
+				index = pointNext[index];
+			}
+		}
+	}
+
+	/**
+	 * Adds every point in the node and its children
+	 */
+	private void addAllPoints( int nodeIndex , GrowQueue_I32 indexes ) {
+		Node node = nodes.get(nodeIndex);
+		if( node.firstChild >= 0 ) {
+			for( int i = 0; i < 8; i++ ) {
+				addAllPoints(node.firstChild + i, indexes);
+			}
+		} else {
+			int index = node.firstPoint;
+			while( index >= 0 ) {
+				indexes.add(index);
+				index = pointNext[index];
+			}
+		}
+	}
+
+	/**
+	 * Returns the location of a point
+	 *
+	 * @param index Index of the point
+	 * @param storage (Optional) Storage for the point
+	 * @return The point
+	 */
+	public Point3D_F64 getPoint( int index , Point3D_F64 storage ) {
+		return points.get(index, storage);
+	}
+
+	/**
+	 * Number of points in the octree
+	 */
+	public int size() {
+		return points.size;
+	}
+
+	/**
+	 * The nodes in the octree.  Node 0 is the root.  Do not modify.
+	 */
+	public FastQueue<Node> getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Region covered by the octree.  Do not modify.
+	 */
+	public Box3D_F64 getBounds() {
+		return nodes.get(0).bounds;
+	}
+
+	public int getMaxLeafSize() {
+		return maxLeafSize;
+	}
+
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	/**
+	 * A node in the octree.  A node is either a leaf with points or has 8 children.
+	 */
+	public static class Node {
+		/**
+		 * Region covered by the node
+		 */
+		public Box3D_F64 bounds = new Box3D_F64();
+		/**
+		 * Index of the node's first child or -1 if it's a leaf.  Child i contains points in the upper half along x
+		 * if bit 0 of i is set, y if bit 1 is set, and z if bit 2 is set.
+		 */
+		public int firstChild = -1;
+		/**
+		 * Index of the first point in a leaf or -1 if there are none
+		 */
+		public int firstPoint = -1;
+		/**
+		 * Number of points in a leaf
+		 */
+		public int count;
+		/**
+		 * Depth of the node.  The root is 0.
+		 */
+		public int depth;
+
+		public void reset() {
+			firstChild = -1;
+			firstPoint = -1;
+			count = 0;
+			depth = 0;
+		}
+
+		public boolean isLeaf() {
+			return firstChild < 0;
+		}
+	}
+}
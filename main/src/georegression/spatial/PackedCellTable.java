@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Hash table from the integer coordinate of a cell in a 3D grid to an integer value, e.g. the cell's index.
+ * Each coordinate is packed into 21 bits of a single long, which is used as the key in an open addressing hash
+ * table with linear probing.  No objects are created for each cell and the table is kept at most half full.
+ * </p>
+ *
+ * <p>
+ * Coordinates must be from {@link #MIN_COORDINATE} to {@link #MAX_COORDINATE}, inclusive.  Coordinates outside
+ * that range would share a key with a coordinate inside it, so they are never found and can't be added.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PackedCellTable {
+
+	/**
+	 * Smallest coordinate which can be stored
+	 */
+	public static final int MIN_COORDINATE = -(1 << 20);
+
+	/**
+	 * Largest coordinate which can be stored
+	 */
+	public static final int MAX_COORDINATE = (1 << 20) - 1;
+
+	// marks an empty slot
+	private static final long EMPTY = -1;
+
+	// initial size of the table is 2^INITIAL_BITS
+	private static final int INITIAL_BITS = 4;
+
+	// number of bits in the table's length
+	int bits;
+	// packed coordinate and value of each slot
+	long[] keys = new long[0];
+	int[] values = new int[0];
+	// number of cells in the table
+	int size;
+
+	public PackedCellTable() {
+		resize(INITIAL_BITS);
+	}
+
+	/**
+	 * Removes all the cells from the table.  Memory is not released so that it can be reused.
+	 */
+	public void reset() {
+		size = 0;
+		Arrays.fill(keys, EMPTY);
+	}
+
+	/**
+	 * Returns true if the coordinate can be stored in the table
+	 */
+	public static boolean isValid( int x , int y , int z ) {
+		return x >= MIN_COORDINATE && x <= MAX_COORDINATE &&
+				y >= MIN_COORDINATE && y <= MAX_COORDINATE &&
+				z >= MIN_COORDINATE && z <= MAX_COORDINATE;
+	}
+
+	/**
+	 * Returns the value of the cell at the specified coordinate.
+	 *
+	 * @return The value or -1 if the cell isn't in the table or the coordinate is out of range
+	 */
+	public int get( int x , int y , int z ) {
+		if( !isValid(x, y, z) )
+			return -1;
+
+		long key = key(x, y, z);
+		int mask = keys.length - 1;
+		int i = slot(key);
+		long k;
+		while( (k = keys[i]) != EMPTY ) {
+			if( k == key )
+				return values[i];
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Sets the value of the cell at the specified coordinate, adding the cell if it isn't already in the table.
+	 *
+	 * @param value The value.  Must be &ge; 0.
+	 * @throws IllegalArgumentException If the coordinate is out of range
+	 */
+	public void put( int x , int y , int z , int value ) {
+		if( !isValid(x, y, z) )
+			throw new IllegalArgumentException("Coordinate out of range. "+x+" "+y+" "+z);
+
+		// keep the table at most half full
+		if( (size + 1)*2 > keys.length )
+			resize(bits + 1);
+
+		if( insert(key(x, y, z), value) )
+			size++;
+	}
+
+	/**
+	 * Number of cells in the table
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Changes the length of the table to 2^bits and adds all the cells back in
+	 */
+	private void resize( int bits ) {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+
+		this.bits = bits;
+		keys = new long[1 << bits];
+		values = new int[1 << bits];
+		Arrays.fill(keys, EMPTY);
+
+		for( int i = 0; i < oldKeys.length; i++ ) {
+			if( oldKeys[i] != EMPTY )
+				insert(oldKeys[i], oldValues[i]);
+		}
+	}
+
+	/**
+	 * Adds the key or changes its value if it's already in the table
+	 *
+	 * @return true if the key was added
+	 */
+	private boolean insert( long key , int value ) {
+		int mask = keys.length - 1;
+		int i = slot(key);
+		long k;
+		while( (k = keys[i]) != EMPTY ) {
+			if( k == key ) {
+				values[i] = value;
+				return false;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		values[i] = value;
+		return true;
+	}
+
+	private static long key( int x , int y , int z ) {
+		return ((long)(x & 0x1FFFFF) << 42) | ((long)(y & 0x1FFFFF) << 21) | (long)(z & 0x1FFFFF);
+	}
+
+	private int slot( long key ) {
+		return (int)((key*0x9E3779B97F4A7C15L) >>> (64 - bits));
+	}
+}
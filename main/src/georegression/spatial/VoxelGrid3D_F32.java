@@ -0,0 +1,383 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.metric.Intersection3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.shapes.Box3D_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * Sparse grid of cubic voxels for 3D points.  Only voxels which contain points are stored, and they are
+ * found using a hash table, so the grid has no bounds and memory is proportional to the number of occupied
+ * voxels.  The voxel at integer coordinate (i,j,k) contains points with i*voxelSize &le; x &lt; (i+1)*voxelSize,
+ * and similarly for y and z.  Voxel coordinates must be between -2<sup>20</sup> and 2<sup>20</sup>-1.
+ * </p>
+ *
+ * <p>
+ * The number of points and their centroid are maintained for each voxel, which is all that's needed to
+ * downsample a point cloud with {@link #computeCentroids(PointCloud3D_F32)}.  If points are saved then
+ * the points inside a box can be found too.  When downsampling a large cloud, don't save the points and
+ * memory won't depend on the number of points.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class VoxelGrid3D_F32 {
+
+	// largest magnitude of a voxel coordinate
+	public static final int MAX_COORDINATE = -PackedCellTable.MIN_COORDINATE;
+
+	// length of a side of a voxel
+	float voxelSize;
+
+	// should the points be saved
+	boolean savePoints;
+
+	// description of each voxel
+	int numVoxels;
+	int[] voxelX = new int[0];
+	int[] voxelY = new int[0];
+	int[] voxelZ = new int[0];
+	int[] voxelCount = new int[0];
+	// sum of point coordinates relative to the voxel's lower corner, to reduce numerical error
+	float[] voxelSumX = new float[0];
+	float[] voxelSumY = new float[0];
+	float[] voxelSumZ = new float[0];
+	// first point in the voxel or -1
+	int[] voxelFirst = new int[0];
+
+	// saved points in the order they were added
+	PointCloud3D_F32 points = new PointCloud3D_F32();
+	// index of the next point in the same voxel or -1 if it's the last one
+	int[] pointNext = new int[0];
+
+	// hash table from voxel coordinate to voxel index
+	PackedCellTable table = new PackedCellTable();
+
+	// work space
+	Point3D_F32 work = new Point3D_F32();
+
+	/**
+	 * @param voxelSize Length of a side of a voxel
+	 * @param savePoints If true the points are saved and searches can be performed.  If false only
+	 *                   the number of points and centroid of each voxel are available.
+	 */
+	public VoxelGrid3D_F32( float voxelSize , boolean savePoints ) {
+		if( voxelSize <= 0 )
+			throw new IllegalArgumentException("voxelSize must be positive");
+		this.voxelSize = voxelSize;
+		this.savePoints = savePoints;
+		reset();
+	}
+
+	/**
+	 * Creates a grid which saves the points
+	 */
+	public VoxelGrid3D_F32( float voxelSize ) {
+		this(voxelSize, true);
+	}
+
+	/**
+	 * Discards all the voxels and points
+	 */
+	public void reset() {
+		numVoxels = 0;
+		points.reset();
+		table.reset();
+	}
+
+	/**
+	 * Adds a point to the grid
+	 *
+	 * @return Index of the voxel which contains the point
+	 */
+	public int add( Point3D_F32 p ) {
+		return add(p.x, p.y, p.z);
+	}
+
+	/**
+	 * Adds a point to the grid
+	 *
+	 * @return Index of the voxel which contains the point
+	 */
+	public int add( float x , float y , float z ) {
+		int ix = coordinate(x);
+		int iy = coordinate(y);
+		int iz = coordinate(z);
+
+		int voxel = table.get(ix, iy, iz);
+		if( voxel < 0 )
+			voxel = addVoxel(ix, iy, iz);
+
+		voxelCount[voxel]++;
+		voxelSumX[voxel] += x - ix*voxelSize;
+		voxelSumY[voxel] += y - iy*voxelSize;
+		voxelSumZ[voxel] += z - iz*voxelSize;
+
+		if( savePoints ) {
+			int index = points.size;
+			points.add(x, y, z);
+			if( index == pointNext.length ) {
+				int[] a = new int[index < 16 ? 32 : index*2];
+				System.arraycopy(pointNext, 0, a, 0, index);
+				pointNext = a;
+			}
+			pointNext[index] = voxelFirst[voxel];
+			voxelFirst[voxel] = index;
+		}
+
+		return voxel;
+	}
+
+	/**
+	 * Adds all the points in the list
+	 */
+	public void addAll( List<Point3D_F32> list ) {
+		for( int i = 0; i < list.size(); i++ ) {
+			add(list.get(i));
+		}
+	}
+
+	/**
+	 * Adds all the points in the cloud
+	 */
+	public void addAll( PointCloud3D_F32 cloud ) {
+		if( savePoints )
+			points.reserve(points.size + cloud.size);
+		for( int i = 0; i < cloud.size; i++ ) {
+			add(cloud.x[i], cloud.y[i], cloud.z[i]);
+		}
+	}
+
+	/**
+	 * Converts a point's coordinate into a voxel coordinate
+	 */
+	private int coordinate( float value ) {
+		float v = (float)Math.floor(value/voxelSize);
+		if( !(v >= -MAX_COORDINATE && v < MAX_COORDINATE) )
+			throw new IllegalArgumentException("Point is too far from the origin for the voxel size. "+value);
+		return (int)v;
+	}
+
+	/**
+	 * Converts a coordinate into a voxel coordinate, clamped to the allowed range
+	 */
+	private int coordinateClamped( float value ) {
+		float v = (float)Math.floor(value/voxelSize);
+		if( v < -MAX_COORDINATE )
+			return -MAX_COORDINATE;
+		if( v >= MAX_COORDINATE )
+			return MAX_COORDINATE-1;
+		return (int)v;
+	}
+
+	private int addVoxel( int ix , int iy , int iz ) {
+		if( numVoxels == voxelX.length ) {
+			int length = numVoxels < 8 ? 16 : numVoxels*2;
+			voxelX = Arrays.copyOf(voxelX, length);
+			voxelY = Arrays.copyOf(voxelY, length);
+			voxelZ = Arrays.copyOf(voxelZ, length);
+			voxelCount = Arrays.copyOf(voxelCount, length);
+			voxelSumX = Arrays.copyOf(voxelSumX, length);
+			voxelSumY = Arrays.copyOf(voxelSumY, length);
+			voxelSumZ = Arrays.copyOf(voxelSumZ, length);
+			voxelFirst = Arrays.copyOf(voxelFirst, length);
+		}
+		int voxel = numVoxels++;
+		voxelX[voxel] = ix;
+		voxelY[voxel] = iy;
+		voxelZ[voxel] = iz;
+		voxelCount[voxel] = 0;
+		voxelSumX[voxel] = 0;
+		voxelSumY[voxel] = 0;
+		voxelSumZ[voxel] = 0;
+		voxelFirst[voxel] = -1;
+
+		table.put(ix, iy, iz, voxel);
+		return voxel;
+	}
+
+	/**
+	 * Finds all the points which are inside the box.  Points must have been saved.
+	 *
+	 * @param box (Input) The box.  Lower extent is inclusive and upper extent is exclusive.  Not modified.
+	 * @param indexes (Output) Index of every point inside the box, in no particular order.
+	 */
+	public void findContained( Box3D_F32 box , GrowQueue_I32 indexes ) {
+		if( !savePoints )
+			throw new IllegalStateException("Points were not saved");
+
+		indexes.reset();
+
+		int x0 = coordinateClamped(box.p0.x), x1 = coordinateClamped(box.p1.x);
+		int y0 = coordinateClamped(box.p0.y), y1 = coordinateClamped(box.p1.y);
+		int z0 = coordinateClamped(box.p0.z), z1 = coordinateClamped(box.p1.z);
+		if( x1 < x0 || y1 < y0 || z1 < z0 )
+			return;
+
+		// look up each voxel in the box or check every voxel, whichever is less work
+		long volume = (long)(x1-x0+1)*(long)(y1-y0+1)*(long)(z1-z0+1);
+		if( volume <= numVoxels ) {
+			for( int iz = z0; iz <= z1; iz++ ) {
+				for( int iy = y0; iy <= y1; iy++ ) {
+					for( int ix = x0; ix <= x1; ix++ ) {
+						int voxel = table.get(ix, iy, iz);
+						if( voxel >= 0 )
+							addContained(voxel, box, indexes);
+					}
+				}
+			}
+		} else {
+			for( int voxel = 0; voxel < numVoxels; voxel++ ) {
+				int ix = voxelX[voxel], iy = voxelY[voxel], iz = voxelZ[voxel];
+				if( ix < x0 || ix > x1 || iy < y0 || iy > y1 || iz < z0 || iz > z1 )
+					continue;
+				addContained(voxel, box, indexes);
+			}
+		}
+	}
+
+	private void addContained( int voxel , Box3D_F32 box , GrowQueue_I32 indexes ) {
+		int index = voxelFirst[voxel];
+		while( index >= 0 ) {
+			points.get(index, work);
+			if( Intersection3D_F32.contained(box, work) )
+				indexes.add(index);
+			index = pointNext[index];
+		}
+	}
+
+	/**
+	 * Downsamples the points by computing the centroid of the points in each voxel.
+	 *
+	 * @param output (Output) Centroid of each voxel, in the same order as the voxels.  Modified.
+	 */
+	public void computeCentroids( PointCloud3D_F32 output ) {
+		output.reset();
+		output.reserve(numVoxels);
+		for( int voxel = 0; voxel < numVoxels; voxel++ ) {
+			int n = voxelCount[voxel];
+			output.add(
+					voxelX[voxel]*voxelSize + voxelSumX[voxel]/n,
+					voxelY[voxel]*voxelSize + voxelSumY[voxel]/n,
+					voxelZ[voxel]*voxelSize + voxelSumZ[voxel]/n);
+		}
+	}
+
+	/**
+	 * Computes the centroid of the points in a voxel
+	 *
+	 * @param voxel Index of the voxel
+	 * @param storage (Optional) Storage for the centroid
+	 * @return The centroid
+	 */
+	public Point3D_F32 getCentroid( int voxel , Point3D_F32 storage ) {
+		if( storage == null )
+			storage = new Point3D_F32();
+		int n = voxelCount[voxel];
+		storage.x = voxelX[voxel]*voxelSize + voxelSumX[voxel]/n;
+		storage.y = voxelY[voxel]*voxelSize + voxelSumY[voxel]/n;
+		storage.z = voxelZ[voxel]*voxelSize + voxelSumZ[voxel]/n;
+		return storage;
+	}
+
+	/**
+	 * Returns the region covered by a voxel
+	 *
+	 * @param voxel Index of the voxel
+	 * @param storage (Optional) Storage for the box
+	 * @return The box
+	 */
+	public Box3D_F32 getVoxelBounds( int voxel , Box3D_F32 storage ) {
+		if( storage == null )
+			storage = new Box3D_F32();
+		storage.p0.x = voxelX[voxel]*voxelSize;
+		storage.p0.y = voxelY[voxel]*voxelSize;
+		storage.p0.z = voxelZ[voxel]*voxelSize;
+		storage.p1.x = (voxelX[voxel]+1)*voxelSize;
+		storage.p1.y = (voxelY[voxel]+1)*voxelSize;
+		storage.p1.z = (voxelZ[voxel]+1)*voxelSize;
+		return storage;
+	}
+
+	/**
+	 * Finds the voxel which contains the point
+	 *
+	 * @return Index of the voxel or -1 if there is no voxel at that location or it's outside the grid
+	 */
+	public int findVoxel( float x , float y , float z ) {
+		float vx = (float)Math.floor(x/voxelSize);
+		float vy = (float)Math.floor(y/voxelSize);
+		float vz = (float)Math.floor(z/voxelSize);
+
+		// no voxel can contain a point outside the allowed range
+		if( !(vx >= -MAX_COORDINATE && vx < MAX_COORDINATE &&
+				vy >= -MAX_COORDINATE && vy < MAX_COORDINATE &&
+				vz >= -MAX_COORDINATE && vz < MAX_COORDINATE) )
+			return -1;
+
+		return table.get((int)vx, (int)vy, (int)vz);
+	}
+
+	/**
+	 * Number of points in a voxel
+	 */
+	public int getCount( int voxel ) {
+		return voxelCount[voxel];
+	}
+
+	/**
+	 * Number of voxels which contain at least one point
+	 */
+	public int getNumVoxels() {
+		return numVoxels;
+	}
+
+	/**
+	 * Returns the location of a saved point
+	 *
+	 * @param index Index of the point
+	 * @param storage (Optional) Storage for the point
+	 * @return The point
+	 */
+	public Point3D_F32 getPoint( int index , Point3D_F32 storage ) {
+		return points.get(index, storage);
+	}
+
+	/**
+	 * Number of saved points
+	 */
+	public int getNumPoints() {
+		return points.size;
+	}
+
+	public float getVoxelSize() {
+		return voxelSize;
+	}
+
+	public boolean isSavePoints() {
+		return savePoints;
+	}
+}
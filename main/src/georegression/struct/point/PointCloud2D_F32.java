@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.point;
+
+import georegression.struct.GeoTuple2D_F32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Point cloud in 2D which stores its points in a structure-of-arrays format.  The coordinates of each point
+ * are stored in two primitive arrays, one for each axis.  Compared to a list of {@link Point2D_F32} there is
+ * no per-point object overhead and memory is accessed sequentially.  Only the first {@link #size} elements in
+ * each array are valid, the remainder is unused storage for future points.
+ * </p>
+ *
+ * <p>
+ * Points can be read and written directly using the arrays or through {@link PointCloudCursor2D_F32}, which
+ * provides an interface similar to {@link GeoTuple2D_F32} without declaring a new object for each point.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PointCloud2D_F32 {
+	/** x-coordinate of each point */
+	public float x[];
+	/** y-coordinate of each point */
+	public float y[];
+
+	/** Number of points in the cloud */
+	public int size;
+
+	/** Largest number of points a cloud can store.  Some JVMs can't allocate arrays which are any larger. */
+	public static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Creates an empty point cloud with the specified initial capacity
+	 *
+	 * @param capacity Number of points it can store before it needs to grow
+	 */
+	public PointCloud2D_F32( int capacity ) {
+		x = new float[ capacity ];
+		y = new float[ capacity ];
+	}
+
+	public PointCloud2D_F32() {
+		this(10);
+	}
+
+	/**
+	 * Creates a point cloud which contains a copy of the points in the list
+	 */
+	public PointCloud2D_F32( List<? extends GeoTuple2D_F32> points ) {
+		this(points.size());
+		addAll(points);
+	}
+
+	/**
+	 * Removes all the points.  The storage is not released.
+	 */
+	public void reset() {
+		size = 0;
+	}
+
+	/**
+	 * Ensures that the cloud can store at least the specified number of points without growing.  Existing
+	 * points are saved.
+	 *
+	 * @param capacity Minimum number of points which can be stored
+	 */
+	public void reserve( int capacity ) {
+		if( x.length >= capacity )
+			return;
+
+		float tmp[] = new float[ capacity ];
+		System.arraycopy(x,0,tmp,0,size);
+		x = tmp;
+		tmp = new float[ capacity ];
+		System.arraycopy(y,0,tmp,0,size);
+		y = tmp;
+	}
+
+	/**
+	 * Changes the number of points in the cloud.  If it grows the value of new points is undefined.
+	 *
+	 * @param size The new number of points
+	 */
+	public void resize( int size ) {
+		reserve(size);
+		this.size = size;
+	}
+
+	/**
+	 * Computes the capacity after the cloud grows.  It's increased by 50% and clamped so that it can't overflow.
+	 */
+	static int growCapacity( int size ) {
+		if( size >= MAX_CAPACITY )
+			throw new IllegalStateException("The point cloud can't store more than "+MAX_CAPACITY+" points");
+
+		int capacity = size + (size >> 1);
+		if( capacity < 0 || capacity > MAX_CAPACITY )
+			capacity = MAX_CAPACITY;
+		else if( capacity < 10 )
+			capacity = 10;
+		return capacity;
+	}
+
+	/**
+	 * Adds a point to the end of the cloud, increasing the storage if needed
+	 */
+	public void add( float x , float y ) {
+		if( size == this.x.length )
+			reserve(growCapacity(size));
+
+		this.x[size] = x;
+		this.y[size] = y;
+		size++;
+	}
+
+	/**
+	 * Adds a point to the end of the cloud, increasing the storage if needed
+	 */
+	public void add( GeoTuple2D_F32 p ) {
+		add(p.x, p.y);
+	}
+
+	/**
+	 * Adds all the points in the list to the end of the cloud
+	 */
+	public void addAll( List<? extends GeoTuple2D_F32> points ) {
+		int total = size + points.size();
+		if( total < 0 || total > MAX_CAPACITY )
+			throw new IllegalStateException("The point cloud can't store more than "+MAX_CAPACITY+" points");
+		reserve(total);
+		for( int i = 0; i < points.size(); i++ ) {
+			GeoTuple2D_F32 p = points.get(i);
+			x[size] = p.x;
+			y[size] = p.y;
+			size++;
+		}
+	}
+
+	/**
+	 * Changes the value of an existing point
+	 */
+	public void set( int index , float x , float y ) {
+		this.x[index] = x;
+		this.y[index] = y;
+	}
+
+	/**
+	 * Changes the value of an existing point
+	 */
+	public void set( int index , GeoTuple2D_F32 p ) {
+		set(index, p.x, p.y);
+	}
+
+	/**
+	 * Makes this cloud a copy of the other one
+	 */
+	public void set( PointCloud2D_F32 src ) {
+		resize(src.size);
+		System.arraycopy(src.x,0,x,0,src.size);
+		System.arraycopy(src.y,0,y,0,src.size);
+	}
+
+	/**
+	 * Copies the value of a point
+	 *
+	 * @param index Index of the point
+	 * @param storage (Optional) Storage for the point.  Can be null.
+	 * @return The point
+	 */
+	public Point2D_F32 get( int index , Point2D_F32 storage ) {
+		if( storage == null )
+			storage = new Point2D_F32();
+
+		storage.x = x[index];
+		storage.y = y[index];
+
+		return storage;
+	}
+
+	/**
+	 * Creates a new cursor which references this cloud.  The cursor starts before the first point.
+	 */
+	public PointCloudCursor2D_F32 cursor() {
+		return new PointCloudCursor2D_F32(this);
+	}
+
+	/**
+	 * Converts the cloud into a list of points.
+	 *
+	 * @param storage (Optional) Storage for the list.  Existing elements are removed.  Can be null.
+	 * @return List of points
+	 */
+	public List<Point2D_F32> toList( List<Point2D_F32> storage ) {
+		if( storage == null )
+			storage = new ArrayList<Point2D_F32>(size);
+		else
+			storage.clear();
+
+		for( int i = 0; i < size; i++ ) {
+			storage.add( new Point2D_F32(x[i],y[i]));
+		}
+
+		return storage;
+	}
+
+	public PointCloud2D_F32 copy() {
+		PointCloud2D_F32 ret = new PointCloud2D_F32(size);
+		ret.set(this);
+		return ret;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Number of points which can be stored before the arrays need to grow
+	 */
+	public int getCapacity() {
+		return x.length;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName()+"{ size = "+size+" }";
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.point;
+
+import georegression.struct.GeoTuple2D_F64;
+
+/**
+ * <p>
+ * Flyweight which references a single point inside a {@link PointCloud2D_F64}.  Provides an interface similar
+ * to {@link GeoTuple2D_F64} but reads and writes directly to the cloud's arrays.  The same instance can be
+ * moved through every point in the cloud, avoiding the need to declare an object for each point.
+ * </p>
+ *
+ * <pre>
+ * PointCloudCursor2D_F64 c = cloud.cursor();
+ * while( c.next() ) {
+ *     c.scale(2);
+ * }
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class PointCloudCursor2D_F64 {
+	// the cloud being referenced
+	PointCloud2D_F64 cloud;
+	// index of the point being referenced
+	int position;
+
+	public PointCloudCursor2D_F64( PointCloud2D_F64 cloud ) {
+		setCloud(cloud);
+	}
+
+	public PointCloudCursor2D_F64() {
+	}
+
+	/**
+	 * Changes the cloud which is referenced and moves the cursor before the first point
+	 */
+	public void setCloud( PointCloud2D_F64 cloud ) {
+		this.cloud = cloud;
+		this.position = -1;
+	}
+
+	public PointCloud2D_F64 getCloud() {
+		return cloud;
+	}
+
+	/**
+	 * Moves the cursor before the first point
+	 */
+	public void reset() {
+		position = -1;
+	}
+
+	/**
+	 * Moves the cursor to the next point.
+	 *
+	 * @return true if it references a valid point or false if it has passed the last point
+	 */
+	public boolean next() {
+		return ++position < cloud.size;
+	}
+
+	/**
+	 * Moves the cursor to the specified point
+	 */
+	public void setPosition( int position ) {
+		this.position = position;
+	}
+
+	/**
+	 * Index of the point currently being referenced
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	public int getDimension() {
+		return 2;
+	}
+
+	public double getX() {
+		return cloud.x[position];
+	}
+
+	public double getY() {
+		return cloud.y[position];
+	}
+
+	public void setX( double x ) {
+		cloud.x[position] = x;
+	}
+
+	public void setY( double y ) {
+		cloud.y[position] = y;
+	}
+
+	public void set( double x, double y ) {
+		cloud.x[position] = x;
+		cloud.y[position] = y;
+	}
+
+	public void set( GeoTuple2D_F64 a ) {
+		set(a.x, a.y);
+	}
+
+	/**
+	 * Copies the referenced point into the tuple
+	 *
+	 * @param storage (Output) Storage for the point
+	 * @return The same instance as storage
+	 */
+	public <T extends GeoTuple2D_F64> T get( T storage ) {
+		storage.x = cloud.x[position];
+		storage.y = cloud.y[position];
+		return storage;
+	}
+
+	public double getIndex( int index ) {
+		switch( index ) {
+			case 0:
+				return cloud.x[position];
+
+			case 1:
+				return cloud.y[position];
+
+			default:
+				throw new IllegalArgumentException( "Invalid index" );
+		}
+	}
+
+	public void setIndex( int index, double value ) {
+		switch( index ) {
+			case 0:
+				cloud.x[position] = value;
+				break;
+
+			case 1:
+				cloud.y[position] = value;
+				break;
+
+			default:
+				throw new IllegalArgumentException( "Invalid index" );
+		}
+	}
+
+	public boolean isIdentical( double x, double y, double tol ) {
+		return ( Math.abs( getX() - x ) <= tol && Math.abs( getY() - y ) <= tol );
+	}
+
+	public boolean isIdentical( GeoTuple2D_F64 t, double tol ) {
+		return isIdentical(t.x, t.y, tol);
+	}
+
+	/**
+	 * <p>In-place addition</p>
+	 *
+	 * this.x = this.x + a.x;
+	 *
+	 * @param a value which is to be added
+	 */
+	public void plusIP( GeoTuple2D_F64 a ) {
+		cloud.x[position] += a.x;
+		cloud.y[position] += a.y;
+	}
+
+	/**
+	 * In-place scalar multiplication
+	 * @param scalar value that it is multiplied by
+	 */
+	public void scale( double scalar ) {
+		cloud.x[position] *= scalar;
+		cloud.y[position] *= scalar;
+	}
+
+	public double norm() {
+		return Math.sqrt( normSq() );
+	}
+
+	public double normSq() {
+		double x = cloud.x[position];
+		double y = cloud.y[position];
+
+		return x * x + y * y;
+	}
+
+	public double distance( GeoTuple2D_F64 t ) {
+		return Math.sqrt( distance2(t) );
+	}
+
+	public double distance2( GeoTuple2D_F64 t ) {
+		double dx = t.x - cloud.x[position];
+		double dy = t.y - cloud.y[position];
+
+		return dx * dx + dy * dy;
+	}
+
+	@Override
+	public String toString() {
+		return "C( " + getX() + " " + getY() + " )";
+	}
+}
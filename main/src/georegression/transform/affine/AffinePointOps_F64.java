@@ -18,8 +18,10 @@
 
 package georegression.transform.affine;
 
+import georegression.misc.ConcurrencyOps;
 import georegression.struct.affine.Affine2D_F64;
 import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.PointCloud2D_F64;
 import georegression.struct.point.Vector2D_F64;
 
 
@@ -102,4 +104,113 @@ public class AffinePointOps_F64 {
 
 		return result;
 	}
+
+	/**
+	 * <p>
+	 * Applies a 2D affine transform to points stored in an interleaved array, e.g. (x,y,x,y,...).
+	 * The source and destination can be the same array if they have the same offset and stride.
+	 * </p>
+	 *
+	 * @param se The transform. Not modified.
+	 * @param src Array containing the original points. Not modified.
+	 * @param srcOffset Index of the first point's x-coordinate in src
+	 * @param srcStride Number of elements between the start of each point in src.  Must be &ge; 2
+	 * @param dst Array that the transformed points are written to. Modified.
+	 * @param dstOffset Index of the first point's x-coordinate in dst
+	 * @param dstStride Number of elements between the start of each point in dst.  Must be &ge; 2
+	 * @param numPoints Number of points which are to be transformed
+	 */
+	public static void transform( Affine2D_F64 se,
+								  double src[], int srcOffset, int srcStride,
+								  double dst[], int dstOffset, int dstStride, int numPoints ) {
+		final double a11 = se.a11, a12 = se.a12, tx = se.tx;
+		final double a21 = se.a21, a22 = se.a22, ty = se.ty;
+
+		for( int i = 0; i < numPoints; i++ ) {
+			int indexSrc = srcOffset + i*srcStride;
+			int indexDst = dstOffset + i*dstStride;
+
+			double x = src[indexSrc];
+			double y = src[indexSrc+1];
+
+			dst[indexDst]   = tx + a11 * x + a12 * y;
+			dst[indexDst+1] = ty + a21 * x + a22 * y;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Applies a 2D affine transform to points stored in a structure-of-arrays format, where each
+	 * coordinate is stored in its own array.  The source and destination arrays can be the same.
+	 * </p>
+	 *
+	 * @param se The transform. Not modified.
+	 * @param srcX x-coordinate of original points. Not modified.
+	 * @param srcY y-coordinate of original points. Not modified.
+	 * @param srcOffset Index of the first point in the source arrays
+	 * @param dstX x-coordinate of transformed points. Modified.
+	 * @param dstY y-coordinate of transformed points. Modified.
+	 * @param dstOffset Index of the first point in the destination arrays
+	 * @param numPoints Number of points which are to be transformed
+	 */
+	public static void transform( Affine2D_F64 se,
+								  double srcX[], double srcY[], int srcOffset,
+								  double dstX[], double dstY[], int dstOffset, int numPoints ) {
+		final double a11 = se.a11, a12 = se.a12, tx = se.tx;
+		final double a21 = se.a21, a22 = se.a22, ty = se.ty;
+
+		for( int i = 0; i < numPoints; i++ ) {
+			double x = srcX[srcOffset+i];
+			double y = srcY[srcOffset+i];
+
+			dstX[dstOffset+i] = tx + a11 * x + a12 * y;
+			dstY[dstOffset+i] = ty + a21 * x + a22 * y;
+		}
+	}
+
+	/**
+	 * Applies a 2D affine transform to every point in the cloud.
+	 *
+	 * @param se The transform. Not modified.
+	 * @param src Original point cloud. Not modified.
+	 * @param dst Storage for the transformed point cloud.  Can be the same as src.  Modified.
+	 */
+	public static void transform( Affine2D_F64 se, PointCloud2D_F64 src, PointCloud2D_F64 dst ) {
+		dst.resize(src.size);
+		transform(se, src.x, src.y, 0, dst.x, dst.y, 0, src.size);
+	}
+
+	/**
+	 * <p>
+	 * Concurrent version of {@link #transform(Affine2D_F64, double[], int, int, double[], int, int, int)}.
+	 * The points are split into blocks which are processed in a {@link java.util.concurrent.ForkJoinPool}.
+	 * If there are fewer points than {@link ConcurrencyOps#getThreshold()} then it's processed in the calling
+	 * thread.
+	 * </p>
+	 */
+	public static void transformConcurrent( final Affine2D_F64 se,
+								  final double src[], final int srcOffset, final int srcStride,
+								  final double dst[], final int dstOffset, final int dstStride, int numPoints ) {
+		ConcurrencyOps.loopBlocks(0, numPoints, new ConcurrencyOps.IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				transform(se, src, srcOffset + start*srcStride, srcStride, dst, dstOffset + start*dstStride, dstStride, end - start);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Affine2D_F64, PointCloud2D_F64, PointCloud2D_F64)}.
+	 *
+	 * @see #transformConcurrent(Affine2D_F64, double[], int, int, double[], int, int, int)
+	 */
+	public static void transformConcurrent( final Affine2D_F64 se, final PointCloud2D_F64 src, final PointCloud2D_F64 dst ) {
+		dst.resize(src.size);
+		ConcurrencyOps.loopBlocks(0, src.size, new ConcurrencyOps.IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				transform(se, src.x, src.y, start, dst.x, dst.y, start, end - start);
+			}
+		});
+	}
 }
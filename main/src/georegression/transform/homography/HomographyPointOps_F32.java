@@ -18,8 +18,10 @@
 
 package georegression.transform.homography;
 
+import georegression.misc.ConcurrencyOps;
 import georegression.struct.homography.Homography2D_F32;
 import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.PointCloud2D_F32;
 
 
 /**
@@ -84,4 +86,119 @@ public class HomographyPointOps_F32 {
 
 		return result;
 	}
+
+	/**
+	 * <p>
+	 * Applies a 2D homography transform to points stored in an interleaved array, e.g. (x,y,x,y,...).
+	 * The source and destination can be the same array if they have the same offset and stride.
+	 * </p>
+	 *
+	 * @param H Homography transform. Not modified.
+	 * @param src Array containing the original points. Not modified.
+	 * @param srcOffset Index of the first point's x-coordinate in src
+	 * @param srcStride Number of elements between the start of each point in src.  Must be &ge; 2
+	 * @param dst Array that the transformed points are written to. Modified.
+	 * @param dstOffset Index of the first point's x-coordinate in dst
+	 * @param dstStride Number of elements between the start of each point in dst.  Must be &ge; 2
+	 * @param numPoints Number of points which are to be transformed
+	 */
+	public static void transform( Homography2D_F32 H,
+								  float src[], int srcOffset, int srcStride,
+								  float dst[], int dstOffset, int dstStride, int numPoints ) {
+		final float a11 = H.a11, a12 = H.a12, a13 = H.a13;
+		final float a21 = H.a21, a22 = H.a22, a23 = H.a23;
+		final float a31 = H.a31, a32 = H.a32, a33 = H.a33;
+
+		for( int i = 0; i < numPoints; i++ ) {
+			int indexSrc = srcOffset + i*srcStride;
+			int indexDst = dstOffset + i*dstStride;
+
+			float x = src[indexSrc];
+			float y = src[indexSrc+1];
+
+			float z = a31 * x + a32 * y + a33;
+
+			dst[indexDst]   = (a11 * x + a12 * y + a13)/z;
+			dst[indexDst+1] = (a21 * x + a22 * y + a23)/z;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Applies a 2D homography transform to points stored in a structure-of-arrays format, where each
+	 * coordinate is stored in its own array.  The source and destination arrays can be the same.
+	 * </p>
+	 *
+	 * @param H Homography transform. Not modified.
+	 * @param srcX x-coordinate of original points. Not modified.
+	 * @param srcY y-coordinate of original points. Not modified.
+	 * @param srcOffset Index of the first point in the source arrays
+	 * @param dstX x-coordinate of transformed points. Modified.
+	 * @param dstY y-coordinate of transformed points. Modified.
+	 * @param dstOffset Index of the first point in the destination arrays
+	 * @param numPoints Number of points which are to be transformed
+	 */
+	public static void transform( Homography2D_F32 H,
+								  float srcX[], float srcY[], int srcOffset,
+								  float dstX[], float dstY[], int dstOffset, int numPoints ) {
+		final float a11 = H.a11, a12 = H.a12, a13 = H.a13;
+		final float a21 = H.a21, a22 = H.a22, a23 = H.a23;
+		final float a31 = H.a31, a32 = H.a32, a33 = H.a33;
+
+		for( int i = 0; i < numPoints; i++ ) {
+			float x = srcX[srcOffset+i];
+			float y = srcY[srcOffset+i];
+
+			float z = a31 * x + a32 * y + a33;
+
+			dstX[dstOffset+i] = (a11 * x + a12 * y + a13)/z;
+			dstY[dstOffset+i] = (a21 * x + a22 * y + a23)/z;
+		}
+	}
+
+	/**
+	 * Applies a 2D homography transform to every point in the cloud.
+	 *
+	 * @param H Homography transform. Not modified.
+	 * @param src Original point cloud. Not modified.
+	 * @param dst Storage for the transformed point cloud.  Can be the same as src.  Modified.
+	 */
+	public static void transform( Homography2D_F32 H, PointCloud2D_F32 src, PointCloud2D_F32 dst ) {
+		dst.resize(src.size);
+		transform(H, src.x, src.y, 0, dst.x, dst.y, 0, src.size);
+	}
+
+	/**
+	 * <p>
+	 * Concurrent version of {@link #transform(Homography2D_F32, float[], int, int, float[], int, int, int)}.
+	 * The points are split into blocks which are processed in a {@link java.util.concurrent.ForkJoinPool}.
+	 * If there are fewer points than {@link ConcurrencyOps#getThreshold()} then it's processed in the calling
+	 * thread.
+	 * </p>
+	 */
+	public static void transformConcurrent( final Homography2D_F32 H,
+								  final float src[], final int srcOffset, final int srcStride,
+								  final float dst[], final int dstOffset, final int dstStride, int numPoints ) {
+		ConcurrencyOps.loopBlocks(0, numPoints, new ConcurrencyOps.IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				transform(H, src, srcOffset + start*srcStride, srcStride, dst, dstOffset + start*dstStride, dstStride, end - start);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Homography2D_F32, PointCloud2D_F32, PointCloud2D_F32)}.
+	 *
+	 * @see #transformConcurrent(Homography2D_F32, float[], int, int, float[], int, int, int)
+	 */
+	public static void transformConcurrent( final Homography2D_F32 H, final PointCloud2D_F32 src, final PointCloud2D_F32 dst ) {
+		dst.resize(src.size);
+		ConcurrencyOps.loopBlocks(0, src.size, new ConcurrencyOps.IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				transform(H, src.x, src.y, start, dst.x, dst.y, start, end - start);
+			}
+		});
+	}
 }
@@ -19,8 +19,11 @@
 package georegression.transform.se;
 
 import georegression.geometry.GeometryMath_F32;
+import georegression.misc.ConcurrencyOps;
 import georegression.struct.point.Point2D_F32;
 import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud2D_F32;
+import georegression.struct.point.PointCloud3D_F32;
 import georegression.struct.point.Vector3D_F32;
 import georegression.struct.se.Se2_F32;
 import georegression.struct.se.Se3_F32;
@@ -227,4 +230,453 @@ public class SePointOps_F32 {
 
 		return tranPt;
 	}
+
+	/**
+	 * <p>
+	 * Applies a 2D special euclidean transform to points stored in an interleaved array, e.g. (x,y,x,y,...).
+	 * The source and destination can be the same array if they have the same offset and stride.
+	 * </p>
+	 *
+	 * @param se The transform. Not modified.
+	 * @param src Array containing the original points. Not modified.
+	 * @param srcOffset Index of the first point's x-coordinate in src
+	 * @param srcStride Number of elements between the start of each point in src.  Must be &ge; 2
+	 * @param dst Array that the transformed points are written to. Modified.
+	 * @param dstOffset Index of the first point's x-coordinate in dst
+	 * @param dstStride Number of elements between the start of each point in dst.  Must be &ge; 2
+	 * @param numPoints Number of points which are to be transformed
+	 */
+	public static void transform( Se2_F32 se,
+								  float src[], int srcOffset, int srcStride,
+								  float dst[], int dstOffset, int dstStride, int numPoints ) {
+		final float tranX = se.getX();
+		final float tranY = se.getY();
+
+		final float c = se.getCosineYaw();
+		final float s = se.getSineYaw();
+
+		for( int i = 0; i < numPoints; i++ ) {
+			int indexSrc = srcOffset + i*srcStride;
+			int indexDst = dstOffset + i*dstStride;
+
+			float x = src[indexSrc];
+			float y = src[indexSrc+1];
+
+			dst[indexDst]   = tranX + x * c - y * s;
+			dst[indexDst+1] = tranY + x * s + y * c;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Applies a 2D special euclidean transform to points stored in a structure-of-arrays format, where each
+	 * coordinate is stored in its own array.  The source and destination arrays can be the same.
+	 * </p>
+	 *
+	 * @param se The transform. Not modified.
+	 * @param srcX x-coordinate of original points. Not modified.
+	 * @param srcY y-coordinate of original points. Not modified.
+	 * @param srcOffset Index of the first point in the source arrays
+	 * @param dstX x-coordinate of transformed points. Modified.
+	 * @param dstY y-coordinate of transformed points. Modified.
+	 * @param dstOffset Index of the first point in the destination arrays
+	 * @param numPoints Number of points which are to be transformed
+	 */
+	public static void transform( Se2_F32 se,
+								  float srcX[], float srcY[], int srcOffset,
+								  float dstX[], float dstY[], int dstOffset, int numPoints ) {
+		final float tranX = se.getX();
+		final float tranY = se.getY();
+
+		final float c = se.getCosineYaw();
+		final float s = se.getSineYaw();
+
+		for( int i = 0; i < numPoints; i++ ) {
+			float x = srcX[srcOffset+i];
+			float y = srcY[srcOffset+i];
+
+			dstX[dstOffset+i] = tranX + x * c - y * s;
+			dstY[dstOffset+i] = tranY + x * s + y * c;
+		}
+	}
+
+	/**
+	 * Applies a 2D special euclidean transform to every point in the cloud.
+	 *
+	 * @param se The transform. Not modified.
+	 * @param src Original point cloud. Not modified.
+	 * @param dst Storage for the transformed point cloud.  Can be the same as src.  Modified.
+	 */
+	public static void transform( Se2_F32 se, PointCloud2D_F32 src, PointCloud2D_F32 dst ) {
+		dst.resize(src.size);
+		transform(se, src.x, src.y, 0, dst.x, dst.y, 0, src.size);
+	}
+
+	/**
+	 * <p>
+	 * Applies a 2D special euclidean transform in the reverse direction to points stored in an interleaved array,
+	 * e.g. (x,y,x,y,...).  The source and destination can be the same array if they have the same offset
+	 * and stride.
+	 * </p>
+	 *
+	 * @see #transform(Se2_F32, float[], int, int, float[], int, int, int)
+	 */
+	public static void transformReverse( Se2_F32 se,
+										 float src[], int srcOffset, int srcStride,
+										 float dst[], int dstOffset, int dstStride, int numPoints ) {
+		final float tranX = se.getX();
+		final float tranY = se.getY();
+
+		final float c = se.getCosineYaw();
+		final float s = se.getSineYaw();
+
+		for( int i = 0; i < numPoints; i++ ) {
+			int indexSrc = srcOffset + i*srcStride;
+			int indexDst = dstOffset + i*dstStride;
+
+			float x = src[indexSrc] - tranX;
+			float y = src[indexSrc+1] - tranY;
+
+			dst[indexDst]   = x * c + y * s;
+			dst[indexDst+1] = -x * s + y * c;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Applies a 2D special euclidean transform in the reverse direction to points stored in a structure-of-arrays
+	 * format.  The source and destination arrays can be the same.
+	 * </p>
+	 *
+	 * @see #transform(Se2_F32, float[], float[], int, float[], float[], int, int)
+	 */
+	public static void transformReverse( Se2_F32 se,
+										 float srcX[], float srcY[], int srcOffset,
+										 float dstX[], float dstY[], int dstOffset, int numPoints ) {
+		final float tranX = se.getX();
+		final float tranY = se.getY();
+
+		final float c = se.getCosineYaw();
+		final float s = se.getSineYaw();
+
+		for( int i = 0; i < numPoints; i++ ) {
+			float x = srcX[srcOffset+i] - tranX;
+			float y = srcY[srcOffset+i] - tranY;
+
+			dstX[dstOffset+i] = x * c + y * s;
+			dstY[dstOffset+i] = -x * s + y * c;
+		}
+	}
+
+	/**
+	 * Applies a 2D special euclidean transform in the reverse direction to every point in the cloud.
+	 *
+	 * @param se The transform. Not modified.
+	 * @param src Original point cloud. Not modified.
+	 * @param dst Storage for the transformed point cloud.  Can be the same as src.  Modified.
+	 */
+	public static void transformReverse( Se2_F32 se, PointCloud2D_F32 src, PointCloud2D_F32 dst ) {
+		dst.resize(src.size);
+		transformReverse(se, src.x, src.y, 0, dst.x, dst.y, 0, src.size);
+	}
+
+	/**
+	 * <p>
+	 * Applies a 3D special euclidean transform to points stored in an interleaved array, e.g. (x,y,z,x,y,z,...).
+	 * The rotation matrix is copied into local variables once instead of being accessed for each point.
+	 * The source and destination can be the same array if they have the same offset and stride.
+	 * </p>
+	 *
+	 * @param se The transform. Not modified.
+	 * @param src Array containing the original points. Not modified.
+	 * @param srcOffset Index of the first point's x-coordinate in src
+	 * @param srcStride Number of elements between the start of each point in src.  Must be &ge; 3
+	 * @param dst Array that the transformed points are written to. Modified.
+	 * @param dstOffset Index of the first point's x-coordinate in dst
+	 * @param dstStride Number of elements between the start of each point in dst.  Must be &ge; 3
+	 * @param numPoints Number of points which are to be transformed
+	 */
+	public static void transform( Se3_F32 se,
+								  float src[], int srcOffset, int srcStride,
+								  float dst[], int dstOffset, int dstStride, int numPoints ) {
+		final /**/double R[] = se.getR().data;
+		final float r11 = (float)R[0], r12 = (float)R[1], r13 = (float)R[2];
+		final float r21 = (float)R[3], r22 = (float)R[4], r23 = (float)R[5];
+		final float r31 = (float)R[6], r32 = (float)R[7], r33 = (float)R[8];
+
+		final float tx = se.getT().x, ty = se.getT().y, tz = se.getT().z;
+
+		for( int i = 0; i < numPoints; i++ ) {
+			int indexSrc = srcOffset + i*srcStride;
+			int indexDst = dstOffset + i*dstStride;
+
+			float x = src[indexSrc];
+			float y = src[indexSrc+1];
+			float z = src[indexSrc+2];
+
+			dst[indexDst]   = r11*x + r12*y + r13*z + tx;
+			dst[indexDst+1] = r21*x + r22*y + r23*z + ty;
+			dst[indexDst+2] = r31*x + r32*y + r33*z + tz;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Applies a 3D special euclidean transform to points stored in a structure-of-arrays format, where each
+	 * coordinate is stored in its own array.  The source and destination arrays can be the same.
+	 * </p>
+	 *
+	 * @param se The transform. Not modified.
+	 * @param srcX x-coordinate of original points. Not modified.
+	 * @param srcY y-coordinate of original points. Not modified.
+	 * @param srcZ z-coordinate of original points. Not modified.
+	 * @param srcOffset Index of the first point in the source arrays
+	 * @param dstX x-coordinate of transformed points. Modified.
+	 * @param dstY y-coordinate of transformed points. Modified.
+	 * @param dstZ z-coordinate of transformed points. Modified.
+	 * @param dstOffset Index of the first point in the destination arrays
+	 * @param numPoints Number of points which are to be transformed
+	 */
+	public static void transform( Se3_F32 se,
+								  float srcX[], float srcY[], float srcZ[], int srcOffset,
+								  float dstX[], float dstY[], float dstZ[], int dstOffset, int numPoints ) {
+		final /**/double R[] = se.getR().data;
+		final float r11 = (float)R[0], r12 = (float)R[1], r13 = (float)R[2];
+		final float r21 = (float)R[3], r22 = (float)R[4], r23 = (float)R[5];
+		final float r31 = (float)R[6], r32 = (float)R[7], r33 = (float)R[8];
+
+		final float tx = se.getT().x, ty = se.getT().y, tz = se.getT().z;
+
+		for( int i = 0; i < numPoints; i++ ) {
+			float x = srcX[srcOffset+i];
+			float y = srcY[srcOffset+i];
+			float z = srcZ[srcOffset+i];
+
+			dstX[dstOffset+i] = r11*x + r12*y + r13*z + tx;
+			dstY[dstOffset+i] = r21*x + r22*y + r23*z + ty;
+			dstZ[dstOffset+i] = r31*x + r32*y + r33*z + tz;
+		}
+	}
+
+	/**
+	 * Applies a 3D special euclidean transform to every point in the cloud.
+	 *
+	 * @param se The transform. Not modified.
+	 * @param src Original point cloud. Not modified.
+	 * @param dst Storage for the transformed point cloud.  Can be the same as src.  Modified.
+	 */
+	public static void transform( Se3_F32 se, PointCloud3D_F32 src, PointCloud3D_F32 dst ) {
+		dst.resize(src.size);
+		transform(se, src.x, src.y, src.z, 0, dst.x, dst.y, dst.z, 0, src.size);
+	}
+
+	/**
+	 * <p>
+	 * Applies a 3D special euclidean transform in the reverse direction to points stored in an interleaved array,
+	 * e.g. (x,y,z,x,y,z,...).  p = R<sup>T</sup>*(p'-T).  The source and destination can be the same array if
+	 * they have the same offset and stride.
+	 * </p>
+	 *
+	 * @see #transform(Se3_F32, float[], int, int, float[], int, int, int)
+	 */
+	public static void transformReverse( Se3_F32 se,
+										 float src[], int srcOffset, int srcStride,
+										 float dst[], int dstOffset, int dstStride, int numPoints ) {
+		final /**/double R[] = se.getR().data;
+		final float r11 = (float)R[0], r12 = (float)R[1], r13 = (float)R[2];
+		final float r21 = (float)R[3], r22 = (float)R[4], r23 = (float)R[5];
+		final float r31 = (float)R[6], r32 = (float)R[7], r33 = (float)R[8];
+
+		final float tx = se.getT().x, ty = se.getT().y, tz = se.getT().z;
+
+		for( int i = 0; i < numPoints; i++ ) {
+			int indexSrc = srcOffset + i*srcStride;
+			int indexDst = dstOffset + i*dstStride;
+
+			float x = src[indexSrc]   - tx;
+			float y = src[indexSrc+1] - ty;
+			float z = src[indexSrc+2] - tz;
+
+			dst[indexDst]   = r11*x + r21*y + r31*z;
+			dst[indexDst+1] = r12*x + r22*y + r32*z;
+			dst[indexDst+2] = r13*x + r23*y + r33*z;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Applies a 3D special euclidean transform in the reverse direction to points stored in a structure-of-arrays
+	 * format.  p = R<sup>T</sup>*(p'-T).  The source and destination arrays can be the same.
+	 * </p>
+	 *
+	 * @see #transform(Se3_F32, float[], float[], float[], int, float[], float[], float[], int, int)
+	 */
+	public static void transformReverse( Se3_F32 se,
+										 float srcX[], float srcY[], float srcZ[], int srcOffset,
+										 float dstX[], float dstY[], float dstZ[], int dstOffset, int numPoints ) {
+		final /**/double R[] = se.getR().data;
+		final float r11 = (float)R[0], r12 = (float)R[1], r13 = (float)R[2];
+		final float r21 = (float)R[3], r22 = (float)R[4], r23 = (float)R[5];
+		final float r31 = (float)R[6], r32 = (float)R[7], r33 = (float)R[8];
+
+		final float tx = se.getT().x, ty = se.getT().y, tz = se.getT().z;
+
+		for( int i = 0; i < numPoints; i++ ) {
+			float x = srcX[srcOffset+i] - tx;
+			float y = srcY[srcOffset+i] - ty;
+			float z = srcZ[srcOffset+i] - tz;
+
+			dstX[dstOffset+i] = r11*x + r21*y + r31*z;
+			dstY[dstOffset+i] = r12*x + r22*y + r32*z;
+			dstZ[dstOffset+i] = r13*x + r23*y + r33*z;
+		}
+	}
+
+	/**
+	 * Applies a 3D special euclidean transform in the reverse direction to every point in the cloud.
+	 *
+	 * @param se The transform. Not modified.
+	 * @param src Original point cloud. Not modified.
+	 * @param dst Storage for the transformed point cloud.  Can be the same as src.  Modified.
+	 */
+	public static void transformReverse( Se3_F32 se, PointCloud3D_F32 src, PointCloud3D_F32 dst ) {
+		dst.resize(src.size);
+		transformReverse(se, src.x, src.y, src.z, 0, dst.x, dst.y, dst.z, 0, src.size);
+	}
+
+	/**
+	 * <p>
+	 * Concurrent version of {@link #transform(Se2_F32, float[], int, int, float[], int, int, int)}.
+	 * The points are split into blocks which are processed in a {@link java.util.concurrent.ForkJoinPool}.
+	 * If there are fewer points than {@link ConcurrencyOps#getThreshold()} then it's processed in the calling
+	 * thread.
+	 * </p>
+	 */
+	public static void transformConcurrent( final Se2_F32 se,
+								  final float src[], final int srcOffset, final int srcStride,
+								  final float dst[], final int dstOffset, final int dstStride, int numPoints ) {
+		ConcurrencyOps.loopBlocks(0, numPoints, new ConcurrencyOps.IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				transform(se, src, srcOffset + start*srcStride, srcStride, dst, dstOffset + start*dstStride, dstStride, end - start);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Se2_F32, PointCloud2D_F32, PointCloud2D_F32)}.
+	 *
+	 * @see #transformConcurrent(Se2_F32, float[], int, int, float[], int, int, int)
+	 */
+	public static void transformConcurrent( final Se2_F32 se, final PointCloud2D_F32 src, final PointCloud2D_F32 dst ) {
+		dst.resize(src.size);
+		ConcurrencyOps.loopBlocks(0, src.size, new ConcurrencyOps.IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				transform(se, src.x, src.y, start, dst.x, dst.y, start, end - start);
+			}
+		});
+	}
+
+	/**
+	 * <p>
+	 * Concurrent version of {@link #transformReverse(Se2_F32, float[], int, int, float[], int, int, int)}.
+	 * The points are split into blocks which are processed in a {@link java.util.concurrent.ForkJoinPool}.
+	 * If there are fewer points than {@link ConcurrencyOps#getThreshold()} then it's processed in the calling
+	 * thread.
+	 * </p>
+	 */
+	public static void transformReverseConcurrent( final Se2_F32 se,
+								  final float src[], final int srcOffset, final int srcStride,
+								  final float dst[], final int dstOffset, final int dstStride, int numPoints ) {
+		ConcurrencyOps.loopBlocks(0, numPoints, new ConcurrencyOps.IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				transformReverse(se, src, srcOffset + start*srcStride, srcStride, dst, dstOffset + start*dstStride, dstStride, end - start);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #transformReverse(Se2_F32, PointCloud2D_F32, PointCloud2D_F32)}.
+	 *
+	 * @see #transformReverseConcurrent(Se2_F32, float[], int, int, float[], int, int, int)
+	 */
+	public static void transformReverseConcurrent( final Se2_F32 se, final PointCloud2D_F32 src, final PointCloud2D_F32 dst ) {
+		dst.resize(src.size);
+		ConcurrencyOps.loopBlocks(0, src.size, new ConcurrencyOps.IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				transformReverse(se, src.x, src.y, start, dst.x, dst.y, start, end - start);
+			}
+		});
+	}
+
+	/**
+	 * <p>
+	 * Concurrent version of {@link #transform(Se3_F32, float[], int, int, float[], int, int, int)}.
+	 * The points are split into blocks which are processed in a {@link java.util.concurrent.ForkJoinPool}.
+	 * If there are fewer points than {@link ConcurrencyOps#getThreshold()} then it's processed in the calling
+	 * thread.
+	 * </p>
+	 */
+	public static void transformConcurrent( final Se3_F32 se,
+								  final float src[], final int srcOffset, final int srcStride,
+								  final float dst[], final int dstOffset, final int dstStride, int numPoints ) {
+		ConcurrencyOps.loopBlocks(0, numPoints, new ConcurrencyOps.IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				transform(se, src, srcOffset + start*srcStride, srcStride, dst, dstOffset + start*dstStride, dstStride, end - start);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #transform(Se3_F32, PointCloud3D_F32, PointCloud3D_F32)}.
+	 *
+	 * @see #transformConcurrent(Se3_F32, float[], int, int, float[], int, int, int)
+	 */
+	public static void transformConcurrent( final Se3_F32 se, final PointCloud3D_F32 src, final PointCloud3D_F32 dst ) {
+		dst.resize(src.size);
+		ConcurrencyOps.loopBlocks(0, src.size, new ConcurrencyOps.IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				transform(se, src.x, src.y, src.z, start, dst.x, dst.y, dst.z, start, end - start);
+			}
+		});
+	}
+
+	/**
+	 * <p>
+	 * Concurrent version of {@link #transformReverse(Se3_F32, float[], int, int, float[], int, int, int)}.
+	 * The points are split into blocks which are processed in a {@link java.util.concurrent.ForkJoinPool}.
+	 * If there are fewer points than {@link ConcurrencyOps#getThreshold()} then it's processed in the calling
+	 * thread.
+	 * </p>
+	 */
+	public static void transformReverseConcurrent( final Se3_F32 se,
+								  final float src[], final int srcOffset, final int srcStride,
+								  final float dst[], final int dstOffset, final int dstStride, int numPoints ) {
+		ConcurrencyOps.loopBlocks(0, numPoints, new ConcurrencyOps.IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				transformReverse(se, src, srcOffset + start*srcStride, srcStride, dst, dstOffset + start*dstStride, dstStride, end - start);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link #transformReverse(Se3_F32, PointCloud3D_F32, PointCloud3D_F32)}.
+	 *
+	 * @see #transformReverseConcurrent(Se3_F32, float[], int, int, float[], int, int, int)
+	 */
+	public static void transformReverseConcurrent( final Se3_F32 se, final PointCloud3D_F32 src, final PointCloud3D_F32 dst ) {
+		dst.resize(src.size);
+		ConcurrencyOps.loopBlocks(0, src.size, new ConcurrencyOps.IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				transformReverse(se, src.x, src.y, src.z, start, dst.x, dst.y, dst.z, start, end - start);
+			}
+		});
+	}
 }
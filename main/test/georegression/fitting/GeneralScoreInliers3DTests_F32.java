@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares implementations of {@link ScoreInliers3D_F32} against distances computed one point at a time.
+ *
+ * @author Peter Abeles
+ */
+public abstract class GeneralScoreInliers3DTests_F32<Model> {
+	Random rand = new Random( 234 );
+
+	float threshold = 0.3f;
+
+	// not a multiple of 64 so that the last block in the mask is partially filled
+	int N = 250;
+
+	public abstract ScoreInliers3D_F32<Model> createAlg();
+
+	/**
+	 * Model that's near the origin and has a size of about one
+	 */
+	public abstract Model createModel();
+
+	public abstract float distance( Model model , Point3D_F32 point );
+
+	/**
+	 * Creates a random cloud.  Points which are too close to the threshold are skipped to avoid ambiguity
+	 */
+	private PointCloud3D_F32 createCloud( Model model , boolean[] inlier ) {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32(N);
+		Point3D_F32 p = new Point3D_F32();
+		while( cloud.size < N ) {
+			p.set(r(), r(), r());
+			float d = (float)Math.abs(distance(model, p));
+			if( (float)Math.abs(d-threshold) < 0.01f )
+				continue;
+			inlier[cloud.size] = d <= threshold;
+			cloud.add(p);
+		}
+		return cloud;
+	}
+
+	private float r() {
+		return (float)(rand.nextFloat()*4.0f-2.0f);
+	}
+
+	private static int count( boolean[] inlier ) {
+		int total = 0;
+		for( int i = 0; i < inlier.length; i++ ) {
+			if( inlier[i] )
+				total++;
+		}
+		return total;
+	}
+
+	@Test
+	public void count() {
+		Model model = createModel();
+		boolean[] inlier = new boolean[N];
+		PointCloud3D_F32 cloud = createCloud(model, inlier);
+		int expected = count(inlier);
+		assertTrue(expected > 0 && expected < N);
+
+		ScoreInliers3D_F32<Model> alg = createAlg();
+		alg.setThreshold(threshold);
+		alg.setModel(model);
+
+		assertEquals(expected, alg.count(cloud));
+	}
+
+	@Test
+	public void count_best() {
+		Model model = createModel();
+		boolean[] inlier = new boolean[N];
+		PointCloud3D_F32 cloud = createCloud(model, inlier);
+		int expected = count(inlier);
+
+		ScoreInliers3D_F32<Model> alg = createAlg();
+		alg.setThreshold(threshold);
+		alg.setModel(model);
+
+		// it can beat these so the exact count is returned
+		assertEquals(expected, alg.count(cloud, -1));
+		assertEquals(expected, alg.count(cloud, 0));
+		assertEquals(expected, alg.count(cloud, expected - 1));
+
+		// it can't beat these
+		assertTrue(alg.count(cloud, expected) <= expected);
+		assertTrue(alg.count(cloud, expected + 10) <= expected + 10);
+		assertTrue(alg.count(cloud, N) <= N);
+	}
+
+	@Test
+	public void mask() {
+		Model model = createModel();
+		boolean[] inlier = new boolean[N];
+		PointCloud3D_F32 cloud = createCloud(model, inlier);
+
+		ScoreInliers3D_F32<Model> alg = createAlg();
+		alg.setThreshold(threshold);
+		alg.setModel(model);
+
+		long[] mask = new long[(N+63)/64];
+		// make sure it's cleared
+		for( int i = 0; i < mask.length; i++ )
+			mask[i] = -1;
+
+		assertEquals(count(inlier), alg.mask(cloud, mask));
+
+		for( int i = 0; i < N; i++ ) {
+			boolean found = (mask[i >> 6] & (1L << (i & 63))) != 0;
+			assertEquals(inlier[i], found);
+		}
+		// bits past the end of the cloud are not set
+		assertEquals(0, mask[mask.length-1] >>> (N & 63));
+	}
+
+	@Test
+	public void select() {
+		Model model = createModel();
+		boolean[] inlier = new boolean[N];
+		PointCloud3D_F32 cloud = createCloud(model, inlier);
+
+		ScoreInliers3D_F32<Model> alg = createAlg();
+		alg.setThreshold(threshold);
+		alg.setModel(model);
+
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+		indexes.add(5);
+
+		assertEquals(count(inlier), alg.select(cloud, indexes));
+		assertEquals(count(inlier), indexes.size);
+
+		int j = 0;
+		for( int i = 0; i < N; i++ ) {
+			if( inlier[i] )
+				assertEquals(i, indexes.get(j++));
+		}
+	}
+
+	/**
+	 * The threshold can be changed after the model has been set
+	 */
+	@Test
+	public void setThreshold_afterModel() {
+		Model model = createModel();
+		boolean[] inlier = new boolean[N];
+		PointCloud3D_F32 cloud = createCloud(model, inlier);
+
+		ScoreInliers3D_F32<Model> alg = createAlg();
+		alg.setThreshold(100);
+		alg.setModel(model);
+		assertEquals(N, alg.count(cloud));
+
+		alg.setThreshold(threshold);
+		assertEquals(threshold, alg.getThreshold(), 0);
+		assertEquals(count(inlier), alg.count(cloud));
+	}
+
+	/**
+	 * Points which are NaN are outliers and all the functions must agree on that
+	 */
+	@Test
+	public void nanPoint() {
+		Model model = createModel();
+		boolean[] inlier = new boolean[N];
+		PointCloud3D_F32 cloud = createCloud(model, inlier);
+		for( int i = 0; i < N; i += 7 ) {
+			cloud.x[i] = Float.NaN;
+			inlier[i] = false;
+		}
+		int expected = count(inlier);
+
+		ScoreInliers3D_F32<Model> alg = createAlg();
+		alg.setThreshold(threshold);
+		alg.setModel(model);
+
+		GrowQueue_I32 indexes = new GrowQueue_I32();
+		assertEquals(expected, alg.select(cloud, indexes));
+		assertEquals(expected, alg.count(cloud));
+		assertEquals(expected, alg.count(cloud, expected - 1));
+		assertEquals(expected, alg.mask(cloud, new long[(N+63)/64]));
+	}
+
+	@Test
+	public void emptyCloud() {
+		ScoreInliers3D_F32<Model> alg = createAlg();
+		alg.setThreshold(threshold);
+		alg.setModel(createModel());
+
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		assertEquals(0, alg.count(cloud));
+		assertEquals(0, alg.count(cloud, 5));
+		assertEquals(0, alg.mask(cloud, new long[0]));
+		assertEquals(0, alg.select(cloud, new GrowQueue_I32()));
+	}
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLevenbergMarquardtSmall {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Linear problem which should be solved almost immediately
+	 */
+	@Test
+	public void linear() {
+		double x[] = new double[20];
+		double y[] = new double[20];
+		for( int i = 0; i < x.length; i++ ) {
+			x[i] = rand.nextDouble()*10;
+			y[i] = 2.5*x[i] - 1.5;
+		}
+
+		LevenbergMarquardtSmall alg = new LevenbergMarquardtSmall();
+		alg.setFunction(new Model(x, y, false));
+		alg.initialize(new double[]{0, 0}, 1e-12, 0);
+
+		assertTrue(solve(alg, 20));
+		assertTrue(alg.isConverged());
+
+		assertEquals(2.5, alg.getParameters()[0], 1e-8);
+		assertEquals(-1.5, alg.getParameters()[1], 1e-8);
+		assertEquals(0, alg.getFunctionValue(), 1e-8);
+	}
+
+	/**
+	 * Non-linear problem, y = a*exp(b*x)
+	 */
+	@Test
+	public void nonlinear() {
+		double x[] = new double[30];
+		double y[] = new double[30];
+		for( int i = 0; i < x.length; i++ ) {
+			x[i] = rand.nextDouble()*2;
+			y[i] = 1.5*Math.exp(-0.8*x[i]);
+		}
+
+		LevenbergMarquardtSmall alg = new LevenbergMarquardtSmall();
+		alg.setFunction(new Model(x, y, true));
+		alg.initialize(new double[]{1, 0}, 1e-15, 0);
+
+		assertTrue(solve(alg, 200));
+
+		assertEquals(1.5, alg.getParameters()[0], 1e-6);
+		assertEquals(-0.8, alg.getParameters()[1], 1e-6);
+	}
+
+	/**
+	 * Not converged until a convergence test passes
+	 */
+	@Test
+	public void isConverged() {
+		double x[] = new double[30];
+		double y[] = new double[30];
+		for( int i = 0; i < x.length; i++ ) {
+			x[i] = rand.nextDouble()*2;
+			y[i] = 1.5*Math.exp(-0.8*x[i]);
+		}
+
+		LevenbergMarquardtSmall alg = new LevenbergMarquardtSmall();
+		alg.setFunction(new Model(x, y, true));
+		alg.initialize(new double[]{1, 0}, 1e-15, 0);
+
+		assertFalse(alg.iterate());
+		assertFalse(alg.isConverged());
+		assertTrue(solve(alg, 200));
+		assertTrue(alg.isConverged());
+
+		// it should be reset when initialized again
+		alg.initialize(new double[]{1, 0}, 1e-15, 0);
+		assertFalse(alg.isConverged());
+	}
+
+	/**
+	 * Starting at the solution can't reduce the function value but it has still converged
+	 */
+	@Test
+	public void startAtSolution() {
+		double x[] = new double[30];
+		double y[] = new double[30];
+		for( int i = 0; i < x.length; i++ ) {
+			x[i] = rand.nextDouble()*2;
+			y[i] = 1.5*Math.exp(-0.8*x[i]) + rand.nextGaussian()*0.01;
+		}
+
+		LevenbergMarquardtSmall alg = new LevenbergMarquardtSmall();
+		alg.setFunction(new Model(x, y, true));
+		alg.initialize(new double[]{1, 0}, 0, 0);
+		assertTrue(solve(alg, 500));
+
+		double solution[] = alg.getParameters().clone();
+		alg.initialize(solution, 0, 0);
+		assertTrue(solve(alg, 500));
+		assertTrue(alg.isConverged());
+	}
+
+	/**
+	 * Rejected steps should reuse J'*J and J'*r instead of computing the gradient again
+	 */
+	@Test
+	public void rejectedStepReusesNormal() {
+		double x[] = new double[30];
+		double y[] = new double[30];
+		for( int i = 0; i < x.length; i++ ) {
+			x[i] = rand.nextDouble()*2;
+			y[i] = 1.5*Math.exp(-0.8*x[i]) + rand.nextGaussian()*0.01;
+		}
+
+		Model model = new Model(x, y, true);
+		LevenbergMarquardtSmall alg = new LevenbergMarquardtSmall();
+		alg.setFunction(model);
+		alg.initialize(new double[]{1, 0}, 0, 0);
+		assertTrue(solve(alg, 500));
+
+		// every step is rejected when it starts at the solution
+		double solution[] = alg.getParameters().clone();
+		alg.initialize(solution, 0, 0);
+		assertFalse(alg.iterate());
+
+		int numGradient = model.numGradient;
+		int numResidual = model.numResidual;
+		assertTrue(solve(alg, 500));
+		assertEquals(numGradient, model.numGradient);
+		assertTrue(model.numResidual > numResidual);
+		assertEquals(solution[0], alg.getParameters()[0], 0);
+		assertEquals(solution[1], alg.getParameters()[1], 0);
+	}
+
+	/**
+	 * If the function can't be computed then it has failed
+	 */
+	@Test
+	public void notFinite() {
+		double x[] = new double[]{1, 2, Double.NaN};
+		double y[] = new double[]{1, 2, 3};
+
+		LevenbergMarquardtSmall alg = new LevenbergMarquardtSmall();
+		alg.setFunction(new Model(x, y, false));
+		alg.initialize(new double[]{1, 0}, 1e-12, 0);
+
+		assertTrue(alg.iterate());
+		assertFalse(alg.isConverged());
+	}
+
+	/**
+	 * The function value should never increase
+	 */
+	@Test
+	public void monotonic() {
+		double x[] = new double[30];
+		double y[] = new double[30];
+		for( int i = 0; i < x.length; i++ ) {
+			x[i] = rand.nextDouble()*2;
+			y[i] = 1.5*Math.exp(-0.8*x[i]) + rand.nextGaussian()*0.01;
+		}
+
+		LevenbergMarquardtSmall alg = new LevenbergMarquardtSmall();
+		alg.setFunction(new Model(x, y, true));
+		alg.initialize(new double[]{5, 2}, 1e-15, 0);
+
+		double previous = alg.getFunctionValue();
+		for( int i = 0; i < 100; i++ ) {
+			boolean converged = alg.iterate();
+			assertTrue(alg.getFunctionValue() <= previous);
+			previous = alg.getFunctionValue();
+			if( converged )
+				break;
+		}
+	}
+
+	private static boolean solve( LevenbergMarquardtSmall alg , int maxIterations ) {
+		for( int i = 0; i < maxIterations; i++ ) {
+			if( alg.iterate() )
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Residuals for y = a*exp(b*x) or y = a*x + b
+	 */
+	private static class Model implements PointResidualFunction {
+		double x[], y[];
+		boolean exponential;
+		double a, b;
+
+		// number of times the residual was computed with and without the gradient
+		int numGradient;
+		int numResidual;
+
+		private Model(double[] x, double[] y, boolean exponential) {
+			this.x = x;
+			this.y = y;
+			this.exponential = exponential;
+		}
+
+		@Override
+		public int getNumOfInputsN() {
+			return 2;
+		}
+
+		@Override
+		public int getNumOfPoints() {
+			return x.length;
+		}
+
+		@Override
+		public void setParameters(double[] param) {
+			a = param[0];
+			b = param[1];
+		}
+
+		@Override
+		public double computeResidual(int index) {
+			numResidual++;
+			if( exponential )
+				return a*Math.exp(b*x[index]) - y[index];
+			else
+				return a*x[index] + b - y[index];
+		}
+
+		@Override
+		public double computeResidual(int index, double[] gradient) {
+			numGradient++;
+			if( exponential ) {
+				double e = Math.exp(b*x[index]);
+				gradient[0] = e;
+				gradient[1] = a*x[index]*e;
+				return a*e - y[index];
+			} else {
+				gradient[0] = x[index];
+				gradient[1] = 1;
+				return a*x[index] + b - y[index];
+			}
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import georegression.fitting.sphere.SphereToPointResidual_F64;
+import georegression.fitting.sphere.SphereToPointSignedDistanceJacobian_F64;
+import georegression.fitting.sphere.SphereToPointSignedDistance_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import org.ddogleg.optimization.DerivativeChecker;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPointResidualFunctionJacobian {
+
+	List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+
+	SphereToPointResidual_F64 residuals = new SphereToPointResidual_F64();
+	PointResidualFunctionJacobian alg = new PointResidualFunctionJacobian(residuals);
+
+	SphereToPointSignedDistance_F64 function = new SphereToPointSignedDistance_F64();
+	SphereToPointSignedDistanceJacobian_F64 jacobian = new SphereToPointSignedDistanceJacobian_F64();
+
+	public TestPointResidualFunctionJacobian() {
+		points.add(new Point3D_F64(1.1,2.2,3.5));
+		points.add(new Point3D_F64(1,-4,3));
+		points.add(new Point3D_F64(6,2.1,2.9));
+
+		residuals.setPoints(points);
+		function.setPoints(points);
+		jacobian.setPoints(points);
+	}
+
+	@Test
+	public void compareToNumerical() {
+		double param[] = new double[]{1,2,3,4};
+
+		assertTrue(DerivativeChecker.jacobian(alg.getFunction(), alg.getJacobian(), param,
+				100.0 * GrlConstants.DOUBLE_TEST_TOL, GrlConstants.DOUBLE_TEST_TOL));
+	}
+
+	/**
+	 * Compare against the stand alone function and Jacobian at several different parameters
+	 */
+	@Test
+	public void compareToSignedDistance() {
+		check(new double[]{1,2,3,4});
+		check(new double[]{1.1,2,3,4});
+		check(new double[]{1,2,3,3.9});
+	}
+
+	/**
+	 * Nothing should be saved between calls.  Modifying the points after computing the residuals must not
+	 * produce a stale Jacobian.
+	 */
+	@Test
+	public void pointsModified() {
+		double param[] = new double[]{1,2,3,4};
+		alg.getFunction().process(param, new double[points.size()]);
+		points.get(1).set(2, 2, -5);
+
+		double expectedJ[] = new double[points.size()*4];
+		jacobian.process(param, expectedJ);
+
+		double foundJ[] = new double[points.size()*4];
+		alg.getJacobian().process(param, foundJ);
+		assertArrayEquals(expectedJ, foundJ, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Test
+	public void getN_and_getM() {
+		assertEquals(4, alg.getFunction().getNumOfInputsN());
+		assertEquals(3, alg.getFunction().getNumOfOutputsM());
+		assertEquals(4, alg.getJacobian().getNumOfInputsN());
+		assertEquals(3, alg.getJacobian().getNumOfOutputsM());
+	}
+
+	private void check( double param[] ) {
+		double expectedR[] = new double[points.size()];
+		double expectedJ[] = new double[points.size()*4];
+		function.process(param, expectedR);
+		jacobian.process(param, expectedJ);
+
+		double foundR[] = new double[points.size()];
+		alg.getFunction().process(param, foundR);
+		assertArrayEquals(expectedR, foundR, GrlConstants.DOUBLE_TEST_TOL);
+
+		double foundJ[] = new double[points.size()*4];
+		alg.getJacobian().process(param, foundJ);
+		assertArrayEquals(expectedJ, foundJ, GrlConstants.DOUBLE_TEST_TOL);
+	}
+}
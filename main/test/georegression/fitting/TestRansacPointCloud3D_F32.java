@@ -0,0 +1,349 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import georegression.fitting.cylinder.TestFitCylinderToPoints_F32;
+import georegression.fitting.sphere.TestFitSphereToPoints_F32;
+import georegression.metric.ClosestPoint3D_F32;
+import georegression.metric.Distance3D_F32;
+import georegression.misc.ConcurrencyOps;
+import georegression.misc.GrlConstants;
+import georegression.struct.plane.PlaneGeneral3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
+import org.ddogleg.fitting.modelset.ModelFitter;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRansacPointCloud3D_F32 {
+
+	Random rand = new Random(234);
+
+	float noise = 0.01f;
+	float threshold = 0.05f;
+
+	int numInliers = 400;
+	int numOutliers = 200;
+
+	@Test
+	public void plane() {
+		PlaneGeneral3D_F32 plane = new PlaneGeneral3D_F32(1,2,-0.5f,0.3f);
+		float n = (float)Math.sqrt(1+4+0.25f);
+
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		Point3D_F32 p = new Point3D_F32();
+		for( int i = 0; i < numInliers; i++ ) {
+			p.set(r(), r(), r());
+			ClosestPoint3D_F32.closestPoint(plane, p, p);
+			cloud.add(p.x + g(), p.y + g(), p.z + g());
+		}
+		addOutliers(cloud);
+
+		RansacPointCloud3D_F32<PlaneGeneral3D_F32> alg = RansacPointCloud3D_F32.createPlane(234, 200, threshold);
+		assertTrue(alg.process(cloud));
+
+		PlaneGeneral3D_F32 found = alg.getModel();
+		float m = (float)Math.sqrt(found.A*found.A + found.B*found.B + found.C*found.C);
+		float sign = found.D*plane.D < 0 ? -1 : 1;
+		assertEquals(plane.A/n, sign*found.A/m, 0.02f);
+		assertEquals(plane.B/n, sign*found.B/m, 0.02f);
+		assertEquals(plane.C/n, sign*found.C/m, 0.02f);
+		assertEquals(plane.D/n, sign*found.D/m, 0.02f);
+
+		checkInliers(cloud, alg.getInliers());
+	}
+
+	@Test
+	public void sphere() {
+		Sphere3D_F32 sphere = new Sphere3D_F32(0.1f,-0.2f,0.3f,1);
+
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		for( int i = 0; i < numInliers; i++ ) {
+			Point3D_F32 p = TestFitSphereToPoints_F32.createPt(sphere,
+					rand.nextFloat()*GrlConstants.F_PI2, rand.nextFloat()*GrlConstants.F_PI2);
+			cloud.add(p.x + g(), p.y + g(), p.z + g());
+		}
+		addOutliers(cloud);
+
+		RansacPointCloud3D_F32<Sphere3D_F32> alg = RansacPointCloud3D_F32.createSphere(234, 200, threshold);
+		assertTrue(alg.process(cloud));
+
+		Sphere3D_F32 found = alg.getModel();
+		assertEquals(0, sphere.center.distance(found.center), 0.02f);
+		assertEquals(sphere.radius, found.radius, 0.02f);
+
+		checkInliers(cloud, alg.getInliers());
+	}
+
+	@Test
+	public void cylinder() {
+		Cylinder3D_F32 cylinder = new Cylinder3D_F32(0.1f,0.2f,-0.1f,0.5f,1,2,1);
+
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		PointCloud3D_F32 normals = new PointCloud3D_F32();
+		Point3D_F32 c = new Point3D_F32();
+		for( int i = 0; i < numInliers; i++ ) {
+			Point3D_F32 p = TestFitCylinderToPoints_F32.createPt(cylinder,
+					rand.nextFloat()*2-1, rand.nextFloat()*GrlConstants.F_PI2);
+			ClosestPoint3D_F32.closestPoint(cylinder.line, p, c);
+			cloud.add(p.x + g(), p.y + g(), p.z + g());
+			normals.add(p.x - c.x + g(), p.y - c.y + g(), p.z - c.z);
+		}
+		for( int i = 0; i < numOutliers; i++ ) {
+			cloud.add(r(), r(), r());
+			normals.add(r(), r(), r());
+		}
+
+		RansacPointCloud3D_F32<Cylinder3D_F32> alg = RansacPointCloud3D_F32.createCylinder(234, 200, threshold);
+		assertTrue(alg.process(cloud, normals));
+
+		// The refined cylinder has fewer inliers than the hypothesis, which came from three noisy oriented points,
+		// so it's only accurate to within the threshold
+		Cylinder3D_F32 found = alg.getModel();
+		assertEquals(cylinder.radius, found.radius, threshold);
+		assertEquals(0, Distance3D_F32.distance(found.line, cylinder.line.p), threshold);
+		Point3D_F32 q = cylinder.line.getPointOnLine(1);
+		assertEquals(0, Distance3D_F32.distance(found.line, q), threshold);
+
+		checkInliers(cloud, alg.getInliers());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void cylinder_noNormals() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		addOutliers(cloud);
+
+		RansacPointCloud3D_F32.createCylinder(234, 200, threshold).process(cloud);
+	}
+
+	/**
+	 * The same results should be found no matter how many threads are used
+	 */
+	@Test
+	public void deterministic() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		for( int i = 0; i < 1000; i++ ) {
+			cloud.add(r(), r(), (float)(0.1f*rand.nextGaussian()));
+		}
+
+		RansacPointCloud3D_F32<PlaneGeneral3D_F32> alg = RansacPointCloud3D_F32.createPlane(234, 500, threshold);
+		alg.setConcurrent(false);
+		assertTrue(alg.process(cloud));
+		PlaneGeneral3D_F32 expected = new PlaneGeneral3D_F32(alg.getModel());
+		int[] expectedInliers = copy(alg.getInliers());
+
+		ForkJoinPool original = ConcurrencyOps.getPool();
+		try {
+			for( int threads = 1; threads <= 8; threads *= 2 ) {
+				ForkJoinPool pool = new ForkJoinPool(threads);
+				ConcurrencyOps.setPool(pool);
+				for( int trial = 0; trial < 3; trial++ ) {
+					alg = RansacPointCloud3D_F32.createPlane(234, 500, threshold);
+					assertTrue(alg.isConcurrent());
+					assertTrue(alg.process(cloud));
+
+					PlaneGeneral3D_F32 found = alg.getModel();
+					assertEquals(expected.A, found.A, 0);
+					assertEquals(expected.B, found.B, 0);
+					assertEquals(expected.C, found.C, 0);
+					assertEquals(expected.D, found.D, 0);
+					assertArrayEquals(expectedInliers, copy(alg.getInliers()));
+				}
+				pool.shutdown();
+			}
+		} finally {
+			ConcurrencyOps.setPool(original);
+		}
+
+		// a different seed should produce a different result
+		alg = RansacPointCloud3D_F32.createPlane(235, 500, threshold);
+		assertTrue(alg.process(cloud));
+		assertTrue(expected.A != alg.getModel().A);
+	}
+
+	/**
+	 * A refined model with fewer inliers than the hypothesis should be discarded
+	 */
+	@Test
+	public void refine_worse() {
+		PlaneGeneral3D_F32 plane = new PlaneGeneral3D_F32(1,2,-0.5f,0.3f);
+
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		Point3D_F32 p = new Point3D_F32();
+		for( int i = 0; i < numInliers; i++ ) {
+			p.set(r(), r(), r());
+			ClosestPoint3D_F32.closestPoint(plane, p, p);
+			cloud.add(p.x + g(), p.y + g(), p.z + g());
+		}
+		addOutliers(cloud);
+
+		RansacPointCloud3D_F32<PlaneGeneral3D_F32> alg = RansacPointCloud3D_F32.createPlane(234, 200, threshold);
+		alg.fitter = null;
+		assertTrue(alg.process(cloud));
+		PlaneGeneral3D_F32 expected = new PlaneGeneral3D_F32();
+		expected.set(alg.getModel());
+		int[] expectedInliers = copy(alg.getInliers());
+
+		// shifts the plane so that it has no inliers
+		alg.fitter = new ModelFitter<PlaneGeneral3D_F32,Point3D_F32>() {
+			@Override
+			public boolean fitModel(List<Point3D_F32> dataSet, PlaneGeneral3D_F32 initial,
+									PlaneGeneral3D_F32 found) {
+				found.set(initial.A, initial.B, initial.C, initial.D + 100);
+				return true;
+			}
+		};
+		assertTrue(alg.process(cloud));
+
+		PlaneGeneral3D_F32 found = alg.getModel();
+		assertEquals(expected.A, found.A, 0);
+		assertEquals(expected.B, found.B, 0);
+		assertEquals(expected.C, found.C, 0);
+		assertEquals(expected.D, found.D, 0);
+		assertArrayEquals(expectedInliers, copy(alg.getInliers()));
+	}
+
+	/**
+	 * Points which aren't finite should be ignored
+	 */
+	@Test
+	public void sphere_nonFinite() {
+		Sphere3D_F32 sphere = new Sphere3D_F32(0.1f,-0.2f,0.3f,1);
+
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		for( int i = 0; i < numInliers; i++ ) {
+			Point3D_F32 p = TestFitSphereToPoints_F32.createPt(sphere,
+					rand.nextFloat()*GrlConstants.F_PI2, rand.nextFloat()*GrlConstants.F_PI2);
+			cloud.add(p.x + g(), p.y + g(), p.z + g());
+		}
+		addOutliers(cloud);
+		cloud.add(Float.NaN, 0, 0);
+		cloud.add(0, Float.POSITIVE_INFINITY, 0);
+
+		RansacPointCloud3D_F32<Sphere3D_F32> alg = RansacPointCloud3D_F32.createSphere(234, 200, threshold);
+		assertTrue(alg.process(cloud));
+
+		// the refined sphere has fewer inliers so the hypothesis is kept, which is only accurate to the threshold
+		Sphere3D_F32 found = alg.getModel();
+		assertEquals(0, sphere.center.distance(found.center), threshold);
+		assertEquals(sphere.radius, found.radius, threshold);
+
+		GrowQueue_I32 inliers = alg.getInliers();
+		assertTrue(inliers.get(inliers.size-1) < cloud.size - 2);
+		checkInliers(cloud, inliers);
+	}
+
+	/**
+	 * If every point is NaN then no shape can be found
+	 */
+	@Test
+	public void allNaN() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		for( int i = 0; i < 20; i++ ) {
+			cloud.add(Float.NaN, Float.NaN, Float.NaN);
+		}
+
+		assertFalse(RansacPointCloud3D_F32.createSphere(234, 50, threshold).process(cloud));
+		assertFalse(RansacPointCloud3D_F32.createPlane(234, 50, threshold).process(cloud));
+	}
+
+	/**
+	 * The fitter should not be called when there are fewer inliers than it needs
+	 */
+	@Test
+	public void refine_tooFewInliers() {
+		PlaneGeneral3D_F32 plane = new PlaneGeneral3D_F32(1,2,-0.5f,0.3f);
+
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		Point3D_F32 p = new Point3D_F32();
+		for( int i = 0; i < 5; i++ ) {
+			p.set(r(), r(), r());
+			ClosestPoint3D_F32.closestPoint(plane, p, p);
+			cloud.add(p);
+		}
+
+		RansacPointCloud3D_F32<PlaneGeneral3D_F32> alg = RansacPointCloud3D_F32.createPlane(234, 20, threshold);
+		alg.minimumFit = 6;
+		alg.fitter = new ModelFitter<PlaneGeneral3D_F32,Point3D_F32>() {
+			@Override
+			public boolean fitModel(List<Point3D_F32> dataSet, PlaneGeneral3D_F32 initial,
+									PlaneGeneral3D_F32 found) {
+				fail("The fitter should not be called");
+				return false;
+			}
+		};
+		assertTrue(alg.process(cloud));
+		assertEquals(5, alg.getInliers().size);
+	}
+
+	@Test
+	public void tooFewPoints() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		cloud.add(1,2,3);
+		cloud.add(2,2,3);
+
+		RansacPointCloud3D_F32<PlaneGeneral3D_F32> alg = RansacPointCloud3D_F32.createPlane(234, 100, threshold);
+		assertFalse(alg.process(cloud));
+		assertEquals(0, alg.getInliers().size);
+	}
+
+	/**
+	 * Checks to see that most of the true inliers were found and few of the outliers
+	 */
+	private void checkInliers( PointCloud3D_F32 cloud , GrowQueue_I32 inliers ) {
+		int truePositive = 0;
+		for( int i = 0; i < inliers.size; i++ ) {
+			if( inliers.get(i) < numInliers )
+				truePositive++;
+		}
+		assertTrue(truePositive >= numInliers*0.95f);
+		assertTrue(inliers.size - truePositive <= numOutliers*0.2f);
+	}
+
+	private void addOutliers( PointCloud3D_F32 cloud ) {
+		for( int i = 0; i < numOutliers; i++ ) {
+			cloud.add(r(), r(), r());
+		}
+	}
+
+	private static int[] copy( GrowQueue_I32 queue ) {
+		int[] ret = new int[queue.size];
+		System.arraycopy(queue.data, 0, ret, 0, queue.size);
+		return ret;
+	}
+
+	private float g() {
+		return (float)(noise*rand.nextGaussian());
+	}
+
+	private float r() {
+		return (float)(rand.nextFloat()*4.0f-2.0f);
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting;
+
+import georegression.misc.GrlConstants;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRobustKernelHuber_F64 {
+	@Test
+	public void weight() {
+		RobustKernelHuber_F64 alg = new RobustKernelHuber_F64(2);
+
+		assertEquals(1, alg.weight(0), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(1, alg.weight(1.5), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(1, alg.weight(2), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(0.5, alg.weight(4), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(0.02, alg.weight(100), GrlConstants.DOUBLE_TEST_TOL);
+	}
+}
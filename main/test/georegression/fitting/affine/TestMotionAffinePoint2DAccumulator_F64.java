@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.affine;
+
+import georegression.geometry.UtilPoint2D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.affine.Affine2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.PointCloud2D_F64;
+import georegression.transform.affine.AffinePointOps_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionAffinePoint2DAccumulator_F64 {
+
+	Random rand = new Random(234);
+
+	Affine2D_F64 tran = new Affine2D_F64(2, -4, 0.3, 1.1, 0.93, -3);
+
+	List<Point2D_F64> src;
+	List<Point2D_F64> dst = new ArrayList<Point2D_F64>();
+
+	/**
+	 * Creates noisy points far from the origin
+	 */
+	private void createPoints( int N , double sigma ) {
+		src = UtilPoint2D_F64.random(-10, 10, N, rand);
+		for( Point2D_F64 p : src ) {
+			p.x += 100;
+		}
+		dst.clear();
+		for( Point2D_F64 p : src ) {
+			dst.add(AffinePointOps_F64.transform(tran, p, null));
+		}
+		UtilPoint2D_F64.noiseNormal(dst, sigma, rand);
+	}
+
+	@Test
+	public void noiseless() {
+		createPoints(30, 0);
+
+		MotionAffinePoint2DAccumulator_F64 alg = new MotionAffinePoint2DAccumulator_F64();
+		assertTrue(alg.process(src, dst));
+
+		Affine2D_F64 found = alg.getTransformSrcToDst();
+		assertEquals(tran.a11, found.a11, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(tran.a12, found.a12, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(tran.a21, found.a21, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(tran.a22, found.a22, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(tran.tx, found.tx, GrlConstants.DOUBLE_TEST_TOL*100);
+		assertEquals(tran.ty, found.ty, GrlConstants.DOUBLE_TEST_TOL*100);
+
+		// minimal set
+		createPoints(3, 0);
+		assertTrue(alg.process(src, dst));
+		TestMotionAffinePoint2D_F64.checkTransform(src, dst, alg.getTransformSrcToDst(), GrlConstants.DOUBLE_TEST_TOL*100);
+	}
+
+	@Test
+	public void process_cloud() {
+		createPoints(30, 0.5);
+
+		MotionAffinePoint2DAccumulator_F64 alg = new MotionAffinePoint2DAccumulator_F64();
+		assertTrue(alg.process(new PointCloud2D_F64(src), new PointCloud2D_F64(dst)));
+		check(src, dst, alg);
+	}
+
+	@Test
+	public void add() {
+		createPoints(30, 0.5);
+
+		MotionAffinePoint2DAccumulator_F64 alg = new MotionAffinePoint2DAccumulator_F64();
+		for( int i = 0; i < src.size(); i++ ) {
+			alg.add(src.get(i), dst.get(i));
+		}
+		assertEquals(30, alg.getCount());
+
+		check(src, dst, alg);
+	}
+
+	@Test
+	public void remove() {
+		createPoints(30, 0.5);
+
+		MotionAffinePoint2DAccumulator_F64 alg = new MotionAffinePoint2DAccumulator_F64();
+		alg.addAll(src, dst);
+
+		for( int i = 0; i < 10; i++ ) {
+			alg.remove(src.remove(3), dst.remove(3));
+		}
+		assertEquals(20, alg.getCount());
+
+		check(src, dst, alg);
+	}
+
+	@Test
+	public void remove_all() {
+		createPoints(4, 0.5);
+
+		MotionAffinePoint2DAccumulator_F64 alg = new MotionAffinePoint2DAccumulator_F64();
+		alg.addAll(src, dst);
+		for( int i = 0; i < 4; i++ ) {
+			alg.remove(src.get(i), dst.get(i));
+		}
+		assertEquals(0, alg.getCount());
+		assertFalse(alg.computeMotion(new Affine2D_F64()));
+
+		// it should work just like new
+		createPoints(10, 0.5);
+		alg.addAll(src, dst);
+		check(src, dst, alg);
+	}
+
+	@Test
+	public void merge() {
+		createPoints(30, 0.5);
+
+		MotionAffinePoint2DAccumulator_F64 a = new MotionAffinePoint2DAccumulator_F64();
+		MotionAffinePoint2DAccumulator_F64 b = new MotionAffinePoint2DAccumulator_F64();
+		MotionAffinePoint2DAccumulator_F64 c = new MotionAffinePoint2DAccumulator_F64();
+
+		a.addAll(src.subList(0, 12), dst.subList(0, 12));
+		b.addAll(src.subList(12, 30), dst.subList(12, 30));
+
+		// merging into an empty accumulator
+		c.merge(a);
+		c.merge(b);
+		assertEquals(30, c.getCount());
+		check(src, dst, c);
+
+		// merging an empty accumulator should do nothing
+		c.merge(new MotionAffinePoint2DAccumulator_F64());
+		check(src, dst, c);
+	}
+
+	@Test
+	public void computeMotion_tooFew() {
+		createPoints(2, 0.5);
+
+		MotionAffinePoint2DAccumulator_F64 alg = new MotionAffinePoint2DAccumulator_F64();
+		alg.addAll(src, dst);
+		assertFalse(alg.computeMotion(new Affine2D_F64()));
+	}
+
+	@Test
+	public void computeMotion_collinear() {
+		src = new ArrayList<Point2D_F64>();
+		dst.clear();
+		for( int i = 0; i < 10; i++ ) {
+			src.add(new Point2D_F64(i + 100, 2*i - 5));
+			dst.add(AffinePointOps_F64.transform(tran, src.get(i), null));
+		}
+
+		MotionAffinePoint2DAccumulator_F64 alg = new MotionAffinePoint2DAccumulator_F64();
+		assertFalse(alg.process(src, dst));
+	}
+
+	/**
+	 * Compares the statistics and found motion against processing all the points at once
+	 */
+	private void check( List<Point2D_F64> src , List<Point2D_F64> dst , MotionAffinePoint2DAccumulator_F64 alg ) {
+		MotionAffinePoint2D_F64 expected = new MotionAffinePoint2D_F64();
+		assertTrue(expected.process(src, dst));
+
+		assertEquals(src.size(), alg.getCount());
+		Point2D_F64 meanSrc = UtilPoint2D_F64.mean(src, null);
+		Point2D_F64 meanDst = UtilPoint2D_F64.mean(dst, null);
+		assertTrue(meanSrc.isIdentical(alg.getMeanSrc(), GrlConstants.DOUBLE_TEST_TOL));
+		assertTrue(meanDst.isIdentical(alg.getMeanDst(), GrlConstants.DOUBLE_TEST_TOL));
+
+		Affine2D_F64 found = new Affine2D_F64();
+		assertTrue(alg.computeMotion(found));
+
+		Affine2D_F64 a = expected.getTransformSrcToDst();
+		double tol = GrlConstants.DOUBLE_TEST_TOL*100;
+		assertEquals(a.a11, found.a11, tol);
+		assertEquals(a.a12, found.a12, tol);
+		assertEquals(a.a21, found.a21, tol);
+		assertEquals(a.a22, found.a22, tol);
+		assertEquals(a.tx, found.tx, tol*100);
+		assertEquals(a.ty, found.ty, tol*100);
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCylinderToPointResidual_F32 {
+
+	/**/double param[] = new /**/double[]{1,2,3,0,0,2,4};
+
+	List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+
+	public TestCylinderToPointResidual_F32() {
+		// inside, should be negative
+		points.add(new Point3D_F32(1.1f,1.95f,4.2f));
+		// outside, should be positive
+		points.add(new Point3D_F32(0.96f,-2.2f,3.001f));
+		points.add(new Point3D_F32(5.2f,2.05f,3.1f));
+		// on the axis
+		points.add(new Point3D_F32(1,2,5));
+	}
+
+	/**
+	 * Compare against the functions which compute all the residuals and the full Jacobian
+	 */
+	@Test
+	public void compareToFunctionAndJacobian() {
+		CylinderToPointResidual_F32 alg = new CylinderToPointResidual_F32();
+
+		alg.setPoints(points);
+		check(alg);
+
+		alg.setPoints(new PointCloud3D_F32(points));
+		check(alg);
+	}
+
+	private void check( CylinderToPointResidual_F32 alg ) {
+		CylinderToPointSignedDistance_F32 function = new CylinderToPointSignedDistance_F32();
+		CylinderToPointSignedDistanceJacobian_F32 jacobian = new CylinderToPointSignedDistanceJacobian_F32();
+		function.setPoints(points);
+		jacobian.setPoints(points);
+
+		int N = 7;
+		/**/double expectedR[] = new /**/double[points.size()];
+		/**/double expectedJ[] = new /**/double[points.size()*N];
+		function.process(param, expectedR);
+		jacobian.process(param, expectedJ);
+
+		/**/double gradient[] = new /**/double[N];
+		alg.setParameters(param);
+		for( int i = 0; i < points.size(); i++ ) {
+			assertEquals(expectedR[i], alg.computeResidual(i), GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(expectedR[i], alg.computeResidual(i, gradient), GrlConstants.FLOAT_TEST_TOL);
+			for( int j = 0; j < N; j++ ) {
+				assertEquals(expectedJ[i*N+j], gradient[j], GrlConstants.FLOAT_TEST_TOL);
+			}
+		}
+	}
+
+	/**
+	 * The gradient is undefined for points exactly on the axis.  Only the radius should be adjusted.
+	 */
+	@Test
+	public void pointOnAxis() {
+		CylinderToPointResidual_F32 alg = new CylinderToPointResidual_F32();
+		alg.setPoints(points);
+		alg.setParameters(param);
+
+		/**/double gradient[] = new /**/double[7];
+		assertEquals(-4, alg.computeResidual(3, gradient), GrlConstants.FLOAT_TEST_TOL);
+		for( int j = 0; j < 6; j++ ) {
+			assertEquals(0, gradient[j], 0);
+		}
+		assertEquals(-1, gradient[6], 0);
+	}
+
+	@Test
+	public void getN_and_getM() {
+		CylinderToPointResidual_F32 alg = new CylinderToPointResidual_F32();
+		alg.setPoints(points);
+
+		assertEquals(7,alg.getNumOfInputsN());
+		assertEquals(points.size(), alg.getNumOfPoints());
+
+		alg.setPoints(new PointCloud3D_F32(points));
+		assertEquals(points.size(), alg.getNumOfPoints());
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static georegression.fitting.cylinder.TestFitCylinderToPoints_F32.checkEquivalent;
+import static georegression.fitting.cylinder.TestFitCylinderToPoints_F32.createPt;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFitCylinderToPointsLM_F32 {
+
+	Random rand = new Random(234);
+
+	Cylinder3D_F32 cylinder = new Cylinder3D_F32(1,2,3,0,0,1,2.5f);
+
+	@Test
+	public void perfectModel() {
+		List<Point3D_F32> points = createPoints(50);
+
+		FitCylinderToPointsLM_F32 alg = new FitCylinderToPointsLM_F32(200);
+
+		Cylinder3D_F32 found = new Cylinder3D_F32();
+		assertTrue(alg.fitModel(points, cylinder, found));
+
+		checkEquivalent(cylinder,found);
+	}
+
+	@Test
+	public void perfectWithBadInitialModel() {
+		List<Point3D_F32> points = createPoints(50);
+
+		FitCylinderToPointsLM_F32 alg = new FitCylinderToPointsLM_F32(200);
+
+		// make the initial model a bit off
+		Cylinder3D_F32 initial = new Cylinder3D_F32(0.95f,2.1f,3.05f,0.05f,-0.001f,1.05f,2.6f);
+		Cylinder3D_F32 found = new Cylinder3D_F32();
+		assertTrue(alg.fitModel(points, initial, found));
+
+		checkEquivalent(cylinder, found);
+	}
+
+	@Test
+	public void pointCloud() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32(createPoints(50));
+
+		FitCylinderToPointsLM_F32 alg = new FitCylinderToPointsLM_F32(200);
+
+		Cylinder3D_F32 initial = new Cylinder3D_F32(0.95f,2.1f,3.05f,0.05f,-0.001f,1.05f,2.6f);
+		Cylinder3D_F32 found = new Cylinder3D_F32();
+		assertTrue(alg.fitModel(cloud, initial, found));
+
+		checkEquivalent(cylinder, found);
+	}
+
+	/**
+	 * If it runs out of iterations before converging it should return false
+	 */
+	@Test
+	public void maxIterations() {
+		List<Point3D_F32> points = createPoints(50);
+
+		FitCylinderToPointsLM_F32 alg = new FitCylinderToPointsLM_F32(1);
+
+		Cylinder3D_F32 initial = new Cylinder3D_F32(0.95f,2.1f,3.05f,0.05f,-0.001f,1.05f,2.6f);
+		Cylinder3D_F32 found = new Cylinder3D_F32();
+		assertFalse(alg.fitModel(points, initial, found));
+	}
+
+	private List<Point3D_F32> createPoints( int N ) {
+		List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+		for( int i = 0; i < N; i++ ) {
+
+			float H = (rand.nextFloat()-0.5f)*4.0f;
+			float theta = rand.nextFloat()*GrlConstants.F_PI2;
+
+			points.add(createPt(cylinder,H,theta));
+		}
+		return points;
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.metric.ClosestPoint3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.plane.PlaneNormal3D_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.Vector3D_F32;
+import georegression.struct.shapes.Cylinder3D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static georegression.fitting.cylinder.TestFitCylinderToPoints_F32.createPt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGenerateCylinder3D_F32 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void perfect() {
+		Cylinder3D_F32 cylinder = new Cylinder3D_F32(1,2,3,0.2f,-0.1f,1,2.5f);
+		GenerateCylinder3D_F32 alg = new GenerateCylinder3D_F32();
+
+		for( int trial = 0; trial < 20; trial++ ) {
+			// keep the normals well separated so that the solution is well conditioned
+			float theta0 = rand.nextFloat()*GrlConstants.F_PI2;
+			float theta1 = theta0 + 0.5f + rand.nextFloat()*2.0f;
+
+			List<PlaneNormal3D_F32> points = new ArrayList<PlaneNormal3D_F32>();
+			points.add(createOriented(cylinder, (rand.nextFloat()-0.5f)*4.0f, theta0));
+			points.add(createOriented(cylinder, (rand.nextFloat()-0.5f)*4.0f, theta1));
+
+			Cylinder3D_F32 found = new Cylinder3D_F32();
+			assertTrue(alg.generate(points, found));
+
+			assertEquals(1, found.line.slope.norm(), GrlConstants.FLOAT_TEST_TOL);
+			checkEquivalent(cylinder, found);
+		}
+	}
+
+	/**
+	 * The normals don't have a length of one and point inwards
+	 */
+	@Test
+	public void unnormalized() {
+		Cylinder3D_F32 cylinder = new Cylinder3D_F32(1,2,3,0,0,1,2.5f);
+
+		PlaneNormal3D_F32 a = createOriented(cylinder, 0.5f, 0.1f);
+		PlaneNormal3D_F32 b = createOriented(cylinder, -1.2f, 2.0f);
+		a.n.scale(-3);
+		b.n.scale(0.2f);
+
+		Cylinder3D_F32 found = new Cylinder3D_F32();
+		assertTrue(new GenerateCylinder3D_F32().process(a.p, a.n, b.p, b.n, found));
+		checkEquivalent(cylinder, found);
+	}
+
+	@Test
+	public void parallelNormals() {
+		Cylinder3D_F32 cylinder = new Cylinder3D_F32(1,2,3,0,0,1,2.5f);
+
+		PlaneNormal3D_F32 a = createOriented(cylinder, 0.5f, 0.1f);
+		PlaneNormal3D_F32 b = createOriented(cylinder, -1.2f, 0.1f);
+
+		assertFalse(new GenerateCylinder3D_F32().process(a.p, a.n, b.p, b.n, new Cylinder3D_F32()));
+	}
+
+	@Test
+	public void nonFinite() {
+		Cylinder3D_F32 cylinder = new Cylinder3D_F32(1,2,3,0,0,1,2.5f);
+		GenerateCylinder3D_F32 alg = new GenerateCylinder3D_F32();
+
+		PlaneNormal3D_F32 a = createOriented(cylinder, 0.5f, 0.1f);
+		PlaneNormal3D_F32 b = createOriented(cylinder, -1.2f, 2.0f);
+
+		b.p.y = Float.NaN;
+		assertFalse(alg.process(a.p, a.n, b.p, b.n, new Cylinder3D_F32()));
+		b.p.y = Float.POSITIVE_INFINITY;
+		assertFalse(alg.process(a.p, a.n, b.p, b.n, new Cylinder3D_F32()));
+		b.p.y = 0;
+		b.n.x = Float.NaN;
+		assertFalse(alg.process(a.p, a.n, b.p, b.n, new Cylinder3D_F32()));
+		a.p.z = Float.POSITIVE_INFINITY;
+		assertFalse(alg.process(a.p, a.n, b.p, b.n, new Cylinder3D_F32()));
+	}
+
+	@Test
+	public void getMinimumPoints() {
+		assertEquals(2, new GenerateCylinder3D_F32().getMinimumPoints());
+	}
+
+	/**
+	 * Compares the slopes using the cross product, which is better conditioned than the angle near zero
+	 */
+	private void checkEquivalent( Cylinder3D_F32 a , Cylinder3D_F32 b ) {
+		assertEquals(a.radius, b.radius, GrlConstants.FLOAT_TEST_TOL);
+
+		// Distance3D_F32.distance(line,point) isn't accurate enough when the distance is close to zero
+		Point3D_F32 closest = ClosestPoint3D_F32.closestPoint(a.line, b.line.p, null);
+		assertEquals(0, closest.distance(b.line.p), GrlConstants.FLOAT_TEST_TOL);
+
+		Vector3D_F32 cross = a.line.slope.cross(b.line.slope);
+		assertEquals(0, cross.norm()/(a.line.slope.norm()*b.line.slope.norm()), GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	/**
+	 * Creates a point on the cylinder and its outwards pointing normal
+	 */
+	private PlaneNormal3D_F32 createOriented( Cylinder3D_F32 cylinder , float h , float theta ) {
+		Point3D_F32 p = createPt(cylinder, h, theta);
+		Point3D_F32 onAxis = ClosestPoint3D_F32.closestPoint(cylinder.line, p, null);
+
+		Vector3D_F32 n = new Vector3D_F32(onAxis, p);
+		n.normalize();
+
+		return new PlaneNormal3D_F32(p, n);
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.cylinder;
+
+import georegression.fitting.GeneralScoreInliers3DTests_F64;
+import georegression.fitting.ScoreInliers3D_F64;
+import georegression.metric.Distance3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.Cylinder3D_F64;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestScoreInliersCylinder3D_F64 extends GeneralScoreInliers3DTests_F64<Cylinder3D_F64> {
+
+	@Override
+	public ScoreInliers3D_F64<Cylinder3D_F64> createAlg() {
+		return new ScoreInliersCylinder3D_F64();
+	}
+
+	@Override
+	public Cylinder3D_F64 createModel() {
+		return new Cylinder3D_F64(0.1,0.2,-0.1,0.5,1,2,1);
+	}
+
+	@Override
+	public double distance( Cylinder3D_F64 model, Point3D_F64 point ) {
+		return Distance3D_F64.distance(model, point);
+	}
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.struct.plane.PlaneGeneral3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestExtractPlanesPointCloud3D_F32 {
+
+	Random rand = new Random(234);
+
+	float noise = 0.01f;
+	int pointsPerPlane = 2000;
+
+	/**
+	 * Floor and two walls of a room plus outliers
+	 */
+	@Test
+	public void room() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		// z = 0
+		for( int i = 0; i < pointsPerPlane; i++ )
+			cloud.add(r(4), r(4), g());
+		// x = 0
+		for( int i = 0; i < pointsPerPlane; i++ )
+			cloud.add(g(), r(4), r(4));
+		// y = 4
+		for( int i = 0; i < pointsPerPlane; i++ )
+			cloud.add(r(4), g() + 4, r(4));
+		// outliers
+		for( int i = 0; i < 300; i++ )
+			cloud.add(r(4), r(4), r(4));
+
+		ExtractPlanesPointCloud3D_F32 alg = new ExtractPlanesPointCloud3D_F32(0.5f, 0.05f, 500);
+		assertEquals(3, alg.process(cloud));
+
+		checkPlane(alg, cloud, 0, 0, 0, 1, 0);
+		checkPlane(alg, cloud, 1, 1, 0, 0, 0);
+		checkPlane(alg, cloud, 2, 0, 1, 0, 4);
+		checkLabels(alg, cloud);
+	}
+
+	/**
+	 * Two patches on the same plane which are far apart are found as separate planes
+	 */
+	@Test
+	public void disconnected() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		for( int i = 0; i < pointsPerPlane; i++ )
+			cloud.add(r(2), r(2), g());
+		for( int i = 0; i < pointsPerPlane; i++ )
+			cloud.add(r(2) + 10, r(2), g());
+
+		ExtractPlanesPointCloud3D_F32 alg = new ExtractPlanesPointCloud3D_F32(0.5f, 0.05f, 500);
+		assertEquals(2, alg.process(cloud));
+
+		checkPlane(alg, cloud, 0, 0, 0, 1, 0);
+		checkPlane(alg, cloud, 1, 0, 0, 1, 0);
+		checkLabels(alg, cloud);
+
+		// each plane should contain one patch
+		for( int i = 0; i < 2; i++ ) {
+			GrowQueue_I32 inliers = alg.getInliers().get(i);
+			boolean first = inliers.get(0) < pointsPerPlane;
+			for( int j = 0; j < inliers.size; j++ ) {
+				assertEquals(first, inliers.get(j) < pointsPerPlane);
+			}
+		}
+	}
+
+	@Test
+	public void maxPlanes() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		for( int i = 0; i < pointsPerPlane; i++ )
+			cloud.add(r(4), r(4), g());
+		for( int i = 0; i < pointsPerPlane; i++ )
+			cloud.add(g(), r(4), r(4));
+
+		ExtractPlanesPointCloud3D_F32 alg = new ExtractPlanesPointCloud3D_F32(0.5f, 0.05f, 500);
+		alg.setMaxPlanes(1);
+		assertEquals(1, alg.process(cloud));
+		assertEquals(1, alg.getInliers().size);
+		checkLabels(alg, cloud);
+	}
+
+	/**
+	 * Planes which are too small are ignored
+	 */
+	@Test
+	public void minPlanePoints() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		for( int i = 0; i < 400; i++ )
+			cloud.add(r(4), r(4), g());
+
+		ExtractPlanesPointCloud3D_F32 alg = new ExtractPlanesPointCloud3D_F32(0.5f, 0.05f, 500);
+		assertEquals(0, alg.process(cloud));
+		checkLabels(alg, cloud);
+
+		alg = new ExtractPlanesPointCloud3D_F32(0.5f, 0.05f, 300);
+		assertEquals(1, alg.process(cloud));
+	}
+
+	@Test
+	public void emptyCloud() {
+		ExtractPlanesPointCloud3D_F32 alg = new ExtractPlanesPointCloud3D_F32(0.5f, 0.05f, 500);
+		assertEquals(0, alg.process(new PointCloud3D_F32()));
+	}
+
+	/**
+	 * Cell coordinates can't be packed if the cloud is too wide for the cell size
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void tooLarge() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		cloud.add(0, 0, 0);
+		cloud.add(0, 0.5f*ExtractPlanesPointCloud3D_F32.MAX_CELLS, 0);
+
+		ExtractPlanesPointCloud3D_F32 alg = new ExtractPlanesPointCloud3D_F32(0.5f, 0.05f, 500);
+		alg.process(cloud);
+	}
+
+	/**
+	 * Points in the first and last cell along an axis shouldn't be confused with each other's neighbors
+	 */
+	@Test
+	public void largestCloud() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		cloud.add(0, 0, 0);
+		cloud.add(0, 0.5f*ExtractPlanesPointCloud3D_F32.MAX_CELLS - 0.25f, 0);
+
+		ExtractPlanesPointCloud3D_F32 alg = new ExtractPlanesPointCloud3D_F32(0.5f, 0.05f, 500);
+		assertEquals(0, alg.process(cloud));
+	}
+
+	/**
+	 * Calling it multiple times produces the same results
+	 */
+	@Test
+	public void repeatable() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		for( int i = 0; i < pointsPerPlane; i++ )
+			cloud.add(r(4), r(4), g());
+		for( int i = 0; i < pointsPerPlane; i++ )
+			cloud.add(g(), r(4), r(4));
+
+		ExtractPlanesPointCloud3D_F32 alg = new ExtractPlanesPointCloud3D_F32(0.5f, 0.05f, 500);
+		assertEquals(2, alg.process(cloud));
+		PlaneGeneral3D_F32 expected = new PlaneGeneral3D_F32(alg.getPlanes().get(1));
+		int expectedSize = alg.getInliers().get(1).size;
+
+		assertEquals(2, alg.process(cloud));
+		assertEquals(expected.A, alg.getPlanes().get(1).A, 0);
+		assertEquals(expected.D, alg.getPlanes().get(1).D, 0);
+		assertEquals(expectedSize, alg.getInliers().get(1).size);
+	}
+
+	/**
+	 * Makes sure one of the found planes matches the expected plane and that most of the points generated
+	 * on it are inliers
+	 */
+	private void checkPlane( ExtractPlanesPointCloud3D_F32 alg , PointCloud3D_F32 cloud ,
+							 int which , float A , float B , float C , float D ) {
+		int start = which*pointsPerPlane;
+
+		for( int i = 0; i < alg.getPlanes().size; i++ ) {
+			PlaneGeneral3D_F32 p = alg.getPlanes().get(i);
+			float sign = p.A*A + p.B*B + p.C*C < 0 ? -1 : 1;
+			if( (float)Math.abs(sign*p.A-A) > 0.02f || (float)Math.abs(sign*p.B-B) > 0.02f || (float)Math.abs(sign*p.C-C) > 0.02f ||
+					(float)Math.abs(sign*p.D-D) > 0.02f )
+				continue;
+
+			// most of the points should be inliers
+			int count = 0;
+			for( int j = start; j < start + pointsPerPlane; j++ ) {
+				if( alg.getLabels()[j] == i )
+					count++;
+			}
+			if( count >= pointsPerPlane*0.9f )
+				return;
+		}
+		assertTrue("No match for plane "+which, false);
+	}
+
+	private void checkLabels( ExtractPlanesPointCloud3D_F32 alg , PointCloud3D_F32 cloud ) {
+		int[] labels = alg.getLabels();
+		int total = 0;
+		for( int i = 0; i < alg.getInliers().size; i++ ) {
+			GrowQueue_I32 inliers = alg.getInliers().get(i);
+			assertTrue(inliers.size >= alg.getMinPlanePoints());
+			for( int j = 0; j < inliers.size; j++ ) {
+				assertEquals(i, labels[inliers.get(j)]);
+				if( j > 0 )
+					assertTrue(inliers.get(j-1) < inliers.get(j));
+			}
+			total += inliers.size;
+		}
+
+		int labeled = 0;
+		for( int i = 0; i < cloud.size; i++ ) {
+			if( labels[i] >= 0 )
+				labeled++;
+		}
+		assertEquals(total, labeled);
+	}
+
+	private float r( float width ) {
+		return (float)(rand.nextFloat()*width);
+	}
+
+	private float g() {
+		return (float)(noise*rand.nextGaussian());
+	}
+}
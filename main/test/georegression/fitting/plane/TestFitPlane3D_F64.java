@@ -20,6 +20,7 @@ package georegression.fitting.plane;
 
 import georegression.misc.GrlConstants;
 import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
 import georegression.struct.point.Vector3D_F64;
 import org.junit.Test;
 
@@ -28,6 +29,7 @@ import java.util.List;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -82,6 +84,39 @@ public class TestFitPlane3D_F64 {
 		assertEquals(0, Math.abs(dot) - 1, GrlConstants.DOUBLE_TEST_TOL);
 	}
 
+	@Test
+	public void svd_cloud() {
+		createCloud();
+
+		Point3D_F64 expectedCenter = new Point3D_F64();
+		Vector3D_F64 expectedNorm = new Vector3D_F64();
+		Point3D_F64 foundCenter = new Point3D_F64();
+		Vector3D_F64 foundNorm = new Vector3D_F64();
+
+		FitPlane3D_F64 alg = new FitPlane3D_F64();
+
+		assertTrue(alg.svd(cloud, expectedCenter, expectedNorm));
+		assertTrue(alg.svd(new PointCloud3D_F64(cloud), foundCenter, foundNorm));
+
+		assertEquals(0, expectedCenter.distance(foundCenter), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(0, expectedNorm.distance(foundNorm), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Test
+	public void svdPoint_cloud() {
+		createCloud();
+
+		Vector3D_F64 expectedNorm = new Vector3D_F64();
+		Vector3D_F64 foundNorm = new Vector3D_F64();
+
+		FitPlane3D_F64 alg = new FitPlane3D_F64();
+
+		assertTrue(alg.svdPoint(cloud, cloud.get(10), expectedNorm));
+		assertTrue(alg.svdPoint(new PointCloud3D_F64(cloud), cloud.get(10), foundNorm));
+
+		assertEquals(0, expectedNorm.distance(foundNorm), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
 	private void createCloud() {
 		// define a plane and its coordinate system
 		axisX = new Vector3D_F64(1,2,3);
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.metric.Distance3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.plane.PlaneGeneral3D_F32;
+import georegression.struct.point.Point3D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFitPlaneGeneral3D_F32 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void perfect() {
+		PlaneGeneral3D_F32 plane = new PlaneGeneral3D_F32(1,2,-0.5f,0.3f);
+
+		List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+		for( int i = 0; i < 20; i++ ) {
+			float x = (float)rand.nextGaussian();
+			float y = (float)rand.nextGaussian();
+			// solve for z
+			float z = (plane.D - plane.A*x - plane.B*y)/plane.C;
+			points.add(new Point3D_F32(x,y,z));
+		}
+
+		FitPlaneGeneral3D_F32 alg = new FitPlaneGeneral3D_F32();
+		PlaneGeneral3D_F32 found = new PlaneGeneral3D_F32();
+		assertTrue(alg.fitModel(points, null, found));
+
+		for( Point3D_F32 p : points ) {
+			assertEquals(0, Distance3D_F32.distance(found, p), GrlConstants.FLOAT_TEST_TOL);
+		}
+		// the normal should be normalized
+		assertEquals(1, found.A*found.A + found.B*found.B + found.C*found.C, GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Test
+	public void tooFewPoints() {
+		List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+		points.add(new Point3D_F32(1,2,3));
+		points.add(new Point3D_F32(2,2,3));
+
+		assertFalse(new FitPlaneGeneral3D_F32().fitModel(points, null, new PlaneGeneral3D_F32()));
+	}
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.Matrix3x3_F64;
+import georegression.struct.plane.PlaneNormal3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFitPlaneStream3D_F64 {
+
+	Random rand = new Random(234);
+
+	Vector3D_F64 axisX,axisY,axisZ;
+	Point3D_F64 center;
+	List<Point3D_F64> cloud;
+
+	@Test
+	public void add_single() {
+		createCloud(0);
+
+		FitPlaneStream3D_F64 alg = new FitPlaneStream3D_F64();
+		for( Point3D_F64 p : cloud ) {
+			alg.add(p);
+		}
+		assertEquals(cloud.size(), alg.getCount());
+
+		PlaneNormal3D_F64 found = new PlaneNormal3D_F64();
+		assertTrue(alg.computePlane(found));
+
+		// see if the found center is on the plane
+		assertEquals(0,
+				(found.p.x-center.x)*axisZ.x +
+				(found.p.y-center.y)*axisZ.y +
+				(found.p.z-center.z)*axisZ.z,
+				GrlConstants.DOUBLE_TEST_TOL);
+
+		assertEquals(1, found.n.norm(), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(0, Math.abs(found.n.dot(axisZ)) - 1, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Test
+	public void add_chunk() {
+		createCloud(0.1);
+
+		FitPlaneStream3D_F64 expected = new FitPlaneStream3D_F64();
+		for( Point3D_F64 p : cloud ) {
+			expected.add(p);
+		}
+
+		PointCloud3D_F64 packed = new PointCloud3D_F64(cloud);
+		FitPlaneStream3D_F64 alg = new FitPlaneStream3D_F64();
+		alg.add(packed.x, packed.y, packed.z, 0, 30);
+		alg.add(packed.x, packed.y, packed.z, 30, 0);
+		alg.add(packed.x, packed.y, packed.z, 30, 70);
+		checkIdentical(expected, alg);
+
+		alg.reset();
+		alg.add(packed);
+		checkIdentical(expected, alg);
+	}
+
+	@Test
+	public void compareToSvd() {
+		createCloud(0.2);
+
+		Point3D_F64 expectedCenter = new Point3D_F64();
+		Vector3D_F64 expectedNorm = new Vector3D_F64();
+		assertTrue(new FitPlane3D_F64().svd(cloud, expectedCenter, expectedNorm));
+		expectedNorm.normalize();
+
+		FitPlaneStream3D_F64 alg = new FitPlaneStream3D_F64();
+		for( Point3D_F64 p : cloud ) {
+			alg.add(p);
+		}
+		PlaneNormal3D_F64 found = new PlaneNormal3D_F64();
+		assertTrue(alg.computePlane(found));
+
+		assertEquals(0, expectedCenter.distance(found.p), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(0, Math.abs(found.n.dot(expectedNorm)) - 1, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Test
+	public void merge() {
+		createCloud(0.1);
+
+		FitPlaneStream3D_F64 expected = new FitPlaneStream3D_F64();
+		FitPlaneStream3D_F64 a = new FitPlaneStream3D_F64();
+		FitPlaneStream3D_F64 b = new FitPlaneStream3D_F64();
+		for( int i = 0; i < cloud.size(); i++ ) {
+			expected.add(cloud.get(i));
+			if( i < 40 )
+				a.add(cloud.get(i));
+			else
+				b.add(cloud.get(i));
+		}
+
+		FitPlaneStream3D_F64 alg = new FitPlaneStream3D_F64();
+		alg.merge(a);
+		alg.merge(new FitPlaneStream3D_F64());
+		alg.merge(b);
+		checkIdentical(expected, alg);
+	}
+
+	@Test
+	public void getCovariance() {
+		createCloud(0.1);
+
+		FitPlaneStream3D_F64 alg = new FitPlaneStream3D_F64();
+		for( Point3D_F64 p : cloud ) {
+			alg.add(p);
+		}
+
+		Point3D_F64 mean = alg.getMean(null);
+		Matrix3x3_F64 found = alg.getCovariance(null);
+
+		double xx = 0, xy = 0, zz = 0;
+		for( Point3D_F64 p : cloud ) {
+			xx += (p.x - mean.x)*(p.x - mean.x);
+			xy += (p.x - mean.x)*(p.y - mean.y);
+			zz += (p.z - mean.z)*(p.z - mean.z);
+		}
+		int N = cloud.size();
+		assertEquals(xx/N, found.a11, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(xy/N, found.a12, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(xy/N, found.a21, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(zz/N, found.a33, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Test
+	public void computePlane_tooFew() {
+		FitPlaneStream3D_F64 alg = new FitPlaneStream3D_F64();
+		alg.add(1, 2, 3);
+		alg.add(2, 2, 3);
+
+		assertFalse(alg.computePlane(new PlaneNormal3D_F64()));
+	}
+
+	@Test
+	public void computePlane_collinear() {
+		FitPlaneStream3D_F64 alg = new FitPlaneStream3D_F64();
+		for( int i = 0; i < 20; i++ ) {
+			alg.add(200 + i, -100 + 2*i, 50 - 0.5*i);
+		}
+		assertFalse(alg.computePlane(new PlaneNormal3D_F64()));
+
+		// moving a single point off the line makes it a plane
+		alg.add(200, -90, 50);
+		assertTrue(alg.computePlane(new PlaneNormal3D_F64()));
+	}
+
+	@Test
+	public void computePlane_identical() {
+		FitPlaneStream3D_F64 alg = new FitPlaneStream3D_F64();
+		for( int i = 0; i < 10; i++ ) {
+			alg.add(1, 2, 3);
+		}
+		assertFalse(alg.computePlane(new PlaneNormal3D_F64()));
+	}
+
+	@Test
+	public void computePlane_nonFinite() {
+		FitPlaneStream3D_F64 alg = new FitPlaneStream3D_F64();
+		alg.add(1, 2, 3);
+		alg.add(2, 2, 3);
+		alg.add(1, 5, 3);
+		assertTrue(alg.computePlane(new PlaneNormal3D_F64()));
+
+		alg.add(Double.NaN, 5, 3);
+		assertFalse(alg.computePlane(new PlaneNormal3D_F64()));
+	}
+
+	private void checkIdentical( FitPlaneStream3D_F64 expected , FitPlaneStream3D_F64 found ) {
+		assertEquals(expected.getCount(), found.getCount());
+		assertEquals(0, expected.getMean(null).distance(found.getMean(null)), GrlConstants.DOUBLE_TEST_TOL);
+
+		Matrix3x3_F64 a = expected.getCovariance(null);
+		Matrix3x3_F64 b = found.getCovariance(null);
+		assertEquals(a.a11, b.a11, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(a.a12, b.a12, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(a.a13, b.a13, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(a.a22, b.a22, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(a.a23, b.a23, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(a.a33, b.a33, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	/**
+	 * Creates points on a plane which is far from the origin
+	 */
+	private void createCloud( double noise ) {
+		// define a plane and its coordinate system
+		axisX = new Vector3D_F64(1,2,3);
+		axisY = new Vector3D_F64(3,-2,1);
+		axisZ = axisX.cross(axisY);
+
+		axisX.normalize();
+		axisZ.normalize();
+		axisY = axisX.cross(axisZ);
+
+		center = new Point3D_F64(200,-100,50);
+
+		// randomly generate points on the plane
+		cloud = new ArrayList<Point3D_F64>();
+		for( int i = 0; i < 100; i++ ) {
+			double x = rand.nextGaussian()*5;
+			double y = rand.nextGaussian()*5;
+			double z = rand.nextGaussian()*noise;
+
+			Point3D_F64 p = new Point3D_F64();
+			p.x = center.x + x*axisX.x + y*axisY.x + z*axisZ.x;
+			p.y = center.y + x*axisX.y + y*axisY.y + z*axisZ.y;
+			p.z = center.z + x*axisX.z + y*axisY.z + z*axisZ.z;
+
+			cloud.add(p);
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.plane;
+
+import georegression.metric.Distance3D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.plane.PlaneGeneral3D_F64;
+import georegression.struct.point.Point3D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGeneratePlaneGeneral3D_F64 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void perfect() {
+		PlaneGeneral3D_F64 plane = new PlaneGeneral3D_F64(0.5,-1,2,3);
+		GeneratePlaneGeneral3D_F64 alg = new GeneratePlaneGeneral3D_F64();
+
+		for( int trial = 0; trial < 20; trial++ ) {
+			List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+			for( int i = 0; i < 3; i++ ) {
+				double x = rand.nextGaussian();
+				double y = rand.nextGaussian();
+				double z = (plane.D - plane.A*x - plane.B*y)/plane.C;
+				points.add(new Point3D_F64(x,y,z));
+			}
+
+			PlaneGeneral3D_F64 found = new PlaneGeneral3D_F64();
+			assertTrue(alg.generate(points, found));
+
+			// Hessian normal form
+			assertEquals(1, found.A*found.A + found.B*found.B + found.C*found.C, GrlConstants.DOUBLE_TEST_TOL);
+
+			for( Point3D_F64 p : points ) {
+				assertEquals(0, Distance3D_F64.distance(found, p), GrlConstants.DOUBLE_TEST_TOL);
+			}
+
+			// should be the same plane up to a scale factor
+			Point3D_F64 other = new Point3D_F64(1, 2, (plane.D - plane.A - plane.B*2)/plane.C);
+			assertEquals(0, Distance3D_F64.distance(found, other), GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void collinear() {
+		GeneratePlaneGeneral3D_F64 alg = new GeneratePlaneGeneral3D_F64();
+
+		Point3D_F64 a = new Point3D_F64(1,2,3);
+		Point3D_F64 b = new Point3D_F64(2,4,6);
+		Point3D_F64 c = new Point3D_F64(3,6,9);
+
+		assertFalse(alg.process(a, b, c, new PlaneGeneral3D_F64()));
+		assertFalse(alg.process(a, a, c, new PlaneGeneral3D_F64()));
+	}
+
+	@Test
+	public void nonFinite() {
+		GeneratePlaneGeneral3D_F64 alg = new GeneratePlaneGeneral3D_F64();
+
+		Point3D_F64 a = new Point3D_F64(1,2,3);
+		Point3D_F64 b = new Point3D_F64(2,2,3);
+		Point3D_F64 c = new Point3D_F64(1,5,3);
+		assertTrue(alg.process(a, b, c, new PlaneGeneral3D_F64()));
+
+		c.x = Double.NaN;
+		assertFalse(alg.process(a, b, c, new PlaneGeneral3D_F64()));
+		c.x = Double.NEGATIVE_INFINITY;
+		assertFalse(alg.process(a, b, c, new PlaneGeneral3D_F64()));
+	}
+
+	@Test
+	public void getMinimumPoints() {
+		assertEquals(3, new GeneratePlaneGeneral3D_F64().getMinimumPoints());
+	}
+}
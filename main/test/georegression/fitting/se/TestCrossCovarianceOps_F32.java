@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.Matrix3x3_F32;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCrossCovarianceOps_F32 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void compute_list() {
+		List<Point3D_F32> src = UtilPoint3D_F32.random(-10, 10, 20, rand);
+		List<Point3D_F32> dst = UtilPoint3D_F32.random(-10, 10, 20, rand);
+
+		Point3D_F32 meanSrc = new Point3D_F32();
+		Point3D_F32 meanDst = new Point3D_F32();
+		Matrix3x3_F32 Sigma = new Matrix3x3_F32();
+		CrossCovarianceOps_F32.compute(src, dst, meanSrc, meanDst, Sigma);
+
+		check(src, dst, 0, src.size(), meanSrc, meanDst, Sigma);
+	}
+
+	@Test
+	public void compute_cloud() {
+		List<Point3D_F32> src = UtilPoint3D_F32.random(-10, 10, 20, rand);
+		List<Point3D_F32> dst = UtilPoint3D_F32.random(-10, 10, 20, rand);
+
+		Point3D_F32 meanSrc = new Point3D_F32();
+		Point3D_F32 meanDst = new Point3D_F32();
+		Matrix3x3_F32 Sigma = new Matrix3x3_F32();
+		CrossCovarianceOps_F32.compute(new PointCloud3D_F32(src), new PointCloud3D_F32(dst), 5, 13,
+				meanSrc, meanDst, Sigma);
+
+		check(src, dst, 5, 13, meanSrc, meanDst, Sigma);
+	}
+
+	/**
+	 * Points with a weight of zero are ignored and the other points all have the same weight
+	 */
+	@Test
+	public void compute_weighted() {
+		List<Point3D_F32> src = UtilPoint3D_F32.random(-10, 10, 20, rand);
+		List<Point3D_F32> dst = UtilPoint3D_F32.random(-10, 10, 20, rand);
+		float[] weights = new float[src.size()];
+		for( int i = 5; i < 13; i++ )
+			weights[i] = 1;
+
+		Point3D_F32 meanSrc = new Point3D_F32();
+		Point3D_F32 meanDst = new Point3D_F32();
+		Matrix3x3_F32 Sigma = new Matrix3x3_F32();
+
+		assertTrue(CrossCovarianceOps_F32.compute(src, dst, weights, meanSrc, meanDst, Sigma));
+		check(src, dst, 5, 13, meanSrc, meanDst, Sigma);
+
+		assertTrue(CrossCovarianceOps_F32.compute(new PointCloud3D_F32(src), new PointCloud3D_F32(dst), weights,
+				meanSrc, meanDst, Sigma));
+		check(src, dst, 5, 13, meanSrc, meanDst, Sigma);
+
+		Arrays.fill(weights, 0);
+		assertFalse(CrossCovarianceOps_F32.compute(src, dst, weights, meanSrc, meanDst, Sigma));
+		assertFalse(CrossCovarianceOps_F32.compute(new PointCloud3D_F32(src), new PointCloud3D_F32(dst), weights,
+				meanSrc, meanDst, Sigma));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void compute_weighted_negative() {
+		List<Point3D_F32> src = UtilPoint3D_F32.random(-10, 10, 5, rand);
+		float[] weights = new float[]{1, 1, -1, 1, 1};
+
+		CrossCovarianceOps_F32.compute(src, src, weights,
+				new Point3D_F32(), new Point3D_F32(), new Matrix3x3_F32());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void compute_weighted_NaN() {
+		List<Point3D_F32> src = UtilPoint3D_F32.random(-10, 10, 5, rand);
+		float[] weights = new float[]{1, 1, Float.NaN, 1, 1};
+
+		CrossCovarianceOps_F32.compute(new PointCloud3D_F32(src), new PointCloud3D_F32(src), weights,
+				new Point3D_F32(), new Point3D_F32(), new Matrix3x3_F32());
+	}
+
+	/**
+	 * Compares against a straight forward implementation
+	 */
+	private static void check( List<Point3D_F32> src , List<Point3D_F32> dst , int start , int end ,
+							   Point3D_F32 meanSrc , Point3D_F32 meanDst , Matrix3x3_F32 Sigma ) {
+		Point3D_F32 ms = new Point3D_F32();
+		Point3D_F32 md = new Point3D_F32();
+		for( int i = start; i < end; i++ ) {
+			ms.plusIP(src.get(i));
+			md.plusIP(dst.get(i));
+		}
+		ms.timesIP(1.0f/(end - start));
+		md.timesIP(1.0f/(end - start));
+
+		float tol = GrlConstants.FLOAT_TEST_TOL;
+		assertTrue(ms.isIdentical(meanSrc, tol));
+		assertTrue(md.isIdentical(meanDst, tol));
+
+		float[] expected = new float[9];
+		for( int i = start; i < end; i++ ) {
+			for( int row = 0; row < 3; row++ ) {
+				float d = dst.get(i).getIndex(row) - md.getIndex(row);
+				for( int col = 0; col < 3; col++ ) {
+					expected[row*3+col] += d*(src.get(i).getIndex(col) - ms.getIndex(col));
+				}
+			}
+		}
+
+		float[] found = new float[]{
+				Sigma.a11, Sigma.a12, Sigma.a13,
+				Sigma.a21, Sigma.a22, Sigma.a23,
+				Sigma.a31, Sigma.a32, Sigma.a33};
+		for( int i = 0; i < 9; i++ ) {
+			assertEquals(expected[i], found[i], tol*100);
+		}
+	}
+}
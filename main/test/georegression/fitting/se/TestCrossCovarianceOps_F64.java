@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.Matrix3x3_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCrossCovarianceOps_F64 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void compute_list() {
+		List<Point3D_F64> src = UtilPoint3D_F64.random(-10, 10, 20, rand);
+		List<Point3D_F64> dst = UtilPoint3D_F64.random(-10, 10, 20, rand);
+
+		Point3D_F64 meanSrc = new Point3D_F64();
+		Point3D_F64 meanDst = new Point3D_F64();
+		Matrix3x3_F64 Sigma = new Matrix3x3_F64();
+		CrossCovarianceOps_F64.compute(src, dst, meanSrc, meanDst, Sigma);
+
+		check(src, dst, 0, src.size(), meanSrc, meanDst, Sigma);
+	}
+
+	@Test
+	public void compute_cloud() {
+		List<Point3D_F64> src = UtilPoint3D_F64.random(-10, 10, 20, rand);
+		List<Point3D_F64> dst = UtilPoint3D_F64.random(-10, 10, 20, rand);
+
+		Point3D_F64 meanSrc = new Point3D_F64();
+		Point3D_F64 meanDst = new Point3D_F64();
+		Matrix3x3_F64 Sigma = new Matrix3x3_F64();
+		CrossCovarianceOps_F64.compute(new PointCloud3D_F64(src), new PointCloud3D_F64(dst), 5, 13,
+				meanSrc, meanDst, Sigma);
+
+		check(src, dst, 5, 13, meanSrc, meanDst, Sigma);
+	}
+
+	/**
+	 * Points with a weight of zero are ignored and the other points all have the same weight
+	 */
+	@Test
+	public void compute_weighted() {
+		List<Point3D_F64> src = UtilPoint3D_F64.random(-10, 10, 20, rand);
+		List<Point3D_F64> dst = UtilPoint3D_F64.random(-10, 10, 20, rand);
+		double[] weights = new double[src.size()];
+		for( int i = 5; i < 13; i++ )
+			weights[i] = 1;
+
+		Point3D_F64 meanSrc = new Point3D_F64();
+		Point3D_F64 meanDst = new Point3D_F64();
+		Matrix3x3_F64 Sigma = new Matrix3x3_F64();
+
+		assertTrue(CrossCovarianceOps_F64.compute(src, dst, weights, meanSrc, meanDst, Sigma));
+		check(src, dst, 5, 13, meanSrc, meanDst, Sigma);
+
+		assertTrue(CrossCovarianceOps_F64.compute(new PointCloud3D_F64(src), new PointCloud3D_F64(dst), weights,
+				meanSrc, meanDst, Sigma));
+		check(src, dst, 5, 13, meanSrc, meanDst, Sigma);
+
+		Arrays.fill(weights, 0);
+		assertFalse(CrossCovarianceOps_F64.compute(src, dst, weights, meanSrc, meanDst, Sigma));
+		assertFalse(CrossCovarianceOps_F64.compute(new PointCloud3D_F64(src), new PointCloud3D_F64(dst), weights,
+				meanSrc, meanDst, Sigma));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void compute_weighted_negative() {
+		List<Point3D_F64> src = UtilPoint3D_F64.random(-10, 10, 5, rand);
+		double[] weights = new double[]{1, 1, -1, 1, 1};
+
+		CrossCovarianceOps_F64.compute(src, src, weights,
+				new Point3D_F64(), new Point3D_F64(), new Matrix3x3_F64());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void compute_weighted_NaN() {
+		List<Point3D_F64> src = UtilPoint3D_F64.random(-10, 10, 5, rand);
+		double[] weights = new double[]{1, 1, Double.NaN, 1, 1};
+
+		CrossCovarianceOps_F64.compute(new PointCloud3D_F64(src), new PointCloud3D_F64(src), weights,
+				new Point3D_F64(), new Point3D_F64(), new Matrix3x3_F64());
+	}
+
+	/**
+	 * Compares against a straight forward implementation
+	 */
+	private static void check( List<Point3D_F64> src , List<Point3D_F64> dst , int start , int end ,
+							   Point3D_F64 meanSrc , Point3D_F64 meanDst , Matrix3x3_F64 Sigma ) {
+		Point3D_F64 ms = new Point3D_F64();
+		Point3D_F64 md = new Point3D_F64();
+		for( int i = start; i < end; i++ ) {
+			ms.plusIP(src.get(i));
+			md.plusIP(dst.get(i));
+		}
+		ms.timesIP(1.0/(end - start));
+		md.timesIP(1.0/(end - start));
+
+		double tol = GrlConstants.DOUBLE_TEST_TOL;
+		assertTrue(ms.isIdentical(meanSrc, tol));
+		assertTrue(md.isIdentical(meanDst, tol));
+
+		double[] expected = new double[9];
+		for( int i = start; i < end; i++ ) {
+			for( int row = 0; row < 3; row++ ) {
+				double d = dst.get(i).getIndex(row) - md.getIndex(row);
+				for( int col = 0; col < 3; col++ ) {
+					expected[row*3+col] += d*(src.get(i).getIndex(col) - ms.getIndex(col));
+				}
+			}
+		}
+
+		double[] found = new double[]{
+				Sigma.a11, Sigma.a12, Sigma.a13,
+				Sigma.a21, Sigma.a22, Sigma.a23,
+				Sigma.a31, Sigma.a32, Sigma.a33};
+		for( int i = 0; i < 9; i++ ) {
+			assertEquals(expected[i], found[i], tol*100);
+		}
+	}
+}
@@ -25,6 +25,7 @@ import georegression.geometry.UtilPoint3D_F64;
 import georegression.misc.GrlConstants;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
 import georegression.struct.point.Vector3D_F64;
 import georegression.struct.se.Se2_F64;
 import georegression.struct.se.Se3_F64;
@@ -37,6 +38,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 
@@ -98,4 +100,33 @@ public class TestFitSpecialEuclideanOps_F64 {
 		assertTrue( MatrixFeatures.isIdentical( expected.getR() , found.getR() , GrlConstants.DOUBLE_TEST_TOL ));
 		assertTrue( expected.getT().isIdentical(found.getT() , GrlConstants.DOUBLE_TEST_TOL));
 	}
+
+	/**
+	 * Each set in the batch should have the same solution as processing it individually
+	 */
+	@Test
+	public void fitPoints3D_batch() {
+		DenseMatrix64F R = RotationMatrixGenerator.eulerXYZ( 0.1, 1.0, -1.5 , null );
+		Se3_F64 tran = new Se3_F64( R , new Vector3D_F64( 1 , 2 , 3));
+
+		// the middle set has too few points
+		int[] offsets = new int[]{0,6,8,15};
+		List<Point3D_F64> from = UtilPoint3D_F64.random( -10, 10, 15, rand );
+		List<Point3D_F64> to = new ArrayList<Point3D_F64>();
+		for( Point3D_F64 p : from ) {
+			to.add( SePointOps_F64.transform( tran, p, null ) );
+		}
+
+		Se3_F64[] found = FitSpecialEuclideanOps_F64.fitPoints3D(
+				new PointCloud3D_F64(from), new PointCloud3D_F64(to), offsets, 3 );
+
+		assertNull( found[1] );
+		for( int i = 0; i < 3; i += 2 ) {
+			Se3_F64 expected = FitSpecialEuclideanOps_F64.fitPoints3D(
+					from.subList(offsets[i], offsets[i+1]), to.subList(offsets[i], offsets[i+1]) );
+
+			assertTrue( MatrixFeatures.isIdentical( expected.getR() , found[i].getR() , GrlConstants.DOUBLE_TEST_TOL ));
+			assertTrue( expected.getT().isIdentical(found[i].getT() , GrlConstants.DOUBLE_TEST_TOL));
+		}
+	}
 }
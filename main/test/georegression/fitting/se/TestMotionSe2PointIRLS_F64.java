@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.RobustKernelCauchy_F64;
+import georegression.fitting.RobustKernelHuber_F64;
+import georegression.fitting.RobustKernelTukey_F64;
+import georegression.fitting.RobustKernel_F64;
+import georegression.geometry.UtilPoint2D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.se.Se2_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSe2PointIRLS_F64 {
+
+	Random rand = new Random( 434324 );
+
+	Se2_F64 tran = new Se2_F64( 2, -4, 0.93 );
+
+	List<Point2D_F64> src = new ArrayList<Point2D_F64>();
+	List<Point2D_F64> dst = new ArrayList<Point2D_F64>();
+
+	@Test
+	public void noiseless() {
+		src = UtilPoint2D_F64.random( -10, 10, 30, rand );
+		dst = new ArrayList<Point2D_F64>();
+		for( Point2D_F64 p : src ) {
+			dst.add(SePointOps_F64.transform(tran, p, null));
+		}
+
+		MotionSe2PointIRLS_F64 alg = new MotionSe2PointIRLS_F64(new RobustKernelCauchy_F64(0.1), 20);
+		assertTrue( alg.process( src, dst ) );
+
+		TestMotionSe2PointSVD_F64.checkTransform( src, dst, alg.getTransformSrcToDst(), GrlConstants.DOUBLE_TEST_TOL );
+		assertEquals(0, alg.getIterations());
+	}
+
+	@Test
+	public void outliers_huber() {
+		checkOutliers(new RobustKernelHuber_F64(0.1));
+	}
+
+	@Test
+	public void outliers_cauchy() {
+		checkOutliers(new RobustKernelCauchy_F64(0.1));
+	}
+
+	@Test
+	public void outliers_tukey() {
+		checkOutliers(new RobustKernelTukey_F64(1));
+	}
+
+	/**
+	 * A fraction of the points are replaced with random points.  The unweighted solution should be poor while
+	 * the robust solution should be close to the truth
+	 */
+	private void checkOutliers( RobustKernel_F64 kernel ) {
+		createOutliers();
+
+		MotionSe2PointSVD_F64 plain = new MotionSe2PointSVD_F64();
+		assertTrue(plain.process(src, dst));
+		assertTrue(tran.getTranslation().distance(plain.getTransformSrcToDst().getTranslation()) > 0.2);
+
+		MotionSe2PointIRLS_F64 alg = new MotionSe2PointIRLS_F64(kernel, 50);
+		assertTrue(alg.process(src, dst));
+
+		Se2_F64 found = alg.getTransformSrcToDst();
+		assertEquals(tran.getYaw(), found.getYaw(), 0.005);
+		assertEquals(0, tran.getTranslation().distance(found.getTranslation()), 0.05);
+
+		// outliers should have a lower weight than inliers
+		double[] weights = alg.getWeights();
+		for( int i = 0; i < src.size(); i++ ) {
+			if( i % 5 == 0 )
+				assertTrue(weights[i] < 0.5);
+			else
+				assertTrue(weights[i] > 0.5);
+		}
+	}
+
+	private void createOutliers() {
+		src = UtilPoint2D_F64.random( -10, 10, 100, rand );
+		dst = new ArrayList<Point2D_F64>();
+		for( int i = 0; i < src.size(); i++ ) {
+			Point2D_F64 p;
+			if( i % 5 == 0 ) {
+				p = new Point2D_F64(r(), r());
+			} else {
+				p = SePointOps_F64.transform(tran, src.get(i), null);
+			}
+			p.x += (double)(rand.nextGaussian()*0.01);
+			p.y += (double)(rand.nextGaussian()*0.01);
+			dst.add(p);
+		}
+	}
+
+	private double r() {
+		return (double)(rand.nextDouble()*20.0-10.0);
+	}
+}
@@ -27,9 +27,12 @@ import georegression.transform.se.SePointOps_F32;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -61,6 +64,81 @@ public class TestMotionSe2PointSVD_F32 {
 		checkTransform( src, dst, foundSrcToDst, GrlConstants.FLOAT_TEST_TOL );
 	}
 
+	/**
+	 * Scaling all the weights by the same amount should produce the unweighted solution
+	 */
+	@Test
+	public void process_weighted_uniform() {
+		Se2_F32 tran = new Se2_F32( 2, -4, 0.93f );
+
+		List<Point2D_F32> src = UtilPoint2D_F32.random( -10, 10, 30, rand );
+		List<Point2D_F32> dst = new ArrayList<Point2D_F32>();
+		for( Point2D_F32 p : src ) {
+			Point2D_F32 q = SePointOps_F32.transform(tran, p, null);
+			q.x += (float)(rand.nextGaussian()*0.1f);
+			q.y += (float)(rand.nextGaussian()*0.1f);
+			dst.add(q);
+		}
+
+		float[] weights = new float[src.size()];
+		Arrays.fill(weights, 2.5f);
+
+		MotionSe2PointSVD_F32 alg = new MotionSe2PointSVD_F32();
+
+		assertTrue( alg.process( src, dst ) );
+		Se2_F32 expected = alg.getTransformSrcToDst().copy();
+
+		assertTrue( alg.process( src, dst, weights ) );
+		Se2_F32 found = alg.getTransformSrcToDst();
+
+		assertEquals(expected.getX(), found.getX(), GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(expected.getY(), found.getY(), GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(expected.getYaw(), found.getYaw(), GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	/**
+	 * Outliers with a weight of zero should be ignored
+	 */
+	@Test
+	public void process_weighted_zero() {
+		Se2_F32 tran = new Se2_F32( 2, -4, 0.93f );
+
+		List<Point2D_F32> src = UtilPoint2D_F32.random( -10, 10, 30, rand );
+		List<Point2D_F32> dst = new ArrayList<Point2D_F32>();
+		List<Point2D_F32> srcInliers = new ArrayList<Point2D_F32>();
+		List<Point2D_F32> dstInliers = new ArrayList<Point2D_F32>();
+		float[] weights = new float[src.size()];
+		for( int i = 0; i < src.size(); i++ ) {
+			Point2D_F32 p = SePointOps_F32.transform(tran, src.get(i), null);
+			if( i % 3 == 0 ) {
+				p.x += 5;
+			} else {
+				weights[i] = 1;
+				srcInliers.add(src.get(i));
+				dstInliers.add(p);
+			}
+			dst.add(p);
+		}
+
+		MotionSe2PointSVD_F32 alg = new MotionSe2PointSVD_F32();
+
+		assertTrue( alg.process( src, dst, weights ) );
+		checkTransform( srcInliers, dstInliers, alg.getTransformSrcToDst(), GrlConstants.FLOAT_TEST_TOL );
+
+		Arrays.fill(weights, 0);
+		assertFalse( alg.process( src, dst, weights ) );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void process_weighted_negative() {
+		List<Point2D_F32> src = UtilPoint2D_F32.random( -10, 10, 10, rand );
+		float[] weights = new float[src.size()];
+		Arrays.fill(weights, 1);
+		weights[4] = -0.5f;
+
+		new MotionSe2PointSVD_F32().process( src, src, weights );
+	}
+
 	public static void checkTransform( List<Point2D_F32> src, List<Point2D_F32> dst, Se2_F32 foundSrcToDst, float tol ) {
 		Point2D_F32 foundPt = new Point2D_F32();
 		for( int i = 0; i < src.size(); i++ ) {
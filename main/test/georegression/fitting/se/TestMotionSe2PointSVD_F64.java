@@ -27,9 +27,12 @@ import georegression.transform.se.SePointOps_F64;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -61,6 +64,81 @@ public class TestMotionSe2PointSVD_F64 {
 		checkTransform( src, dst, foundSrcToDst, GrlConstants.DOUBLE_TEST_TOL );
 	}
 
+	/**
+	 * Scaling all the weights by the same amount should produce the unweighted solution
+	 */
+	@Test
+	public void process_weighted_uniform() {
+		Se2_F64 tran = new Se2_F64( 2, -4, 0.93 );
+
+		List<Point2D_F64> src = UtilPoint2D_F64.random( -10, 10, 30, rand );
+		List<Point2D_F64> dst = new ArrayList<Point2D_F64>();
+		for( Point2D_F64 p : src ) {
+			Point2D_F64 q = SePointOps_F64.transform(tran, p, null);
+			q.x += (double)(rand.nextGaussian()*0.1);
+			q.y += (double)(rand.nextGaussian()*0.1);
+			dst.add(q);
+		}
+
+		double[] weights = new double[src.size()];
+		Arrays.fill(weights, 2.5);
+
+		MotionSe2PointSVD_F64 alg = new MotionSe2PointSVD_F64();
+
+		assertTrue( alg.process( src, dst ) );
+		Se2_F64 expected = alg.getTransformSrcToDst().copy();
+
+		assertTrue( alg.process( src, dst, weights ) );
+		Se2_F64 found = alg.getTransformSrcToDst();
+
+		assertEquals(expected.getX(), found.getX(), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(expected.getY(), found.getY(), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(expected.getYaw(), found.getYaw(), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	/**
+	 * Outliers with a weight of zero should be ignored
+	 */
+	@Test
+	public void process_weighted_zero() {
+		Se2_F64 tran = new Se2_F64( 2, -4, 0.93 );
+
+		List<Point2D_F64> src = UtilPoint2D_F64.random( -10, 10, 30, rand );
+		List<Point2D_F64> dst = new ArrayList<Point2D_F64>();
+		List<Point2D_F64> srcInliers = new ArrayList<Point2D_F64>();
+		List<Point2D_F64> dstInliers = new ArrayList<Point2D_F64>();
+		double[] weights = new double[src.size()];
+		for( int i = 0; i < src.size(); i++ ) {
+			Point2D_F64 p = SePointOps_F64.transform(tran, src.get(i), null);
+			if( i % 3 == 0 ) {
+				p.x += 5;
+			} else {
+				weights[i] = 1;
+				srcInliers.add(src.get(i));
+				dstInliers.add(p);
+			}
+			dst.add(p);
+		}
+
+		MotionSe2PointSVD_F64 alg = new MotionSe2PointSVD_F64();
+
+		assertTrue( alg.process( src, dst, weights ) );
+		checkTransform( srcInliers, dstInliers, alg.getTransformSrcToDst(), GrlConstants.DOUBLE_TEST_TOL );
+
+		Arrays.fill(weights, 0);
+		assertFalse( alg.process( src, dst, weights ) );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void process_weighted_negative() {
+		List<Point2D_F64> src = UtilPoint2D_F64.random( -10, 10, 10, rand );
+		double[] weights = new double[src.size()];
+		Arrays.fill(weights, 1);
+		weights[4] = -0.5;
+
+		new MotionSe2PointSVD_F64().process( src, src, weights );
+	}
+
 	public static void checkTransform( List<Point2D_F64> src, List<Point2D_F64> dst, Se2_F64 foundSrcToDst, double tol ) {
 		Point2D_F64 foundPt = new Point2D_F64();
 		for( int i = 0; i < src.size(); i++ ) {
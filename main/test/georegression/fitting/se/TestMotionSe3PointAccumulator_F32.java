@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.se.SpecialEuclideanOps_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSe3PointAccumulator_F32 {
+
+	Random rand = new Random(234);
+
+	List<Point3D_F32> src;
+	List<Point3D_F32> dst = new ArrayList<Point3D_F32>();
+
+	/**
+	 * Creates noisy points far from the origin
+	 */
+	private void createPoints( int N ) {
+		float rotX = (float)rand.nextGaussian();
+		float rotY = (float)rand.nextGaussian();
+		float rotZ = (float)rand.nextGaussian();
+		Se3_F32 tran = SpecialEuclideanOps_F32.setEulerXYZ(rotX, rotY, rotZ, 1, -2, 0.5f, null);
+
+		src = UtilPoint3D_F32.random(-10, 10, N, rand);
+		for( Point3D_F32 p : src ) {
+			p.x += 100;
+		}
+		dst.clear();
+		for( Point3D_F32 p : src ) {
+			dst.add(SePointOps_F32.transform(tran, p, null));
+		}
+		UtilPoint3D_F32.noiseNormal(dst, 0.5f, rand);
+	}
+
+	@Test
+	public void add() {
+		createPoints(30);
+
+		MotionSe3PointAccumulator_F32 alg = new MotionSe3PointAccumulator_F32();
+		for( int i = 0; i < src.size(); i++ ) {
+			alg.add(src.get(i), dst.get(i));
+		}
+		assertEquals(30, alg.getCount());
+
+		check(src, dst, alg);
+	}
+
+	@Test
+	public void addAll() {
+		createPoints(30);
+
+		MotionSe3PointAccumulator_F32 alg = new MotionSe3PointAccumulator_F32();
+		alg.addAll(src, dst);
+		check(src, dst, alg);
+
+		alg.reset();
+		alg.addAll(new PointCloud3D_F32(src), new PointCloud3D_F32(dst));
+		check(src, dst, alg);
+	}
+
+	@Test
+	public void remove() {
+		createPoints(30);
+
+		MotionSe3PointAccumulator_F32 alg = new MotionSe3PointAccumulator_F32();
+		alg.addAll(src, dst);
+
+		for( int i = 0; i < 10; i++ ) {
+			alg.remove(src.remove(3), dst.remove(3));
+		}
+		assertEquals(20, alg.getCount());
+
+		check(src, dst, alg);
+	}
+
+	@Test
+	public void remove_all() {
+		createPoints(4);
+
+		MotionSe3PointAccumulator_F32 alg = new MotionSe3PointAccumulator_F32();
+		alg.addAll(src, dst);
+		for( int i = 0; i < 4; i++ ) {
+			alg.remove(src.get(i), dst.get(i));
+		}
+		assertEquals(0, alg.getCount());
+		assertFalse(alg.computeMotion(new Se3_F32()));
+
+		// it should work just like new
+		createPoints(10);
+		alg.addAll(src, dst);
+		check(src, dst, alg);
+	}
+
+	@Test
+	public void merge() {
+		createPoints(30);
+
+		MotionSe3PointAccumulator_F32 a = new MotionSe3PointAccumulator_F32();
+		MotionSe3PointAccumulator_F32 b = new MotionSe3PointAccumulator_F32();
+		MotionSe3PointAccumulator_F32 c = new MotionSe3PointAccumulator_F32();
+
+		a.addAll(src.subList(0, 12), dst.subList(0, 12));
+		b.addAll(src.subList(12, 30), dst.subList(12, 30));
+
+		// merging into an empty accumulator
+		c.merge(a);
+		c.merge(b);
+		assertEquals(30, c.getCount());
+		check(src, dst, c);
+
+		// merging an empty accumulator should do nothing
+		c.merge(new MotionSe3PointAccumulator_F32());
+		check(src, dst, c);
+	}
+
+	@Test
+	public void computeMotion_tooFew() {
+		createPoints(2);
+
+		MotionSe3PointAccumulator_F32 alg = new MotionSe3PointAccumulator_F32();
+		alg.addAll(src, dst);
+		assertFalse(alg.computeMotion(new Se3_F32()));
+	}
+
+	/**
+	 * Compares the statistics and found motion against processing all the points at once
+	 */
+	private void check( List<Point3D_F32> src , List<Point3D_F32> dst , MotionSe3PointAccumulator_F32 alg ) {
+		MotionSe3PointFixedSVD_F32 expected = new MotionSe3PointFixedSVD_F32();
+		assertTrue(expected.process(src, dst));
+
+		assertEquals(src.size(), alg.getCount());
+		assertTrue(expected.meanSrc.isIdentical(alg.getMeanSrc(), GrlConstants.FLOAT_TEST_TOL));
+		assertTrue(expected.meanDst.isIdentical(alg.getMeanDst(), GrlConstants.FLOAT_TEST_TOL));
+
+		Se3_F32 found = new Se3_F32();
+		assertTrue(alg.computeMotion(found));
+
+		Se3_F32 e = expected.getTransformSrcToDst();
+		assertTrue(MatrixFeatures.isIdentical(e.getR(), found.getR(), GrlConstants.FLOAT_TEST_TOL));
+		assertTrue(e.getT().isIdentical(found.getT(), GrlConstants.FLOAT_TEST_TOL));
+	}
+}
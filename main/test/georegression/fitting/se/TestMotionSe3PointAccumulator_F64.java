@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSe3PointAccumulator_F64 {
+
+	Random rand = new Random(234);
+
+	List<Point3D_F64> src;
+	List<Point3D_F64> dst = new ArrayList<Point3D_F64>();
+
+	/**
+	 * Creates noisy points far from the origin
+	 */
+	private void createPoints( int N ) {
+		double rotX = rand.nextGaussian();
+		double rotY = rand.nextGaussian();
+		double rotZ = rand.nextGaussian();
+		Se3_F64 tran = SpecialEuclideanOps_F64.setEulerXYZ(rotX, rotY, rotZ, 1, -2, 0.5, null);
+
+		src = UtilPoint3D_F64.random(-10, 10, N, rand);
+		for( Point3D_F64 p : src ) {
+			p.x += 100;
+		}
+		dst.clear();
+		for( Point3D_F64 p : src ) {
+			dst.add(SePointOps_F64.transform(tran, p, null));
+		}
+		UtilPoint3D_F64.noiseNormal(dst, 0.5, rand);
+	}
+
+	@Test
+	public void add() {
+		createPoints(30);
+
+		MotionSe3PointAccumulator_F64 alg = new MotionSe3PointAccumulator_F64();
+		for( int i = 0; i < src.size(); i++ ) {
+			alg.add(src.get(i), dst.get(i));
+		}
+		assertEquals(30, alg.getCount());
+
+		check(src, dst, alg);
+	}
+
+	@Test
+	public void addAll() {
+		createPoints(30);
+
+		MotionSe3PointAccumulator_F64 alg = new MotionSe3PointAccumulator_F64();
+		alg.addAll(src, dst);
+		check(src, dst, alg);
+
+		alg.reset();
+		alg.addAll(new PointCloud3D_F64(src), new PointCloud3D_F64(dst));
+		check(src, dst, alg);
+	}
+
+	@Test
+	public void remove() {
+		createPoints(30);
+
+		MotionSe3PointAccumulator_F64 alg = new MotionSe3PointAccumulator_F64();
+		alg.addAll(src, dst);
+
+		for( int i = 0; i < 10; i++ ) {
+			alg.remove(src.remove(3), dst.remove(3));
+		}
+		assertEquals(20, alg.getCount());
+
+		check(src, dst, alg);
+	}
+
+	@Test
+	public void remove_all() {
+		createPoints(4);
+
+		MotionSe3PointAccumulator_F64 alg = new MotionSe3PointAccumulator_F64();
+		alg.addAll(src, dst);
+		for( int i = 0; i < 4; i++ ) {
+			alg.remove(src.get(i), dst.get(i));
+		}
+		assertEquals(0, alg.getCount());
+		assertFalse(alg.computeMotion(new Se3_F64()));
+
+		// it should work just like new
+		createPoints(10);
+		alg.addAll(src, dst);
+		check(src, dst, alg);
+	}
+
+	@Test
+	public void merge() {
+		createPoints(30);
+
+		MotionSe3PointAccumulator_F64 a = new MotionSe3PointAccumulator_F64();
+		MotionSe3PointAccumulator_F64 b = new MotionSe3PointAccumulator_F64();
+		MotionSe3PointAccumulator_F64 c = new MotionSe3PointAccumulator_F64();
+
+		a.addAll(src.subList(0, 12), dst.subList(0, 12));
+		b.addAll(src.subList(12, 30), dst.subList(12, 30));
+
+		// merging into an empty accumulator
+		c.merge(a);
+		c.merge(b);
+		assertEquals(30, c.getCount());
+		check(src, dst, c);
+
+		// merging an empty accumulator should do nothing
+		c.merge(new MotionSe3PointAccumulator_F64());
+		check(src, dst, c);
+	}
+
+	@Test
+	public void computeMotion_tooFew() {
+		createPoints(2);
+
+		MotionSe3PointAccumulator_F64 alg = new MotionSe3PointAccumulator_F64();
+		alg.addAll(src, dst);
+		assertFalse(alg.computeMotion(new Se3_F64()));
+	}
+
+	/**
+	 * Compares the statistics and found motion against processing all the points at once
+	 */
+	private void check( List<Point3D_F64> src , List<Point3D_F64> dst , MotionSe3PointAccumulator_F64 alg ) {
+		MotionSe3PointFixedSVD_F64 expected = new MotionSe3PointFixedSVD_F64();
+		assertTrue(expected.process(src, dst));
+
+		assertEquals(src.size(), alg.getCount());
+		assertTrue(expected.meanSrc.isIdentical(alg.getMeanSrc(), GrlConstants.DOUBLE_TEST_TOL));
+		assertTrue(expected.meanDst.isIdentical(alg.getMeanDst(), GrlConstants.DOUBLE_TEST_TOL));
+
+		Se3_F64 found = new Se3_F64();
+		assertTrue(alg.computeMotion(found));
+
+		Se3_F64 e = expected.getTransformSrcToDst();
+		assertTrue(MatrixFeatures.isIdentical(e.getR(), found.getR(), GrlConstants.DOUBLE_TEST_TOL));
+		assertTrue(e.getT().isIdentical(found.getT(), GrlConstants.DOUBLE_TEST_TOL));
+	}
+}
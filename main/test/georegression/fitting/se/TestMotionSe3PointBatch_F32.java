@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.misc.ConcurrencyOps;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.se.SpecialEuclideanOps_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSe3PointBatch_F32 {
+
+	Random rand = new Random(234);
+
+	PointCloud3D_F32 src = new PointCloud3D_F32();
+	PointCloud3D_F32 dst = new PointCloud3D_F32();
+	int[] offsets;
+	Se3_F32[] truth;
+
+	/**
+	 * Creates sets with a different motion for each set.  Some sets have too few points and the others have
+	 * enough points that the solution is well conditioned
+	 */
+	private void createSets( int numSets , float sigma ) {
+		src.reset();
+		dst.reset();
+		offsets = new int[numSets+1];
+		truth = new Se3_F32[numSets];
+
+		for( int i = 0; i < numSets; i++ ) {
+			int N = rand.nextInt(9);
+			if( N >= 3 )
+				N += 2;
+			truth[i] = SpecialEuclideanOps_F32.setEulerXYZ( (float)rand.nextGaussian(), (float)rand.nextGaussian(),
+					(float)rand.nextGaussian(), 1, -2, 0.5f, null);
+
+			List<Point3D_F32> points = UtilPoint3D_F32.random(-1, 1, N, rand);
+			for( Point3D_F32 p : points ) {
+				src.add(p);
+				Point3D_F32 q = SePointOps_F32.transform(truth[i], p, null);
+				q.x += (float)(sigma*rand.nextGaussian());
+				q.y += (float)(sigma*rand.nextGaussian());
+				q.z += (float)(sigma*rand.nextGaussian());
+				dst.add(q);
+			}
+			offsets[i+1] = src.size;
+		}
+	}
+
+	private Se3_F32[] createMotions( int numSets ) {
+		Se3_F32[] motions = new Se3_F32[numSets];
+		for( int i = 0; i < numSets; i++ ) {
+			motions[i] = new Se3_F32();
+		}
+		return motions;
+	}
+
+	@Test
+	public void process() {
+		int numSets = 1000;
+		createSets(numSets, 0);
+
+		Se3_F32[] motions = createMotions(numSets);
+		boolean[] success = new boolean[numSets];
+
+		MotionSe3PointBatch_F32 alg = new MotionSe3PointBatch_F32();
+		alg.setConcurrent(false);
+		int total = alg.process(src, dst, offsets, numSets, motions, success);
+
+		int expectedTotal = 0;
+		for( int i = 0; i < numSets; i++ ) {
+			boolean expected = offsets[i+1]-offsets[i] >= 3;
+			assertEquals(expected, success[i]);
+			if( !expected )
+				continue;
+			expectedTotal++;
+
+			assertTrue(MatrixFeatures.isIdentical(truth[i].getR(), motions[i].getR(), GrlConstants.FLOAT_TEST_TOL));
+			assertTrue(truth[i].getT().isIdentical(motions[i].getT(), GrlConstants.FLOAT_TEST_TOL));
+		}
+		assertEquals(expectedTotal, total);
+	}
+
+	/**
+	 * Should produce the same solution as processing each set with {@link MotionSe3PointFixedSVD_F32}
+	 */
+	@Test
+	public void compareToFixedSVD() {
+		int numSets = 50;
+		createSets(numSets, 0.1f);
+
+		Se3_F32[] motions = createMotions(numSets);
+		boolean[] success = new boolean[numSets];
+
+		MotionSe3PointBatch_F32 alg = new MotionSe3PointBatch_F32();
+		alg.process(src, dst, offsets, numSets, motions, success);
+
+		List<Point3D_F32> listSrc = src.toList(null);
+		List<Point3D_F32> listDst = dst.toList(null);
+		MotionSe3PointFixedSVD_F32 expected = new MotionSe3PointFixedSVD_F32();
+		for( int i = 0; i < numSets; i++ ) {
+			if( !success[i] )
+				continue;
+			assertTrue(expected.process(listSrc.subList(offsets[i], offsets[i+1]), listDst.subList(offsets[i], offsets[i+1])));
+			Se3_F32 e = expected.getTransformSrcToDst();
+
+			assertTrue(MatrixFeatures.isIdentical(e.getR(), motions[i].getR(), GrlConstants.FLOAT_TEST_TOL));
+			assertTrue(e.getT().isIdentical(motions[i].getT(), GrlConstants.FLOAT_TEST_TOL));
+		}
+	}
+
+	/**
+	 * The same results should be found with and without threads
+	 */
+	@Test
+	public void concurrent() {
+		int numSets = MotionSe3PointBatch_F32.BLOCK_SIZE*10 + 5;
+		createSets(numSets, 0);
+
+		Se3_F32[] expected = createMotions(numSets);
+		Se3_F32[] found = createMotions(numSets);
+		boolean[] successExpected = new boolean[numSets];
+		boolean[] successFound = new boolean[numSets];
+
+		MotionSe3PointBatch_F32 alg = new MotionSe3PointBatch_F32();
+		alg.setConcurrent(false);
+		int totalExpected = alg.process(src, dst, offsets, numSets, expected, successExpected);
+
+		alg.setConcurrent(true);
+		int totalFound;
+		ForkJoinPool original = ConcurrencyOps.getPool();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			ConcurrencyOps.setPool(pool);
+			totalFound = alg.process(src, dst, offsets, numSets, found, successFound);
+			// call it again to see if the workspaces are correctly reused
+			totalFound = alg.process(src, dst, offsets, numSets, found, null);
+		} finally {
+			ConcurrencyOps.setPool(original);
+			pool.shutdown();
+		}
+
+		assertEquals(totalExpected, totalFound);
+		for( int i = 0; i < numSets; i++ ) {
+			assertEquals(successExpected[i], successFound[i]);
+			if( !successExpected[i] )
+				continue;
+			assertTrue(MatrixFeatures.isIdentical(expected[i].getR(), found[i].getR(), 0));
+			assertTrue(expected[i].getT().isIdentical(found[i].getT(), 0));
+		}
+	}
+
+	@Test
+	public void process_badOffsets() {
+		createSets(10, 0);
+
+		MotionSe3PointBatch_F32 alg = new MotionSe3PointBatch_F32();
+		offsets[10] = src.size + 1;
+		try {
+			alg.process(src, dst, offsets, 10, createMotions(10), null);
+			fail("Exception expected");
+		} catch( IllegalArgumentException ignore ) {}
+
+		try {
+			alg.process(src, dst, offsets, 11, createMotions(11), null);
+			fail("Exception expected");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.misc.ConcurrencyOps;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSe3PointBatch_F64 {
+
+	Random rand = new Random(234);
+
+	PointCloud3D_F64 src = new PointCloud3D_F64();
+	PointCloud3D_F64 dst = new PointCloud3D_F64();
+	int[] offsets;
+	Se3_F64[] truth;
+
+	/**
+	 * Creates sets with a different motion for each set.  Some sets have too few points and the others have
+	 * enough points that the solution is well conditioned
+	 */
+	private void createSets( int numSets , double sigma ) {
+		src.reset();
+		dst.reset();
+		offsets = new int[numSets+1];
+		truth = new Se3_F64[numSets];
+
+		for( int i = 0; i < numSets; i++ ) {
+			int N = rand.nextInt(9);
+			if( N >= 3 )
+				N += 2;
+			truth[i] = SpecialEuclideanOps_F64.setEulerXYZ( rand.nextGaussian(), rand.nextGaussian(),
+					rand.nextGaussian(), 1, -2, 0.5, null);
+
+			List<Point3D_F64> points = UtilPoint3D_F64.random(-1, 1, N, rand);
+			for( Point3D_F64 p : points ) {
+				src.add(p);
+				Point3D_F64 q = SePointOps_F64.transform(truth[i], p, null);
+				q.x += (double)(sigma*rand.nextGaussian());
+				q.y += (double)(sigma*rand.nextGaussian());
+				q.z += (double)(sigma*rand.nextGaussian());
+				dst.add(q);
+			}
+			offsets[i+1] = src.size;
+		}
+	}
+
+	private Se3_F64[] createMotions( int numSets ) {
+		Se3_F64[] motions = new Se3_F64[numSets];
+		for( int i = 0; i < numSets; i++ ) {
+			motions[i] = new Se3_F64();
+		}
+		return motions;
+	}
+
+	@Test
+	public void process() {
+		int numSets = 1000;
+		createSets(numSets, 0);
+
+		Se3_F64[] motions = createMotions(numSets);
+		boolean[] success = new boolean[numSets];
+
+		MotionSe3PointBatch_F64 alg = new MotionSe3PointBatch_F64();
+		alg.setConcurrent(false);
+		int total = alg.process(src, dst, offsets, numSets, motions, success);
+
+		int expectedTotal = 0;
+		for( int i = 0; i < numSets; i++ ) {
+			boolean expected = offsets[i+1]-offsets[i] >= 3;
+			assertEquals(expected, success[i]);
+			if( !expected )
+				continue;
+			expectedTotal++;
+
+			assertTrue(MatrixFeatures.isIdentical(truth[i].getR(), motions[i].getR(), GrlConstants.DOUBLE_TEST_TOL));
+			assertTrue(truth[i].getT().isIdentical(motions[i].getT(), GrlConstants.DOUBLE_TEST_TOL));
+		}
+		assertEquals(expectedTotal, total);
+	}
+
+	/**
+	 * Should produce the same solution as processing each set with {@link MotionSe3PointFixedSVD_F64}
+	 */
+	@Test
+	public void compareToFixedSVD() {
+		int numSets = 50;
+		createSets(numSets, 0.1);
+
+		Se3_F64[] motions = createMotions(numSets);
+		boolean[] success = new boolean[numSets];
+
+		MotionSe3PointBatch_F64 alg = new MotionSe3PointBatch_F64();
+		alg.process(src, dst, offsets, numSets, motions, success);
+
+		List<Point3D_F64> listSrc = src.toList(null);
+		List<Point3D_F64> listDst = dst.toList(null);
+		MotionSe3PointFixedSVD_F64 expected = new MotionSe3PointFixedSVD_F64();
+		for( int i = 0; i < numSets; i++ ) {
+			if( !success[i] )
+				continue;
+			assertTrue(expected.process(listSrc.subList(offsets[i], offsets[i+1]), listDst.subList(offsets[i], offsets[i+1])));
+			Se3_F64 e = expected.getTransformSrcToDst();
+
+			assertTrue(MatrixFeatures.isIdentical(e.getR(), motions[i].getR(), GrlConstants.DOUBLE_TEST_TOL));
+			assertTrue(e.getT().isIdentical(motions[i].getT(), GrlConstants.DOUBLE_TEST_TOL));
+		}
+	}
+
+	/**
+	 * The same results should be found with and without threads
+	 */
+	@Test
+	public void concurrent() {
+		int numSets = MotionSe3PointBatch_F64.BLOCK_SIZE*10 + 5;
+		createSets(numSets, 0);
+
+		Se3_F64[] expected = createMotions(numSets);
+		Se3_F64[] found = createMotions(numSets);
+		boolean[] successExpected = new boolean[numSets];
+		boolean[] successFound = new boolean[numSets];
+
+		MotionSe3PointBatch_F64 alg = new MotionSe3PointBatch_F64();
+		alg.setConcurrent(false);
+		int totalExpected = alg.process(src, dst, offsets, numSets, expected, successExpected);
+
+		alg.setConcurrent(true);
+		int totalFound;
+		ForkJoinPool original = ConcurrencyOps.getPool();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			ConcurrencyOps.setPool(pool);
+			totalFound = alg.process(src, dst, offsets, numSets, found, successFound);
+			// call it again to see if the workspaces are correctly reused
+			totalFound = alg.process(src, dst, offsets, numSets, found, null);
+		} finally {
+			ConcurrencyOps.setPool(original);
+			pool.shutdown();
+		}
+
+		assertEquals(totalExpected, totalFound);
+		for( int i = 0; i < numSets; i++ ) {
+			assertEquals(successExpected[i], successFound[i]);
+			if( !successExpected[i] )
+				continue;
+			assertTrue(MatrixFeatures.isIdentical(expected[i].getR(), found[i].getR(), 0));
+			assertTrue(expected[i].getT().isIdentical(found[i].getT(), 0));
+		}
+	}
+
+	@Test
+	public void process_badOffsets() {
+		createSets(10, 0);
+
+		MotionSe3PointBatch_F64 alg = new MotionSe3PointBatch_F64();
+		offsets[10] = src.size + 1;
+		try {
+			alg.process(src, dst, offsets, 10, createMotions(10), null);
+			fail("Exception expected");
+		} catch( IllegalArgumentException ignore ) {}
+
+		try {
+			alg.process(src, dst, offsets, 11, createMotions(11), null);
+			fail("Exception expected");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+}
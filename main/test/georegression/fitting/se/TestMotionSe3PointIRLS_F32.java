@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.fitting.RobustKernelCauchy_F32;
+import georegression.fitting.RobustKernelHuber_F32;
+import georegression.fitting.RobustKernelTukey_F32;
+import georegression.fitting.RobustKernel_F32;
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.se.SpecialEuclideanOps_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSe3PointIRLS_F32 extends GeneralMotionSe3Tests_F32 {
+
+	Se3_F32 tran = SpecialEuclideanOps_F32.setEulerXYZ(0.1f, -0.2f, 0.05f, 1, -2, 0.5f, null);
+
+	List<Point3D_F32> src = new ArrayList<Point3D_F32>();
+	List<Point3D_F32> dst = new ArrayList<Point3D_F32>();
+
+	@Override
+	MotionTransformPoint<Se3_F32, Point3D_F32> createAlg() {
+		return new MotionSe3PointIRLS_F32(new RobustKernelCauchy_F32(0.5f), 20);
+	}
+
+	@Test
+	public void outliers_huber() {
+		checkOutliers(new RobustKernelHuber_F32(0.1f));
+	}
+
+	@Test
+	public void outliers_cauchy() {
+		checkOutliers(new RobustKernelCauchy_F32(0.1f));
+	}
+
+	@Test
+	public void outliers_tukey() {
+		checkOutliers(new RobustKernelTukey_F32(1));
+	}
+
+	/**
+	 * A fraction of the points are replaced with random points.  The unweighted solution should be poor while
+	 * the robust solution should be close to the truth
+	 */
+	private void checkOutliers( RobustKernel_F32 kernel ) {
+		createOutliers();
+
+		MotionSe3PointSVD_F32 plain = new MotionSe3PointSVD_F32();
+		assertTrue(plain.process(src, dst));
+		assertTrue(tran.getT().distance(plain.getTransformSrcToDst().getT()) > 0.2f);
+
+		MotionSe3PointIRLS_F32 alg = new MotionSe3PointIRLS_F32(kernel, 50);
+		assertTrue(alg.process(src, dst));
+
+		Se3_F32 found = alg.getTransformSrcToDst();
+		assertTrue(MatrixFeatures.isIdentical(tran.getR(), found.getR(), 0.005f));
+		assertEquals(0, tran.getT().distance(found.getT()), 0.05f);
+
+		// outliers should have a lower weight than inliers
+		float[] weights = alg.getWeights();
+		for( int i = 0; i < src.size(); i++ ) {
+			if( i % 5 == 0 )
+				assertTrue(weights[i] < 0.5f);
+			else
+				assertTrue(weights[i] > 0.5f);
+		}
+	}
+
+	/**
+	 * Clouds and lists should produce the same results
+	 */
+	@Test
+	public void process_cloud() {
+		createOutliers();
+
+		MotionSe3PointIRLS_F32 alg = new MotionSe3PointIRLS_F32(new RobustKernelCauchy_F32(0.1f), 20);
+
+		assertTrue(alg.process(src, dst));
+		Se3_F32 expected = alg.getTransformSrcToDst().copy();
+		int iterations = alg.getIterations();
+
+		assertTrue(alg.process(new PointCloud3D_F32(src), new PointCloud3D_F32(dst)));
+		Se3_F32 found = alg.getTransformSrcToDst();
+
+		assertTrue(MatrixFeatures.isIdentical(expected.getR(), found.getR(), GrlConstants.FLOAT_TEST_TOL));
+		assertTrue(expected.getT().isIdentical(found.getT(), GrlConstants.FLOAT_TEST_TOL));
+		assertEquals(iterations, alg.getIterations());
+	}
+
+	/**
+	 * Stops after the weights have converged or the maximum number of iterations
+	 */
+	@Test
+	public void iterations() {
+		createOutliers();
+
+		MotionSe3PointIRLS_F32 alg = new MotionSe3PointIRLS_F32(new RobustKernelCauchy_F32(0.1f), 100);
+		assertTrue(alg.process(src, dst));
+		assertTrue(alg.getIterations() > 0 && alg.getIterations() < 100);
+
+		alg.setMaxIterations(2);
+		assertTrue(alg.process(src, dst));
+		assertEquals(2, alg.getIterations());
+
+		alg.setMaxIterations(0);
+		assertTrue(alg.process(src, dst));
+		assertEquals(0, alg.getIterations());
+	}
+
+	private void createOutliers() {
+		src = UtilPoint3D_F32.random(-10, 10, 100, rand);
+		dst = new ArrayList<Point3D_F32>();
+		for( int i = 0; i < src.size(); i++ ) {
+			if( i % 5 == 0 ) {
+				dst.add(new Point3D_F32(r(), r(), r()));
+			} else {
+				dst.add(SePointOps_F32.transform(tran, src.get(i), null));
+			}
+		}
+		UtilPoint3D_F32.noiseNormal(dst, 0.01f, rand);
+	}
+
+	private float r() {
+		return (float)(rand.nextFloat()*20.0f-10.0f);
+	}
+}
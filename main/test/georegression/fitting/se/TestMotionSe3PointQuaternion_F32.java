@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.se.Se3_F32;
+import georegression.struct.se.SpecialEuclideanOps_F32;
+import georegression.transform.se.SePointOps_F32;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSe3PointQuaternion_F32 extends GeneralMotionSe3Tests_F32 {
+
+	@Override
+	MotionTransformPoint<Se3_F32, Point3D_F32> createAlg() {
+		return new MotionSe3PointQuaternion_F32();
+	}
+
+	/**
+	 * Compare against the general purpose SVD implementation when there is noise
+	 */
+	@Test
+	public void compareToSVD() {
+		for( int trial = 0; trial < 20; trial++ ) {
+			float rotX = (float)rand.nextGaussian();
+			float rotY = (float)rand.nextGaussian();
+			float rotZ = (float)rand.nextGaussian();
+			Se3_F32 tran = SpecialEuclideanOps_F32.setEulerXYZ(rotX, rotY, rotZ, 1, -2, 0.5f, null);
+
+			List<Point3D_F32> src = UtilPoint3D_F32.random(-10, 10, 30, rand);
+			List<Point3D_F32> dst = new ArrayList<Point3D_F32>();
+			for( Point3D_F32 p : src ) {
+				dst.add(SePointOps_F32.transform(tran, p, null));
+			}
+			UtilPoint3D_F32.noiseNormal(dst, 0.5f, rand);
+
+			MotionSe3PointSVD_F32 expected = new MotionSe3PointSVD_F32();
+			MotionSe3PointQuaternion_F32 alg = new MotionSe3PointQuaternion_F32();
+
+			assertTrue(expected.process(src, dst));
+			assertTrue(alg.process(src, dst));
+
+			checkIdentical(expected.getTransformSrcToDst(), alg.getTransformSrcToDst());
+
+			assertTrue(alg.process(new PointCloud3D_F32(src), new PointCloud3D_F32(dst)));
+			checkIdentical(expected.getTransformSrcToDst(), alg.getTransformSrcToDst());
+		}
+	}
+
+	/**
+	 * The two sets of points have no correlation
+	 */
+	@Test
+	public void degenerate() {
+		List<Point3D_F32> src = new ArrayList<Point3D_F32>();
+		for( int i = 0; i < 10; i++ ) {
+			src.add(new Point3D_F32(1, 2, 3));
+		}
+
+		MotionSe3PointQuaternion_F32 alg = new MotionSe3PointQuaternion_F32();
+		assertFalse(alg.process(src, src));
+	}
+
+	private void checkIdentical( Se3_F32 expected , Se3_F32 found ) {
+		assertTrue(MatrixFeatures.isIdentical(expected.getR(), found.getR(), GrlConstants.FLOAT_TEST_TOL));
+		assertTrue(expected.getT().isIdentical(found.getT(), GrlConstants.FLOAT_TEST_TOL));
+	}
+}
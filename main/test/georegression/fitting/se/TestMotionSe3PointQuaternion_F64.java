@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.se;
+
+import georegression.fitting.MotionTransformPoint;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMotionSe3PointQuaternion_F64 extends GeneralMotionSe3Tests_F64 {
+
+	@Override
+	MotionTransformPoint<Se3_F64, Point3D_F64> createAlg() {
+		return new MotionSe3PointQuaternion_F64();
+	}
+
+	/**
+	 * Compare against the general purpose SVD implementation when there is noise
+	 */
+	@Test
+	public void compareToSVD() {
+		for( int trial = 0; trial < 20; trial++ ) {
+			double rotX = rand.nextGaussian();
+			double rotY = rand.nextGaussian();
+			double rotZ = rand.nextGaussian();
+			Se3_F64 tran = SpecialEuclideanOps_F64.setEulerXYZ(rotX, rotY, rotZ, 1, -2, 0.5, null);
+
+			List<Point3D_F64> src = UtilPoint3D_F64.random(-10, 10, 30, rand);
+			List<Point3D_F64> dst = new ArrayList<Point3D_F64>();
+			for( Point3D_F64 p : src ) {
+				dst.add(SePointOps_F64.transform(tran, p, null));
+			}
+			UtilPoint3D_F64.noiseNormal(dst, 0.5, rand);
+
+			MotionSe3PointSVD_F64 expected = new MotionSe3PointSVD_F64();
+			MotionSe3PointQuaternion_F64 alg = new MotionSe3PointQuaternion_F64();
+
+			assertTrue(expected.process(src, dst));
+			assertTrue(alg.process(src, dst));
+
+			checkIdentical(expected.getTransformSrcToDst(), alg.getTransformSrcToDst());
+
+			assertTrue(alg.process(new PointCloud3D_F64(src), new PointCloud3D_F64(dst)));
+			checkIdentical(expected.getTransformSrcToDst(), alg.getTransformSrcToDst());
+		}
+	}
+
+	/**
+	 * The two sets of points have no correlation
+	 */
+	@Test
+	public void degenerate() {
+		List<Point3D_F64> src = new ArrayList<Point3D_F64>();
+		for( int i = 0; i < 10; i++ ) {
+			src.add(new Point3D_F64(1, 2, 3));
+		}
+
+		MotionSe3PointQuaternion_F64 alg = new MotionSe3PointQuaternion_F64();
+		assertFalse(alg.process(src, src));
+	}
+
+	private void checkIdentical( Se3_F64 expected , Se3_F64 found ) {
+		assertTrue(MatrixFeatures.isIdentical(expected.getR(), found.getR(), GrlConstants.DOUBLE_TEST_TOL));
+		assertTrue(expected.getT().isIdentical(found.getT(), GrlConstants.DOUBLE_TEST_TOL));
+	}
+}
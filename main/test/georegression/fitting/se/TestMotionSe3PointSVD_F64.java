@@ -19,8 +19,24 @@
 package georegression.fitting.se;
 
 import georegression.fitting.MotionTransformPoint;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.misc.GrlConstants;
 import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
 import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ejml.ops.MatrixFeatures;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author Peter Abeles
@@ -32,4 +48,125 @@ public class TestMotionSe3PointSVD_F64 extends GeneralMotionSe3Tests_F64 {
 		return new MotionSe3PointSVD_F64();
 	}
 
+	/**
+	 * The solution found using point clouds should be the same as the solution found using lists
+	 */
+	@Test
+	public void process_cloud() {
+		Se3_F64 tran = SpecialEuclideanOps_F64.setEulerXYZ(0.1, -0.2, 0.05, 1, -2, 0.5, null);
+
+		List<Point3D_F64> src = UtilPoint3D_F64.random(-10, 10, 30, rand);
+		List<Point3D_F64> dst = new ArrayList<Point3D_F64>();
+		for( Point3D_F64 p : src ) {
+			dst.add(SePointOps_F64.transform(tran, p, null));
+		}
+		UtilPoint3D_F64.noiseNormal(dst, 0.1, rand);
+
+		MotionSe3PointSVD_F64 alg = new MotionSe3PointSVD_F64();
+
+		assertTrue(alg.process(src, dst));
+		Se3_F64 expected = alg.getTransformSrcToDst().copy();
+
+		assertTrue(alg.process(new PointCloud3D_F64(src), new PointCloud3D_F64(dst)));
+		Se3_F64 found = alg.getTransformSrcToDst();
+
+		assertTrue(MatrixFeatures.isIdentical(expected.getR(), found.getR(), GrlConstants.DOUBLE_TEST_TOL));
+		assertTrue(expected.getT().isIdentical(found.getT(), GrlConstants.DOUBLE_TEST_TOL));
+	}
+
+	/**
+	 * Scaling all the weights by the same amount should produce the unweighted solution
+	 */
+	@Test
+	public void process_weighted_uniform() {
+		Se3_F64 tran = SpecialEuclideanOps_F64.setEulerXYZ(0.1, -0.2, 0.05, 1, -2, 0.5, null);
+
+		List<Point3D_F64> src = UtilPoint3D_F64.random(-10, 10, 30, rand);
+		List<Point3D_F64> dst = new ArrayList<Point3D_F64>();
+		for( Point3D_F64 p : src ) {
+			dst.add(SePointOps_F64.transform(tran, p, null));
+		}
+		UtilPoint3D_F64.noiseNormal(dst, 0.1, rand);
+
+		double[] weights = new double[src.size()];
+		Arrays.fill(weights, 2.5);
+
+		MotionSe3PointSVD_F64 alg = new MotionSe3PointSVD_F64();
+
+		assertTrue(alg.process(src, dst));
+		Se3_F64 expected = alg.getTransformSrcToDst().copy();
+
+		assertTrue(alg.process(src, dst, weights));
+		Se3_F64 found = alg.getTransformSrcToDst();
+		assertTrue(MatrixFeatures.isIdentical(expected.getR(), found.getR(), GrlConstants.DOUBLE_TEST_TOL));
+		assertTrue(expected.getT().isIdentical(found.getT(), GrlConstants.DOUBLE_TEST_TOL));
+
+		assertTrue(alg.process(new PointCloud3D_F64(src), new PointCloud3D_F64(dst), weights));
+		found = alg.getTransformSrcToDst();
+		assertTrue(MatrixFeatures.isIdentical(expected.getR(), found.getR(), GrlConstants.DOUBLE_TEST_TOL));
+		assertTrue(expected.getT().isIdentical(found.getT(), GrlConstants.DOUBLE_TEST_TOL));
+	}
+
+	/**
+	 * Outliers with a weight of zero should be ignored
+	 */
+	@Test
+	public void process_weighted_zero() {
+		Se3_F64 tran = SpecialEuclideanOps_F64.setEulerXYZ(0.1, -0.2, 0.05, 1, -2, 0.5, null);
+
+		List<Point3D_F64> src = UtilPoint3D_F64.random(-10, 10, 30, rand);
+		List<Point3D_F64> dst = new ArrayList<Point3D_F64>();
+		double[] weights = new double[src.size()];
+		for( int i = 0; i < src.size(); i++ ) {
+			Point3D_F64 p = SePointOps_F64.transform(tran, src.get(i), null);
+			if( i % 3 == 0 ) {
+				p.x += 5;
+			} else {
+				weights[i] = 1;
+			}
+			dst.add(p);
+		}
+
+		MotionSe3PointSVD_F64 alg = new MotionSe3PointSVD_F64();
+
+		assertTrue(alg.process(src, dst, weights));
+		checkWeighted(src, dst, weights, alg.getTransformSrcToDst());
+
+		assertTrue(alg.process(new PointCloud3D_F64(src), new PointCloud3D_F64(dst), weights));
+		checkWeighted(src, dst, weights, alg.getTransformSrcToDst());
+
+		// no points
+		Arrays.fill(weights, 0);
+		assertFalse(alg.process(src, dst, weights));
+		assertFalse(alg.process(new PointCloud3D_F64(src), new PointCloud3D_F64(dst), weights));
+	}
+
+	@Test
+	public void process_weighted_negative() {
+		List<Point3D_F64> src = UtilPoint3D_F64.random(-10, 10, 10, rand);
+		double[] weights = new double[src.size()];
+		Arrays.fill(weights, 1);
+		weights[4] = -0.5;
+
+		MotionSe3PointSVD_F64 alg = new MotionSe3PointSVD_F64();
+		try {
+			alg.process(src, src, weights);
+			fail("Expected an exception");
+		} catch( IllegalArgumentException ignore ) {}
+		try {
+			alg.process(new PointCloud3D_F64(src), new PointCloud3D_F64(src), weights);
+			fail("Expected an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	private static void checkWeighted( List<Point3D_F64> src, List<Point3D_F64> dst, double[] weights, Se3_F64 found ) {
+		Point3D_F64 p = new Point3D_F64();
+		for( int i = 0; i < src.size(); i++ ) {
+			if( weights[i] == 0 )
+				continue;
+			SePointOps_F64.transform(found, src.get(i), p);
+			assertEquals(0, p.distance(dst.get(i)), GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
 }
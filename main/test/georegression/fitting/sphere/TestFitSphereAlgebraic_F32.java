@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.shapes.Sphere3D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static georegression.fitting.sphere.TestFitSphereToPoints_F32.createPt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFitSphereAlgebraic_F32 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void perfect() {
+		Sphere3D_F32 sphere = new Sphere3D_F32(100,-20,3,4);
+		List<Point3D_F32> points = createPoints(sphere, 50);
+
+		FitSphereAlgebraic_F32 alg = new FitSphereAlgebraic_F32();
+
+		Sphere3D_F32 found = new Sphere3D_F32();
+		assertTrue(alg.process(points, found));
+		checkEquivalent(sphere, found, GrlConstants.FLOAT_TEST_TOL);
+
+		found = new Sphere3D_F32();
+		assertTrue(alg.process(new PointCloud3D_F32(points), found));
+		checkEquivalent(sphere, found, GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	/**
+	 * Minimal number of points
+	 */
+	@Test
+	public void minimal() {
+		Sphere3D_F32 sphere = new Sphere3D_F32(1,2,3,4);
+		List<Point3D_F32> points = createPoints(sphere, 4);
+
+		Sphere3D_F32 found = new Sphere3D_F32();
+		assertTrue(new FitSphereAlgebraic_F32().process(points, found));
+		checkEquivalent(sphere, found, GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Test
+	public void noisy() {
+		Sphere3D_F32 sphere = new Sphere3D_F32(1,2,3,4);
+		List<Point3D_F32> points = createPoints(sphere, 200);
+		UtilPoint3D_F32.noiseNormal(points, 0.01f, rand);
+
+		Sphere3D_F32 found = new Sphere3D_F32();
+		assertTrue(new FitSphereAlgebraic_F32().process(points, found));
+		checkEquivalent(sphere, found, 0.05f);
+	}
+
+	@Test
+	public void degenerate() {
+		FitSphereAlgebraic_F32 alg = new FitSphereAlgebraic_F32();
+		Sphere3D_F32 found = new Sphere3D_F32();
+
+		// too few points
+		List<Point3D_F32> points = createPoints(new Sphere3D_F32(1,2,3,4), 3);
+		assertFalse(alg.process(points, found));
+		assertFalse(alg.process(new PointCloud3D_F32(points), found));
+
+		// all the points are on a plane
+		points = new ArrayList<Point3D_F32>();
+		for( int i = 0; i < 10; i++ ) {
+			points.add(new Point3D_F32(rand.nextFloat(), rand.nextFloat(), 2));
+		}
+		assertFalse(alg.process(points, found));
+		assertFalse(alg.process(new PointCloud3D_F32(points), found));
+	}
+
+	@Test
+	public void nonFinite() {
+		FitSphereAlgebraic_F32 alg = new FitSphereAlgebraic_F32();
+		Sphere3D_F32 found = new Sphere3D_F32();
+
+		List<Point3D_F32> points = createPoints(new Sphere3D_F32(1,2,3,4), 20);
+		points.get(5).y = Float.NaN;
+		assertFalse(alg.process(points, found));
+		assertFalse(alg.process(new PointCloud3D_F32(points), found));
+
+		points.get(5).y = Float.POSITIVE_INFINITY;
+		assertFalse(alg.process(points, found));
+		assertFalse(alg.process(new PointCloud3D_F32(points), found));
+
+		// the fit uses the first point as the origin
+		points.get(5).y = 2;
+		points.get(0).x = Float.NaN;
+		assertFalse(alg.process(points, found));
+		assertFalse(alg.process(new PointCloud3D_F32(points), found));
+	}
+
+	private void checkEquivalent( Sphere3D_F32 expected , Sphere3D_F32 found , float tol ) {
+		assertEquals(0, expected.center.distance(found.center), tol);
+		assertEquals(expected.radius, found.radius, tol);
+	}
+
+	private List<Point3D_F32> createPoints( Sphere3D_F32 sphere , int N ) {
+		List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+		for( int i = 0; i < N; i++ ) {
+			float phi = rand.nextFloat()*GrlConstants.F_PI2;
+			float theta = rand.nextFloat()*GrlConstants.F_PI2;
+
+			points.add(createPt(sphere,phi,theta));
+		}
+		return points;
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static georegression.fitting.sphere.TestFitSphereToPoints_F64.createPt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFitSphereToPointsLM_F64 {
+
+	Random rand = new Random(234);
+
+	Sphere3D_F64 sphere = new Sphere3D_F64(1,2,3,4);
+
+	@Test
+	public void perfectModel() {
+		List<Point3D_F64> points = createPoints(50);
+
+		FitSphereToPointsLM_F64 alg = new FitSphereToPointsLM_F64(200);
+
+		Sphere3D_F64 found = new Sphere3D_F64();
+		assertTrue(alg.fitModel(points, sphere, found));
+
+		checkEquivalent(sphere, found);
+	}
+
+	/**
+	 * If it runs out of iterations before converging it should return false
+	 */
+	@Test
+	public void maxIterations() {
+		List<Point3D_F64> points = createPoints(50);
+
+		FitSphereToPointsLM_F64 alg = new FitSphereToPointsLM_F64(1);
+
+		Sphere3D_F64 initial = new Sphere3D_F64(1.05,1.99,3,3.8);
+		Sphere3D_F64 found = new Sphere3D_F64();
+		assertFalse(alg.fitModel(points, initial, found));
+	}
+
+	@Test
+	public void perfectWithBadInitialModel() {
+		List<Point3D_F64> points = createPoints(50);
+
+		FitSphereToPointsLM_F64 alg = new FitSphereToPointsLM_F64(200);
+
+		// make the initial model a bit off
+		Sphere3D_F64 initial = new Sphere3D_F64(1.05,1.99,3,3.8);
+		Sphere3D_F64 found = new Sphere3D_F64();
+		assertTrue(alg.fitModel(points, initial, found));
+
+		checkEquivalent(sphere, found);
+	}
+
+	@Test
+	public void pointCloud() {
+		PointCloud3D_F64 cloud = new PointCloud3D_F64(createPoints(50));
+
+		FitSphereToPointsLM_F64 alg = new FitSphereToPointsLM_F64(200);
+
+		Sphere3D_F64 initial = new Sphere3D_F64(1.05,1.99,3,3.8);
+		Sphere3D_F64 found = new Sphere3D_F64();
+		assertTrue(alg.fitModel(cloud, initial, found));
+
+		checkEquivalent(sphere, found);
+	}
+
+	/**
+	 * No initial model is provided so it should compute one
+	 */
+	@Test
+	public void noInitialModel() {
+		List<Point3D_F64> points = createPoints(50);
+
+		FitSphereToPointsLM_F64 alg = new FitSphereToPointsLM_F64(200);
+
+		Sphere3D_F64 found = new Sphere3D_F64();
+		assertTrue(alg.fitModel(points, null, found));
+		checkEquivalent(sphere, found);
+
+		found = new Sphere3D_F64();
+		assertTrue(alg.fitModel(new PointCloud3D_F64(points), null, found));
+		checkEquivalent(sphere, found);
+	}
+
+	private void checkEquivalent( Sphere3D_F64 expected , Sphere3D_F64 found ) {
+		assertEquals(0,expected.center.distance(found.center),GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(expected.radius,found.radius,GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	private List<Point3D_F64> createPoints( int N ) {
+		List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+		for( int i = 0; i < N; i++ ) {
+
+			double phi = rand.nextDouble()*GrlConstants.PI2;
+			double theta = rand.nextDouble()*GrlConstants.PI2;
+
+			points.add(createPt(sphere,phi,theta));
+		}
+		return points;
+	}
+}
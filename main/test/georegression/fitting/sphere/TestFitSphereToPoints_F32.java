@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -88,6 +89,31 @@ public class TestFitSphereToPoints_F32 {
 		assertEquals(sphere.radius, found.radius, GrlConstants.FLOAT_TEST_TOL);
 	}
 
+	/**
+	 * No initial model is provided so it should compute one
+	 */
+	@Test
+	public void noInitialModel() {
+		Sphere3D_F32 sphere = new Sphere3D_F32(1,2,3,4);
+
+		List<Point3D_F32> points = new ArrayList<Point3D_F32>();
+		for( int i = 0; i < 50; i++ ) {
+
+			float phi = rand.nextFloat()*GrlConstants.F_PI2;
+			float theta = rand.nextFloat()*GrlConstants.F_PI2;
+
+			points.add(createPt(sphere,phi,theta));
+		}
+
+		FitSphereToPoints_F32 alg = new FitSphereToPoints_F32(200);
+
+		Sphere3D_F32 found = new Sphere3D_F32();
+		assertTrue(alg.fitModel(points, null, found));
+
+		assertEquals(0,sphere.center.distance(found.center),GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(sphere.radius, found.radius, GrlConstants.FLOAT_TEST_TOL);
+	}
+
 	public static Point3D_F32 createPt( Sphere3D_F32 sphere , float phi , float theta ) {
 		Point3D_F32 p = new Point3D_F32();
 		p.set(0,0,sphere.radius);
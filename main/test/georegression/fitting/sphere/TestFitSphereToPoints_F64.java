@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -88,6 +89,31 @@ public class TestFitSphereToPoints_F64 {
 		assertEquals(sphere.radius, found.radius, GrlConstants.DOUBLE_TEST_TOL);
 	}
 
+	/**
+	 * No initial model is provided so it should compute one
+	 */
+	@Test
+	public void noInitialModel() {
+		Sphere3D_F64 sphere = new Sphere3D_F64(1,2,3,4);
+
+		List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+		for( int i = 0; i < 50; i++ ) {
+
+			double phi = rand.nextDouble()*GrlConstants.PI2;
+			double theta = rand.nextDouble()*GrlConstants.PI2;
+
+			points.add(createPt(sphere,phi,theta));
+		}
+
+		FitSphereToPoints_F64 alg = new FitSphereToPoints_F64(200);
+
+		Sphere3D_F64 found = new Sphere3D_F64();
+		assertTrue(alg.fitModel(points, null, found));
+
+		assertEquals(0,sphere.center.distance(found.center),GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(sphere.radius, found.radius, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
 	public static Point3D_F64 createPt( Sphere3D_F64 sphere , double phi , double theta ) {
 		Point3D_F64 p = new Point3D_F64();
 		p.set(0,0,sphere.radius);
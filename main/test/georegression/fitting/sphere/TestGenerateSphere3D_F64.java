@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.shapes.Sphere3D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static georegression.fitting.sphere.TestFitSphereToPoints_F64.createPt;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestGenerateSphere3D_F64 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void perfect() {
+		Sphere3D_F64 sphere = new Sphere3D_F64(1,-2,30,4);
+		GenerateSphere3D_F64 alg = new GenerateSphere3D_F64();
+
+		for( int trial = 0; trial < 20; trial++ ) {
+			List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+			for( int i = 0; i < 4; i++ ) {
+				double phi = rand.nextDouble()*GrlConstants.PI2;
+				double theta = rand.nextDouble()*GrlConstants.PI2;
+				points.add(createPt(sphere, phi, theta));
+			}
+
+			Sphere3D_F64 found = new Sphere3D_F64();
+			assertTrue(alg.generate(points, found));
+
+			assertEquals(0, sphere.center.distance(found.center), GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(sphere.radius, found.radius, GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
+	/**
+	 * All four points lie on a plane
+	 */
+	@Test
+	public void coplanar() {
+		GenerateSphere3D_F64 alg = new GenerateSphere3D_F64();
+
+		Point3D_F64 a = new Point3D_F64(1,2,3);
+		Point3D_F64 b = new Point3D_F64(2,2,3);
+		Point3D_F64 c = new Point3D_F64(1,5,3);
+		Point3D_F64 d = new Point3D_F64(-3,1,3);
+
+		assertFalse(alg.process(a, b, c, d, new Sphere3D_F64()));
+		assertFalse(alg.process(a, a, c, d, new Sphere3D_F64()));
+	}
+
+	@Test
+	public void nonFinite() {
+		GenerateSphere3D_F64 alg = new GenerateSphere3D_F64();
+
+		Point3D_F64 a = new Point3D_F64(1,2,3);
+		Point3D_F64 b = new Point3D_F64(2,2,3);
+		Point3D_F64 c = new Point3D_F64(1,5,3);
+		Point3D_F64 d = new Point3D_F64(1,2,6);
+		assertTrue(alg.process(a, b, c, d, new Sphere3D_F64()));
+
+		d.z = Double.NaN;
+		assertFalse(alg.process(a, b, c, d, new Sphere3D_F64()));
+		d.z = Double.POSITIVE_INFINITY;
+		assertFalse(alg.process(a, b, c, d, new Sphere3D_F64()));
+	}
+
+	@Test
+	public void getMinimumPoints() {
+		assertEquals(4, new GenerateSphere3D_F64().getMinimumPoints());
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.fitting.sphere;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSphereToPointResidual_F64 {
+
+	/**/double param[] = new /**/double[]{1,2,3,4};
+
+	List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+
+	public TestSphereToPointResidual_F64() {
+		// inside, should be negative
+		points.add(new Point3D_F64(1.1,2.2,3.5));
+		// outside, should be positive
+		points.add(new Point3D_F64(1,-4,3));
+		points.add(new Point3D_F64(6,2.1,2.9));
+	}
+
+	/**
+	 * Compare against the functions which compute all the residuals and the full Jacobian
+	 */
+	@Test
+	public void compareToFunctionAndJacobian() {
+		SphereToPointResidual_F64 alg = new SphereToPointResidual_F64();
+
+		alg.setPoints(points);
+		check(alg);
+
+		alg.setPoints(new PointCloud3D_F64(points));
+		check(alg);
+	}
+
+	private void check( SphereToPointResidual_F64 alg ) {
+		SphereToPointSignedDistance_F64 function = new SphereToPointSignedDistance_F64();
+		SphereToPointSignedDistanceJacobian_F64 jacobian = new SphereToPointSignedDistanceJacobian_F64();
+		function.setPoints(points);
+		jacobian.setPoints(points);
+
+		int N = 4;
+		/**/double expectedR[] = new /**/double[points.size()];
+		/**/double expectedJ[] = new /**/double[points.size()*N];
+		function.process(param, expectedR);
+		jacobian.process(param, expectedJ);
+
+		/**/double gradient[] = new /**/double[N];
+		alg.setParameters(param);
+		for( int i = 0; i < points.size(); i++ ) {
+			assertEquals(expectedR[i], alg.computeResidual(i), GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(expectedR[i], alg.computeResidual(i, gradient), GrlConstants.DOUBLE_TEST_TOL);
+			for( int j = 0; j < N; j++ ) {
+				assertEquals(expectedJ[i*N+j], gradient[j], GrlConstants.DOUBLE_TEST_TOL);
+			}
+		}
+	}
+
+	@Test
+	public void getN_and_getM() {
+		SphereToPointResidual_F64 alg = new SphereToPointResidual_F64();
+		alg.setPoints(points);
+
+		assertEquals(4,alg.getNumOfInputsN());
+		assertEquals(points.size(), alg.getNumOfPoints());
+
+		alg.setPoints(new PointCloud3D_F64(points));
+		assertEquals(points.size(), alg.getNumOfPoints());
+	}
+}
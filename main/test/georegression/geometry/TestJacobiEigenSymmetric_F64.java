@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.geometry;
+
+import georegression.misc.GrlConstants;
+import georegression.struct.Matrix3x3_F64;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestJacobiEigenSymmetric_F64 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void random() {
+		for( int N = 2; N <= 5; N++ ) {
+			JacobiEigenSymmetric_F64 alg = new JacobiEigenSymmetric_F64(N);
+			for( int trial = 0; trial < 20; trial++ ) {
+				double A[] = randomSymmetric(N);
+				assertTrue(alg.process(A));
+				checkDecomposition(A, alg);
+			}
+		}
+	}
+
+	@Test
+	public void process_Matrix3x3() {
+		double A[] = randomSymmetric(3);
+		Matrix3x3_F64 M = new Matrix3x3_F64();
+		M.set(A[0], A[1], A[2], A[3], A[4], A[5], A[6], A[7], A[8]);
+
+		JacobiEigenSymmetric_F64 alg = new JacobiEigenSymmetric_F64(3);
+		assertTrue(alg.process(M));
+		checkDecomposition(A, alg);
+	}
+
+	/**
+	 * Already diagonal and has repeated eigenvalues
+	 */
+	@Test
+	public void diagonal_repeated() {
+		double A[] = new double[]{1,0,0,0, 0,3,0,0, 0,0,1,0, 0,0,0,3};
+
+		JacobiEigenSymmetric_F64 alg = new JacobiEigenSymmetric_F64(4);
+		assertTrue(alg.process(A));
+		checkDecomposition(A, alg);
+
+		assertEquals(3, alg.getEigenvalue(0), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(3, alg.getEigenvalue(1), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(1, alg.getEigenvalue(2), GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(1, alg.getEigenvalue(3), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	/**
+	 * Checks A*v = lambda*v, the vectors are orthonormal, and the values are sorted
+	 */
+	private void checkDecomposition( double A[] , JacobiEigenSymmetric_F64 alg ) {
+		int N = alg.getN();
+
+		for( int i = 0; i < N; i++ ) {
+			double lambda = alg.getEigenvalue(i);
+			if( i > 0 )
+				assertTrue(alg.getEigenvalue(i-1) >= lambda);
+
+			for( int row = 0; row < N; row++ ) {
+				double sum = 0;
+				for( int k = 0; k < N; k++ ) {
+					sum += A[row*N+k]*alg.getEigenvector(k, i);
+				}
+				assertEquals(lambda*alg.getEigenvector(row, i), sum, GrlConstants.DOUBLE_TEST_TOL);
+			}
+
+			for( int j = 0; j < N; j++ ) {
+				double dot = 0;
+				for( int k = 0; k < N; k++ ) {
+					dot += alg.getEigenvector(k, i)*alg.getEigenvector(k, j);
+				}
+				assertEquals(i == j ? 1 : 0, dot, GrlConstants.DOUBLE_TEST_TOL);
+			}
+		}
+	}
+
+	private double[] randomSymmetric( int N ) {
+		double A[] = new double[N*N];
+		for( int i = 0; i < N; i++ ) {
+			for( int j = i; j < N; j++ ) {
+				A[i*N+j] = A[j*N+i] = rand.nextGaussian();
+			}
+		}
+		return A;
+	}
+}
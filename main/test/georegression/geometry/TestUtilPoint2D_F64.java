@@ -23,6 +23,7 @@ import georegression.misc.GrlConstants;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.shapes.Rectangle2D_F64;
 import georegression.struct.shapes.RectangleLength2D_F64;
+import georegression.struct.point.PointCloud2D_F64;
 import org.junit.Test;
 
 import java.util.ArrayList;
@@ -116,4 +117,27 @@ public class TestUtilPoint2D_F64 {
 		assertTrue(found.get(3) == input.get(3));
 	}
 
+	@Test
+	public void mean_cloud() {
+		List<Point2D_F64> list = UtilPoint2D_F64.random(-1, 2, 20, rand);
+
+		Point2D_F64 expected = UtilPoint2D_F64.mean(list, null);
+		Point2D_F64 found = UtilPoint2D_F64.mean(new PointCloud2D_F64(list), null);
+
+		assertEquals(expected.x, found.x, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(expected.y, found.y, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Test
+	public void bounding_cloud() {
+		List<Point2D_F64> list = UtilPoint2D_F64.random(-1, 2, 20, rand);
+
+		Rectangle2D_F64 expected = UtilPoint2D_F64.bounding(list, (Rectangle2D_F64)null);
+		Rectangle2D_F64 found = UtilPoint2D_F64.bounding(new PointCloud2D_F64(list), null);
+
+		assertEquals(expected.p0.x, found.p0.x, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(expected.p0.y, found.p0.y, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(expected.p1.x, found.p1.x, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(expected.p1.y, found.p1.y, GrlConstants.DOUBLE_TEST_TOL);
+	}
 }
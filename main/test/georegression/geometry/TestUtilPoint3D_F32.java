@@ -21,10 +21,12 @@ package georegression.geometry;
 import georegression.misc.GrlConstants;
 import georegression.struct.point.Point3D_F32;
 import georegression.struct.shapes.Box3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -32,6 +34,9 @@ import static org.junit.Assert.assertEquals;
  * @author Peter Abeles
  */
 public class TestUtilPoint3D_F32 {
+
+	Random rand = new Random(234);
+
 	@Test
 	public void distance() {
 		float found = UtilPoint3D_F32.distance(1,2,3,4,-3,-4);
@@ -58,4 +63,27 @@ public class TestUtilPoint3D_F32 {
 		assertEquals(0,cube.getP0().distance(list.get(0)),1e-8);
 		assertEquals(0,cube.getP1().distance(new Point3D_F32(2,3,5)),1e-8);
 	}
+
+	@Test
+	public void mean_cloud() {
+		List<Point3D_F32> list = UtilPoint3D_F32.random(-1, 2, 20, rand);
+
+		Point3D_F32 expected = UtilPoint3D_F32.mean(list, null);
+		Point3D_F32 found = UtilPoint3D_F32.mean(new PointCloud3D_F32(list), null);
+
+		assertEquals(0, expected.distance(found), GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	@Test
+	public void boundingBox_cloud() {
+		List<Point3D_F32> list = UtilPoint3D_F32.random(-1, 2, 20, rand);
+
+		Box3D_F32 expected = new Box3D_F32();
+		Box3D_F32 found = new Box3D_F32();
+		UtilPoint3D_F32.boundingBox(list, expected);
+		UtilPoint3D_F32.boundingBox(new PointCloud3D_F32(list), found);
+
+		assertEquals(0, expected.getP0().distance(found.getP0()), GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(0, expected.getP1().distance(found.getP1()), GrlConstants.FLOAT_TEST_TOL);
+	}
 }
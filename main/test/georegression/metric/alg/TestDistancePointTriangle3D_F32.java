@@ -18,6 +18,7 @@
 
 package georegression.metric.alg;
 
+import georegression.geometry.UtilPoint3D_F32;
 import georegression.metric.Distance3D_F32;
 import georegression.misc.GrlConstants;
 import georegression.struct.line.LineSegment3D_F32;
@@ -25,6 +26,9 @@ import georegression.struct.point.Point3D_F32;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -118,6 +122,39 @@ public class TestDistancePointTriangle3D_F32 {
 		assertEquals(d, distance(P.x,P.y,P.z), GrlConstants.FLOAT_TEST_TOL);
 	}
 
+	/**
+	 * Compare against a brute force search of points sampled on random triangles
+	 */
+	@Test
+	public void random() {
+		Random rand = new Random(234);
+
+		for( int trial = 0; trial < 1000; trial++ ) {
+			List<Point3D_F32> points = UtilPoint3D_F32.random(-1, 1, 3, rand);
+			Point3D_F32 P = UtilPoint3D_F32.random(-3, 3, 1, rand).get(0);
+			Point3D_F32 A = points.get(0), B = points.get(1), C = points.get(2);
+
+			alg.setTriangle(A, B, C);
+			Point3D_F32 cp = new Point3D_F32();
+			alg.closestPoint(P, cp);
+
+			// the sampled points are all on the triangle so they can't be closer
+			float best = Float.MAX_VALUE;
+			int N = 50;
+			Point3D_F32 s = new Point3D_F32();
+			for( int i = 0; i <= N; i++ ) {
+				for( int j = 0; j <= N-i; j++ ) {
+					float u = i/(float)N, v = j/(float)N;
+					s.x = A.x + u*(B.x - A.x) + v*(C.x - A.x);
+					s.y = A.y + u*(B.y - A.y) + v*(C.y - A.y);
+					s.z = A.z + u*(B.z - A.z) + v*(C.z - A.z);
+					best = (float)Math.min(best, s.distance(P));
+				}
+			}
+			assertTrue(cp.distance(P) <= best + GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
 	public float distance( float x , float y , float z ) {
 		Point3D_F32 cp = new Point3D_F32();
 
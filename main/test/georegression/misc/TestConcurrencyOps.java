@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.misc;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConcurrencyOps {
+
+	/**
+	 * Every element should be processed exactly once
+	 */
+	@Test
+	public void loopBlocks() {
+		int original = ConcurrencyOps.getThreshold();
+		try {
+			ConcurrencyOps.setThreshold(10);
+
+			for( int length : new int[]{0,1,9,10,11,1000,12345} ) {
+				final int counts[] = new int[ 5 + length ];
+				ConcurrencyOps.loopBlocks(5, 5 + length, new ConcurrencyOps.IntRangeTask() {
+					@Override
+					public void process(int start, int end) {
+						for( int i = start; i < end; i++ ) {
+							synchronized( counts ) {
+								counts[i]++;
+							}
+						}
+					}
+				});
+
+				for( int i = 0; i < counts.length; i++ ) {
+					assertEquals(i < 5 ? 0 : 1, counts[i]);
+				}
+			}
+		} finally {
+			ConcurrencyOps.setThreshold(original);
+		}
+	}
+
+	/**
+	 * Small problems should be processed in the calling thread in a single block
+	 */
+	@Test
+	public void loopBlocks_belowThreshold() {
+		final Thread caller = Thread.currentThread();
+		final int calls[] = new int[1];
+
+		ConcurrencyOps.loopBlocks(0, ConcurrencyOps.getThreshold() - 1, new ConcurrencyOps.IntRangeTask() {
+			@Override
+			public void process(int start, int end) {
+				assertTrue(caller == Thread.currentThread());
+				calls[0]++;
+			}
+		});
+
+		assertEquals(1, calls[0]);
+	}
+
+	/**
+	 * Every block should be processed exactly once and each workspace should only be used by one thread,
+	 * which processes its blocks in increasing order
+	 */
+	@Test
+	public void loopBlocks_workspaces() {
+		int numThreads = ConcurrencyOps.numThreads(1000);
+		List<Workspace> workspaces = new ArrayList<Workspace>();
+		for( int i = 0; i < Math.max(2, numThreads); i++ )
+			workspaces.add(new Workspace());
+
+		final int counts[] = new int[1000];
+		ConcurrencyOps.loopBlocks(counts.length, workspaces, new ConcurrencyOps.BlockWorker<Workspace>() {
+			@Override
+			public void process(Workspace workspace, int block) {
+				if( workspace.thread == null )
+					workspace.thread = Thread.currentThread();
+				assertTrue(workspace.thread == Thread.currentThread());
+				assertTrue(block > workspace.previous);
+				workspace.previous = block;
+				synchronized( counts ) {
+					counts[block]++;
+				}
+			}
+		});
+
+		for( int i = 0; i < counts.length; i++ ) {
+			assertEquals(1, counts[i]);
+		}
+	}
+
+	/**
+	 * With a single workspace everything should be processed in the calling thread
+	 */
+	@Test
+	public void loopBlocks_workspaces_single() {
+		final Thread caller = Thread.currentThread();
+		final int calls[] = new int[1];
+
+		List<Workspace> workspaces = new ArrayList<Workspace>();
+		workspaces.add(new Workspace());
+		ConcurrencyOps.loopBlocks(20, workspaces, new ConcurrencyOps.BlockWorker<Workspace>() {
+			@Override
+			public void process(Workspace workspace, int block) {
+				assertTrue(caller == Thread.currentThread());
+				assertEquals(calls[0]++, block);
+			}
+		});
+
+		assertEquals(20, calls[0]);
+	}
+
+	/**
+	 * Exceptions thrown in another thread should be passed along without being wrapped
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void loopBlocks_workspaces_exception() {
+		List<Workspace> workspaces = new ArrayList<Workspace>();
+		workspaces.add(new Workspace());
+		workspaces.add(new Workspace());
+		ConcurrencyOps.loopBlocks(20, workspaces, new ConcurrencyOps.BlockWorker<Workspace>() {
+			@Override
+			public void process(Workspace workspace, int block) {
+				if( block == 13 )
+					throw new IllegalArgumentException("Test");
+			}
+		});
+	}
+
+	@Test
+	public void numThreads() {
+		int parallelism = ConcurrencyOps.getPool().getParallelism();
+		assertEquals(1, ConcurrencyOps.numThreads(0));
+		assertEquals(1, ConcurrencyOps.numThreads(1));
+		assertEquals(Math.min(2, parallelism), ConcurrencyOps.numThreads(2));
+		assertEquals(parallelism, ConcurrencyOps.numThreads(parallelism+10));
+	}
+
+	@Test
+	public void setPool() {
+		ForkJoinPool original = ConcurrencyOps.getPool();
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			ConcurrencyOps.setPool(pool);
+			assertTrue(pool == ConcurrencyOps.getPool());
+		} finally {
+			ConcurrencyOps.setPool(original);
+			pool.shutdown();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void setThreshold_invalid() {
+		ConcurrencyOps.setThreshold(0);
+	}
+
+	private static class Workspace {
+		Thread thread;
+		int previous = -1;
+	}
+}
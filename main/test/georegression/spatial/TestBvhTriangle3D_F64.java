@@ -0,0 +1,354 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.metric.Distance3D_F64;
+import georegression.metric.Intersection3D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.line.LineParametric3D_F64;
+import georegression.struct.line.LineSegment3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.Vector3D_F64;
+import georegression.struct.shapes.Triangle3D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBvhTriangle3D_F64 {
+
+	Random rand = new Random(234);
+
+	List<Triangle3D_F64> triangles = randomTriangles(500, rand);
+
+	/**
+	 * Compares the first triangle hit against a brute force search for several different leaf sizes
+	 */
+	@Test
+	public void findFirst_segment() {
+		BvhSearch_F64 search = new BvhSearch_F64();
+
+		for( int leafSize = 1; leafSize <= 16; leafSize *= 4 ) {
+			BvhTriangle3D_F64 alg = new BvhTriangle3D_F64(leafSize);
+			alg.setTriangles(triangles);
+			assertEquals(triangles.size(), alg.size());
+
+			int total = 0;
+			for( int trial = 0; trial < 200; trial++ ) {
+				LineSegment3D_F64 segment = randomSegment();
+				int expected = bruteForceFirst(segment);
+
+				boolean found = alg.findFirst(segment, search);
+				assertEquals(expected >= 0, found);
+				if( !found ) {
+					assertEquals(-1, search.index);
+					continue;
+				}
+				total++;
+				assertEquals(expected, search.index);
+				checkHit(segment, search);
+			}
+			// make sure the test is meaningful
+			assertTrue(total > 20);
+		}
+	}
+
+	@Test
+	public void findFirst_ray() {
+		BvhTriangle3D_F64 alg = new BvhTriangle3D_F64();
+		alg.setTriangles(triangles);
+		BvhSearch_F64 search = new BvhSearch_F64();
+
+		for( int trial = 0; trial < 200; trial++ ) {
+			LineSegment3D_F64 segment = randomSegment();
+			LineParametric3D_F64 ray = new LineParametric3D_F64(segment.a, new Vector3D_F64(segment.a, segment.b));
+			ray.slope.normalize();
+
+			// the ray is long enough to pass through all the triangles
+			LineSegment3D_F64 equivalent = new LineSegment3D_F64(segment.a, ray.getPointOnLine(10));
+			int expected = bruteForceFirst(equivalent);
+
+			boolean found = alg.findFirst(ray, search);
+			assertEquals(expected >= 0, found);
+			if( found ) {
+				assertEquals(expected, search.index);
+				Point3D_F64 p = ray.getPointOnLine(search.t);
+				assertEquals(0, p.distance(search.point), GrlConstants.DOUBLE_TEST_TOL);
+				assertTrue(search.t >= 0);
+			}
+		}
+	}
+
+	/**
+	 * Triangles behind the start of the ray or past the end of the segment can't be hit
+	 */
+	@Test
+	public void findFirst_direction() {
+		List<Triangle3D_F64> list = new ArrayList<Triangle3D_F64>();
+		list.add(new Triangle3D_F64(-1, -1, 2, 1, -1, 2, 0, 1, 2));
+		list.add(new Triangle3D_F64(-1, -1, 4, 1, -1, 4, 0, 1, 4));
+
+		BvhTriangle3D_F64 alg = new BvhTriangle3D_F64(1);
+		alg.setTriangles(list);
+		BvhSearch_F64 search = new BvhSearch_F64();
+
+		LineParametric3D_F64 ray = new LineParametric3D_F64(0, 0, 3, 0, 0, 1);
+		assertTrue(alg.findFirst(ray, search));
+		assertEquals(1, search.index);
+		assertEquals(1, search.t, GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(4, search.point.z, GrlConstants.DOUBLE_TEST_TOL);
+
+		ray.slope.set(0, 0, -2);
+		assertTrue(alg.findFirst(ray, search));
+		assertEquals(0, search.index);
+		assertEquals(0.5, search.t, GrlConstants.DOUBLE_TEST_TOL);
+
+		ray.p.set(0, 0, 5);
+		ray.slope.set(0, 0, 1);
+		assertFalse(alg.findFirst(ray, search));
+
+		LineSegment3D_F64 segment = new LineSegment3D_F64(0, 0, 0, 0, 0, 3);
+		assertTrue(alg.findFirst(segment, search));
+		assertEquals(0, search.index);
+		assertEquals(2.0/3.0, search.t, GrlConstants.DOUBLE_TEST_TOL);
+		segment.b.z = 1.5;
+		assertFalse(alg.findFirst(segment, search));
+		assertFalse(alg.findAny(segment, search));
+	}
+
+	@Test
+	public void findAny() {
+		BvhSearch_F64 search = new BvhSearch_F64();
+
+		for( int leafSize = 1; leafSize <= 16; leafSize *= 4 ) {
+			BvhTriangle3D_F64 alg = new BvhTriangle3D_F64(leafSize);
+			alg.setTriangles(triangles);
+
+			for( int trial = 0; trial < 200; trial++ ) {
+				LineSegment3D_F64 segment = randomSegment();
+				int expected = bruteForceFirst(segment);
+
+				boolean found = alg.findAny(segment, search);
+				assertEquals(expected >= 0, found);
+				if( found ) {
+					// it doesn't need to be the closest, but it does need to be intersected
+					Point3D_F64 p = new Point3D_F64();
+					assertEquals(1, Intersection3D_F64.intersection(triangles.get(search.index), segment, p));
+					checkHit(segment, search);
+				}
+
+				LineParametric3D_F64 ray = new LineParametric3D_F64(segment.a, new Vector3D_F64(segment.a, segment.b));
+				assertEquals(alg.findFirst(ray, search), alg.findAny(ray, search));
+			}
+		}
+	}
+
+	/**
+	 * Compares the closest triangle against a brute force search for several different leaf sizes
+	 */
+	@Test
+	public void findClosest() {
+		BvhSearch_F64 search = new BvhSearch_F64();
+
+		for( int leafSize = 1; leafSize <= 16; leafSize *= 4 ) {
+			BvhTriangle3D_F64 alg = new BvhTriangle3D_F64(leafSize);
+			alg.setTriangles(triangles);
+
+			for( int trial = 0; trial < 100; trial++ ) {
+				Point3D_F64 p = UtilPoint3D_F64.random(-1.5, 1.5, 1, rand).get(0);
+				double expected = bruteForceClosest(p);
+
+				assertTrue(alg.findClosest(p, Double.MAX_VALUE, search));
+				assertEquals(expected, search.distance, GrlConstants.DOUBLE_TEST_TOL);
+				assertEquals(expected, p.distance(search.point), GrlConstants.DOUBLE_TEST_TOL);
+				assertEquals(expected, Math.abs(Distance3D_F64.distance(triangles.get(search.index), p)),
+						GrlConstants.DOUBLE_TEST_TOL);
+				// it should only need to check a fraction of the triangles
+				assertTrue(search.getNumChecked() < triangles.size()/2);
+			}
+		}
+	}
+
+	@Test
+	public void findClosest_maxDistance() {
+		BvhTriangle3D_F64 alg = new BvhTriangle3D_F64();
+		alg.setTriangles(triangles);
+		BvhSearch_F64 search = new BvhSearch_F64();
+
+		Point3D_F64 p = new Point3D_F64(10, 0, 0);
+		assertFalse(alg.findClosest(p, 5, search));
+		assertEquals(-1, search.index);
+
+		double expected = bruteForceClosest(p);
+		assertFalse(alg.findClosest(p, expected*0.999, search));
+		assertTrue(alg.findClosest(p, expected*1.001, search));
+		assertEquals(expected, search.distance, GrlConstants.DOUBLE_TEST_TOL);
+
+		alg.setTriangles(new ArrayList<Triangle3D_F64>());
+		assertFalse(alg.findClosest(p, Double.MAX_VALUE, search));
+	}
+
+	/**
+	 * Every triangle should be inside of a leaf exactly once and inside the bounds of all the nodes which
+	 * contain it
+	 */
+	@Test
+	public void checkStructure() {
+		BvhTriangle3D_F64 alg = new BvhTriangle3D_F64(2);
+		alg.setTriangles(triangles);
+
+		boolean[] marked = new boolean[triangles.size()];
+		int numLeaves = 0;
+		for( int node = 0; node < alg.getNumNodes(); node++ ) {
+			int start = alg.nodeStart[node];
+			int end = alg.nodeEnd[node];
+			assertTrue(end > start);
+
+			for( int i = start*9; i < end*9; i++ ) {
+				double min = alg.nodeBounds[node*6 + i%3];
+				double max = alg.nodeBounds[node*6 + 3 + i%3];
+				assertTrue(alg.vertices[i] >= min && alg.vertices[i] <= max);
+			}
+
+			int right = alg.nodeRight[node];
+			if( right < 0 ) {
+				numLeaves++;
+				for( int i = start; i < end; i++ ) {
+					assertFalse(marked[alg.indexes[i]]);
+					marked[alg.indexes[i]] = true;
+				}
+			} else {
+				// children partition the node
+				assertEquals(start, alg.nodeStart[node+1]);
+				assertEquals(alg.nodeEnd[node+1], alg.nodeStart[right]);
+				assertEquals(end, alg.nodeEnd[right]);
+			}
+		}
+		for( int i = 0; i < marked.length; i++ ) {
+			assertTrue(marked[i]);
+		}
+		assertTrue(numLeaves > 1);
+		assertTrue(alg.getDepth() < 30);
+	}
+
+	/**
+	 * Triangles which all have the same centroid can't be split
+	 */
+	@Test
+	public void identicalCentroids() {
+		List<Triangle3D_F64> list = new ArrayList<Triangle3D_F64>();
+		for( int i = 0; i < 20; i++ ) {
+			double s = 1 + i;
+			list.add(new Triangle3D_F64(-s, -s, 1, s, -s, 1, 0, 2*s, 1));
+		}
+
+		BvhTriangle3D_F64 alg = new BvhTriangle3D_F64(1);
+		alg.setTriangles(list);
+		assertEquals(1, alg.getNumNodes());
+
+		BvhSearch_F64 search = new BvhSearch_F64();
+		assertTrue(alg.findFirst(new LineSegment3D_F64(0, 0, 0, 0, 0, 2), search));
+		assertEquals(1, search.point.z, GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	@Test
+	public void empty() {
+		BvhTriangle3D_F64 alg = new BvhTriangle3D_F64();
+		alg.setTriangles(new ArrayList<Triangle3D_F64>());
+		BvhSearch_F64 search = new BvhSearch_F64();
+
+		LineSegment3D_F64 segment = new LineSegment3D_F64(0, 0, 0, 1, 1, 1);
+		assertFalse(alg.findFirst(segment, search));
+		assertFalse(alg.findAny(segment, search));
+		assertEquals(0, alg.size());
+
+		// rebuilding with triangles after being empty
+		alg.setTriangles(triangles);
+		assertEquals(triangles.size(), alg.size());
+	}
+
+	private void checkHit( LineSegment3D_F64 segment , BvhSearch_F64 search ) {
+		assertTrue(search.t >= 0 && search.t <= 1);
+		Point3D_F64 expected = new Point3D_F64();
+		expected.x = segment.a.x + search.t*(segment.b.x - segment.a.x);
+		expected.y = segment.a.y + search.t*(segment.b.y - segment.a.y);
+		expected.z = segment.a.z + search.t*(segment.b.z - segment.a.z);
+		assertEquals(0, expected.distance(search.point), GrlConstants.DOUBLE_TEST_TOL);
+	}
+
+	/**
+	 * Finds the triangle which intersects the segment closest to 'a'
+	 */
+	private int bruteForceFirst( LineSegment3D_F64 segment ) {
+		Point3D_F64 p = new Point3D_F64();
+		int best = -1;
+		double bestDistance = Double.MAX_VALUE;
+		for( int i = 0; i < triangles.size(); i++ ) {
+			if( Intersection3D_F64.intersection(triangles.get(i), segment, p) != 1 )
+				continue;
+			double d = p.distance(segment.a);
+			if( d < bestDistance ) {
+				bestDistance = d;
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	private double bruteForceClosest( Point3D_F64 p ) {
+		double best = Double.MAX_VALUE;
+		for( int i = 0; i < triangles.size(); i++ ) {
+			best = Math.min(best, Math.abs(Distance3D_F64.distance(triangles.get(i), p)));
+		}
+		return best;
+	}
+
+	private LineSegment3D_F64 randomSegment() {
+		List<Point3D_F64> points = UtilPoint3D_F64.random(-1.5, 1.5, 2, rand);
+		return new LineSegment3D_F64(points.get(0), points.get(1));
+	}
+
+	/**
+	 * Creates small triangles which are randomly distributed inside a cube
+	 */
+	public static List<Triangle3D_F64> randomTriangles( int N , Random rand ) {
+		List<Point3D_F64> centers = UtilPoint3D_F64.random(-1, 1, N, rand);
+		List<Point3D_F64> offsets = UtilPoint3D_F64.random(-0.1, 0.1, 3*N, rand);
+
+		List<Triangle3D_F64> triangles = new ArrayList<Triangle3D_F64>();
+		for( int i = 0; i < N; i++ ) {
+			Triangle3D_F64 t = new Triangle3D_F64();
+			t.v0.set(centers.get(i));
+			t.v0.plusIP(offsets.get(i*3));
+			t.v1.set(centers.get(i));
+			t.v1.plusIP(offsets.get(i*3+1));
+			t.v2.set(centers.get(i));
+			t.v2.plusIP(offsets.get(i*3+2));
+			triangles.add(t);
+		}
+		return triangles;
+	}
+}
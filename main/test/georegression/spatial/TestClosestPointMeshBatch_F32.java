@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.geometry.UtilPoint3D_F32;
+import georegression.metric.Distance3D_F32;
+import georegression.misc.ConcurrencyOps;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F32;
+import georegression.struct.point.PointCloud3D_F32;
+import georegression.struct.shapes.Triangle3D_F32;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestClosestPointMeshBatch_F32 {
+
+	Random rand = new Random(234);
+
+	List<Triangle3D_F32> triangles = TestBvhTriangle3D_F32.randomTriangles(300, rand);
+
+	/**
+	 * Compares the results against a brute force search.  The points are ordered like a scan so that consecutive
+	 * points are near each other.
+	 */
+	@Test
+	public void compareToBruteForce() {
+		PointCloud3D_F32 points = createScan(2*ClosestPointMeshBatch_F32.BLOCK_SIZE + 11);
+
+		BvhTriangle3D_F32 mesh = new BvhTriangle3D_F32();
+		mesh.setTriangles(triangles);
+		ClosestPointMeshBatch_F32 alg = new ClosestPointMeshBatch_F32(mesh);
+		alg.setConcurrent(false);
+
+		int[] found = new int[points.size];
+		float[] distances = new float[points.size];
+		PointCloud3D_F32 closest = new PointCloud3D_F32();
+		assertEquals(points.size, alg.process(points, Float.MAX_VALUE, found, distances, closest));
+		assertEquals(points.size, closest.size);
+
+		Point3D_F32 p = new Point3D_F32();
+		Point3D_F32 c = new Point3D_F32();
+		for( int i = 0; i < points.size; i++ ) {
+			points.get(i, p);
+			closest.get(i, c);
+			float expected = bruteForce(p);
+
+			assertEquals(expected, distances[i], GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(expected, p.distance(c), GrlConstants.FLOAT_TEST_TOL);
+			assertEquals(expected, (float)Math.abs(Distance3D_F32.distance(triangles.get(found[i]), p)),
+					GrlConstants.FLOAT_TEST_TOL);
+		}
+	}
+
+	/**
+	 * Points without a triangle within the max distance should be marked and the optional output not modified
+	 */
+	@Test
+	public void maxDistance() {
+		PointCloud3D_F32 points = new PointCloud3D_F32();
+		points.add(0, 0, 0);
+		points.add(10, 0, 0);
+		points.add(0, 0, -20);
+
+		BvhTriangle3D_F32 mesh = new BvhTriangle3D_F32();
+		mesh.setTriangles(triangles);
+		ClosestPointMeshBatch_F32 alg = new ClosestPointMeshBatch_F32(mesh);
+
+		int[] found = new int[3];
+		float[] distances = new float[]{-2, -2, -2};
+		assertEquals(1, alg.process(points, 2, found, distances, null));
+
+		assertTrue(found[0] >= 0);
+		assertEquals(bruteForce(new Point3D_F32()), distances[0], GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(-1, found[1]);
+		assertEquals(-1, found[2]);
+		assertEquals(-2, distances[1], 0);
+		assertEquals(-2, distances[2], 0);
+
+		// distances are optional too
+		assertEquals(1, alg.process(points, 2, found, null, null));
+	}
+
+	/**
+	 * The same results should be found with and without threads
+	 */
+	@Test
+	public void concurrent() {
+		PointCloud3D_F32 points = createScan(10*ClosestPointMeshBatch_F32.BLOCK_SIZE + 5);
+
+		BvhTriangle3D_F32 mesh = new BvhTriangle3D_F32();
+		mesh.setTriangles(triangles);
+		ClosestPointMeshBatch_F32 alg = new ClosestPointMeshBatch_F32(mesh);
+
+		int[] expected = new int[points.size];
+		int[] found = new int[points.size];
+		float[] distancesExpected = new float[points.size];
+		float[] distancesFound = new float[points.size];
+		PointCloud3D_F32 closestExpected = new PointCloud3D_F32();
+		PointCloud3D_F32 closestFound = new PointCloud3D_F32();
+
+		alg.setConcurrent(false);
+		int totalExpected = alg.process(points, 0.5f, expected, distancesExpected, closestExpected);
+
+		alg.setConcurrent(true);
+		int totalFound;
+		ForkJoinPool original = ConcurrencyOps.getPool();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			ConcurrencyOps.setPool(pool);
+			totalFound = alg.process(points, 0.5f, found, distancesFound, closestFound);
+			// call it again to see if the workspaces are correctly reused
+			totalFound = alg.process(points, 0.5f, found, distancesFound, closestFound);
+		} finally {
+			ConcurrencyOps.setPool(original);
+			pool.shutdown();
+		}
+
+		assertEquals(totalExpected, totalFound);
+		for( int i = 0; i < points.size; i++ ) {
+			assertEquals(expected[i], found[i]);
+			assertEquals(distancesExpected[i], distancesFound[i], 0);
+			assertEquals(closestExpected.x[i], closestFound.x[i], 0);
+			assertEquals(closestExpected.y[i], closestFound.y[i], 0);
+			assertEquals(closestExpected.z[i], closestFound.z[i], 0);
+		}
+	}
+
+	@Test
+	public void badArguments() {
+		PointCloud3D_F32 points = createScan(10);
+		BvhTriangle3D_F32 mesh = new BvhTriangle3D_F32();
+		mesh.setTriangles(triangles);
+		ClosestPointMeshBatch_F32 alg = new ClosestPointMeshBatch_F32(mesh);
+
+		try {
+			alg.process(points, Float.MAX_VALUE, new int[9], null, null);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+		try {
+			alg.process(points, Float.MAX_VALUE, new int[10], new float[9], null);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+		try {
+			alg.process(points, Float.MAX_VALUE, new int[10], null, points);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	/**
+	 * Creates points which are near each other when they are next to each other in the cloud, like a scan
+	 */
+	private PointCloud3D_F32 createScan( int N ) {
+		List<Point3D_F32> offsets = UtilPoint3D_F32.random(-0.02f, 0.02f, N, rand);
+		PointCloud3D_F32 points = new PointCloud3D_F32();
+		Point3D_F32 p = new Point3D_F32(-1.2f, -1.2f, -1.2f);
+		for( int i = 0; i < N; i++ ) {
+			p.plusIP(offsets.get(i));
+			p.x += 0.001f;
+			points.add(p);
+		}
+		return points;
+	}
+
+	private float bruteForce( Point3D_F32 p ) {
+		float best = Float.MAX_VALUE;
+		for( int i = 0; i < triangles.size(); i++ ) {
+			best = (float)Math.min(best, (float)Math.abs(Distance3D_F32.distance(triangles.get(i), p)));
+		}
+		return best;
+	}
+}
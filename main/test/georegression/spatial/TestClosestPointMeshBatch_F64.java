@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.metric.Distance3D_F64;
+import georegression.misc.ConcurrencyOps;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.shapes.Triangle3D_F64;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestClosestPointMeshBatch_F64 {
+
+	Random rand = new Random(234);
+
+	List<Triangle3D_F64> triangles = TestBvhTriangle3D_F64.randomTriangles(300, rand);
+
+	/**
+	 * Compares the results against a brute force search.  The points are ordered like a scan so that consecutive
+	 * points are near each other.
+	 */
+	@Test
+	public void compareToBruteForce() {
+		PointCloud3D_F64 points = createScan(2*ClosestPointMeshBatch_F64.BLOCK_SIZE + 11);
+
+		BvhTriangle3D_F64 mesh = new BvhTriangle3D_F64();
+		mesh.setTriangles(triangles);
+		ClosestPointMeshBatch_F64 alg = new ClosestPointMeshBatch_F64(mesh);
+		alg.setConcurrent(false);
+
+		int[] found = new int[points.size];
+		double[] distances = new double[points.size];
+		PointCloud3D_F64 closest = new PointCloud3D_F64();
+		assertEquals(points.size, alg.process(points, Double.MAX_VALUE, found, distances, closest));
+		assertEquals(points.size, closest.size);
+
+		Point3D_F64 p = new Point3D_F64();
+		Point3D_F64 c = new Point3D_F64();
+		for( int i = 0; i < points.size; i++ ) {
+			points.get(i, p);
+			closest.get(i, c);
+			double expected = bruteForce(p);
+
+			assertEquals(expected, distances[i], GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(expected, p.distance(c), GrlConstants.DOUBLE_TEST_TOL);
+			assertEquals(expected, Math.abs(Distance3D_F64.distance(triangles.get(found[i]), p)),
+					GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
+	/**
+	 * Points without a triangle within the max distance should be marked and the optional output not modified
+	 */
+	@Test
+	public void maxDistance() {
+		PointCloud3D_F64 points = new PointCloud3D_F64();
+		points.add(0, 0, 0);
+		points.add(10, 0, 0);
+		points.add(0, 0, -20);
+
+		BvhTriangle3D_F64 mesh = new BvhTriangle3D_F64();
+		mesh.setTriangles(triangles);
+		ClosestPointMeshBatch_F64 alg = new ClosestPointMeshBatch_F64(mesh);
+
+		int[] found = new int[3];
+		double[] distances = new double[]{-2, -2, -2};
+		assertEquals(1, alg.process(points, 2, found, distances, null));
+
+		assertTrue(found[0] >= 0);
+		assertEquals(bruteForce(new Point3D_F64()), distances[0], GrlConstants.DOUBLE_TEST_TOL);
+		assertEquals(-1, found[1]);
+		assertEquals(-1, found[2]);
+		assertEquals(-2, distances[1], 0);
+		assertEquals(-2, distances[2], 0);
+
+		// distances are optional too
+		assertEquals(1, alg.process(points, 2, found, null, null));
+	}
+
+	/**
+	 * The same results should be found with and without threads
+	 */
+	@Test
+	public void concurrent() {
+		PointCloud3D_F64 points = createScan(10*ClosestPointMeshBatch_F64.BLOCK_SIZE + 5);
+
+		BvhTriangle3D_F64 mesh = new BvhTriangle3D_F64();
+		mesh.setTriangles(triangles);
+		ClosestPointMeshBatch_F64 alg = new ClosestPointMeshBatch_F64(mesh);
+
+		int[] expected = new int[points.size];
+		int[] found = new int[points.size];
+		double[] distancesExpected = new double[points.size];
+		double[] distancesFound = new double[points.size];
+		PointCloud3D_F64 closestExpected = new PointCloud3D_F64();
+		PointCloud3D_F64 closestFound = new PointCloud3D_F64();
+
+		alg.setConcurrent(false);
+		int totalExpected = alg.process(points, 0.5, expected, distancesExpected, closestExpected);
+
+		alg.setConcurrent(true);
+		int totalFound;
+		ForkJoinPool original = ConcurrencyOps.getPool();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			ConcurrencyOps.setPool(pool);
+			totalFound = alg.process(points, 0.5, found, distancesFound, closestFound);
+			// call it again to see if the workspaces are correctly reused
+			totalFound = alg.process(points, 0.5, found, distancesFound, closestFound);
+		} finally {
+			ConcurrencyOps.setPool(original);
+			pool.shutdown();
+		}
+
+		assertEquals(totalExpected, totalFound);
+		for( int i = 0; i < points.size; i++ ) {
+			assertEquals(expected[i], found[i]);
+			assertEquals(distancesExpected[i], distancesFound[i], 0);
+			assertEquals(closestExpected.x[i], closestFound.x[i], 0);
+			assertEquals(closestExpected.y[i], closestFound.y[i], 0);
+			assertEquals(closestExpected.z[i], closestFound.z[i], 0);
+		}
+	}
+
+	@Test
+	public void badArguments() {
+		PointCloud3D_F64 points = createScan(10);
+		BvhTriangle3D_F64 mesh = new BvhTriangle3D_F64();
+		mesh.setTriangles(triangles);
+		ClosestPointMeshBatch_F64 alg = new ClosestPointMeshBatch_F64(mesh);
+
+		try {
+			alg.process(points, Double.MAX_VALUE, new int[9], null, null);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+		try {
+			alg.process(points, Double.MAX_VALUE, new int[10], new double[9], null);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+		try {
+			alg.process(points, Double.MAX_VALUE, new int[10], null, points);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	/**
+	 * Creates points which are near each other when they are next to each other in the cloud, like a scan
+	 */
+	private PointCloud3D_F64 createScan( int N ) {
+		List<Point3D_F64> offsets = UtilPoint3D_F64.random(-0.02, 0.02, N, rand);
+		PointCloud3D_F64 points = new PointCloud3D_F64();
+		Point3D_F64 p = new Point3D_F64(-1.2, -1.2, -1.2);
+		for( int i = 0; i < N; i++ ) {
+			p.plusIP(offsets.get(i));
+			p.x += 0.001;
+			points.add(p);
+		}
+		return points;
+	}
+
+	private double bruteForce( Point3D_F64 p ) {
+		double best = Double.MAX_VALUE;
+		for( int i = 0; i < triangles.size(); i++ ) {
+			best = Math.min(best, Math.abs(Distance3D_F64.distance(triangles.get(i), p)));
+		}
+		return best;
+	}
+}
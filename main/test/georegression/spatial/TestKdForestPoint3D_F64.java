@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestKdForestPoint3D_F64 {
+
+	Random rand = new Random(234);
+
+	List<Point3D_F64> points = UtilPoint3D_F64.random(-1, 1, 2000, rand);
+
+	/**
+	 * If max checks is larger than the number of points the search should be exact
+	 */
+	@Test
+	public void findNearest_exact() {
+		KdForestPoint3D_F64 alg = new KdForestPoint3D_F64(3, 4, Integer.MAX_VALUE);
+		alg.setPoints(points);
+		assertEquals(points.size(), alg.size());
+		KdForestSearch_F64 search = new KdForestSearch_F64();
+
+		for( int trial = 0; trial < 50; trial++ ) {
+			Point3D_F64 q = randomPoint();
+			int k = 1 + rand.nextInt(10);
+
+			alg.findNearest(q, k, Double.MAX_VALUE, search);
+			double[] expected = bruteForce(q);
+
+			assertEquals(k, search.size());
+			for( int i = 0; i < k; i++ ) {
+				assertEquals(expected[i], search.getDistanceSq(i), 0);
+				assertEquals(expected[i], points.get(search.getIndex(i)).distance2(q), 0);
+			}
+		}
+	}
+
+	/**
+	 * With a limited number of checks most of the nearest points should still be found and the amount of work
+	 * should be bounded
+	 */
+	@Test
+	public void findNearest_approximate() {
+		int numTrees = 4, leafSize = 8, maxChecks = 32;
+		KdForestPoint3D_F64 alg = new KdForestPoint3D_F64(numTrees, leafSize, maxChecks);
+		alg.setPoints(points);
+		KdForestSearch_F64 search = new KdForestSearch_F64();
+
+		int numCorrect = 0;
+		int numTrials = 200;
+		for( int trial = 0; trial < numTrials; trial++ ) {
+			Point3D_F64 q = randomPoint();
+			int found = alg.findNearest(q, Double.MAX_VALUE, search);
+
+			assertTrue(search.getNumChecked() < maxChecks + leafSize);
+			if( points.get(found).distance2(q) == bruteForce(q)[0] )
+				numCorrect++;
+		}
+		assertTrue(numCorrect > numTrials*0.8);
+		assertTrue(numCorrect < numTrials);
+	}
+
+	@Test
+	public void findNearest_maxDistance() {
+		KdForestPoint3D_F64 alg = new KdForestPoint3D_F64();
+		alg.setPoints(points);
+		KdForestSearch_F64 search = new KdForestSearch_F64();
+
+		Point3D_F64 q = new Point3D_F64(10, 0, 0);
+		assertEquals(-1, alg.findNearest(q, 5, search));
+		assertEquals(0, search.size());
+
+		// a query point which is in the forest
+		assertEquals(23, alg.findNearest(points.get(23), Double.MAX_VALUE, search));
+		assertEquals(0, search.getDistanceSq(0), 0);
+	}
+
+	/**
+	 * A point should only be returned once even though it's in every tree
+	 */
+	@Test
+	public void findNearest_noDuplicates() {
+		KdForestPoint3D_F64 alg = new KdForestPoint3D_F64(5, 4, 200);
+		alg.setPoints(points);
+		KdForestSearch_F64 search = new KdForestSearch_F64();
+
+		for( int trial = 0; trial < 20; trial++ ) {
+			alg.findNearest(randomPoint(), 30, Double.MAX_VALUE, search);
+			assertEquals(30, search.size());
+			boolean[] marked = new boolean[points.size()];
+			for( int i = 0; i < search.size(); i++ ) {
+				assertFalse(marked[search.getIndex(i)]);
+				marked[search.getIndex(i)] = true;
+			}
+		}
+	}
+
+	/**
+	 * The same seed should produce the same results
+	 */
+	@Test
+	public void repeatable() {
+		KdForestPoint3D_F64 a = new KdForestPoint3D_F64(4, 8, 32);
+		KdForestPoint3D_F64 b = new KdForestPoint3D_F64(4, 8, 32);
+		a.setPoints(points);
+		b.setPoints(new PointCloud3D_F64(points));
+
+		KdForestSearch_F64 searchA = new KdForestSearch_F64();
+		KdForestSearch_F64 searchB = new KdForestSearch_F64();
+		for( int trial = 0; trial < 20; trial++ ) {
+			Point3D_F64 q = randomPoint();
+			a.findNearest(q, 5, Double.MAX_VALUE, searchA);
+			b.findNearest(q, 5, Double.MAX_VALUE, searchB);
+			assertEquals(searchA.getNumChecked(), searchB.getNumChecked());
+			for( int i = 0; i < 5; i++ ) {
+				assertEquals(searchA.getIndex(i), searchB.getIndex(i));
+			}
+		}
+	}
+
+	@Test
+	public void duplicatePoints() {
+		List<Point3D_F64> points = new ArrayList<Point3D_F64>();
+		for( int i = 0; i < 100; i++ ) {
+			points.add(new Point3D_F64(1, 2, 3));
+		}
+		points.add(new Point3D_F64(1, 2, 4));
+
+		KdForestPoint3D_F64 alg = new KdForestPoint3D_F64(3, 2, 1000);
+		alg.setPoints(points);
+		KdForestSearch_F64 search = new KdForestSearch_F64();
+
+		assertEquals(100, alg.findNearest(1, 2, 3.9, Double.MAX_VALUE, search));
+	}
+
+	@Test
+	public void empty() {
+		KdForestPoint3D_F64 alg = new KdForestPoint3D_F64();
+		KdForestSearch_F64 search = new KdForestSearch_F64();
+
+		alg.setPoints(new ArrayList<Point3D_F64>());
+		assertEquals(-1, alg.findNearest(1, 2, 3, Double.MAX_VALUE, search));
+	}
+
+	private Point3D_F64 randomPoint() {
+		return new Point3D_F64(rand.nextDouble()*2.4 - 1.2, rand.nextDouble()*2.4 - 1.2, rand.nextDouble()*2.4 - 1.2);
+	}
+
+	/**
+	 * Sorted distance squared of all the points from the query
+	 */
+	private double[] bruteForce( Point3D_F64 q ) {
+		double[] distances = new double[points.size()];
+		for( int i = 0; i < points.size(); i++ ) {
+			distances[i] = points.get(i).distance2(q);
+		}
+		Arrays.sort(distances);
+		return distances;
+	}
+}
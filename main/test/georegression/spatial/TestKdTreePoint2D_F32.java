@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.geometry.UtilPoint2D_F32;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.PointCloud2D_F32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestKdTreePoint2D_F32 {
+
+	Random rand = new Random(234);
+
+	List<Point2D_F32> points = UtilPoint2D_F32.random(-1, 1, 500, rand);
+
+	/**
+	 * Compares k-nearest against a brute force search for several different leaf sizes
+	 */
+	@Test
+	public void findNearest_k() {
+		KdTreeSearch_F32 search = new KdTreeSearch_F32();
+
+		for( int leafSize = 1; leafSize <= 16; leafSize *= 4 ) {
+			KdTreePoint2D_F32 alg = new KdTreePoint2D_F32(leafSize);
+			alg.setPoints(points);
+			assertEquals(points.size(), alg.size());
+
+			for( int trial = 0; trial < 50; trial++ ) {
+				Point2D_F32 q = randomPoint();
+				int k = 1 + rand.nextInt(10);
+
+				alg.findNearest(q, k, Float.MAX_VALUE, search);
+				float[] expected = bruteForce(q);
+
+				assertEquals(k, search.size());
+				for( int i = 0; i < k; i++ ) {
+					assertEquals(expected[i], search.getDistanceSq(i), 0);
+					assertEquals(expected[i], points.get(search.getIndex(i)).distance2(q), 0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void findNearest_single() {
+		KdTreePoint2D_F32 alg = new KdTreePoint2D_F32();
+		alg.setPoints(points);
+		KdTreeSearch_F32 search = new KdTreeSearch_F32();
+
+		for( int trial = 0; trial < 50; trial++ ) {
+			Point2D_F32 q = randomPoint();
+			int found = alg.findNearest(q, Float.MAX_VALUE, search);
+
+			float[] expected = bruteForce(q);
+			assertEquals(expected[0], points.get(found).distance2(q), 0);
+			assertEquals(1, search.size());
+		}
+
+		// a query point which is in the tree
+		assertEquals(23, alg.findNearest(points.get(23), Float.MAX_VALUE, search));
+		assertEquals(0, search.getDistanceSq(0), 0);
+	}
+
+	@Test
+	public void findNearest_maxDistance() {
+		KdTreePoint2D_F32 alg = new KdTreePoint2D_F32();
+		alg.setPoints(points);
+		KdTreeSearch_F32 search = new KdTreeSearch_F32();
+
+		Point2D_F32 q = new Point2D_F32(10, 0);
+		assertEquals(-1, alg.findNearest(q, 5, search));
+		assertEquals(0, search.size());
+
+		q.set(0.1f, -0.3f);
+		float[] expected = bruteForce(q);
+		float maxDistance = (float)Math.sqrt(expected[5]);
+		alg.findNearest(q, 20, maxDistance, search);
+		// the distance is exclusive
+		assertEquals(5, search.size());
+	}
+
+	@Test
+	public void findRadius() {
+		KdTreePoint2D_F32 alg = new KdTreePoint2D_F32(4);
+		alg.setPoints(points);
+		KdTreeSearch_F32 search = new KdTreeSearch_F32();
+
+		for( int trial = 0; trial < 50; trial++ ) {
+			Point2D_F32 q = randomPoint();
+			float radius = 0.5f*rand.nextFloat();
+
+			alg.findRadius(q, radius, search);
+
+			int expected = 0;
+			for( Point2D_F32 p : points ) {
+				if( p.distance2(q) <= radius*radius )
+					expected++;
+			}
+			assertEquals(expected, search.size());
+
+			boolean[] marked = new boolean[points.size()];
+			for( int i = 0; i < search.size(); i++ ) {
+				int index = search.getIndex(i);
+				assertFalse(marked[index]);
+				marked[index] = true;
+				assertEquals(points.get(index).distance2(q), search.getDistanceSq(i), 0);
+				assertTrue(search.getDistanceSq(i) <= radius*radius);
+			}
+		}
+	}
+
+	/**
+	 * Building from a cloud and a list should produce the same results
+	 */
+	@Test
+	public void setPoints_cloud() {
+		KdTreePoint2D_F32 a = new KdTreePoint2D_F32();
+		KdTreePoint2D_F32 b = new KdTreePoint2D_F32();
+		a.setPoints(points);
+		b.setPoints(new PointCloud2D_F32(points));
+
+		KdTreeSearch_F32 searchA = new KdTreeSearch_F32();
+		KdTreeSearch_F32 searchB = new KdTreeSearch_F32();
+		for( int trial = 0; trial < 20; trial++ ) {
+			Point2D_F32 q = randomPoint();
+			a.findNearest(q, 5, Float.MAX_VALUE, searchA);
+			b.findNearest(q, 5, Float.MAX_VALUE, searchB);
+			for( int i = 0; i < 5; i++ ) {
+				assertEquals(searchA.getIndex(i), searchB.getIndex(i));
+			}
+		}
+	}
+
+	/**
+	 * Many identical points.  Can't split a node which has identical points
+	 */
+	@Test
+	public void duplicatePoints() {
+		List<Point2D_F32> points = new ArrayList<Point2D_F32>();
+		for( int i = 0; i < 100; i++ ) {
+			points.add(new Point2D_F32(1, 2));
+		}
+		points.add(new Point2D_F32(1, 3));
+
+		KdTreePoint2D_F32 alg = new KdTreePoint2D_F32(2);
+		alg.setPoints(points);
+		KdTreeSearch_F32 search = new KdTreeSearch_F32();
+
+		assertEquals(100, alg.findNearest(1, 2.9f, Float.MAX_VALUE, search));
+		alg.findRadius(1, 2, 0.1f, search);
+		assertEquals(100, search.size());
+	}
+
+	/**
+	 * Rebuilding the tree should discard the old points
+	 */
+	@Test
+	public void setPoints_rebuild() {
+		KdTreePoint2D_F32 alg = new KdTreePoint2D_F32();
+		alg.setPoints(points);
+		alg.setPoints(points.subList(0, 10));
+		assertEquals(10, alg.size());
+
+		KdTreeSearch_F32 search = new KdTreeSearch_F32();
+		alg.findRadius(0, 0, 100, search);
+		assertEquals(10, search.size());
+		for( int i = 0; i < 10; i++ ) {
+			assertTrue(search.getIndex(i) < 10);
+		}
+	}
+
+	@Test
+	public void empty() {
+		KdTreePoint2D_F32 alg = new KdTreePoint2D_F32();
+		KdTreeSearch_F32 search = new KdTreeSearch_F32();
+		assertEquals(-1, alg.findNearest(1, 2, Float.MAX_VALUE, search));
+
+		alg.setPoints(new ArrayList<Point2D_F32>());
+		assertEquals(-1, alg.findNearest(1, 2, Float.MAX_VALUE, search));
+		alg.findRadius(1, 2, 10, search);
+		assertEquals(0, search.size());
+	}
+
+	private Point2D_F32 randomPoint() {
+		return new Point2D_F32(rand.nextFloat()*2.4f - 1.2f, rand.nextFloat()*2.4f - 1.2f);
+	}
+
+	/**
+	 * Sorted distance squared of all the points from the query
+	 */
+	private float[] bruteForce( Point2D_F32 q ) {
+		float[] distances = new float[points.size()];
+		for( int i = 0; i < points.size(); i++ ) {
+			distances[i] = points.get(i).distance2(q);
+		}
+		Arrays.sort(distances);
+		return distances;
+	}
+}
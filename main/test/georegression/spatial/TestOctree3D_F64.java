@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.metric.Intersection3D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.shapes.Box3D_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestOctree3D_F64 {
+
+	Random rand = new Random(234);
+
+	Box3D_F64 bounds = new Box3D_F64(-1, -1, -1, 1, 1, 1);
+
+	@Test
+	public void add() {
+		Octree3D_F64 alg = new Octree3D_F64(4, 20);
+		alg.initialize(bounds);
+
+		List<Point3D_F64> points = UtilPoint3D_F64.random(-1, 1, 200, rand);
+		for( int i = 0; i < points.size(); i++ ) {
+			assertEquals(i, alg.add(points.get(i)));
+		}
+		assertEquals(200, alg.size());
+		assertTrue(alg.getNodes().size() > 1);
+
+		// every point should be in exactly one leaf which contains it and no leaf is too big
+		int total = 0;
+		Point3D_F64 p = new Point3D_F64();
+		for( int i = 0; i < alg.getNodes().size(); i++ ) {
+			Octree3D_F64.Node n = alg.getNodes().get(i);
+			if( !n.isLeaf() ) {
+				assertEquals(0, n.count);
+				continue;
+			}
+			assertTrue(n.count <= 4);
+			int index = n.firstPoint;
+			while( index >= 0 ) {
+				alg.getPoint(index, p);
+				assertTrue(Intersection3D_F64.contained(n.bounds, p));
+				assertEquals(0, p.distance(points.get(index)), 0);
+				index = alg.pointNext[index];
+				total++;
+			}
+		}
+		assertEquals(200, total);
+	}
+
+	/**
+	 * Points outside the bounds are rejected
+	 */
+	@Test
+	public void add_outside() {
+		Octree3D_F64 alg = new Octree3D_F64();
+		alg.initialize(bounds);
+
+		assertEquals(-1, alg.add(2, 0, 0));
+		assertEquals(-1, alg.add(0, 1, 0));
+		assertEquals(0, alg.add(0, -1, 0));
+		assertEquals(1, alg.size());
+	}
+
+	/**
+	 * Identical points can't be separated.  The max depth should stop it from splitting forever
+	 */
+	@Test
+	public void add_maxDepth() {
+		Octree3D_F64 alg = new Octree3D_F64(2, 5);
+		alg.initialize(bounds);
+
+		for( int i = 0; i < 20; i++ ) {
+			alg.add(0.1, 0.2, 0.3);
+		}
+		assertEquals(20, alg.size());
+
+		int maxDepth = 0;
+		for( int i = 0; i < alg.getNodes().size(); i++ ) {
+			if( alg.getNodes().get(i).depth > maxDepth )
+				maxDepth = alg.getNodes().get(i).depth;
+		}
+		assertEquals(5, maxDepth);
+	}
+
+	@Test
+	public void findContained() {
+		List<Point3D_F64> points = UtilPoint3D_F64.random(-1, 1, 1000, rand);
+		// points exactly on the edge of the query box
+		points.add(new Point3D_F64(0, 0, 0));
+		points.add(new Point3D_F64(0.5, 0.25, 0.25));
+
+		Octree3D_F64 alg = new Octree3D_F64(8, 20);
+		alg.initialize(bounds);
+		alg.addAll(new PointCloud3D_F64(points));
+
+		GrowQueue_I32 found = new GrowQueue_I32();
+		for( int trial = 0; trial < 50; trial++ ) {
+			Box3D_F64 box = randomBox();
+			if( trial == 0 )
+				box.set(0, 0, 0, 0.5, 0.5, 0.5);
+
+			alg.findContained(box, found);
+			assertArrayEquals(bruteForce(points, box), sort(found));
+		}
+
+		// box which contains everything
+		alg.findContained(new Box3D_F64(-2, -2, -2, 2, 2, 2), found);
+		assertEquals(points.size(), found.size);
+	}
+
+	@Test
+	public void initialize_reset() {
+		Octree3D_F64 alg = new Octree3D_F64(2, 20);
+		alg.initialize(bounds);
+		alg.addAll(UtilPoint3D_F64.random(-1, 1, 100, rand));
+
+		alg.initialize(new Box3D_F64(0, 0, 0, 10, 10, 10));
+		assertEquals(0, alg.size());
+		assertEquals(1, alg.getNodes().size());
+		assertEquals(10, alg.getBounds().p1.x, 0);
+
+		assertEquals(0, alg.add(5, 5, 5));
+		GrowQueue_I32 found = new GrowQueue_I32();
+		alg.findContained(new Box3D_F64(0, 0, 0, 10, 10, 10), found);
+		assertEquals(1, found.size);
+	}
+
+	private Box3D_F64 randomBox() {
+		double x = rand.nextDouble()*2 - 1.2, y = rand.nextDouble()*2 - 1.2, z = rand.nextDouble()*2 - 1.2;
+		return new Box3D_F64(x, y, z, x + rand.nextDouble(), y + rand.nextDouble(), z + rand.nextDouble());
+	}
+
+	public static int[] bruteForce( List<Point3D_F64> points , Box3D_F64 box ) {
+		GrowQueue_I32 expected = new GrowQueue_I32();
+		for( int i = 0; i < points.size(); i++ ) {
+			if( Intersection3D_F64.contained(box, points.get(i)) )
+				expected.add(i);
+		}
+		return sort(expected);
+	}
+
+	public static int[] sort( GrowQueue_I32 list ) {
+		int[] a = new int[list.size];
+		System.arraycopy(list.data, 0, a, 0, list.size);
+		Arrays.sort(a);
+		return a;
+	}
+}
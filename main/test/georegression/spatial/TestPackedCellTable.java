@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPackedCellTable {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Adds enough cells for the table to grow several times and makes sure they can all be found
+	 */
+	@Test
+	public void put_get() {
+		PackedCellTable alg = new PackedCellTable();
+
+		int N = 5000;
+		int[] coordinates = new int[N*3];
+		for( int i = 0; i < N; i++ ) {
+			coordinates[i*3  ] = i;
+			coordinates[i*3+1] = rand.nextInt(2000) - 1000;
+			coordinates[i*3+2] = -i;
+			alg.put(coordinates[i*3], coordinates[i*3+1], coordinates[i*3+2], i);
+		}
+		assertEquals(N, alg.size());
+
+		for( int i = 0; i < N; i++ ) {
+			assertEquals(i, alg.get(coordinates[i*3], coordinates[i*3+1], coordinates[i*3+2]));
+		}
+		assertEquals(-1, alg.get(1, 2, 3));
+	}
+
+	@Test
+	public void put_replace() {
+		PackedCellTable alg = new PackedCellTable();
+		alg.put(1, 2, 3, 5);
+		alg.put(1, 2, 3, 6);
+
+		assertEquals(1, alg.size());
+		assertEquals(6, alg.get(1, 2, 3));
+	}
+
+	/**
+	 * Coordinates at the extremes of the range shouldn't collide with each other
+	 */
+	@Test
+	public void range() {
+		int min = PackedCellTable.MIN_COORDINATE, max = PackedCellTable.MAX_COORDINATE;
+
+		PackedCellTable alg = new PackedCellTable();
+		alg.put(min, min, min, 0);
+		alg.put(max, max, max, 1);
+		alg.put(-1, -1, -1, 2);
+		alg.put(0, 0, 0, 3);
+		alg.put(min, max, 0, 4);
+
+		assertEquals(0, alg.get(min, min, min));
+		assertEquals(1, alg.get(max, max, max));
+		assertEquals(2, alg.get(-1, -1, -1));
+		assertEquals(3, alg.get(0, 0, 0));
+		assertEquals(4, alg.get(min, max, 0));
+
+		// these would share a key with a cell in the table if they weren't checked
+		assertEquals(-1, alg.get(max + 1, max + 1, max + 1));
+		assertEquals(-1, alg.get(min - 1, min - 1, min - 1));
+		assertEquals(-1, alg.get(min, max, 1 << 21));
+
+		assertTrue(PackedCellTable.isValid(min, 0, max));
+		assertFalse(PackedCellTable.isValid(min - 1, 0, 0));
+		assertFalse(PackedCellTable.isValid(0, max + 1, 0));
+		assertFalse(PackedCellTable.isValid(0, 0, Integer.MIN_VALUE));
+
+		try {
+			alg.put(0, max + 1, 0, 5);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	@Test
+	public void reset() {
+		PackedCellTable alg = new PackedCellTable();
+		for( int i = 0; i < 100; i++ ) {
+			alg.put(i, i, i, i);
+		}
+		alg.reset();
+
+		assertEquals(0, alg.size());
+		for( int i = 0; i < 100; i++ ) {
+			assertEquals(-1, alg.get(i, i, i));
+		}
+
+		alg.put(4, 5, 6, 7);
+		assertEquals(7, alg.get(4, 5, 6));
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.spatial;
+
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.misc.GrlConstants;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud3D_F64;
+import georegression.struct.shapes.Box3D_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestVoxelGrid3D_F64 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void add() {
+		VoxelGrid3D_F64 alg = new VoxelGrid3D_F64(0.5);
+
+		assertEquals(0, alg.add(0.1, 0.1, 0.1));
+		assertEquals(0, alg.add(0.4, 0.2, 0.3));
+		assertEquals(1, alg.add(0.6, 0.2, 0.3));
+		// negative coordinates are in a different voxel from positive
+		assertEquals(2, alg.add(-0.1, 0.2, 0.3));
+		assertEquals(2, alg.add(-0.5, 0, 0));
+
+		assertEquals(3, alg.getNumVoxels());
+		assertEquals(5, alg.getNumPoints());
+		assertEquals(2, alg.getCount(0));
+		assertEquals(1, alg.getCount(1));
+		assertEquals(2, alg.getCount(2));
+
+		Box3D_F64 b = alg.getVoxelBounds(2, null);
+		assertEquals(-0.5, b.p0.x, 0);
+		assertEquals(0, b.p1.x, 0);
+		assertEquals(0, b.p0.y, 0);
+		assertEquals(0.5, b.p1.y, 0);
+
+		assertEquals(1, alg.findVoxel(0.9, 0.4, 0.1));
+		assertEquals(-1, alg.findVoxel(10, 0.4, 0.1));
+	}
+
+	/**
+	 * Adds many points so that the hash table needs to grow
+	 */
+	@Test
+	public void add_many() {
+		VoxelGrid3D_F64 alg = new VoxelGrid3D_F64(0.1, false);
+		List<Point3D_F64> points = UtilPoint3D_F64.random(-2, 2, 20000, rand);
+		alg.addAll(points);
+
+		Point3D_F64 p = new Point3D_F64();
+		int total = 0;
+		for( int voxel = 0; voxel < alg.getNumVoxels(); voxel++ ) {
+			total += alg.getCount(voxel);
+			Box3D_F64 b = alg.getVoxelBounds(voxel, null);
+			b.center(p);
+			assertEquals(voxel, alg.findVoxel(p.x, p.y, p.z));
+		}
+		assertEquals(points.size(), total);
+		assertTrue(alg.getNumVoxels() > 10000);
+
+		for( Point3D_F64 q : points ) {
+			int voxel = alg.findVoxel(q.x, q.y, q.z);
+			Box3D_F64 b = alg.getVoxelBounds(voxel, null);
+			assertTrue(q.x >= b.p0.x - GrlConstants.DOUBLE_TEST_TOL && q.x <= b.p1.x + GrlConstants.DOUBLE_TEST_TOL);
+		}
+	}
+
+	@Test
+	public void add_tooFar() {
+		VoxelGrid3D_F64 alg = new VoxelGrid3D_F64(0.001);
+		try {
+			alg.add(2000, 0, 0);
+			fail("Exception expected");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	@Test
+	public void computeCentroids() {
+		VoxelGrid3D_F64 alg = new VoxelGrid3D_F64(1, false);
+
+		// points far from the origin
+		alg.add(1000.1, 2000.2, -500.5);
+		alg.add(1000.3, 2000.4, -500.1);
+		alg.add(1000.5, 2000.6, -500.3);
+		alg.add(1001.5, 2000.6, -500.3);
+
+		PointCloud3D_F64 output = new PointCloud3D_F64();
+		alg.computeCentroids(output);
+
+		assertEquals(2, output.size);
+		assertEquals(1000.3, output.x[0], GrlConstants.DOUBLE_TEST_TOL*1000);
+		assertEquals(2000.4, output.y[0], GrlConstants.DOUBLE_TEST_TOL*1000);
+		assertEquals(-500.3, output.z[0], GrlConstants.DOUBLE_TEST_TOL*1000);
+		assertEquals(1001.5, output.x[1], GrlConstants.DOUBLE_TEST_TOL*1000);
+
+		Point3D_F64 c = alg.getCentroid(0, null);
+		assertEquals(output.x[0], c.x, 0);
+		assertEquals(output.y[0], c.y, 0);
+		assertEquals(output.z[0], c.z, 0);
+	}
+
+	@Test
+	public void findContained() {
+		List<Point3D_F64> points = UtilPoint3D_F64.random(-1, 1, 1000, rand);
+		points.add(new Point3D_F64(0, 0, 0));
+		points.add(new Point3D_F64(0.5, 0.25, 0.25));
+
+		for( double voxelSize : new double[]{0.05, 0.3, 5} ) {
+			VoxelGrid3D_F64 alg = new VoxelGrid3D_F64(voxelSize);
+			alg.addAll(new PointCloud3D_F64(points));
+
+			GrowQueue_I32 found = new GrowQueue_I32();
+			for( int trial = 0; trial < 50; trial++ ) {
+				double x = rand.nextDouble()*2 - 1.2, y = rand.nextDouble()*2 - 1.2, z = rand.nextDouble()*2 - 1.2;
+				Box3D_F64 box = new Box3D_F64(x, y, z, x + rand.nextDouble(), y + rand.nextDouble(), z + rand.nextDouble());
+				if( trial == 0 )
+					box.set(0, 0, 0, 0.5, 0.5, 0.5);
+
+				alg.findContained(box, found);
+				assertArrayEquals(TestOctree3D_F64.bruteForce(points, box), TestOctree3D_F64.sort(found));
+			}
+		}
+	}
+
+	@Test
+	public void findContained_notSaved() {
+		VoxelGrid3D_F64 alg = new VoxelGrid3D_F64(1, false);
+		alg.add(0, 0, 0);
+		try {
+			alg.findContained(new Box3D_F64(-1, -1, -1, 1, 1, 1), new GrowQueue_I32());
+			fail("Exception expected");
+		} catch( IllegalStateException ignore ) {}
+	}
+
+	/**
+	 * Points outside the grid's range shouldn't be matched to the voxel on the boundary
+	 */
+	@Test
+	public void findVoxel_outside() {
+		int max = VoxelGrid3D_F64.MAX_COORDINATE;
+
+		VoxelGrid3D_F64 alg = new VoxelGrid3D_F64(1);
+		int upper = alg.add(max - 0.5, 0.5, 0.5);
+		int lower = alg.add(-max + 0.5, 0.5, 0.5);
+		int origin = alg.add(0.5, 0.5, 0.5);
+
+		assertEquals(upper, alg.findVoxel(max - 0.1, 0.1, 0.1));
+		assertEquals(lower, alg.findVoxel(-max, 0.1, 0.1));
+		assertEquals(origin, alg.findVoxel(0.1, 0.1, 0.1));
+
+		assertEquals(-1, alg.findVoxel(max, 0.5, 0.5));
+		assertEquals(-1, alg.findVoxel(10.0*max, 0.5, 0.5));
+		assertEquals(-1, alg.findVoxel(-max - 0.5, 0.5, 0.5));
+		assertEquals(-1, alg.findVoxel(Double.NaN, 0.5, 0.5));
+		assertEquals(-1, alg.findVoxel(0.5, Double.POSITIVE_INFINITY, 0.5));
+	}
+
+	@Test
+	public void reset() {
+		VoxelGrid3D_F64 alg = new VoxelGrid3D_F64(1);
+		alg.addAll(UtilPoint3D_F64.random(-10, 10, 100, rand));
+		alg.reset();
+		assertEquals(0, alg.getNumVoxels());
+		assertEquals(0, alg.getNumPoints());
+		assertEquals(-1, alg.findVoxel(0, 0, 0));
+
+		assertEquals(0, alg.add(new Point3D_F64(1, 2, 3)));
+		PointCloud3D_F64 output = new PointCloud3D_F64();
+		alg.computeCentroids(output);
+		assertEquals(1, output.size);
+		List<Point3D_F64> list = output.toList(new ArrayList<Point3D_F64>());
+		assertEquals(0, list.get(0).distance(new Point3D_F64(1, 2, 3)), GrlConstants.DOUBLE_TEST_TOL);
+	}
+}
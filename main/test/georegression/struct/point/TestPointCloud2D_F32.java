@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.point;
+
+import georegression.geometry.UtilPoint2D_F32;
+import georegression.misc.GrlConstants;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPointCloud2D_F32 {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void constructor_list() {
+		List<Point2D_F32> list = UtilPoint2D_F32.random(-1, 1, 15, rand);
+
+		PointCloud2D_F32 alg = new PointCloud2D_F32(list);
+
+		assertEquals(15, alg.size);
+		checkSame(list, alg);
+	}
+
+	@Test
+	public void reserve() {
+		PointCloud2D_F32 alg = new PointCloud2D_F32(2);
+		alg.add(1, 2);
+		alg.add(4, 5);
+
+		alg.reserve(1);
+		assertEquals(2, alg.getCapacity());
+
+		alg.reserve(20);
+		assertEquals(20, alg.getCapacity());
+		assertEquals(2, alg.size);
+
+		// existing points should be saved
+		assertTrue(alg.get(0, null).isIdentical(1, 2));
+		assertTrue(alg.get(1, null).isIdentical(4, 5));
+	}
+
+	@Test
+	public void resize() {
+		PointCloud2D_F32 alg = new PointCloud2D_F32(2);
+		alg.resize(25);
+		assertEquals(25, alg.size);
+		assertTrue(alg.getCapacity() >= 25);
+	}
+
+	@Test
+	public void add() {
+		PointCloud2D_F32 alg = new PointCloud2D_F32(0);
+
+		// adding points should cause it to grow
+		for( int i = 0; i < 30; i++ ) {
+			alg.add(i, i+1);
+		}
+		alg.add(new Point2D_F32(1, 2));
+
+		assertEquals(31, alg.size);
+		for( int i = 0; i < 30; i++ ) {
+			assertTrue(alg.get(i, null).isIdentical(i, i+1));
+		}
+		assertTrue(alg.get(30, null).isIdentical(1, 2));
+	}
+
+	@Test
+	public void growCapacity() {
+		assertEquals(10, PointCloud2D_F32.growCapacity(0));
+		assertEquals(10, PointCloud2D_F32.growCapacity(5));
+		assertEquals(150, PointCloud2D_F32.growCapacity(100));
+
+		// it should be clamped instead of overflowing
+		int max = PointCloud2D_F32.MAX_CAPACITY;
+		assertEquals(max, PointCloud2D_F32.growCapacity(1500000000));
+		assertEquals(max, PointCloud2D_F32.growCapacity(max-1));
+		try {
+			PointCloud2D_F32.growCapacity(max);
+			fail("Expected an exception");
+		} catch( IllegalStateException ignore ) {}
+	}
+
+	@Test
+	public void addAll() {
+		List<Point2D_F32> list = UtilPoint2D_F32.random(-1, 1, 15, rand);
+
+		PointCloud2D_F32 alg = new PointCloud2D_F32(2);
+		alg.add(1, 2);
+		alg.addAll(list);
+
+		assertEquals(16, alg.size);
+		assertTrue(alg.get(0, null).isIdentical(1, 2));
+		for( int i = 0; i < list.size(); i++ ) {
+			assertTrue(alg.get(i+1, null).isIdentical(list.get(i), GrlConstants.FLOAT_TEST_TOL));
+		}
+	}
+
+	@Test
+	public void set_index() {
+		PointCloud2D_F32 alg = new PointCloud2D_F32();
+		alg.resize(3);
+
+		alg.set(1, 4, 5);
+		assertTrue(alg.get(1, null).isIdentical(4, 5));
+
+		alg.set(2, new Point2D_F32(7, 8));
+		assertTrue(alg.get(2, null).isIdentical(7, 8));
+	}
+
+	@Test
+	public void set_cloud() {
+		PointCloud2D_F32 src = new PointCloud2D_F32(UtilPoint2D_F32.random(-1, 1, 15, rand));
+
+		PointCloud2D_F32 alg = new PointCloud2D_F32(2);
+		alg.set(src);
+
+		assertEquals(src.size, alg.size);
+		checkSame(src.toList(null), alg);
+	}
+
+	@Test
+	public void get() {
+		PointCloud2D_F32 alg = new PointCloud2D_F32();
+		alg.add(1, 2);
+
+		Point2D_F32 storage = new Point2D_F32();
+		assertTrue(storage == alg.get(0, storage));
+		assertTrue(storage.isIdentical(1, 2));
+	}
+
+	@Test
+	public void toList() {
+		List<Point2D_F32> list = UtilPoint2D_F32.random(-1, 1, 15, rand);
+		PointCloud2D_F32 alg = new PointCloud2D_F32(list);
+
+		List<Point2D_F32> found = alg.toList(null);
+		assertEquals(15, found.size());
+		checkSame(found, alg);
+
+		// should clear the list first
+		alg.toList(found);
+		assertEquals(15, found.size());
+	}
+
+	@Test
+	public void copy() {
+		PointCloud2D_F32 alg = new PointCloud2D_F32(UtilPoint2D_F32.random(-1, 1, 15, rand));
+		PointCloud2D_F32 found = alg.copy();
+
+		assertTrue(found.x != alg.x);
+		checkSame(alg.toList(null), found);
+	}
+
+	@Test
+	public void reset() {
+		PointCloud2D_F32 alg = new PointCloud2D_F32(UtilPoint2D_F32.random(-1, 1, 15, rand));
+		alg.reset();
+		assertEquals(0, alg.size());
+	}
+
+	private void checkSame( List<Point2D_F32> expected , PointCloud2D_F32 found ) {
+		assertEquals(expected.size(), found.size());
+		for( int i = 0; i < expected.size(); i++ ) {
+			Point2D_F32 p = expected.get(i);
+			assertEquals(p.x, found.x[i], 0);
+			assertEquals(p.y, found.y[i], 0);
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2011-2015, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Geometric Regression Library (GeoRegression).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package georegression.struct.point;
+
+import georegression.misc.GrlConstants;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPointCloudCursor3D_F32 {
+
+	@Test
+	public void next() {
+		PointCloud3D_F32 cloud = createCloud();
+
+		PointCloudCursor3D_F32 alg = cloud.cursor();
+
+		int total = 0;
+		while( alg.next() ) {
+			assertEquals(total, alg.getPosition());
+			assertEquals(cloud.x[total], alg.getX(), 0);
+			assertEquals(cloud.y[total], alg.getY(), 0);
+			assertEquals(cloud.z[total], alg.getZ(), 0);
+			total++;
+		}
+		assertEquals(cloud.size, total);
+
+		// go through it again
+		alg.reset();
+		assertTrue(alg.next());
+		assertEquals(0, alg.getPosition());
+	}
+
+	@Test
+	public void setCloud() {
+		PointCloudCursor3D_F32 alg = new PointCloudCursor3D_F32();
+		PointCloud3D_F32 cloud = createCloud();
+
+		alg.setCloud(cloud);
+		assertTrue(cloud == alg.getCloud());
+		assertTrue(alg.next());
+		assertEquals(0, alg.getPosition());
+	}
+
+	@Test
+	public void set_get() {
+		PointCloud3D_F32 cloud = createCloud();
+		PointCloudCursor3D_F32 alg = cloud.cursor();
+		alg.setPosition(2);
+
+		alg.set(7, 8, 9);
+		assertTrue(cloud.get(2, null).isIdentical(7, 8, 9));
+
+		alg.set(new Point3D_F32(-1, -2, -3));
+		assertTrue(cloud.get(2, null).isIdentical(-1, -2, -3));
+
+		alg.setX(4);
+		alg.setY(5);
+		alg.setZ(6);
+		assertTrue(cloud.get(2, null).isIdentical(4, 5, 6));
+
+		Vector3D_F32 found = alg.get(new Vector3D_F32());
+		assertTrue(found.isIdentical(4, 5, 6));
+
+		// other points should not be modified
+		assertTrue(cloud.get(1, null).isIdentical(1, 2, 3));
+	}
+
+	@Test
+	public void getIndex_setIndex() {
+		PointCloud3D_F32 cloud = createCloud();
+		PointCloudCursor3D_F32 alg = cloud.cursor();
+		alg.setPosition(1);
+
+		assertEquals(1, alg.getIndex(0), 0);
+		assertEquals(2, alg.getIndex(1), 0);
+		assertEquals(3, alg.getIndex(2), 0);
+
+		alg.setIndex(0, 7);
+		alg.setIndex(1, 8);
+		alg.setIndex(2, 9);
+		assertTrue(cloud.get(1, null).isIdentical(7, 8, 9));
+	}
+
+	@Test
+	public void isIdentical() {
+		PointCloud3D_F32 cloud = createCloud();
+		PointCloudCursor3D_F32 alg = cloud.cursor();
+		alg.setPosition(1);
+
+		assertTrue(alg.isIdentical(1, 2, 3, GrlConstants.FLOAT_TEST_TOL));
+		assertFalse(alg.isIdentical(1, 2.1f, 3, GrlConstants.FLOAT_TEST_TOL));
+		assertTrue(alg.isIdentical(new Point3D_F32(1, 2, 3.05f), 0.1f));
+		assertFalse(alg.isIdentical(new Point3D_F32(1, 2, 3.05f), 0.01f));
+	}
+
+	@Test
+	public void plusIP_scale() {
+		PointCloud3D_F32 cloud = createCloud();
+		PointCloudCursor3D_F32 alg = cloud.cursor();
+		alg.setPosition(1);
+
+		alg.plusIP(new Point3D_F32(1, 1, 1));
+		assertTrue(cloud.get(1, null).isIdentical(2, 3, 4));
+
+		alg.scale(2);
+		assertTrue(cloud.get(1, null).isIdentical(4, 6, 8));
+	}
+
+	@Test
+	public void norm_distance() {
+		PointCloud3D_F32 cloud = createCloud();
+		PointCloudCursor3D_F32 alg = cloud.cursor();
+		alg.setPosition(1);
+
+		Point3D_F32 p = new Point3D_F32(1, 2, 3);
+		Point3D_F32 q = new Point3D_F32(-1, 0.5f, 2);
+
+		assertEquals(p.norm(), alg.norm(), GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(p.normSq(), alg.normSq(), GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(p.distance(q), alg.distance(q), GrlConstants.FLOAT_TEST_TOL);
+		assertEquals(p.distance2(q), alg.distance2(q), GrlConstants.FLOAT_TEST_TOL);
+	}
+
+	private PointCloud3D_F32 createCloud() {
+		PointCloud3D_F32 cloud = new PointCloud3D_F32();
+		cloud.add(0, 1, 2);
+		cloud.add(1, 2, 3);
+		cloud.add(2, 3, 4);
+		cloud.add(3, 4, 5);
+		return cloud;
+	}
+}
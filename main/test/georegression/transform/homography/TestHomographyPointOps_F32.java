@@ -19,13 +19,17 @@
 package georegression.transform.homography;
 
 import georegression.geometry.GeometryMath_F32;
+import georegression.geometry.UtilPoint2D_F32;
+import georegression.misc.ConcurrencyOps;
 import georegression.misc.GrlConstants;
 import georegression.struct.homography.Homography2D_F32;
 import georegression.struct.homography.UtilHomography;
 import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.PointCloud2D_F32;
 import org.ejml.data.DenseMatrix64F;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
@@ -36,12 +40,12 @@ import static org.junit.Assert.assertEquals;
  */
 public class TestHomographyPointOps_F32 {
 
+	Random rand = new Random(234);
+
 	DenseMatrix64F M = new DenseMatrix64F(3,3);
 	Homography2D_F32 tran = new Homography2D_F32();
 
 	public TestHomographyPointOps_F32() {
-		Random rand = new Random(234);
-		
 		tran.a11 = (float)rand.nextGaussian();
 		tran.a12 = (float)rand.nextGaussian();
 		tran.a13 = (float)rand.nextGaussian();
@@ -82,4 +86,87 @@ public class TestHomographyPointOps_F32 {
 		assertEquals(expected.x,dst.x, GrlConstants.FLOAT_TEST_TOL);
 		assertEquals(expected.y,dst.y, GrlConstants.FLOAT_TEST_TOL);
 	}
+
+	@Test
+	public void transform_interleaved() {
+		int N = 15;
+		float src[] = new float[ 2 + N*4 ];
+		float dst[] = new float[ 1 + N*3 ];
+		for( int i = 0; i < src.length; i++ )
+			src[i] = (float)rand.nextGaussian();
+
+		HomographyPointOps_F32.transform(tran, src, 2, 4, dst, 1, 3, N);
+
+		for( int i = 0; i < N; i++ ) {
+			Point2D_F32 expected = HomographyPointOps_F32.transform(tran, src[2+i*4], src[3+i*4], null);
+
+			assertEquals( expected.x, dst[1+i*3], GrlConstants.FLOAT_TEST_TOL );
+			assertEquals( expected.y, dst[2+i*3], GrlConstants.FLOAT_TEST_TOL );
+			// padding should not be modified
+			assertEquals( 0, dst[3+i*3], 0 );
+		}
+
+		// in-place
+		HomographyPointOps_F32.transform(tran, src, 2, 4, src, 2, 4, N);
+		for( int i = 0; i < N; i++ ) {
+			assertEquals( dst[1+i*3], src[2+i*4], GrlConstants.FLOAT_TEST_TOL );
+			assertEquals( dst[2+i*3], src[3+i*4], GrlConstants.FLOAT_TEST_TOL );
+		}
+	}
+
+	/**
+	 * Also checks the structure-of-arrays function since that's what the cloud function calls
+	 */
+	@Test
+	public void transform_cloud() {
+		List<Point2D_F32> list = UtilPoint2D_F32.random(-5, 5, 20, rand);
+		PointCloud2D_F32 src = new PointCloud2D_F32(list);
+		PointCloud2D_F32 dst = new PointCloud2D_F32(2);
+
+		HomographyPointOps_F32.transform(tran, src, dst);
+
+		assertEquals( list.size(), dst.size );
+		for( int i = 0; i < list.size(); i++ ) {
+			Point2D_F32 expected = HomographyPointOps_F32.transform(tran, list.get(i), null);
+
+			assertEquals( expected.x, dst.x[i], GrlConstants.FLOAT_TEST_TOL );
+			assertEquals( expected.y, dst.y[i], GrlConstants.FLOAT_TEST_TOL );
+		}
+	}
+
+	@Test
+	public void transformConcurrent() {
+		int original = ConcurrencyOps.getThreshold();
+		try {
+			ConcurrencyOps.setThreshold(10);
+
+			int N = 1000;
+			float src[] = new float[ 1 + N*3 ];
+			for( int i = 0; i < src.length; i++ )
+				src[i] = (float)rand.nextGaussian();
+
+			float expected[] = new float[ src.length ];
+			float found[] = new float[ src.length ];
+			HomographyPointOps_F32.transform(tran, src, 1, 3, expected, 1, 3, N);
+			HomographyPointOps_F32.transformConcurrent(tran, src, 1, 3, found, 1, 3, N);
+
+			for( int i = 0; i < src.length; i++ ) {
+				assertEquals( expected[i], found[i], 0 );
+			}
+
+			PointCloud2D_F32 cloud = new PointCloud2D_F32(UtilPoint2D_F32.random(-5, 5, N, rand));
+			PointCloud2D_F32 cloudExpected = new PointCloud2D_F32();
+			PointCloud2D_F32 cloudFound = new PointCloud2D_F32();
+			HomographyPointOps_F32.transform(tran, cloud, cloudExpected);
+			HomographyPointOps_F32.transformConcurrent(tran, cloud, cloudFound);
+
+			assertEquals( N, cloudFound.size );
+			for( int i = 0; i < N; i++ ) {
+				assertEquals( cloudExpected.x[i], cloudFound.x[i], 0 );
+				assertEquals( cloudExpected.y[i], cloudFound.y[i], 0 );
+			}
+		} finally {
+			ConcurrencyOps.setThreshold(original);
+		}
+	}
 }
@@ -19,17 +19,24 @@
 package georegression.transform.se;
 
 import georegression.geometry.RotationMatrixGenerator;
+import georegression.geometry.UtilPoint2D_F64;
+import georegression.geometry.UtilPoint3D_F64;
+import georegression.misc.ConcurrencyOps;
 import georegression.misc.GrlConstants;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point3D_F64;
+import georegression.struct.point.PointCloud2D_F64;
+import georegression.struct.point.PointCloud3D_F64;
 import georegression.struct.point.Vector3D_F64;
 import georegression.struct.se.Se2_F64;
 import georegression.struct.se.Se3_F64;
+import georegression.struct.se.SpecialEuclideanOps_F64;
 import org.ejml.data.DenseMatrix64F;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -38,6 +45,8 @@ import static org.junit.Assert.assertEquals;
  */
 public class TestSePointOps_F64 {
 
+	Random rand = new Random(234);
+
 	@Test
 	public void transform_2d_single() {
 		Se2_F64 tran = new Se2_F64( -2, 3, Math.PI );
@@ -161,4 +170,274 @@ public class TestSePointOps_F64 {
 		assertEquals( 7, Pt.getY(), GrlConstants.DOUBLE_TEST_TOL );
 		assertEquals( 9, Pt.getZ(), GrlConstants.DOUBLE_TEST_TOL );
 	}
+
+	@Test
+	public void transform_2d_interleaved() {
+		checkInterleaved2D(false);
+	}
+
+	@Test
+	public void transformReverse_2d_interleaved() {
+		checkInterleaved2D(true);
+	}
+
+	private void checkInterleaved2D( boolean reverse ) {
+		Se2_F64 tran = new Se2_F64( -2, 3, 0.4 );
+
+		int N = 15;
+		double src[] = new double[ 2 + N*4 ];
+		double dst[] = new double[ 1 + N*3 ];
+		for( int i = 0; i < src.length; i++ )
+			src[i] = rand.nextGaussian();
+		double orig[] = src.clone();
+
+		if( reverse )
+			SePointOps_F64.transformReverse(tran, src, 2, 4, dst, 1, 3, N);
+		else
+			SePointOps_F64.transform(tran, src, 2, 4, dst, 1, 3, N);
+
+		for( int i = 0; i < N; i++ ) {
+			Point2D_F64 p = new Point2D_F64(src[2+i*4],src[3+i*4]);
+			Point2D_F64 expected = reverse ? SePointOps_F64.transformReverse(tran, p, null) :
+					SePointOps_F64.transform(tran, p, null);
+
+			assertEquals( expected.x, dst[1+i*3], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( expected.y, dst[2+i*3], GrlConstants.DOUBLE_TEST_TOL );
+			// padding should not be modified
+			assertEquals( 0, dst[3+i*3], 0 );
+		}
+
+		// in-place
+		if( reverse )
+			SePointOps_F64.transformReverse(tran, src, 2, 4, src, 2, 4, N);
+		else
+			SePointOps_F64.transform(tran, src, 2, 4, src, 2, 4, N);
+
+		for( int i = 0; i < N; i++ ) {
+			assertEquals( dst[1+i*3], src[2+i*4], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( dst[2+i*3], src[3+i*4], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( orig[4+i*4], src[4+i*4], 0 );
+		}
+	}
+
+	@Test
+	public void transform_2d_cloud() {
+		checkCloud2D(false);
+	}
+
+	@Test
+	public void transformReverse_2d_cloud() {
+		checkCloud2D(true);
+	}
+
+	/**
+	 * Also checks the structure-of-arrays functions since that's what the cloud functions call
+	 */
+	private void checkCloud2D( boolean reverse ) {
+		Se2_F64 tran = new Se2_F64( -2, 3, 0.4 );
+
+		List<Point2D_F64> list = UtilPoint2D_F64.random(-5, 5, 20, rand);
+		PointCloud2D_F64 src = new PointCloud2D_F64(list);
+		PointCloud2D_F64 dst = new PointCloud2D_F64(2);
+
+		if( reverse )
+			SePointOps_F64.transformReverse(tran, src, dst);
+		else
+			SePointOps_F64.transform(tran, src, dst);
+
+		assertEquals( list.size(), dst.size );
+		for( int i = 0; i < list.size(); i++ ) {
+			Point2D_F64 expected = reverse ? SePointOps_F64.transformReverse(tran, list.get(i), null) :
+					SePointOps_F64.transform(tran, list.get(i), null);
+
+			assertEquals( expected.x, dst.x[i], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( expected.y, dst.y[i], GrlConstants.DOUBLE_TEST_TOL );
+		}
+
+		// in-place
+		if( reverse )
+			SePointOps_F64.transformReverse(tran, src, src);
+		else
+			SePointOps_F64.transform(tran, src, src);
+
+		for( int i = 0; i < list.size(); i++ ) {
+			assertEquals( dst.x[i], src.x[i], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( dst.y[i], src.y[i], GrlConstants.DOUBLE_TEST_TOL );
+		}
+	}
+
+	@Test
+	public void transform_3d_interleaved() {
+		checkInterleaved3D(false);
+	}
+
+	@Test
+	public void transformReverse_3d_interleaved() {
+		checkInterleaved3D(true);
+	}
+
+	private void checkInterleaved3D( boolean reverse ) {
+		Se3_F64 tran = SpecialEuclideanOps_F64.setEulerXYZ(0.1, -0.2, 0.3, 1, -2, 3, null);
+
+		int N = 15;
+		double src[] = new double[ 2 + N*5 ];
+		double dst[] = new double[ 1 + N*4 ];
+		for( int i = 0; i < src.length; i++ )
+			src[i] = rand.nextGaussian();
+		double orig[] = src.clone();
+
+		if( reverse )
+			SePointOps_F64.transformReverse(tran, src, 2, 5, dst, 1, 4, N);
+		else
+			SePointOps_F64.transform(tran, src, 2, 5, dst, 1, 4, N);
+
+		for( int i = 0; i < N; i++ ) {
+			Point3D_F64 p = new Point3D_F64(src[2+i*5],src[3+i*5],src[4+i*5]);
+			Point3D_F64 expected = reverse ? SePointOps_F64.transformReverse(tran, p, null) :
+					SePointOps_F64.transform(tran, p, null);
+
+			assertEquals( expected.x, dst[1+i*4], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( expected.y, dst[2+i*4], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( expected.z, dst[3+i*4], GrlConstants.DOUBLE_TEST_TOL );
+			// padding should not be modified
+			assertEquals( 0, dst[4+i*4], 0 );
+		}
+
+		// in-place
+		if( reverse )
+			SePointOps_F64.transformReverse(tran, src, 2, 5, src, 2, 5, N);
+		else
+			SePointOps_F64.transform(tran, src, 2, 5, src, 2, 5, N);
+
+		for( int i = 0; i < N; i++ ) {
+			assertEquals( dst[1+i*4], src[2+i*5], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( dst[2+i*4], src[3+i*5], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( dst[3+i*4], src[4+i*5], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( orig[5+i*5], src[5+i*5], 0 );
+		}
+	}
+
+	@Test
+	public void transform_3d_cloud() {
+		checkCloud3D(false);
+	}
+
+	@Test
+	public void transformReverse_3d_cloud() {
+		checkCloud3D(true);
+	}
+
+	/**
+	 * Also checks the structure-of-arrays functions since that's what the cloud functions call
+	 */
+	private void checkCloud3D( boolean reverse ) {
+		Se3_F64 tran = SpecialEuclideanOps_F64.setEulerXYZ(0.1, -0.2, 0.3, 1, -2, 3, null);
+
+		List<Point3D_F64> list = UtilPoint3D_F64.random(-5, 5, 20, rand);
+		PointCloud3D_F64 src = new PointCloud3D_F64(list);
+		PointCloud3D_F64 dst = new PointCloud3D_F64(2);
+
+		if( reverse )
+			SePointOps_F64.transformReverse(tran, src, dst);
+		else
+			SePointOps_F64.transform(tran, src, dst);
+
+		assertEquals( list.size(), dst.size );
+		for( int i = 0; i < list.size(); i++ ) {
+			Point3D_F64 expected = reverse ? SePointOps_F64.transformReverse(tran, list.get(i), null) :
+					SePointOps_F64.transform(tran, list.get(i), null);
+
+			assertEquals( expected.x, dst.x[i], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( expected.y, dst.y[i], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( expected.z, dst.z[i], GrlConstants.DOUBLE_TEST_TOL );
+		}
+
+		// in-place
+		if( reverse )
+			SePointOps_F64.transformReverse(tran, src, src);
+		else
+			SePointOps_F64.transform(tran, src, src);
+
+		for( int i = 0; i < list.size(); i++ ) {
+			assertEquals( dst.x[i], src.x[i], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( dst.y[i], src.y[i], GrlConstants.DOUBLE_TEST_TOL );
+			assertEquals( dst.z[i], src.z[i], GrlConstants.DOUBLE_TEST_TOL );
+		}
+	}
+
+	/**
+	 * The concurrent functions should produce the same results as the single threaded functions
+	 */
+	@Test
+	public void transformConcurrent() {
+		int original = ConcurrencyOps.getThreshold();
+		try {
+			ConcurrencyOps.setThreshold(10);
+
+			Se2_F64 se2 = new Se2_F64( -2, 3, 0.4 );
+			Se3_F64 se3 = SpecialEuclideanOps_F64.setEulerXYZ(0.1, -0.2, 0.3, 1, -2, 3, null);
+
+			int N = 1000;
+			double src[] = new double[ 1 + N*4 ];
+			for( int i = 0; i < src.length; i++ )
+				src[i] = rand.nextGaussian();
+
+			double expected[] = new double[ src.length ];
+			double found[] = new double[ src.length ];
+
+			SePointOps_F64.transform(se2, src, 1, 4, expected, 1, 4, N);
+			SePointOps_F64.transformConcurrent(se2, src, 1, 4, found, 1, 4, N);
+			checkIdentical(expected, found);
+
+			SePointOps_F64.transformReverse(se2, src, 1, 4, expected, 1, 4, N);
+			SePointOps_F64.transformReverseConcurrent(se2, src, 1, 4, found, 1, 4, N);
+			checkIdentical(expected, found);
+
+			SePointOps_F64.transform(se3, src, 1, 4, expected, 1, 4, N);
+			SePointOps_F64.transformConcurrent(se3, src, 1, 4, found, 1, 4, N);
+			checkIdentical(expected, found);
+
+			SePointOps_F64.transformReverse(se3, src, 1, 4, expected, 1, 4, N);
+			SePointOps_F64.transformReverseConcurrent(se3, src, 1, 4, found, 1, 4, N);
+			checkIdentical(expected, found);
+
+			PointCloud2D_F64 cloud2 = new PointCloud2D_F64(UtilPoint2D_F64.random(-5, 5, N, rand));
+			PointCloud2D_F64 expected2 = new PointCloud2D_F64();
+			PointCloud2D_F64 found2 = new PointCloud2D_F64();
+
+			SePointOps_F64.transform(se2, cloud2, expected2);
+			SePointOps_F64.transformConcurrent(se2, cloud2, found2);
+			checkIdentical(expected2.x, found2.x);
+			checkIdentical(expected2.y, found2.y);
+
+			SePointOps_F64.transformReverse(se2, cloud2, expected2);
+			SePointOps_F64.transformReverseConcurrent(se2, cloud2, found2);
+			checkIdentical(expected2.x, found2.x);
+			checkIdentical(expected2.y, found2.y);
+
+			PointCloud3D_F64 cloud3 = new PointCloud3D_F64(UtilPoint3D_F64.random(-5, 5, N, rand));
+			PointCloud3D_F64 expected3 = new PointCloud3D_F64();
+			PointCloud3D_F64 found3 = new PointCloud3D_F64();
+
+			SePointOps_F64.transform(se3, cloud3, expected3);
+			SePointOps_F64.transformConcurrent(se3, cloud3, found3);
+			checkIdentical(expected3.x, found3.x);
+			checkIdentical(expected3.y, found3.y);
+			checkIdentical(expected3.z, found3.z);
+
+			SePointOps_F64.transformReverse(se3, cloud3, expected3);
+			SePointOps_F64.transformReverseConcurrent(se3, cloud3, found3);
+			checkIdentical(expected3.x, found3.x);
+			checkIdentical(expected3.y, found3.y);
+			checkIdentical(expected3.z, found3.z);
+		} finally {
+			ConcurrencyOps.setThreshold(original);
+		}
+	}
+
+	private void checkIdentical( double expected[] , double found[] ) {
+		for( int i = 0; i < expected.length; i++ ) {
+			assertEquals( expected[i], found[i], 0 );
+		}
+	}
 }